@@ -25,6 +25,27 @@ public class FieldNames {
 
   public static final String FORM_STABLE_ID = "formStableId";
 
+  // Owner username plus every user/group unique name in a BaseRecord's sharing ACL, indexed by
+  // ReadPrincipalsBinder so that permission filtering can happen in the query
+  public static final String READ_PRINCIPALS = "readPrincipals";
+
+  /*
+   * fields indexed on every BaseRecord by RecordSortFieldsBinder so that ELN search results can be
+   * filtered, sorted and paged in the index
+   */
+  public static final String SORT_NAME = "name_sort";
+
+  public static final String SORT_CREATION_DATE = "creationDate_sort";
+
+  public static final String SORT_MODIFICATION_DATE = "modificationDate_sort";
+
+  public static final String RECORD_ID = "recordId";
+
+  public static final String IS_TEMPLATE = "isTemplate";
+
+  // deleted or invisible records, which are never returned by ELN search
+  public static final String HIDDEN_FROM_SEARCH = "hiddenFromSearch";
+
   /*
    * term names used in inventory
    */
@@ -2,6 +2,7 @@ package com.axiope.search;
 
 import java.io.File;
 import java.io.IOException;
+import org.apache.lucene.search.SearcherManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
@@ -58,6 +59,25 @@ public interface IFileIndexer {
    */
   int indexFileStore(boolean failFast) throws IOException;
 
+  /**
+   * Boolean test for whether a previous {@link #indexFileStore(boolean)} was interrupted before
+   * completing. If so, initialising with <code>init(false)</code> and calling <code>
+   * indexFileStore</code> again resumes it after the last committed file.
+   *
+   * @return <code>true</code> if there is an incomplete reindex to resume
+   * @throws IOException
+   */
+  boolean hasInterruptedReindex() throws IOException;
+
+  /**
+   * Deletes the index entries of files that no longer exist, e.g. after the index is reopened
+   * rather than rebuilt.
+   *
+   * @return the number of entries deleted
+   * @throws IOException
+   */
+  int deleteEntriesOfMissingFiles() throws IOException;
+
   /**
    * Deletes everything in the index
    *
@@ -75,6 +95,16 @@ public interface IFileIndexer {
    */
   boolean accept(File file);
 
+  /**
+   * Gets the near-real-time searcher manager opened on this indexer's writer, which is refreshed on
+   * every commit. Searches should acquire and release searchers from this rather than opening the
+   * index themselves.
+   *
+   * @return the {@link SearcherManager}, or <code>null</code> if this indexer is not initialised or
+   *     does not maintain a local index.
+   */
+  SearcherManager getSearcherManager();
+
   /** A no-op indexer implementation that just logs calls but performs no action */
   IFileIndexer NOOP_INDEXER =
       new IFileIndexer() {
@@ -112,6 +142,16 @@ public interface IFileIndexer {
           return 0;
         }
 
+        @Override
+        public boolean hasInterruptedReindex() throws IOException {
+          return false;
+        }
+
+        @Override
+        public int deleteEntriesOfMissingFiles() throws IOException {
+          return 0;
+        }
+
         @Override
         public void deleteAll() throws IOException {
           logger.info("no-op delete all");
@@ -127,5 +167,10 @@ public interface IFileIndexer {
           logger.info("no-op not accepting file");
           return false;
         }
+
+        @Override
+        public SearcherManager getSearcherManager() {
+          return null;
+        }
       };
 }
@@ -29,6 +29,19 @@ public abstract class SearchConfig implements IFullTextSearchConfig {
   private SearchOperator operator = SearchOperator.AND;
   private List<String> usernameFilter = new ArrayList<>();
   private List<String> sharedWithFilter = new ArrayList<>();
+
+  /**
+   * Principals (the searching user's username and their groups' unique names) matched against the
+   * indexed read principals of records. If not empty, records are matched by owner only for the
+   * owners in {@link #roleViewableUsernameFilter}, and otherwise only if they are shared with one
+   * of these principals. Published records are not matched through the anonymous user, as they
+   * are not readable in the workspace of users they aren't shared with.
+   */
+  private List<String> readPrincipalFilter = new ArrayList<>();
+
+  /** Owners all of whose records the searching user can read because of their role. */
+  private List<String> roleViewableUsernameFilter = new ArrayList<>();
+
   private boolean restrictByUser = true;
 
   // default can be set for testing
@@ -4,7 +4,9 @@ import com.researchspace.core.util.SortOrder;
 import com.researchspace.model.PaginationCriteria;
 import com.researchspace.model.inventory.InventoryRecord;
 import com.researchspace.model.record.BaseRecord;
+import com.researchspace.search.impl.RecordSortFieldsBinder;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 public class SearchUtils {
@@ -49,9 +51,11 @@ public class SearchUtils {
 
   private static <T extends BaseRecord> List<T> sortByOrderByField(
       List<T> list, String orderBy, SortOrder sortOrder) {
-    // Compare BaseRecord.name
+    // Compare BaseRecord.name ignoring case, as ELN search results sorted in the index are
     if (orderBy.equalsIgnoreCase(ORDER_BY_NAME)) {
-      list.sort(BaseRecord.NAME_COMPARATOR.thenComparing(BaseRecord.MODIFICATION_DATE_COMPARATOR));
+      list.sort(
+          Comparator.<T, String>comparing(RecordSortFieldsBinder::getSortName)
+              .thenComparing(BaseRecord.MODIFICATION_DATE_COMPARATOR));
       // Compare BaseRecord.modificationDate
     } else if (orderBy.equalsIgnoreCase(BASE_RECORD_ORDER_BY_LAST_MODIFIED)) {
       list.sort(BaseRecord.MODIFICATION_DATE_COMPARATOR);
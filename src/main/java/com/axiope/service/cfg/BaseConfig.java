@@ -17,6 +17,8 @@ import com.researchspace.auth.ManualLoginHelperImpl;
 import com.researchspace.auth.PostOAuthLoginHelperImpl;
 import com.researchspace.auth.WhiteListIPChecker;
 import com.researchspace.auth.WhiteListIPCheckerImpl;
+import com.researchspace.client.HttpClientFactory;
+import com.researchspace.comms.NotificationDispatcher;
 import com.researchspace.core.util.ResponseUtil;
 import com.researchspace.dataverse.api.v1.DataverseAPI;
 import com.researchspace.dataverse.http.DataverseAPIImpl;
@@ -97,6 +99,7 @@ import com.researchspace.service.ImageProcessor;
 import com.researchspace.service.IntegrationsHandler;
 import com.researchspace.service.JsonMessageSource;
 import com.researchspace.service.MessageOrRequestCreatorManager;
+import com.researchspace.service.NotificationOutboxManager;
 import com.researchspace.service.PiChangeHandler;
 import com.researchspace.service.PostAnyLoginAction;
 import com.researchspace.service.PostFirstLoginAction;
@@ -142,11 +145,14 @@ import com.researchspace.service.archive.export.MessageArchiveDataHandler;
 import com.researchspace.service.archive.export.StandardPostExportCompletionImpl;
 import com.researchspace.service.archive.export.UserArchiveDataHandler;
 import com.researchspace.service.archive.export.XMLArchiveExportManagerServiceImpl;
+import com.researchspace.service.audit.search.AuditEventIndexer;
 import com.researchspace.service.audit.search.AuditTrailHandler;
 import com.researchspace.service.audit.search.AuditTrailHandlerImpl;
 import com.researchspace.service.audit.search.BasicLogQuerySearcher;
 import com.researchspace.service.audit.search.IAuditFileSearch;
+import com.researchspace.service.audit.search.IAuditTrailSearch;
 import com.researchspace.service.audit.search.ILogResourceTracker;
+import com.researchspace.service.audit.search.IndexedAuditTrailSearch;
 import com.researchspace.service.audit.search.LogFileTracker;
 import com.researchspace.service.audit.search.LogLineContentProvider;
 import com.researchspace.service.audit.search.LogLineContentProviderImpl;
@@ -187,6 +193,7 @@ import com.researchspace.service.impl.ExportUtils;
 import com.researchspace.service.impl.ExternalMessageHandlerImpl;
 import com.researchspace.service.impl.ExternalOauthUserSignupPolicy;
 import com.researchspace.service.impl.FieldLinksEntitySyncImpl;
+import com.researchspace.service.impl.FileStoreDeduplicationInitialisor;
 import com.researchspace.service.impl.FileStoreRootDetector;
 import com.researchspace.service.impl.GroupSharedSnippetsFolderAppInitialiser;
 import com.researchspace.service.impl.ImageProcessorImpl;
@@ -201,6 +208,7 @@ import com.researchspace.service.impl.MessageAndNotificationTracker;
 import com.researchspace.service.impl.MessageOrRequestCreatorManagerImpl;
 import com.researchspace.service.impl.MovePermissionChecker;
 import com.researchspace.service.impl.MultipleSharesPermittedDocSharedStatusCalculatorImpl;
+import com.researchspace.service.impl.NotificationOutboxManagerImpl;
 import com.researchspace.service.impl.OperateAsUserLookup;
 import com.researchspace.service.impl.PiChangeHandlerImpl;
 import com.researchspace.service.impl.PostLoginHandlerImpl;
@@ -220,6 +228,7 @@ import com.researchspace.service.inventory.impl.RspaceToExternalProviderAdapterI
 import com.researchspace.slack.SlackMessageSender;
 import com.researchspace.snapgene.wclient.SnapgeneWSClient;
 import com.researchspace.snapgene.wclient.SnapgeneWSClientImpl;
+import com.researchspace.spring.taskexecutors.RejectionPolicy;
 import com.researchspace.webapp.controller.AuditTrailSearchResultCsvGenerator;
 import com.researchspace.webapp.controller.PaginationSettingsPreferences;
 import com.researchspace.webapp.controller.RepositoryConfigFactoryImpl;
@@ -273,10 +282,10 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.client.RestTemplate;
@@ -301,6 +310,8 @@ public abstract class BaseConfig {
   protected @Autowired DocConverterBaseConfig baseDocConverterConfig;
   protected @Autowired DeploymentPropertyConfig deploymentPropertyConfig;
   protected @Autowired DataSource dataSource;
+  protected @Autowired TaskExecutorConfig taskExecutorConfig;
+  protected @Autowired HttpClientFactory httpClientFactory;
 
   @Value("${authorised.signup}")
   private String authorizedSignup;
@@ -359,10 +370,13 @@ public abstract class BaseConfig {
     log.info("in config {}", getClass().getName());
   }
 
-  /** Default task executor for small async jobs */
+  /**
+   * Default task executor for small async jobs, configured by 'default.taskExecutor.*'. When it's
+   * full, tasks run in the calling thread, as @Async callers don't handle rejected tasks.
+   */
   @Bean
   public TaskExecutor taskExecutor() {
-    return new SimpleAsyncTaskExecutor();
+    return taskExecutorConfig.createExecutor("default", RejectionPolicy.CALLER_RUNS);
   }
 
   @Bean
@@ -377,6 +391,21 @@ public abstract class BaseConfig {
     return searcher;
   }
 
+  /**
+   * Searches the indexed audit events where possible, otherwise the log files, see {@link
+   * IndexedAuditTrailSearch}
+   */
+  @Bean
+  @Primary
+  public IAuditTrailSearch auditTrailSearch() {
+    return new IndexedAuditTrailSearch(auditQuerySearcher());
+  }
+
+  @Bean
+  public AuditEventIndexer auditEventIndexer() {
+    return new AuditEventIndexer();
+  }
+
   @Bean
   public ILogResourceTracker logFileTracker() {
     return new LogFileTracker(logLineContentProvider());
@@ -563,6 +592,11 @@ public abstract class BaseConfig {
     return new SystemConfigurationInitialisor();
   }
 
+  @Bean
+  public IApplicationInitialisor fileStoreDeduplicator() {
+    return new FileStoreDeduplicationInitialisor();
+  }
+
   @Bean
   public PermissionFactory permissionFactory() {
     return new DefaultPermissionFactory();
@@ -832,7 +866,9 @@ public abstract class BaseConfig {
     if (!"LOCAL".equals(fileStoreType)) {
       return new EgnyteFileSearcher(fileStoreBaseUrl, fileStoreRoot, externalFileStoreLocator());
     } else {
-      return new LuceneSearchStrategy();
+      LuceneSearchStrategy luceneSearchStrategy = new LuceneSearchStrategy();
+      luceneSearchStrategy.setFileIndexer(fileIndexer());
+      return luceneSearchStrategy;
     }
   }
 
@@ -1100,6 +1136,17 @@ public abstract class BaseConfig {
     return new DevBroadCaster();
   }
 
+  /** Delivers notifications to the same broadcaster as the communication manager */
+  @Bean
+  public NotificationOutboxManager notificationOutboxManager() {
+    return new NotificationOutboxManagerImpl(List.of(broadcaster()));
+  }
+
+  @Bean
+  public NotificationDispatcher notificationDispatcher() {
+    return new NotificationDispatcher();
+  }
+
   private Integer getMaxEmailsPerSecond() {
     return maxEmailsPerSecond != null ? maxEmailsPerSecond : 5;
   }
@@ -1281,12 +1328,14 @@ public abstract class BaseConfig {
 
   @Bean
   public DMPToolDMPProvider dmpClient() {
-    return new DMPToolDMPProviderImpl(dmpbaseUrl);
+    return new DMPToolDMPProviderImpl(dmpbaseUrl, httpClientFactory.createRestTemplate("dmptool"));
   }
 
   @Bean
   public ArgosDMPProvider argosDMPProvider() {
-    return new ArgosDMPProvider(argosApiUrl);
+    ArgosDMPProvider provider = new ArgosDMPProvider(argosApiUrl);
+    provider.setRestTemplate(httpClientFactory.createRestTemplate("argos"));
+    return provider;
   }
 
   /**
@@ -1330,12 +1379,12 @@ public abstract class BaseConfig {
 
   @Bean(name = "pyrat")
   public PyratClient pyratClient() {
-    return new PyratClient();
+    return new PyratClient(httpClientFactory.createRestTemplate("pyrat"));
   }
 
   @Bean(name = "dsw")
   public DSWClient dswClient() {
-    return new DSWClient();
+    return new DSWClient(httpClientFactory.createRestTemplate("dsw"));
   }
 
   @Bean
@@ -1353,11 +1402,12 @@ public abstract class BaseConfig {
 
   @Bean
   public ChemistryClient chemistryServiceClient() {
-    return new ChemistryClient(restTemplate());
+    return new ChemistryClient(httpClientFactory.createRestTemplate("chemistry"));
   }
 
+  /** Used by {@link com.researchspace.service.impl.PubchemSearcher} */
   @Bean
   public RestTemplate restTemplate() {
-    return new RestTemplate();
+    return httpClientFactory.createRestTemplate("pubchem");
   }
 }
@@ -1,5 +1,6 @@
 package com.axiope.service.cfg;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.document.importer.ExternalFileImporter;
 import com.researchspace.document.importer.MSWordImporter;
 import com.researchspace.documentconversion.ext.AsposeAppInvoker;
@@ -44,6 +45,7 @@ public class DocConverterProdConfig {
 
   // this is needed to resolve properties set in tests.
   @Autowired Environment env;
+  @Autowired HttpClientFactory httpClientFactory;
 
   @Value("${aspose.app:}")
   private String asposeApp;
@@ -108,7 +110,11 @@ public class DocConverterProdConfig {
     try {
       URI uri = new URI(asposeWebAppUrl != null ? asposeWebAppUrl : "");
       AsposeWebAppClient webclient =
-          new AsposeWebAppClient(uri, asposeConversionChecker(), baseCfg.customerIDSupplier());
+          new AsposeWebAppClient(
+              uri,
+              asposeConversionChecker(),
+              baseCfg.customerIDSupplier(),
+              httpClientFactory.createRestTemplate("aspose"));
       return webclient;
     } catch (URISyntaxException e) {
       throw new IllegalStateException(
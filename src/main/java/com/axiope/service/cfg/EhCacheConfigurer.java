@@ -4,6 +4,7 @@ import static com.researchspace.CacheNames.RAID_CONNECTION;
 
 import com.researchspace.CacheNames;
 import com.researchspace.core.util.NumberUtils;
+import com.researchspace.export.pdf.DocumentHtmlCache;
 import javax.cache.Cache;
 import javax.cache.CacheManager;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
@@ -55,6 +56,9 @@ class EhCacheConfigurer {
   @Value("${cache.com.researchspace.model.UserPreference}")
   private String userPreferenceMaxElementsInMemory;
 
+  @Value("${cache." + DocumentHtmlCache.RENDERED_DOCUMENT_HTML_CACHE + ":}")
+  private String renderedDocumentHtmlMaxElementsInMemory;
+
   public EhCacheConfigurer() {}
 
   public void configure(CacheManager cacheManager) {
@@ -70,6 +74,10 @@ class EhCacheConfigurer {
     applyOverride(cacheManager, userGroupMaxElementsInMemory, "com.researchspace.model.UserGroup");
     applyOverride(
         cacheManager, userPreferenceMaxElementsInMemory, "com.researchspace.model.UserPreference");
+    applyOverride(
+        cacheManager,
+        renderedDocumentHtmlMaxElementsInMemory,
+        DocumentHtmlCache.RENDERED_DOCUMENT_HTML_CACHE);
   }
 
   private void applyOverride(CacheManager cacheManager, String value, String cacheName) {
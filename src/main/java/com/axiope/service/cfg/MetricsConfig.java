@@ -0,0 +1,20 @@
+package com.axiope.service.cfg;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the application-wide micrometer {@link MeterRegistry}. Components that record timings or
+ * counters should inject this rather than creating their own registry, so that all meters can be
+ * read from a single place.
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public MeterRegistry meterRegistry() {
+    return new SimpleMeterRegistry();
+  }
+}
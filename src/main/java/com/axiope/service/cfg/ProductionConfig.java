@@ -1,7 +1,5 @@
 package com.axiope.service.cfg;
 
-import static com.researchspace.spring.taskexecutors.ShiroThreadBindingSubjectThreadPoolExecutor.createNewExecutor;
-
 import com.axiope.userimport.IPostUserCreationSetUp;
 import com.axiope.userimport.NotifyUserPostUserCreate;
 import com.researchspace.admin.service.IServerlogRetriever;
@@ -25,7 +23,6 @@ import com.researchspace.service.impl.EcatMediaFactory;
 import com.researchspace.service.impl.GlobalInitManagerImpl;
 import com.researchspace.service.impl.LicenseServerChecker;
 import com.researchspace.service.impl.license.NoCheckLicenseService;
-import com.researchspace.spring.taskexecutors.ShiroThreadBindingSubjectThreadPoolExecutor;
 import com.researchspace.webapp.filter.EASERemoteUserPolicy;
 import com.researchspace.webapp.filter.MockRemoteUserPolicy;
 import com.researchspace.webapp.filter.OpenIdRemoteUserPolicy;
@@ -44,6 +41,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.Scope;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -67,8 +65,6 @@ public class ProductionConfig extends BaseConfig {
   @Value("${figshare.licenses.path}")
   private Path figshareLicensesPath;
 
-  private @Autowired TaskExecutorConfig taskExecutorConfig;
-
   @Bean()
   public CommunicationManager communicationManager() {
     CommunicationManagerImpl impl = new CommunicationManagerImpl();
@@ -85,59 +81,89 @@ public class ProductionConfig extends BaseConfig {
 
   @Bean(name = "indexTaskExecutor")
   TaskExecutor indexExecutor() {
-    return createNewExecutor(
+    return taskExecutorConfig.createExecutor(
+        "index",
         taskExecutorConfig.defaultTaskExecutorCore,
         taskExecutorConfig.defaultTaskExecutorMax,
-        taskExecutorConfig.indexTaskExecutorQueue);
+        5000);
   }
 
   @Bean(name = "emailTaskExecutor")
   TaskExecutor emailTaskExecutor() {
-    return createNewExecutor(
-        taskExecutorConfig.defaultTaskExecutorCore,
-        taskExecutorConfig.defaultTaskExecutorMax,
-        taskExecutorConfig.defaultTaskExecutorQueue);
+    return taskExecutorConfig.createExecutor("email");
   }
 
   @Bean(name = "archiveTaskExecutor")
   TaskExecutor archiveTaskExecutor() {
-    return createNewExecutor(
-        taskExecutorConfig.defaultTaskExecutorCore,
-        taskExecutorConfig.defaultTaskExecutorMax,
-        taskExecutorConfig.defaultTaskExecutorQueue);
+    return taskExecutorConfig.createExecutor("archive");
   }
 
   @Bean(name = "signTaskExecutor")
   TaskExecutor signTaskExecutor() {
-    return createNewExecutor(
-        taskExecutorConfig.defaultTaskExecutorCore,
-        taskExecutorConfig.defaultTaskExecutorMax,
-        taskExecutorConfig.defaultTaskExecutorQueue);
+    return taskExecutorConfig.createExecutor("sign");
   }
 
   @Bean(name = "externalFileTaskExecutor")
   TaskExecutor externalFileTaskExecutor() {
-    return createNewExecutor(
-        taskExecutorConfig.defaultTaskExecutorCore,
-        taskExecutorConfig.defaultTaskExecutorMax,
-        taskExecutorConfig.defaultTaskExecutorQueue);
+    return taskExecutorConfig.createExecutor("externalFile");
   }
 
   /** Limits number of concurrent document conversions to */
   @Bean(name = "docConverter")
   TaskExecutor docConverter() {
-    return ShiroThreadBindingSubjectThreadPoolExecutor.createNewExecutor(
-        taskExecutorConfig.docConverterTaskExecutorCore,
-        taskExecutorConfig.docConverterTaskExecutorMax,
-        taskExecutorConfig.docConverterTaskExecutorQueue);
+    return taskExecutorConfig.createExecutor("docConverter", 2, 10, 250);
   }
 
-  @Bean(name = "slackRequestExecutor")
-  TaskExecutor slackRequestExecutor() {
-    return ShiroThreadBindingSubjectThreadPoolExecutor.createNewExecutor(
+  /** Pre-generates thumbnails; tasks beyond the queue capacity are rejected, not queued */
+  @Bean(name = "thumbnailTaskExecutor")
+  TaskExecutor thumbnailTaskExecutor() {
+    return taskExecutorConfig.createExecutor(
+        "thumbnail",
         taskExecutorConfig.defaultTaskExecutorCore,
         taskExecutorConfig.defaultTaskExecutorMax,
-        taskExecutorConfig.defaultTaskExecutorQueue);
+        500);
+  }
+
+  /**
+   * Renders the documents of multi-document PDF exports while the next is prepared. Renderings
+   * that are rejected, or discarded, run in the exporting thread.
+   */
+  @Bean(name = "pdfRenderTaskExecutor")
+  AsyncTaskExecutor pdfRenderTaskExecutor() {
+    return taskExecutorConfig.createExecutor("pdfRender", 2, 4, 10);
+  }
+
+  /**
+   * Delivers notification broadcasts and count updates after commit, see NotificationDispatcher.
+   * A single thread suffices, as deliveries requested while one is running are merged into it.
+   */
+  @Bean(name = "notificationTaskExecutor")
+  TaskExecutor notificationTaskExecutor() {
+    return taskExecutorConfig.createExecutor("notification", 1, 1, 10);
+  }
+
+  /**
+   * Transfers files to and from net file stores in parallel, and prefetches folder listings, see
+   * NfsParallelTransfers and NfsFileTreeCache. Batches are also worked on by the submitting
+   * thread, so any rejection policy can be used.
+   */
+  @Bean(name = "nfsTransferTaskExecutor")
+  TaskExecutor nfsTransferTaskExecutor() {
+    return taskExecutorConfig.createExecutor("nfsTransfer", 2, 8, 20);
+  }
+
+  /**
+   * Parses the record folders of imported archives in parallel, see ArchiveParserImpl. Folders are
+   * also parsed by the importing thread, so any rejection policy can be used.
+   */
+  @Bean(name = "archiveImportTaskExecutor")
+  TaskExecutor archiveImportTaskExecutor() {
+    return taskExecutorConfig.createExecutor("archiveImport", 2, 4, 10);
+  }
+
+  @Bean(name = "slackRequestExecutor")
+  TaskExecutor slackRequestExecutor() {
+    return taskExecutorConfig.createExecutor("slack");
   }
 
   @Bean
@@ -1,10 +1,22 @@
 package com.axiope.service.cfg;
 
+import com.researchspace.spring.taskexecutors.RejectionPolicy;
+import com.researchspace.spring.taskexecutors.ShiroThreadBindingSubjectThreadPoolExecutor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringValueResolver;
 
+/**
+ * Settings of the async task executors. Each pool is configured by '&lt;pool&gt;.taskExecutor.*'
+ * properties: core, max and queue default to the 'default.taskExecutor.*' values, rejection to
+ * ABORT and virtualThreads to false.
+ *
+ * <p>The shared 'default' pool, which runs plain @Async methods, defaults to CALLER_RUNS instead,
+ * as their callers don't expect a TaskRejectedException.
+ */
 @Configuration
-public class TaskExecutorConfig {
+public class TaskExecutorConfig implements EmbeddedValueResolverAware {
 
   @Value("${default.taskExecutor.core:2}")
   Integer defaultTaskExecutorCore;
@@ -15,15 +27,61 @@ public class TaskExecutorConfig {
   @Value("${default.taskExecutor.queue:100}")
   Integer defaultTaskExecutorQueue;
 
-  @Value("${index.taskExecutor.queue:5000}")
-  Integer indexTaskExecutorQueue;
+  // resolves deployment properties, which aren't in the Spring Environment
+  private StringValueResolver properties;
 
-  @Value("${docConverter.taskExecutor.core:2}")
-  Integer docConverterTaskExecutorCore;
+  @Override
+  public void setEmbeddedValueResolver(StringValueResolver resolver) {
+    this.properties = resolver;
+  }
 
-  @Value("${docConverter.taskExecutor.max:10}")
-  Integer docConverterTaskExecutorMax;
+  /**
+   * @param pool the pool name, as used in its properties
+   * @return a new executor using the pool's properties or the defaults
+   */
+  ShiroThreadBindingSubjectThreadPoolExecutor createExecutor(String pool) {
+    return createExecutor(pool, RejectionPolicy.ABORT);
+  }
 
-  @Value("${docConverter.taskExecutor.queue:250}")
-  Integer docConverterTaskExecutorQueue;
+  /**
+   * @param pool the pool name, as used in its properties
+   * @param rejection rejection policy if the pool doesn't set one
+   * @return a new executor using the pool's properties or the defaults
+   */
+  ShiroThreadBindingSubjectThreadPoolExecutor createExecutor(
+      String pool, RejectionPolicy rejection) {
+    return createExecutor(
+        pool, defaultTaskExecutorCore, defaultTaskExecutorMax, defaultTaskExecutorQueue, rejection);
+  }
+
+  /**
+   * @param pool the pool name, as used in its properties
+   * @param core core pool size if the pool doesn't set one
+   * @param max maximum pool size if the pool doesn't set one
+   * @param queue queue capacity if the pool doesn't set one
+   * @return a new executor using the pool's properties or the given sizes
+   */
+  ShiroThreadBindingSubjectThreadPoolExecutor createExecutor(
+      String pool, int core, int max, int queue) {
+    return createExecutor(pool, core, max, queue, RejectionPolicy.ABORT);
+  }
+
+  private ShiroThreadBindingSubjectThreadPoolExecutor createExecutor(
+      String pool, int core, int max, int queue, RejectionPolicy rejection) {
+    String prefix = pool + ".taskExecutor.";
+    ShiroThreadBindingSubjectThreadPoolExecutor executor =
+        ShiroThreadBindingSubjectThreadPoolExecutor.createNewExecutor(
+            Integer.parseInt(getProperty(prefix + "core", core)),
+            Integer.parseInt(getProperty(prefix + "max", max)),
+            Integer.parseInt(getProperty(prefix + "queue", queue)),
+            RejectionPolicy.valueOf(
+                getProperty(prefix + "rejection", rejection)));
+    executor.setVirtualThreads(
+        Boolean.parseBoolean(getProperty(prefix + "virtualThreads", false)));
+    return executor;
+  }
+
+  private String getProperty(String key, Object defaultValue) {
+    return properties.resolveStringValue("${" + key + ":" + defaultValue + "}").trim();
+  }
 }
@@ -111,6 +111,12 @@ public class TestAppConfig extends BaseConfig {
     return createNewExecutor(1, 2, 10);
   }
 
+  @Bean(name = "thumbnailTaskExecutor")
+  TaskExecutor thumbnailTaskExecutor() {
+    // very low capacity for testing
+    return createNewExecutor(1, 2, 10);
+  }
+
   @Bean(name = "externalFileTaskExecutor")
   TaskExecutor externalFileTaskExecutor() {
     return createNewExecutor(2, 5, 10);
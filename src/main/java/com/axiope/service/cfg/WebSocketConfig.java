@@ -2,25 +2,65 @@ package com.axiope.service.cfg;
 
 import com.researchspace.webapp.filter.OriginRefererChecker;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP over websockets, used to push notification counts to '/topic/notifications/{userId}'.
+ *
+ * <p>By default messages are delivered by an in-memory broker, so only reach browsers connected to
+ * the node that sent them. When 'websocket.broker.relay.enabled' is true, '/topic' destinations are
+ * relayed through an external STOMP broker shared by all nodes, such as ActiveMQ, so users get
+ * updates whichever node they are connected to.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
   private final OriginRefererChecker originRefererChecker;
 
+  @Value("${websocket.broker.relay.enabled:false}")
+  private boolean relayEnabled;
+
+  @Value("${websocket.broker.relay.host:localhost}")
+  private String relayHost;
+
+  @Value("${websocket.broker.relay.port:61613}")
+  private int relayPort;
+
+  @Value("${websocket.broker.relay.login:guest}")
+  private String relayLogin;
+
+  @Value("${websocket.broker.relay.passcode:guest}")
+  private String relayPasscode;
+
+  @Value("${websocket.broker.relay.virtualHost:}")
+  private String relayVirtualHost;
+
   public WebSocketConfig(OriginRefererChecker originRefererChecker) {
     this.originRefererChecker = originRefererChecker;
   }
 
   @Override
   public void configureMessageBroker(MessageBrokerRegistry config) {
-    config.enableSimpleBroker("/topic");
+    if (!relayEnabled) {
+      config.enableSimpleBroker("/topic");
+      return;
+    }
+    // the same credentials are used for the shared 'system' connection and for each client
+    config
+        .enableStompBrokerRelay("/topic")
+        .setRelayHost(relayHost)
+        .setRelayPort(relayPort)
+        .setSystemLogin(relayLogin)
+        .setSystemPasscode(relayPasscode)
+        .setClientLogin(relayLogin)
+        .setClientPasscode(relayPasscode)
+        .setVirtualHost(relayVirtualHost.isEmpty() ? null : relayVirtualHost);
   }
 
   @Override
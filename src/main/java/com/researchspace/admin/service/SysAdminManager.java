@@ -25,4 +25,12 @@ public interface SysAdminManager {
   ISearchResults<UserUsageInfo> getUserUsageInfo(User sysadmin, PaginationCriteria<User> pgCrit);
 
   List<String> getLastNLinesLogs(int maxLines) throws IOException;
+
+  /**
+   * Recalculates per-user file usage totals from the FileProperty table, correcting any that have
+   * drifted. Run on a schedule.
+   *
+   * @return the number of corrected rows
+   */
+  int reconcileFileUsage();
 }
@@ -14,10 +14,12 @@ import com.researchspace.model.User;
 import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service("sysAdminManager")
+@Slf4j
 public class SysAdminManagerImpl extends AbstractSysadminMgr implements SysAdminManager {
 
   private @Autowired UserDao userDao;
@@ -182,4 +184,15 @@ public class SysAdminManagerImpl extends AbstractSysadminMgr implements SysAdmin
   public List<String> getLastNLinesLogs(int maxLines) throws IOException {
     return serverLogRetriever.retrieveLastNLogLines(maxLines);
   }
+
+  @Override
+  public int reconcileFileUsage() {
+    int corrected = fileDao.reconcileFileUsage();
+    if (corrected > 0) {
+      log.warn("Corrected {} file usage totals that had drifted from FileProperty", corrected);
+    } else {
+      log.info("File usage totals are consistent with FileProperty");
+    }
+    return corrected;
+  }
 }
@@ -8,6 +8,7 @@ import com.researchspace.api.v1.controller.DocumentApiPaginationCriteria;
 import com.researchspace.api.v1.model.ApiFile;
 import com.researchspace.api.v1.model.ApiFileSearchResult;
 import com.researchspace.model.User;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -58,6 +59,7 @@ public interface FilesApi {
   ApiFile getFileById(@PathVariable Long id, User user);
 
   @GetMapping("/{id}/file")
-  void getFileBytes(@PathVariable Long id, User user, HttpServletResponse response)
+  void getFileBytes(
+      @PathVariable Long id, User user, HttpServletRequest request, HttpServletResponse response)
       throws IOException;
 }
@@ -58,6 +58,7 @@ public interface FolderApi {
    * Lists root folder of the current user
    *
    * @param recordTypes empty list, null or or list of any of "notebook", "folder", "document"
+   * @param pageToken optional nextPageToken from the previous page's listing
    * @param pgCrit
    * @param errors
    * @param user
@@ -67,6 +68,7 @@ public interface FolderApi {
   @GetMapping(value = "/tree")
   ApiRecordTreeItemListing rootFolderTree(
       Set<String> recordTypes,
+      String pageToken,
       DocumentApiPaginationCriteria pgCrit,
       BindingResult errors,
       User user)
@@ -76,6 +78,7 @@ public interface FolderApi {
    * Lists contents of folder identified by {id}
    *
    * @param recordTypes empty list, null or or list of any of "notebook", "folder", "document"
+   * @param pageToken optional nextPageToken from the previous page's listing
    * @param pgCrit
    * @param errors
    * @param user
@@ -86,6 +89,7 @@ public interface FolderApi {
   ApiRecordTreeItemListing folderTreeById(
       @PathVariable Long id,
       Set<String> recordTypes,
+      String pageToken,
       DocumentApiPaginationCriteria pgCrit,
       BindingResult errors,
       User user)
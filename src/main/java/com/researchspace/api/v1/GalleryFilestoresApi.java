@@ -18,6 +18,7 @@ import com.researchspace.model.netfiles.NfsFileStoreInfo;
 import com.researchspace.model.netfiles.NfsFileSystemInfo;
 import com.researchspace.netfiles.ApiNfsCredentials;
 import com.researchspace.netfiles.ApiNfsRemotePathBrowseResult;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
@@ -39,13 +40,18 @@ public interface GalleryFilestoresApi {
   List<NfsFileStoreInfo> getUserFilestores(User user);
 
   @GetMapping("/filestores/{filestoreId}/browse")
-  ApiNfsRemotePathBrowseResult browseFilestore(Long filestoreId, String browsePath, User user)
-      throws IOException;
+  ApiNfsRemotePathBrowseResult browseFilestore(
+      Long filestoreId, String browsePath, boolean refresh, User user) throws IOException;
 
   @GetMapping("/filestores/{filestoreId}/download")
   @ResponseBody
   void downloadFromFilestore(
-      Long filestoreId, String downloadPath, Long remoteId, User user, HttpServletResponse response)
+      Long filestoreId,
+      String downloadPath,
+      Long remoteId,
+      User user,
+      HttpServletRequest request,
+      HttpServletResponse response)
       throws IOException;
 
   /**
@@ -73,8 +79,8 @@ public interface GalleryFilestoresApi {
   List<NfsFileSystemInfo> getFilesystems(User user);
 
   @GetMapping("/filesystems/{filesystemId}/browse")
-  ApiNfsRemotePathBrowseResult browseFilesystem(Long filesystemId, String browsePath, User user)
-      throws IOException;
+  ApiNfsRemotePathBrowseResult browseFilesystem(
+      Long filesystemId, String browsePath, boolean refresh, User user) throws IOException;
 
   @PostMapping("/filesystems/{filesystemId}/login")
   @ResponseBody
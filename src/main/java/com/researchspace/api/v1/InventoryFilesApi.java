@@ -6,6 +6,7 @@ import com.researchspace.api.v1.model.ApiInventoryFile;
 import com.researchspace.model.User;
 import com.researchspace.webapp.controller.AjaxReturnObject;
 import com.researchspace.webapp.controller.RSChemController.ChemEditorInputDto;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -32,7 +33,8 @@ public interface InventoryFilesApi {
   ApiInventoryFile getFileById(@PathVariable Long id, User user);
 
   @GetMapping("/{id}/file")
-  void getFileBytes(@PathVariable Long id, User user, HttpServletResponse response)
+  void getFileBytes(
+      @PathVariable Long id, User user, HttpServletRequest request, HttpServletResponse response)
       throws IOException;
 
   /**
@@ -23,8 +23,9 @@ import com.researchspace.model.record.Folder;
 import com.researchspace.service.FolderManager;
 import com.researchspace.service.MediaManager;
 import com.researchspace.service.RSChemElementManager;
+import com.researchspace.webapp.controller.FileResponseWriter;
 import com.researchspace.webapp.controller.ResponseHeaders;
-import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.NotFoundException;
@@ -36,7 +37,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import lombok.SneakyThrows;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jsoup.helper.Validate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -107,6 +107,7 @@ public class FilesApiController extends BaseApiController implements FilesApi {
   public void getFileBytes(
       @PathVariable Long id,
       @RequestAttribute(name = "user") User user,
+      HttpServletRequest request,
       HttpServletResponse response)
       throws IOException {
 
@@ -122,10 +123,7 @@ public class FilesApiController extends BaseApiController implements FilesApi {
         "Content-Disposition", "attachment; filename=\"" + mediaFile.getFileName() + "\"");
     Optional<FileInputStream> fis = fileStore.retrieve(fileProp);
     if (fis.isPresent()) {
-      try (InputStream is = fis.get();
-          ServletOutputStream out = response.getOutputStream(); ) {
-        IOUtils.copy(is, out);
-      }
+      FileResponseWriter.writeFileProperty(request, response, fileProp, fis.get());
     } else {
       log.error("Could not retrieve file input stream on downloaded file");
     }
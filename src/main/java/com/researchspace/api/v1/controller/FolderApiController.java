@@ -1,5 +1,6 @@
 package com.researchspace.api.v1.controller;
 
+import static com.researchspace.api.v1.model.ApiRecordTreeItemListing.PAGE_TOKEN_REQ_PARAM;
 import static com.researchspace.core.util.TransformerUtils.toSet;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 
@@ -13,6 +14,7 @@ import com.researchspace.core.util.progress.ProgressMonitor;
 import com.researchspace.model.PaginationCriteria;
 import com.researchspace.model.User;
 import com.researchspace.model.core.RecordType;
+import com.researchspace.model.dtos.FolderListingCursor;
 import com.researchspace.model.record.BaseRecord;
 import com.researchspace.model.record.Folder;
 import com.researchspace.model.views.CompositeRecordOperationResult;
@@ -176,29 +178,37 @@ public class FolderApiController extends BaseApiController implements FolderApi
   @Override
   public ApiRecordTreeItemListing rootFolderTree(
       @RequestParam(name = "typesToInclude", required = false) Set<String> typesToInclude,
+      @RequestParam(name = PAGE_TOKEN_REQ_PARAM, required = false) String pageToken,
       @Valid DocumentApiPaginationCriteria pgCrit,
       BindingResult errors,
       @RequestAttribute(name = "user") User user)
       throws BindException {
     return doListing(
-        typesToInclude, pgCrit, errors, () -> folderMgr.getRootFolderForUser(user), true);
+        typesToInclude,
+        pageToken,
+        pgCrit,
+        errors,
+        () -> folderMgr.getRootFolderForUser(user),
+        true);
   }
 
   @Override
   public ApiRecordTreeItemListing folderTreeById(
       @PathVariable Long id,
       @RequestParam(name = "typesToInclude", required = false) Set<String> recordTypes,
+      @RequestParam(name = PAGE_TOKEN_REQ_PARAM, required = false) String pageToken,
       @Valid DocumentApiPaginationCriteria pgCrit,
       BindingResult errors,
       @RequestAttribute(name = "user") User user)
       throws BindException {
     // validates read permission
     Folder toListFolder = loadFolder(id, user);
-    return doListing(recordTypes, pgCrit, errors, () -> toListFolder, false);
+    return doListing(recordTypes, pageToken, pgCrit, errors, () -> toListFolder, false);
   }
 
   private ApiRecordTreeItemListing doListing(
       Set<String> typesToInclude,
+      String pageToken,
       DocumentApiPaginationCriteria pgCrit,
       BindingResult errors,
       Supplier<Folder> folderSupplier,
@@ -215,11 +225,20 @@ public class FolderApiController extends BaseApiController implements FolderApi
     RecordTypeFilter filter = generateRecordFilter(typesToInclude);
     Folder folderToList = folderSupplier.get();
     ISearchResults<BaseRecord> results =
-        recordManager.listFolderRecords(folderToList.getId(), internalPgCrit, filter);
+        recordManager.listFolderRecords(
+            folderToList.getId(),
+            internalPgCrit,
+            filter,
+            FolderListingCursor.fromToken(pageToken));
 
     // process results
     ApiRecordTreeItemListing apiRecordTreeItemListing = new ApiRecordTreeItemListing();
     apiRecordTreeItemListing.setFolderId(folderToList.getId());
+    FolderListingCursor nextPage =
+        FolderListingCursor.forNextPage(folderToList.getId(), internalPgCrit, filter, results);
+    if (nextPage != null) {
+      apiRecordTreeItemListing.setNextPageToken(nextPage.toToken());
+    }
     apiRecordTreeItemListing.setOmitFolderIdInSearchEndpointString(omitFolderIdInLinks);
 
     List<RecordTreeItemInfo> fileList = new ArrayList<>();
@@ -23,6 +23,7 @@ import com.researchspace.netfiles.ApiNfsRemotePathBrowseResult;
 import com.researchspace.netfiles.NfsClient;
 import com.researchspace.netfiles.NfsFactory;
 import com.researchspace.netfiles.NfsFileDetails;
+import com.researchspace.netfiles.NfsFileTreeCache;
 import com.researchspace.netfiles.NfsFileTreeNode;
 import com.researchspace.netfiles.NfsTarget;
 import com.researchspace.service.FilestoreWriteManager;
@@ -31,20 +32,19 @@ import com.researchspace.service.RecordDeletionManager;
 import com.researchspace.service.metadata.GeneratedSidecarFile;
 import com.researchspace.service.metadata.S3SidecarFileService;
 import com.researchspace.webapp.controller.DeploymentProperty;
+import com.researchspace.webapp.controller.FileResponseWriter;
 import com.researchspace.webapp.controller.ResponseHeaders;
-import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.NotFoundException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.shiro.authz.AuthorizationException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -69,6 +69,7 @@ public class GalleryFilestoresApiController extends GalleryFilestoresBaseApiCont
   @Autowired RecordDeletionManager deletionManager;
   @Autowired FilestoreWriteManager filestoreWriteManager;
   @Autowired S3SidecarFileService s3SidecarFileService;
+  @Autowired(required = false) @Setter NfsFileTreeCache fileTreeCache;
 
   @Value("${gallery.actions.metadata.sidecarFile.enabled}")
   boolean metadataSidecarFileEnabled;
@@ -83,6 +84,7 @@ public class GalleryFilestoresApiController extends GalleryFilestoresBaseApiCont
   public ApiNfsRemotePathBrowseResult browseFilestore(
       @PathVariable Long filestoreId,
       @RequestParam(value = "remotePath", required = false) String browsePath,
+      @RequestParam(value = "refresh", defaultValue = "false") boolean refresh,
       @RequestAttribute(name = "user") User user)
       throws IOException {
 
@@ -96,7 +98,8 @@ public class GalleryFilestoresApiController extends GalleryFilestoresBaseApiCont
       combinedPath += browsePath;
     }
 
-    NfsFileTreeNode fileTree = nfsClient.createFileTree(combinedPath, null, filestore);
+    NfsFileTreeNode fileTree =
+        getFileTree(user, filesystem, nfsClient, combinedPath, filestore, refresh);
     return getRemotePathBrowseResult(filesystem, nfsClient, fileTree);
   }
 
@@ -124,6 +127,21 @@ public class GalleryFilestoresApiController extends GalleryFilestoresBaseApiCont
     return credentialsStore.getNfsClientWithStoredCredentials(user, filesystem);
   }
 
+  private NfsFileTreeNode getFileTree(
+      User user,
+      NfsFileSystem filesystem,
+      NfsClient nfsClient,
+      String path,
+      NfsFileStore filestore,
+      boolean refresh)
+      throws IOException {
+    if (fileTreeCache == null) {
+      return nfsClient.createFileTree(path, null, filestore);
+    }
+    return fileTreeCache.getFileTree(
+        user.getUsername(), filesystem.getId(), nfsClient, path, filestore, refresh);
+  }
+
   private ApiNfsRemotePathBrowseResult getRemotePathBrowseResult(
       NfsFileSystem filesystem, NfsClient nfsClient, NfsFileTreeNode fileTree) {
 
@@ -141,6 +159,7 @@ public class GalleryFilestoresApiController extends GalleryFilestoresBaseApiCont
       @RequestParam(value = "remotePath", required = false) String remotePath,
       @RequestParam(name = "remoteId", required = false) Long remoteId,
       @RequestAttribute(name = "user") User user,
+      HttpServletRequest request,
       HttpServletResponse response)
       throws IOException {
 
@@ -160,12 +179,11 @@ public class GalleryFilestoresApiController extends GalleryFilestoresBaseApiCont
     log.info("downloaded to: " + downloadedFile.getCanonicalPath());
 
     ResponseHeaders.setContentTypeAndPreventSniffing(response, "application/octet-stream");
-    response.setContentLength((int) downloadedFile.length());
     response.setHeader(
         "Content-Disposition", "attachment; filename=\"" + downloadedFile.getName() + "\"");
-    try (InputStream is = new FileInputStream(downloadedFile);
-        ServletOutputStream out = response.getOutputStream()) {
-      IOUtils.copy(is, out);
+    // fetched anew for each request, so there's nothing to validate a cached copy against
+    try (FileInputStream in = new FileInputStream(downloadedFile)) {
+      FileResponseWriter.write(request, response, in, null, -1L);
     }
   }
 
@@ -218,6 +236,7 @@ public class GalleryFilestoresApiController extends GalleryFilestoresBaseApiCont
   public ApiNfsRemotePathBrowseResult browseFilesystem(
       @PathVariable Long filesystemId,
       @RequestParam(value = "remotePath", required = false) String browsePath,
+      @RequestParam(value = "refresh", defaultValue = "false") boolean refresh,
       @RequestAttribute(name = "user") User user)
       throws IOException {
 
@@ -225,7 +244,7 @@ public class GalleryFilestoresApiController extends GalleryFilestoresBaseApiCont
     NfsFileSystem filesystem = nfsManager.getFileSystem(filesystemId);
     NfsClient nfsClient = getNfsClientForUserAndFilesystem(user, filesystem);
 
-    NfsFileTreeNode fileTree = nfsClient.createFileTree(browsePath, null, null);
+    NfsFileTreeNode fileTree = getFileTree(user, filesystem, nfsClient, browsePath, null, refresh);
     return getRemotePathBrowseResult(filesystem, nfsClient, fileTree);
   }
 
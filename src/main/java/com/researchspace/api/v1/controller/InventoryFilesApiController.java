@@ -16,8 +16,10 @@ import com.researchspace.service.inventory.InventoryFileApiManager;
 import com.researchspace.webapp.config.WebConfig;
 import com.researchspace.webapp.controller.AjaxReturnObject;
 import com.researchspace.webapp.controller.RSChemController.ChemEditorInputDto;
+import com.researchspace.webapp.controller.FileResponseWriter;
 import com.researchspace.webapp.controller.ResponseHeaders;
 import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.InternalServerErrorException;
 import jakarta.ws.rs.NotFoundException;
@@ -144,6 +146,7 @@ public class InventoryFilesApiController extends BaseApiInventoryController
   public void getFileBytes(
       @PathVariable Long id,
       @RequestAttribute(name = "user") User user,
+      HttpServletRequest request,
       HttpServletResponse response)
       throws IOException {
 
@@ -151,11 +154,11 @@ public class InventoryFilesApiController extends BaseApiInventoryController
     ResponseHeaders.setContentTypeAndPreventSniffing(response, invFile.getContentMimeType());
     response.setHeader(
         "Content-Disposition", "attachment; filename=\"" + invFile.getFileName() + "\"");
-    InputStream resourceStream = fileStore.retrieve(invFile.getFileProperty()).get();
-    try (InputStream is = resourceStream;
-        ServletOutputStream out = response.getOutputStream()) {
-      IOUtils.copy(is, out);
-    }
+    FileResponseWriter.writeFileProperty(
+        request,
+        response,
+        invFile.getFileProperty(),
+        fileStore.retrieve(invFile.getFileProperty()).get());
   }
 
   @Override
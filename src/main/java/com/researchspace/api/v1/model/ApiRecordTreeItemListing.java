@@ -4,22 +4,42 @@ package com.researchspace.api.v1.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.researchspace.api.v1.controller.ApiPaginationCriteria;
+import com.researchspace.api.v1.controller.ApiSearchConfig;
 import com.researchspace.api.v1.controller.BaseApiController;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /** FileSearchResult */
 @Data
 @EqualsAndHashCode(callSuper = true)
-@JsonPropertyOrder({"folderId", "totalHits", "pageNumber", "records", "_links"})
+@JsonPropertyOrder({
+  "folderId",
+  "totalHits",
+  "pageNumber",
+  "nextPageToken",
+  "records",
+  "_links"
+})
 public class ApiRecordTreeItemListing extends ApiPaginatedResultList<RecordTreeItemInfo> {
 
+  public static final String PAGE_TOKEN_REQ_PARAM = "pageToken";
+
   /** The id of the folder for which the listing was calculated */
   @JsonProperty("folderId")
   private Long folderId;
 
+  /**
+   * Lists the next page faster than its pageNumber alone, if passed as the 'pageToken' parameter
+   * with the next page's pageNumber. Absent on the last page, or for sort orders it can't be used
+   * with.
+   */
+  @JsonProperty("nextPageToken")
+  private String nextPageToken;
+
   @JsonIgnore private boolean omitFolderIdInSearchEndpointString;
 
   private static String endpointFormat = BaseApiController.FOLDER_TREE_ENDPOINT + "/%d";
@@ -34,6 +54,22 @@ public class ApiRecordTreeItemListing extends ApiPaginatedResultList<RecordTreeI
         : String.format(endpointFormat, folderId);
   }
 
+  @Override
+  protected String buildNavigationLinks(
+      UriComponentsBuilder apiBaseURI, ApiPaginationCriteria pgCrit, ApiSearchConfig srchConfig) {
+    String link = super.buildNavigationLinks(apiBaseURI, pgCrit, srchConfig);
+    if (nextPageToken != null
+        && getPageNumber() != null
+        && pgCrit.getPageNumber() == getPageNumber() + 1) {
+      link =
+          UriComponentsBuilder.fromUriString(link)
+              .queryParam(PAGE_TOKEN_REQ_PARAM, nextPageToken)
+              .build()
+              .toUriString();
+    }
+    return link;
+  }
+
   @Override
   public void setItems(List<RecordTreeItemInfo> items) {
     this.records = items;
@@ -9,6 +9,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -18,6 +21,9 @@ import org.apache.commons.lang3.StringUtils;
 /** Utility class for handling name conventions and manipulations for archives. */
 public class ArchiveUtils {
 
+  /** Stands in for the contents hash of a folder in a contents checksum */
+  public static final String FOLDER_CONTENTS_HASH = "folder";
+
   private ArchiveUtils() {
     // private constructor to prevent default constructor
     // for utility class which shouldn't be instantiated
@@ -94,12 +100,11 @@ public class ArchiveUtils {
    * @param folder folder to calculate checksum of
    */
   public static String calculateFolderContentsChecksum(File folder) throws IOException {
+    SortedMap<Path, String> contentHashes = new TreeMap<>();
     try (Stream<Path> paths = Files.walk(folder.toPath())) {
-      MessageDigest contentsCheckSum = MessageDigest.getInstance("MD5");
       paths
           .filter((Path path) -> !path.toFile().isHidden())
-          .sorted()
-          .forEachOrdered(
+          .forEach(
               (Path path) -> {
                 String contentsHash;
 
@@ -110,12 +115,29 @@ public class ArchiveUtils {
                     throw new IllegalStateException(e);
                   }
                 } else {
-                  contentsHash = "folder";
+                  contentsHash = FOLDER_CONTENTS_HASH;
                 }
-
-                contentsCheckSum.update(folder.toPath().relativize(path).toString().getBytes());
-                contentsCheckSum.update(contentsHash.getBytes());
+                contentHashes.put(folder.toPath().relativize(path), contentsHash);
               });
+    }
+    return calculateContentsChecksum(contentHashes);
+  }
+
+  /**
+   * Calculates the same checksum as {@link #calculateFolderContentsChecksum(File)} from the hashes
+   * of a folder's contents, for when they have been computed while the files were written.
+   *
+   * @param contentHashes the hex MD5 hash of each non-hidden file, or {@link
+   *     #FOLDER_CONTENTS_HASH} for each folder, including the top-level folder itself, keyed by path
+   *     relative to the top-level folder
+   */
+  public static String calculateContentsChecksum(SortedMap<Path, String> contentHashes) {
+    try {
+      MessageDigest contentsCheckSum = MessageDigest.getInstance("MD5");
+      for (Map.Entry<Path, String> entry : contentHashes.entrySet()) {
+        contentsCheckSum.update(entry.getKey().toString().getBytes());
+        contentsCheckSum.update(entry.getValue().getBytes());
+      }
       return Hex.encodeHexString(contentsCheckSum.digest());
     } catch (NoSuchAlgorithmException e) {
       throw new IllegalStateException(e);
@@ -0,0 +1,143 @@
+package com.researchspace.auth;
+
+import com.researchspace.model.permissions.AbstractEntityPermissionAdapter;
+import com.researchspace.model.permissions.ConstraintBasedPermission;
+import com.researchspace.model.permissions.PermissionDomain;
+import com.researchspace.model.permissions.PermissionType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.shiro.authz.Permission;
+
+/**
+ * A subject's permissions, grouped by domain and action so that a permission check only tests the
+ * permissions that could possibly imply it, rather than every permission the subject has.
+ *
+ * <p>Within each (domain, action) group, permissions with an id constraint are also indexed by id,
+ * and are only tested against permission strings (e.g. 'COMMUNITY:WRITE:id=3') with one of those
+ * ids. Entities are tested against all permissions of the group, as the entity's adapter decides
+ * which ids satisfy an id constraint.
+ *
+ * <p>The result of {@link #isPermitted(Permission)} is the same as testing each permission in turn,
+ * as {@link org.apache.shiro.realm.AuthorizingRealm} does. Instances are immutable.
+ */
+public final class PermissionIndex {
+
+  private static final class Group {
+    private final List<ConstraintBasedPermission> all = new ArrayList<>();
+    private final List<ConstraintBasedPermission> withoutId = new ArrayList<>();
+    private final Map<Long, List<ConstraintBasedPermission>> byId = new HashMap<>();
+  }
+
+  private final Map<PermissionDomain, Map<PermissionType, Group>> groups =
+      new EnumMap<>(PermissionDomain.class);
+  // permissions that can't be grouped, tested for every check
+  private final List<Permission> ungrouped = new ArrayList<>();
+  private final List<Permission> all;
+
+  public PermissionIndex(Collection<Permission> permissions) {
+    this.all = permissions == null ? List.of() : List.copyOf(permissions);
+    for (Permission permission : all) {
+      if (!(permission instanceof ConstraintBasedPermission)) {
+        ungrouped.add(permission);
+        continue;
+      }
+      ConstraintBasedPermission cbp = (ConstraintBasedPermission) permission;
+      if (cbp.getDomain() == null || cbp.getActions() == null || cbp.getActions().isEmpty()) {
+        ungrouped.add(permission);
+        continue;
+      }
+      for (PermissionType action : cbp.getActions()) {
+        Group group =
+            groups
+                .computeIfAbsent(cbp.getDomain(), d -> new EnumMap<>(PermissionType.class))
+                .computeIfAbsent(action, a -> new Group());
+        group.all.add(cbp);
+        if (cbp.getIdConstraint() == null || cbp.getIdConstraint().getId().isEmpty()) {
+          group.withoutId.add(cbp);
+        } else {
+          for (Long id : cbp.getIdConstraint().getId()) {
+            group.byId.computeIfAbsent(id, i -> new ArrayList<>()).add(cbp);
+          }
+        }
+      }
+    }
+  }
+
+  /** The number of permissions in this index. */
+  public int size() {
+    return all.size();
+  }
+
+  public boolean isPermitted(Permission toTest) {
+    if (anyImplies(ungrouped, toTest)) {
+      return true;
+    }
+    if (toTest instanceof AbstractEntityPermissionAdapter) {
+      AbstractEntityPermissionAdapter adapter = (AbstractEntityPermissionAdapter) toTest;
+      if (adapter.getDomain() != null && adapter.getAction() != null) {
+        for (Group group : getGroups(adapter.getDomain(), adapter.getAction())) {
+          if (anyImplies(group.all, toTest)) {
+            return true;
+          }
+        }
+        return false;
+      }
+    } else if (toTest instanceof ConstraintBasedPermission) {
+      ConstraintBasedPermission cbp = (ConstraintBasedPermission) toTest;
+      if (cbp.getDomain() != null && cbp.getActions() != null && cbp.getActions().size() == 1) {
+        Set<Long> ids = cbp.getIdConstraint() == null ? null : cbp.getIdConstraint().getId();
+        for (Group group : getGroups(cbp.getDomain(), cbp.getActions().iterator().next())) {
+          if (ids == null || ids.isEmpty()) {
+            if (anyImplies(group.all, toTest)) {
+              return true;
+            }
+          } else if (anyImplies(group.withoutId, toTest)
+              || ids.stream()
+                  .anyMatch(id -> anyImplies(group.byId.getOrDefault(id, List.of()), toTest))) {
+            return true;
+          }
+        }
+        return false;
+      }
+    }
+    // can't tell which permissions are relevant
+    return anyImplies(all, toTest);
+  }
+
+  /** The groups of permissions for the domain and action, and for wildcard domains and actions. */
+  private List<Group> getGroups(PermissionDomain domain, PermissionType action) {
+    List<Group> rc = new ArrayList<>(4);
+    addGroup(rc, domain, action);
+    if (action != PermissionType.ALL) {
+      addGroup(rc, domain, PermissionType.ALL);
+    }
+    if (domain != PermissionDomain.ALL) {
+      addGroup(rc, PermissionDomain.ALL, action);
+      if (action != PermissionType.ALL) {
+        addGroup(rc, PermissionDomain.ALL, PermissionType.ALL);
+      }
+    }
+    return rc;
+  }
+
+  private void addGroup(List<Group> rc, PermissionDomain domain, PermissionType action) {
+    Map<PermissionType, Group> byAction = groups.get(domain);
+    if (byAction != null && byAction.containsKey(action)) {
+      rc.add(byAction.get(action));
+    }
+  }
+
+  private static boolean anyImplies(List<? extends Permission> permissions, Permission toTest) {
+    for (Permission permission : permissions) {
+      if (permission.implies(toTest)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
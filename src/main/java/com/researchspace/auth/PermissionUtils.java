@@ -1,7 +1,5 @@
 package com.researchspace.auth;
 
-import static org.apache.commons.lang3.StringUtils.join;
-
 import com.researchspace.core.util.ISearchResults;
 import com.researchspace.model.AbstractUserOrGroupImpl;
 import com.researchspace.model.IFieldLinkableElement;
@@ -20,16 +18,15 @@ import com.researchspace.model.permissions.SecurityLogger;
 import com.researchspace.model.record.BaseRecord;
 import com.researchspace.model.record.BaseRecordAdaptable;
 import com.researchspace.model.record.PermissionsAdaptable;
+import com.researchspace.service.UserManager;
 import com.researchspace.session.SessionAttributeUtils;
 import jakarta.servlet.http.HttpSession;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.UnavailableSecurityManagerException;
@@ -45,6 +42,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.aop.framework.Advised;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -55,12 +53,10 @@ public class PermissionUtils implements IPermissionUtils {
   private ConstraintPermissionResolver parser = new ConstraintPermissionResolver();
 
   @Autowired protected BaseRecordAdaptable recordAdapter;
+  @Autowired @Lazy private UserManager userManager;
 
   public PermissionUtils() {}
 
-  private Set<String> usersToNotify =
-      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
-
   /**
    * Refreshes shiro cache for logged in subject. Needs to do some hacky casting due to spring AOP
    * proxy objects
@@ -76,6 +72,14 @@ public class PermissionUtils implements IPermissionUtils {
       log.error("No security manager registered", e);
       return;
     }
+    for (RSpaceRealm sr : getRSpaceRealms()) {
+      sr.clearCache(SecurityUtils.getSubject().getPrincipals());
+    }
+  }
+
+  /** Needs to do some hacky casting due to spring AOP proxy objects */
+  private List<RSpaceRealm> getRSpaceRealms() {
+    List<RSpaceRealm> realms = new ArrayList<>();
     for (Realm r : ((DefaultSecurityManager) SecurityUtils.getSecurityManager()).getRealms()) {
       RSpaceRealm sr = null;
       if (AopUtils.isJdkDynamicProxy(r)) {
@@ -84,50 +88,49 @@ public class PermissionUtils implements IPermissionUtils {
         } catch (Exception e) {
           log.warn("exception during refreshing permission utils cache: {}", e.getMessage());
         }
-      } else {
+      } else if (r instanceof RSpaceRealm) {
         // expected to be cglib proxy then, which is simply a specialized class
         sr = (RSpaceRealm) r;
       }
       if (sr != null) {
-        sr.clearCache(SecurityUtils.getSubject().getPrincipals());
+        realms.add(sr);
       }
     }
+    return realms;
   }
 
+  /**
+   * Records that the permissions of a user, or of every member of a group, have changed. Each node
+   * reloads the permissions it has cached for them the next time {@link #refreshCacheIfNotified()}
+   * is called in one of their requests, once the change is committed; other nodes may take a few
+   * seconds to see it, see {@link UserManager#getPermissionsVersion(String)}.
+   */
   public void notifyUserOrGroupToRefreshCache(AbstractUserOrGroupImpl userOrGroup) {
     if (userOrGroup.isGroup()) {
       log.info("Notifying group {} to refresh permissions cache", userOrGroup.getUniqueName());
-      for (User u : userOrGroup.asGroup().getMembers()) {
-        log.info("Notifying user {} to refresh permissions cache", u.getUsername());
-        usersToNotify.add(u.getUsername());
-      }
+      notifyPermissionsChanged(userOrGroup.asGroup().getMembers());
     } else {
       log.info(
           "Notifying user {} to refresh permissions cache", userOrGroup.asUser().getUsername());
-      usersToNotify.add(userOrGroup.asUser().getUsername());
+      notifyPermissionsChanged(Set.of(userOrGroup.asUser()));
     }
   }
 
+  /**
+   * Refreshes the subject's permissions cache if their permissions have changed since it was
+   * loaded, on this or any other node.
+   *
+   * @return <code>true</code> if the cache was refreshed
+   */
   public boolean refreshCacheIfNotified() {
-
     String subjectUserName = getSubjectUserName();
-    boolean refreshCache = false;
-    if (subjectUserName != null) {
-      synchronized (usersToNotify) {
-        if (usersToNotify.contains(subjectUserName)) {
-          log.info("User {} has been notified to refresh permission cache", subjectUserName);
-          refreshCache = true;
-          usersToNotify.remove(subjectUserName);
-          log.info(
-              "After removing {}, Users to notify now contains users: {}",
-              subjectUserName,
-              join(usersToNotify, ","));
-        }
-      }
-      // this doesn't need to be synchronized.
-      if (refreshCache) {
-        refreshCache();
-      }
+    if (subjectUserName == null) {
+      return false;
+    }
+    boolean refreshCache = isCachedPermissionsStale(getPermissionsVersion(subjectUserName));
+    if (refreshCache) {
+      log.info("User {} has been notified to refresh permission cache", subjectUserName);
+      refreshCache();
     }
     return refreshCache;
   }
@@ -136,6 +139,23 @@ public class PermissionUtils implements IPermissionUtils {
     return (String) SecurityUtils.getSubject().getPrincipal();
   }
 
+  /*
+   * Package scoped for overriding in tests
+   */
+  protected void notifyPermissionsChanged(Collection<User> users) {
+    userManager.notifyPermissionsChanged(users);
+  }
+
+  protected long getPermissionsVersion(String username) {
+    return userManager.getPermissionsVersion(username);
+  }
+
+  protected boolean isCachedPermissionsStale(long currentVersion) {
+    PrincipalCollection principals = SecurityUtils.getSubject().getPrincipals();
+    return getRSpaceRealms().stream()
+        .anyMatch(realm -> realm.isCachedAuthorizationInfoStale(principals, currentVersion));
+  }
+
   /**
    * Finds a permission from a set matching search criteria.
    *
@@ -207,6 +227,8 @@ public class PermissionUtils implements IPermissionUtils {
     }
     Iterator<T> it = toFilter.iterator();
     log.info("filtering {} items", toFilter.size());
+    // looked up once for the whole collection, rather than through the subject for each item
+    List<PermissionIndex> subjectPermissions = getSubjectPermissionIndexes();
     while (it.hasNext()) {
       T next = it.next();
       if (next == null) {
@@ -215,7 +237,7 @@ public class PermissionUtils implements IPermissionUtils {
       }
       AbstractEntityPermissionAdapter adapter = next.getPermissionsAdapter();
       adapter.setAction(permissionType);
-      if (!checkPermissions(adapter, authUser)) {
+      if (!checkPermissions(adapter, authUser, subjectPermissions)) {
         it.remove();
       }
     }
@@ -260,6 +282,41 @@ public class PermissionUtils implements IPermissionUtils {
     return !StringUtils.isEmpty(acl) && acl.contains(RecordGroupSharing.ANONYMOUS_USER);
   }
 
+  /**
+   * The permission indexes of the subject in each realm that authorises them, or <code>null</code>
+   * if they can't be used, in which case permissions are checked through the subject. Package
+   * scoped for overriding in tests
+   */
+  protected List<PermissionIndex> getSubjectPermissionIndexes() {
+    try {
+      PrincipalCollection principals = SecurityUtils.getSubject().getPrincipals();
+      List<PermissionIndex> indexes = new ArrayList<>();
+      for (RSpaceRealm realm : getRSpaceRealms()) {
+        PermissionIndex index = realm.getPermissionIndex(principals);
+        if (index != null) {
+          indexes.add(index);
+        }
+      }
+      return indexes.isEmpty() ? null : indexes;
+    } catch (UnavailableSecurityManagerException | ClassCastException e) {
+      return null;
+    }
+  }
+
+  private boolean checkPermissions(
+      AbstractEntityPermissionAdapter adapter,
+      User user,
+      List<PermissionIndex> subjectPermissions) {
+    if (subjectPermissions == null) {
+      return checkPermissions(adapter, user);
+    }
+    if (subjectPermissions.stream().anyMatch(index -> index.isPermitted(adapter))) {
+      return true;
+    }
+    log.trace("Checking ACL, user permissions didn't match");
+    return adapter.checkACL(user);
+  }
+
   /*
    * Package scoped for overriding in tests
    */
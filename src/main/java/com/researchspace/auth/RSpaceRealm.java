@@ -16,7 +16,9 @@ import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.cache.Cache;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,9 +39,11 @@ public class RSpaceRealm extends AuthorizingRealm {
     }
     String username = (String) principalCollection.iterator().next();
     log.info("Reloading authorisation info for {} from realm {}", username, getName());
+    // read before the permissions, so that a change made while loading makes this info stale
+    long permissionsVersion = userMgr.getPermissionsVersion(username);
     User user = userMgr.getUserByUsername(username, true);
 
-    SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
+    RSpaceAuthorizationInfo info = new RSpaceAuthorizationInfo(permissionsVersion);
     for (Role role : user.getRoles()) {
       info.addRole(role.getName());
       info.addObjectPermissions(role.getPermissions());
@@ -79,9 +83,81 @@ public class RSpaceRealm extends AuthorizingRealm {
     clearCachedAuthorizationInfo(principals);
   }
 
+  /**
+   * Tests permissions using the subject's {@link PermissionIndex}, rather than testing each of their
+   * permissions in turn.
+   */
+  @Override
+  protected boolean isPermitted(Permission permission, AuthorizationInfo info) {
+    if (info instanceof RSpaceAuthorizationInfo) {
+      return ((RSpaceAuthorizationInfo) info).getPermissionIndex().isPermitted(permission);
+    }
+    return super.isPermitted(permission, info);
+  }
+
+  /**
+   * Gets the permission index of the subject, loading their authorisation info if it isn't cached.
+   *
+   * @return the index, or <code>null</code> if the subject isn't authorised by this realm
+   */
+  public PermissionIndex getPermissionIndex(PrincipalCollection principals) {
+    if (principals == null || isEmpty(principals.fromRealm(getName()))) {
+      return null;
+    }
+    AuthorizationInfo info = getAuthorizationInfo(principals);
+    if (info instanceof RSpaceAuthorizationInfo) {
+      return ((RSpaceAuthorizationInfo) info).getPermissionIndex();
+    }
+    return null;
+  }
+
+  /**
+   * Whether the subject's cached authorisation info was loaded before their permissions changed,
+   * see {@link com.researchspace.service.UserManager#getPermissionsVersion(String)}.
+   *
+   * @param currentVersion the subject's current permissions version
+   * @return <code>false</code> if nothing is cached for the subject
+   */
+  public boolean isCachedAuthorizationInfoStale(
+      PrincipalCollection principals, long currentVersion) {
+    Cache<Object, AuthorizationInfo> cache = getAuthorizationCache();
+    if (principals == null || cache == null) {
+      return false;
+    }
+    AuthorizationInfo info = cache.get(getAuthorizationCacheKey(principals));
+    return info instanceof RSpaceAuthorizationInfo
+        && ((RSpaceAuthorizationInfo) info).getPermissionsVersion() < currentVersion;
+  }
+
   @Override
   protected AuthenticationInfo doGetAuthenticationInfo(AuthenticationToken token)
       throws AuthenticationException {
     return null;
   }
+
+  /** Authorisation info that records the version of the permissions it was loaded from. */
+  static class RSpaceAuthorizationInfo extends SimpleAuthorizationInfo {
+    private static final long serialVersionUID = 1L;
+
+    private final long permissionsVersion;
+    // built on first use, once all permissions have been added
+    private transient volatile PermissionIndex permissionIndex;
+
+    RSpaceAuthorizationInfo(long permissionsVersion) {
+      this.permissionsVersion = permissionsVersion;
+    }
+
+    long getPermissionsVersion() {
+      return permissionsVersion;
+    }
+
+    PermissionIndex getPermissionIndex() {
+      PermissionIndex index = permissionIndex;
+      if (index == null) {
+        index = new PermissionIndex(getObjectPermissions());
+        permissionIndex = index;
+      }
+      return index;
+    }
+  }
 }
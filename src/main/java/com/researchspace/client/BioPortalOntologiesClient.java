@@ -3,6 +3,7 @@ package com.researchspace.client;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
@@ -31,7 +32,12 @@ public class BioPortalOntologiesClient {
   }
 
   private OntologyCache localOntologyCache = new OntologyCache(100);
-  private RestTemplate restTemplate = new RestTemplate();
+  private RestTemplate restTemplate;
+
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    restTemplate = httpClientFactory.createRestTemplate("bioportal");
+  }
 
   public String getBioOntologyData(String searchTerm) {
     if (localOntologyCache.get(searchTerm) != null) {
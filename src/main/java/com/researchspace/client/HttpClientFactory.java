@@ -0,0 +1,191 @@
+package com.researchspace.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.context.EmbeddedValueResolverAware;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringValueResolver;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Creates the RestTemplates that integrations use to call external services, rather than each
+ * integration creating an unpooled RestTemplate without timeouts.
+ *
+ * <p>Each named client, e.g. 'dmponline', has its own pool of keep-alive connections, shared by all
+ * the templates created for it. Clients are configured by '&lt;client&gt;.http.*' properties, which
+ * default to the 'default.http.*' values:
+ *
+ * <ul>
+ *   <li>connectTimeoutMs, readTimeoutMs: the connect and socket timeouts. Waiting for a pooled
+ *       connection, or for a free request slot, is also bounded by the connect timeout.
+ *   <li>maxConnections: size of the client's connection pool
+ *   <li>maxConcurrent: requests in flight at once to each host; further requests wait, then fail.
+ *       Also the number of pooled connections to each host.
+ *   <li>circuitBreaker.failures, circuitBreaker.openSeconds: after this many consecutive failures
+ *       (I/O errors or 5xx responses) of a host, requests to it fail immediately, until a trial
+ *       request succeeds after the given time
+ *   <li>cacheResponses: whether successful GET responses are cached in the
+ *       'com.researchspace.client.httpResponses' cache, for idempotent lookups only
+ * </ul>
+ *
+ * Rejected requests fail with a {@link org.springframework.web.client.ResourceAccessException},
+ * like other I/O errors. Requests are timed by the 'http.client.requests' timer, tagged with the
+ * client, method and outcome, and pools are reported as 'httpcomponents.httpclient.pool.*' meters.
+ */
+@Slf4j
+@Component
+public class HttpClientFactory implements EmbeddedValueResolverAware, DisposableBean {
+
+  public static final String HTTP_RESPONSE_CACHE = "com.researchspace.client.httpResponses";
+
+  /** A client's settings, see the class comment */
+  record Settings(
+      int connectTimeoutMs,
+      int readTimeoutMs,
+      int maxConnections,
+      int maxConcurrent,
+      int circuitBreakerFailures,
+      int circuitBreakerOpenSeconds,
+      boolean cacheResponses) {}
+
+  private record PooledClient(
+      Settings settings,
+      CloseableHttpClient httpClient,
+      ClientHttpRequestFactory requestFactory) {}
+
+  // resolves deployment properties, which aren't in the Spring Environment
+  private StringValueResolver properties = new StandardEnvironment()::resolvePlaceholders;
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private Cache responseCache = new NoOpCache(HTTP_RESPONSE_CACHE);
+
+  private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+  /** Outside Spring, e.g. in tests, uses the default settings for all clients */
+  public HttpClientFactory() {}
+
+  HttpClientFactory(PropertyResolver properties) {
+    this.properties = properties::resolvePlaceholders;
+  }
+
+  @Override
+  public void setEmbeddedValueResolver(StringValueResolver resolver) {
+    this.properties = resolver;
+  }
+
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Autowired(required = false)
+  public void setCacheManager(CacheManager cacheManager) {
+    Cache configured = cacheManager.getCache(HTTP_RESPONSE_CACHE);
+    if (configured != null) {
+      this.responseCache = configured;
+    }
+  }
+
+  /**
+   * @param client the client name, as used in its properties
+   * @return a new RestTemplate using the client's connection pool; callers may add their own
+   *     interceptors and message converters
+   */
+  public RestTemplate createRestTemplate(String client) {
+    PooledClient pooled = clients.computeIfAbsent(client, this::createClient);
+    RestTemplate restTemplate = new RestTemplate(pooled.requestFactory());
+    if (pooled.settings().cacheResponses()) {
+      restTemplate.getInterceptors().add(new ResponseCachingInterceptor(client, responseCache));
+    }
+    return restTemplate;
+  }
+
+  Settings getSettings(String client) {
+    return new Settings(
+        getInt(client, "connectTimeoutMs", 10_000),
+        getInt(client, "readTimeoutMs", 60_000),
+        getInt(client, "maxConnections", 20),
+        getInt(client, "maxConcurrent", 20),
+        getInt(client, "circuitBreaker.failures", 5),
+        getInt(client, "circuitBreaker.openSeconds", 30),
+        getBoolean(client, "cacheResponses", false));
+  }
+
+  private int getInt(String client, String key, int defaultValue) {
+    return Integer.parseInt(getProperty(client, key, defaultValue).trim());
+  }
+
+  private boolean getBoolean(String client, String key, boolean defaultValue) {
+    return Boolean.parseBoolean(getProperty(client, key, defaultValue).trim());
+  }
+
+  private String getProperty(String client, String key, Object defaultValue) {
+    return properties.resolveStringValue(
+        "${" + client + ".http." + key + ":${default.http." + key + ":" + defaultValue + "}}");
+  }
+
+  private PooledClient createClient(String client) {
+    Settings settings = getSettings(client);
+    log.info("Creating HTTP client '{}' with {}", client, settings);
+    PoolingHttpClientConnectionManager connectionManager =
+        PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(settings.maxConnections())
+            .setMaxConnPerRoute(Math.min(settings.maxConcurrent(), settings.maxConnections()))
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+                    .setSocketTimeout(Timeout.ofMilliseconds(settings.readTimeoutMs()))
+                    .setTimeToLive(TimeValue.ofMinutes(5))
+                    .build())
+            .build();
+    new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, client, Tags.empty())
+        .bindTo(meterRegistry);
+    CloseableHttpClient httpClient =
+        HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setConnectionRequestTimeout(
+                        Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+                    .setResponseTimeout(Timeout.ofMilliseconds(settings.readTimeoutMs()))
+                    .build())
+            .addExecInterceptorFirst(
+                "guard", new HttpClientGuard(client, settings, meterRegistry))
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            // a client is shared by all users, so must not send one user's cookies for another
+            .disableCookieManagement()
+            // proxy settings, as used by the JDK's HttpURLConnection
+            .useSystemProperties()
+            .build();
+    return new PooledClient(
+        settings, httpClient, new HttpComponentsClientHttpRequestFactory(httpClient));
+  }
+
+  @Override
+  public void destroy() {
+    clients.values().forEach(pooled -> pooled.httpClient().close(CloseMode.GRACEFUL));
+    clients.clear();
+  }
+}
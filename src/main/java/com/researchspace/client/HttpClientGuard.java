@@ -0,0 +1,187 @@
+package com.researchspace.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+
+/**
+ * First handler in each pooled client's exec chain, limiting the requests in flight at once and
+ * failing fast while the remote service is failing (a simple circuit breaker), and timing each
+ * request. See {@link HttpClientFactory} for the settings.
+ *
+ * <p>Limits and failures are tracked per target host, as some clients, e.g. webhooks, call hosts
+ * configured by users: one failing or slow host mustn't suspend requests to the others.
+ */
+@Slf4j
+class HttpClientGuard implements ExecChainHandler {
+
+  static final String TIMER_NAME = "http.client.requests";
+
+  // hosts whose state is kept; the least recently used are forgotten
+  static final int MAX_HOSTS = 1000;
+
+  /** Thrown for requests that aren't sent, and wrapped by RestTemplate as for other I/O errors */
+  static class RequestRejectedException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    RequestRejectedException(String message) {
+      super(message);
+    }
+  }
+
+  /** Requests in flight to, and recent failures of, one host */
+  private class HostGuard {
+    private final String host;
+    private final Semaphore permits = new Semaphore(settings.maxConcurrent(), true);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialRunning = new AtomicBoolean();
+    private volatile long openUntil;
+
+    HostGuard(String host) {
+      this.host = host;
+    }
+
+    boolean isOpen() {
+      int threshold = settings.circuitBreakerFailures();
+      return threshold > 0 && consecutiveFailures.get() >= threshold;
+    }
+
+    void onSuccess() {
+      if (consecutiveFailures.getAndSet(0) >= settings.circuitBreakerFailures()
+          && settings.circuitBreakerFailures() > 0) {
+        log.info("Requests to '{}' at {} are succeeding again, closing circuit", client, host);
+      }
+    }
+
+    void onFailure() {
+      int failures = consecutiveFailures.incrementAndGet();
+      if (settings.circuitBreakerFailures() > 0 && failures >= settings.circuitBreakerFailures()) {
+        openUntil =
+            System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis(settings.circuitBreakerOpenSeconds());
+        if (failures == settings.circuitBreakerFailures()) {
+          log.warn(
+              "{} consecutive failed requests to '{}' at {}, suspending requests for {}s",
+              failures,
+              client,
+              host,
+              settings.circuitBreakerOpenSeconds());
+        }
+      }
+    }
+  }
+
+  private final String client;
+  private final HttpClientFactory.Settings settings;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, HostGuard> hosts =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HostGuard> eldest) {
+          return size() > MAX_HOSTS;
+        }
+      };
+
+  HttpClientGuard(String client, HttpClientFactory.Settings settings, MeterRegistry meterRegistry) {
+    this.client = client;
+    this.settings = settings;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public ClassicHttpResponse execute(
+      ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+      throws IOException, HttpException {
+    String method = request.getMethod();
+    HostGuard host = getHostGuard(scope.route.getTargetHost().toHostString());
+    boolean trial = false;
+    if (host.isOpen()) {
+      // after the open period, one request at a time is let through to test the service
+      if (System.currentTimeMillis() < host.openUntil
+          || !host.trialRunning.compareAndSet(false, true)) {
+        record(method, "CIRCUIT_OPEN", 0);
+        throw new RequestRejectedException(
+            "Requests to '"
+                + client
+                + "' at "
+                + host.host
+                + " are suspended after repeated failures");
+      }
+      trial = true;
+    }
+    try {
+      if (!acquirePermit(host)) {
+        record(method, "REJECTED", 0);
+        throw new RequestRejectedException(
+            "Too many concurrent requests to '"
+                + client
+                + "' at "
+                + host.host
+                + ", limit is "
+                + settings.maxConcurrent());
+      }
+      long start = System.nanoTime();
+      try {
+        ClassicHttpResponse response = chain.proceed(request, scope);
+        int status = response.getCode();
+        if (status >= 500) {
+          host.onFailure();
+          record(method, "SERVER_ERROR", start);
+        } else {
+          host.onSuccess();
+          record(method, status >= 400 ? "CLIENT_ERROR" : "SUCCESS", start);
+        }
+        return response;
+      } catch (IOException | RuntimeException e) {
+        host.onFailure();
+        record(method, "IO_ERROR", start);
+        throw e;
+      } finally {
+        host.permits.release();
+      }
+    } finally {
+      if (trial) {
+        host.trialRunning.set(false);
+      }
+    }
+  }
+
+  private HostGuard getHostGuard(String host) {
+    // a forgotten host's requests in flight release their permits to its old guard
+    synchronized (hosts) {
+      return hosts.computeIfAbsent(host, HostGuard::new);
+    }
+  }
+
+  private boolean acquirePermit(HostGuard host) throws IOException {
+    try {
+      return host.permits.tryAcquire(settings.connectTimeoutMs(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RequestRejectedException("Interrupted waiting to send request to '" + client + "'");
+    }
+  }
+
+  private void record(String method, String outcome, long startNanos) {
+    long elapsed = startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+    Timer.builder(TIMER_NAME)
+        .tag("client", client)
+        .tag("method", method)
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .record(elapsed, TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,131 @@
+package com.researchspace.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.cache.Cache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Caches successful responses to GET requests, for clients of services whose responses rarely
+ * change, e.g. ontology or organisation lookups. Entries expire according to the cache's
+ * configuration. Responses are cached per user credentials, so a user can't see responses to
+ * another user's requests.
+ */
+@Slf4j
+class ResponseCachingInterceptor implements ClientHttpRequestInterceptor {
+
+  // larger responses are returned but not cached; with the cache's entry limit in ehcache.xml this
+  // bounds the cache's heap use
+  static final int MAX_CACHED_BODY_BYTES = 128 * 1024;
+
+  /** A response as cached, with headers as a plain map so it can be serialized */
+  record CachedResponse(
+      int status, String statusText, Map<String, List<String>> headers, byte[] body)
+      implements Serializable {
+
+    ClientHttpResponse toResponse() {
+      HttpHeaders httpHeaders = new HttpHeaders();
+      headers.forEach(httpHeaders::addAll);
+      return new ClientHttpResponse() {
+        @Override
+        public HttpStatusCode getStatusCode() {
+          return HttpStatusCode.valueOf(status);
+        }
+
+        @Override
+        public String getStatusText() {
+          return statusText;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+          return httpHeaders;
+        }
+
+        @Override
+        public InputStream getBody() {
+          return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {}
+      };
+    }
+  }
+
+  private final String client;
+  private final Cache cache;
+
+  ResponseCachingInterceptor(String client, Cache cache) {
+    this.client = client;
+    this.cache = cache;
+  }
+
+  @Override
+  public ClientHttpResponse intercept(
+      HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    if (!HttpMethod.GET.equals(request.getMethod())) {
+      return execution.execute(request, body);
+    }
+    String key = getKey(request);
+    CachedResponse cached = cache.get(key, CachedResponse.class);
+    if (cached != null) {
+      log.debug("Using cached response for {}", request.getURI());
+      return cached.toResponse();
+    }
+    ClientHttpResponse response = execution.execute(request, body);
+    if (!response.getStatusCode().is2xxSuccessful()) {
+      return response;
+    }
+    long length = response.getHeaders().getContentLength();
+    if (length > MAX_CACHED_BODY_BYTES) {
+      return response;
+    }
+    CachedResponse toCache;
+    try (response) {
+      byte[] content = StreamUtils.copyToByteArray(response.getBody());
+      toCache =
+          new CachedResponse(
+              response.getStatusCode().value(),
+              response.getStatusText(),
+              copyHeaders(response.getHeaders()),
+              content);
+    }
+    if (toCache.body().length <= MAX_CACHED_BODY_BYTES) {
+      cache.put(key, toCache);
+    }
+    return toCache.toResponse();
+  }
+
+  private Map<String, List<String>> copyHeaders(HttpHeaders headers) {
+    Map<String, List<String>> copy = new LinkedHashMap<>();
+    headers.forEach((name, values) -> copy.put(name, new ArrayList<>(values)));
+    return copy;
+  }
+
+  private String getKey(HttpRequest request) {
+    HttpHeaders headers = request.getHeaders();
+    String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+    return client
+        + " "
+        + request.getURI()
+        + " "
+        + headers.getAccept()
+        + (authorization == null ? "" : " " + DigestUtils.sha256Hex(authorization));
+  }
+}
@@ -1,17 +1,23 @@
 package com.researchspace.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 @Component
 public class RoRClient {
-  private RestTemplate restTemplate = new RestTemplate();
+  private RestTemplate restTemplate;
 
   @Value("${ror.api.url}")
   private String rorApiUrl;
 
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    restTemplate = httpClientFactory.createRestTemplate("ror");
+  }
+
   public JsonNode getRoRDetailsForID(String rorID) {
     String toUse = rorID.replaceAll("https://", "");
     return restTemplate.getForEntity(rorApiUrl + "/" + toUse, JsonNode.class).getBody();
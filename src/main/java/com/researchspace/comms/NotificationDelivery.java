@@ -0,0 +1,28 @@
+package com.researchspace.comms;
+
+import lombok.Value;
+
+/**
+ * An outbox entry claimed for delivery by {@link
+ * com.researchspace.service.NotificationOutboxManager#claim(Long)}. Its broadcast is prepared while
+ * claiming it, and sent once the claiming transaction has committed.
+ */
+@Value
+public class NotificationDelivery {
+
+  /** id of the claimed {@link NotificationOutboxEntry} */
+  Long entryId;
+
+  /** Name of the broadcaster, as in the outbox entry */
+  String broadcaster;
+
+  /** Creation time of the outbox entry, in milliseconds since the epoch */
+  long creationTime;
+
+  Runnable broadcast;
+
+  /** Sends the prepared broadcast, throwing an exception if it fails. */
+  public void send() {
+    broadcast.run();
+  }
+}
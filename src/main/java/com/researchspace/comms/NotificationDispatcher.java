@@ -0,0 +1,168 @@
+package com.researchspace.comms;
+
+import com.researchspace.model.comms.Notification;
+import com.researchspace.service.IMessageAndNotificationTracker;
+import com.researchspace.service.NotificationOutboxManager;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Completes the creation of notifications once their transaction has committed, so that the
+ * request creating them doesn't wait for each recipient to be emailed and updated.
+ *
+ * <ul>
+ *   <li>Broadcasts are written to the outbox (see {@link NotificationOutboxManager}) with the
+ *       notification, and delivered by the 'notificationTaskExecutor' after commit. Each entry is
+ *       claimed, sent outside any transaction, then removed or rescheduled. Entries left by
+ *       failures, or by a server that stopped, are picked up by polling every
+ *       'notification.outbox.pollMillis'.
+ *   <li>Recipients' notification counts are increased after commit, and the updated counts are
+ *       pushed to their browsers by the same task, once per recipient however many notifications
+ *       they received in the meantime.
+ * </ul>
+ *
+ * Without a 'notificationTaskExecutor', e.g. in tests, this work is done in the committing thread.
+ */
+@Slf4j
+public class NotificationDispatcher {
+
+  static final int BATCH_SIZE = 100;
+
+  private @Autowired NotificationOutboxManager outboxManager;
+  private @Autowired IMessageAndNotificationTracker notificnTracker;
+  private TaskExecutor taskExecutor;
+
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final AtomicBoolean rerun = new AtomicBoolean();
+
+  @Autowired(required = false)
+  public void setTaskExecutor(@Qualifier("notificationTaskExecutor") TaskExecutor taskExecutor) {
+    this.taskExecutor = taskExecutor;
+  }
+
+  /**
+   * Call in the transaction that saved the notification.
+   *
+   * @param notification a saved notification, with its recipients
+   * @param broadcast whether the notification should be broadcast
+   */
+  public void notificationCreated(Notification notification, boolean broadcast) {
+    if (broadcast) {
+      outboxManager.addToOutbox(notification);
+    }
+    List<Long> recipientIds =
+        notification.getRecipients().stream()
+            .map(target -> target.getRecipient().getId())
+            .collect(Collectors.toList());
+    Runnable afterCommit =
+        () -> {
+          notificnTracker.changeUserNotificationCounts(recipientIds, 1);
+          dispatch();
+        };
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              afterCommit.run();
+            }
+          });
+    } else {
+      afterCommit.run();
+    }
+  }
+
+  /** Delivers any outbox entries that are due, e.g. retries. */
+  @Scheduled(
+      initialDelayString = "${notification.outbox.pollMillis:30000}",
+      fixedDelayString = "${notification.outbox.pollMillis:30000}")
+  public void pollOutbox() {
+    dispatch();
+  }
+
+  /**
+   * Starts delivery of due outbox entries and pending count updates, unless it is already running,
+   * in which case the running delivery makes another pass.
+   */
+  void dispatch() {
+    if (!scheduled.compareAndSet(false, true)) {
+      rerun.set(true);
+      return;
+    }
+    if (taskExecutor == null) {
+      run();
+      return;
+    }
+    try {
+      taskExecutor.execute(this::run);
+    } catch (TaskRejectedException e) {
+      scheduled.set(false);
+      log.warn("Notification delivery rejected, will retry when the outbox is next polled");
+    }
+  }
+
+  private void run() {
+    try {
+      do {
+        rerun.set(false);
+        deliverDueEntries();
+        notificnTracker.sendPendingNotificationUpdates();
+      } while (rerun.get());
+    } finally {
+      scheduled.set(false);
+    }
+    // requested after the last pass but before 'scheduled' was cleared
+    if (rerun.get()) {
+      dispatch();
+    }
+  }
+
+  private void deliverDueEntries() {
+    List<Long> ids;
+    int delivered;
+    do {
+      ids = outboxManager.getDueEntryIds(BATCH_SIZE);
+      delivered = 0;
+      for (Long id : ids) {
+        try {
+          if (deliver(id)) {
+            delivered++;
+          }
+        } catch (RuntimeException e) {
+          log.error("Could not deliver notification outbox entry {}", id, e);
+        }
+      }
+      // stop if entries are being delivered by another node
+    } while (ids.size() == BATCH_SIZE && delivered > 0);
+  }
+
+  /*
+   * The entry is claimed, and the claim committed, before sending, so that no transaction or row
+   * lock is held while e.g. the mail server is contacted.
+   */
+  private boolean deliver(Long entryId) {
+    Optional<NotificationDelivery> claimed = outboxManager.claim(entryId);
+    if (claimed.isEmpty()) {
+      return false;
+    }
+    NotificationDelivery delivery = claimed.get();
+    try {
+      delivery.send();
+    } catch (RuntimeException e) {
+      outboxManager.deliveryFailed(delivery, e);
+      return true;
+    }
+    outboxManager.delivered(delivery);
+    return true;
+  }
+}
@@ -0,0 +1,57 @@
+package com.researchspace.comms;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A notification waiting to be passed to one of the {@link com.researchspace.service.Broadcaster}s.
+ * Entries are saved in the same transaction as their notification, and removed once delivered, so
+ * a notification is broadcast if and only if it was committed, even if the server stops first.
+ */
+@Entity
+@Table(name = "NotificationOutbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class NotificationOutboxEntry {
+
+  /** Maximum length of {@link #getLastError()} */
+  public static final int MAX_ERROR_LENGTH = 255;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "notification_id", nullable = false)
+  private Long notificationId;
+
+  /** Name of the broadcaster to deliver to, see NotificationOutboxManager */
+  @Column(nullable = false)
+  private String broadcaster;
+
+  /** Number of failed delivery attempts */
+  private int attempts;
+
+  /** Time of creation, in milliseconds since the epoch */
+  private long creationTime;
+
+  /** Time when the entry is next due for delivery, in milliseconds since the epoch */
+  private long nextAttemptTime;
+
+  @Column(length = MAX_ERROR_LENGTH)
+  private String lastError;
+
+  public NotificationOutboxEntry(Long notificationId, String broadcaster, long creationTime) {
+    this.notificationId = notificationId;
+    this.broadcaster = broadcaster;
+    this.creationTime = creationTime;
+    this.nextAttemptTime = creationTime;
+  }
+}
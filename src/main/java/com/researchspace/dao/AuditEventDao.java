@@ -0,0 +1,49 @@
+package com.researchspace.dao;
+
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.service.audit.search.AuditEventQuery;
+import java.util.List;
+import java.util.Optional;
+
+/** Append-only store of audit trail events, searched instead of the audit log files. */
+public interface AuditEventDao extends GenericDao<IndexedAuditEvent, Long> {
+
+  /**
+   * Saves the events, flushing and clearing the session periodically.
+   *
+   * @param events unsaved events
+   */
+  void saveAll(List<IndexedAuditEvent> events);
+
+  /**
+   * Gets a page of events matching the query, ordered by time.
+   *
+   * @param query
+   * @param firstResult index of the first event to return
+   * @param maxResults maximum number of events to return
+   * @return a possibly empty list of events
+   */
+  List<IndexedAuditEvent> search(AuditEventQuery query, int firstResult, int maxResults);
+
+  /** Counts the events matching the query. */
+  long count(AuditEventQuery query);
+
+  /**
+   * @return the time of the earliest stored event, or empty if there are no events yet
+   */
+  Optional<Long> getEarliestEventTime();
+
+  /**
+   * Records that events between the given times, inclusive, may not have been stored.
+   *
+   * @param fromTime time of the earliest event not stored
+   * @param toTime time of the latest event not stored
+   */
+  void saveGap(long fromTime, long toTime);
+
+  /**
+   * @return whether events in the query's time range may not have been stored, see {@link
+   *     #saveGap(long, long)}
+   */
+  boolean hasGap(AuditEventQuery query);
+}
@@ -71,14 +71,16 @@ public interface FileMetadataDao extends GenericDao<FileProperty, Long> {
   Long getCountOfUsersWithFilesInFileSystem();
 
   /**
-   * Gets total file usage, in bytes as a sum of file sizes in the FileProperty table.
+   * Gets total file usage, in bytes as a sum of file sizes in the FileProperty table, as maintained
+   * per user in the FileUsage table.
    *
    * @return a Long &gt;= 0
    */
   Long getTotalFileUsage();
 
   /**
-   * Gets total file usage for a group, in bytes as a sum of file sizes in the FileProperty table.
+   * Gets total file usage for a group, in bytes as a sum of file sizes in the FileProperty table,
+   * as maintained per user in the FileUsage table.
    *
    * @param group
    * @return a Long &gt;= 0
@@ -102,6 +104,15 @@ public interface FileMetadataDao extends GenericDao<FileProperty, Long> {
    */
   List<DatabaseUsageByGroupGroupByResult> getTotalFileUsageForGroups(Collection<Group> grps);
 
+  /**
+   * Usage queries read per-user totals that are updated as FileProperties are saved and deleted.
+   * This recalculates the totals from the FileProperty table and corrects any that have drifted,
+   * e.g. from changes made outside the application.
+   *
+   * @return the number of rows changed, 0 if all totals were correct
+   */
+  int reconcileFileUsage();
+
   /**
    * Given an absolute path, retrieves the {@link FileStoreRoot} for that path, or <code>null</code>
    * if not found.
@@ -138,4 +149,43 @@ public interface FileMetadataDao extends GenericDao<FileProperty, Long> {
   boolean doesUserOwnDocWithHash(User user, String contentsHash);
 
   FileProperty getImageFileByHash(String contentsHash);
+
+  /**
+   * Records the digest of the bytes stored for a FileProperty, replacing any digest recorded before.
+   * Used by the deduplicating mode of the internal file store.
+   *
+   * @param fileProperty a persisted FileProperty
+   * @param digest hex-encoded SHA-256 of the stored file
+   */
+  void saveContentsDigest(FileProperty fileProperty, String digest);
+
+  /**
+   * Removes the digest recorded for a FileProperty, if any.
+   *
+   * @return <code>true</code> if a digest was recorded
+   */
+  boolean removeContentsDigest(FileProperty fileProperty);
+
+  /**
+   * Gets FileProperties in a file store root whose stored bytes have the given digest, oldest first.
+   *
+   * @param maxResults maximum number of FileProperties to return
+   */
+  List<FileProperty> getFilePropertiesWithContentsDigest(
+      String digest, FileStoreRoot root, int maxResults);
+
+  /**
+   * Counts the FileProperties, in any root, whose stored bytes have the given digest, i.e. the
+   * number of references to that content.
+   */
+  long countFilePropertiesWithContentsDigest(String digest);
+
+  /**
+   * Gets a batch of FileProperties in local file store roots that have no recorded digest, in id
+   * order.
+   *
+   * @param afterId only FileProperties with a greater id are returned; can be <code>null</code>
+   * @param maxResults batch size
+   */
+  List<FileProperty> getLocalFilePropertiesWithoutContentsDigest(Long afterId, int maxResults);
 }
@@ -7,8 +7,10 @@ import com.researchspace.model.User;
 import com.researchspace.model.record.BaseRecord;
 import com.researchspace.model.record.Folder;
 import com.researchspace.model.views.TreeViewItem;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface FolderDao extends GenericDao<Folder, Long> {
 
@@ -147,4 +149,44 @@ public interface FolderDao extends GenericDao<Folder, Long> {
    * @return list of parent Folders, empty if none
    */
   List<Folder> getParentFolders(Long childId);
+
+  /**
+   * Whether a record is anywhere below a folder, by any path, according to the folder ancestry
+   * index.
+   *
+   * @param recordId the record (folder, document or media file) to look for
+   * @param folderId the folder to look in
+   * @return <code>true</code> if the record is a descendant of the folder; <code>false</code> if
+   *     not, or if the record is the folder itself
+   */
+  boolean isDescendantOf(Long recordId, Long folderId);
+
+  /**
+   * Filters record ids down to those that are one of, or anywhere below one of, the given folders.
+   * Makes a single query however deep the folders are.
+   *
+   * @param recordIds ids of records to filter
+   * @param folderIds ids of folders (or other records) to look in
+   * @return the subset of <code>recordIds</code> that are in, or below, one of the folders
+   */
+  Set<Long> getRecordIdsInOrBelow(Collection<Long> recordIds, Collection<Long> folderIds);
+
+  /**
+   * Gets the ids of all the folders below a folder, by any path, according to the folder ancestry
+   * index.
+   *
+   * @param folderId the folder to look in
+   * @return ids of sub-folders and notebooks at any depth, not including the folder itself
+   */
+  List<Long> getDescendantFolderIds(Long folderId);
+
+  /**
+   * Loads folders together with their children, in a single query per thousand folders, so that
+   * the whole of a folder tree can be traversed without lazily loading each folder's children in
+   * turn.
+   *
+   * @param folderIds ids of the folders to load
+   * @return the folders, with initialised child collections
+   */
+  List<Folder> getFoldersWithChildren(Collection<Long> folderIds);
 }
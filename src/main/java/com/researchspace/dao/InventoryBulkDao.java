@@ -0,0 +1,39 @@
+package com.researchspace.dao;
+
+import com.researchspace.model.User;
+import java.util.Collection;
+
+/**
+ * Session-level operations for inventory bulk operations and imports, including archive imports,
+ * that process many records in a single transaction.
+ */
+public interface InventoryBulkDao {
+
+  /** Number of records processed between calls to {@link #flushAndClear(User)} */
+  int BULK_CHUNK_SIZE = 100;
+
+  /**
+   * Enables JDBC batching of inserts and updates for the rest of the current session.
+   * Hibernate's default for the application is no batching.
+   */
+  void enableJdbcBatching();
+
+  /**
+   * Loads the entities with the given ids into the current session in batched queries, so that
+   * subsequent lookups by id don't need a query each. Ids of entities that don't exist are
+   * ignored.
+   *
+   * @param entityClass an inventory entity class, e.g. Sample
+   * @param ids database ids
+   */
+  void loadIntoSession(Class<?> entityClass, Collection<Long> ids);
+
+  /**
+   * Writes pending changes and detaches all entities from the current session, so that dirty
+   * checking doesn't slow down as more records are processed. Entities loaded before this call,
+   * apart from the user, must not be used afterwards.
+   *
+   * @param user the user running the operation, kept in the session
+   */
+  void flushAndClear(User user);
+}
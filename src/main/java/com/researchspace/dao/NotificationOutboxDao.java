@@ -0,0 +1,27 @@
+package com.researchspace.dao;
+
+import com.researchspace.comms.NotificationOutboxEntry;
+import java.util.List;
+import java.util.Optional;
+
+/** Notifications waiting to be broadcast, see {@link NotificationOutboxEntry} */
+public interface NotificationOutboxDao extends GenericDao<NotificationOutboxEntry, Long> {
+
+  /**
+   * Gets the ids of entries due for delivery, oldest first.
+   *
+   * @param now current time in milliseconds
+   * @param maxResults maximum number of ids to return
+   * @return a possibly empty list of ids
+   */
+  List<Long> getDueEntryIds(long now, int maxResults);
+
+  /**
+   * Gets an entry for delivery, locking it until the current transaction ends, so that it isn't
+   * delivered by another application node at the same time.
+   *
+   * @param id
+   * @return the entry, or empty if it has been removed or is locked by another transaction
+   */
+  Optional<NotificationOutboxEntry> lockForDelivery(Long id);
+}
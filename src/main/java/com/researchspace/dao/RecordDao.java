@@ -4,6 +4,7 @@ import com.researchspace.core.util.ISearchResults;
 import com.researchspace.model.EcatMediaFile;
 import com.researchspace.model.PaginationCriteria;
 import com.researchspace.model.User;
+import com.researchspace.model.dtos.FolderListingCursor;
 import com.researchspace.model.record.BaseRecord;
 import com.researchspace.model.record.Folder;
 import com.researchspace.model.record.Record;
@@ -32,6 +33,20 @@ public interface RecordDao extends GenericDao<Record, Long> {
       PaginationCriteria<? extends BaseRecord> pgCrit,
       RecordTypeFilter recordTypefilter);
 
+  /**
+   * As {@link #getPaginatedChildRecordsOfParentWithFilter(Long, PaginationCriteria,
+   * RecordTypeFilter)}, but lists the page after the cursor's position if a cursor is given, rather
+   * than by skipping the records of the previous pages.
+   *
+   * @param cursor An optional cursor for the requested page, which must {@link
+   *     FolderListingCursor#continues} the listing.
+   */
+  ISearchResults<BaseRecord> getPaginatedChildRecordsOfParentWithFilter(
+      Long parentId,
+      PaginationCriteria<? extends BaseRecord> pgCrit,
+      RecordTypeFilter recordTypefilter,
+      FolderListingCursor cursor);
+
   /**
    * Retrieves a list of ids of all the visible, non-deleted, normal (i.e., not templates)
    * structured documents belonging to a parent folder id. The ids are all ordered by creation date
@@ -109,10 +124,11 @@ public interface RecordDao extends GenericDao<Record, Long> {
 
   List<String> getTagsMetaDataForRecordsVisibleByUserOrPi(User userOrPi, String tagSearch);
 
-  List<String> getTextDataFromOntologiesOwnedByUser(User userOrPi);
-
-  List<String> getTextDataFromOntologyFilesOwnedByUserIfSharedWithAGroup(
-      User userOrPi, Long[] ontologyRecordIDs);
+  /**
+   * @param ontologyDocId id of an ontology document
+   * @return the text of each of its text fields
+   */
+  List<String> getTextDataFromOntologyDocument(Long ontologyDocId);
 
   List<BaseRecord> getOntologyFilesOwnedByUser(User userOrPi);
 
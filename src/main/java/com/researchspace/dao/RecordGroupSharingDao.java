@@ -138,11 +138,6 @@ public interface RecordGroupSharingDao extends GenericDao<RecordGroupSharing, Lo
 
   List<String> getTagsMetaDataForRecordsSharedWithUser(User subject, String tagFilter);
 
-  List<String> getTextDataFromOntologiesSharedWithUser(User subject);
-
-  List<String> getTextDataFromOntologiesSharedWithUserIfSharedWithAGroup(
-      User subject, Long[] ontologyIDsSharedWithAGroup);
-
   List<BaseRecord> getOntologiesFilesSharedWithUser(User subject);
 
   /**
@@ -24,6 +24,14 @@ public interface RecordUserFavoritesDao extends GenericDao<RecordUserFavorites,
    */
   List<BaseRecord> getFavoriteRecordsByUser(Long userId);
 
+  /**
+   * Get the ids of BaseRecords that are favorites of a specific user.
+   *
+   * @param userId
+   * @return
+   */
+  List<Long> getFavoriteRecordIdsByUser(Long userId);
+
   /**
    * Check if a base record is favorite by user.
    *
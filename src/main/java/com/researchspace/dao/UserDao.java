@@ -9,6 +9,7 @@ import com.researchspace.model.UserProfile;
 import com.researchspace.model.dtos.UserRoleView;
 import com.researchspace.model.views.UserStatistics;
 import com.researchspace.model.views.UserView;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -146,6 +147,14 @@ public interface UserDao extends GenericDao<User, Long> {
 
   ISearchResults<User> listUsersInCommunity(Long communityId, PaginationCriteria<User> pgCrit);
 
+  /**
+   * Gets the usernames of the users in a community, without loading the users.
+   *
+   * @param communityId
+   * @return A possibly empty list of usernames
+   */
+  List<String> getUsernamesInCommunity(Long communityId);
+
   /**
    * Boolean test for whether <code>usernameToTest</code> is a a member of the given community
    *
@@ -204,4 +213,19 @@ public interface UserDao extends GenericDao<User, Long> {
 
   /** Retrieves all tags used for tagging users (on System->Users page) */
   List<String> getAllUserTags();
+
+  /**
+   * Increments the permissions version of each user, see {@link #getPermissionsVersion(String)}.
+   *
+   * @param userIds ids of persisted users
+   */
+  void incrementPermissionsVersion(Collection<Long> userIds);
+
+  /**
+   * Gets the permissions version of a user, which is incremented whenever their roles, groups or
+   * shared items change.
+   *
+   * @return the version, or 0 if the user's permissions have never changed
+   */
+  long getPermissionsVersion(String username);
 }
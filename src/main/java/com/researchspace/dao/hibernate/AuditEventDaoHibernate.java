@@ -0,0 +1,151 @@
+package com.researchspace.dao.hibernate;
+
+import com.researchspace.dao.AuditEventDao;
+import com.researchspace.dao.GenericDaoHibernate;
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.service.audit.search.AuditEventQuery;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository("auditEventDao")
+public class AuditEventDaoHibernate extends GenericDaoHibernate<IndexedAuditEvent, Long>
+    implements AuditEventDao {
+
+  private static final int FLUSH_SIZE = 50;
+
+  // not mapped; queries name it as their query space, else Hibernate evicts all cached entities
+  private static final String GAP_TABLE = "AuditEventGap";
+
+  public AuditEventDaoHibernate() {
+    super(IndexedAuditEvent.class);
+  }
+
+  @Override
+  public void saveAll(List<IndexedAuditEvent> events) {
+    Session session = getSession();
+    int count = 0;
+    for (IndexedAuditEvent event : events) {
+      session.persist(event);
+      if (++count % FLUSH_SIZE == 0) {
+        session.flush();
+        session.clear();
+      }
+    }
+  }
+
+  @Override
+  public List<IndexedAuditEvent> search(AuditEventQuery query, int firstResult, int maxResults) {
+    Map<String, Object> params = new HashMap<>();
+    String order = query.isDescending() ? " desc" : " asc";
+    Query<IndexedAuditEvent> q =
+        getSession()
+            .createQuery(
+                "from IndexedAuditEvent e"
+                    + createWhereClause(query, params)
+                    + " order by e.eventTime"
+                    + order
+                    + ", e.id"
+                    + order,
+                IndexedAuditEvent.class);
+    bindParameters(q, params);
+    return q.setFirstResult(firstResult).setMaxResults(maxResults).list();
+  }
+
+  @Override
+  public long count(AuditEventQuery query) {
+    Map<String, Object> params = new HashMap<>();
+    Query<Long> q =
+        getSession()
+            .createQuery(
+                "select count(e) from IndexedAuditEvent e" + createWhereClause(query, params),
+                Long.class);
+    bindParameters(q, params);
+    return q.uniqueResult();
+  }
+
+  private String createWhereClause(AuditEventQuery query, Map<String, Object> params) {
+    StringBuilder where = new StringBuilder(" where 1=1");
+    if (query.getFrom() != null) {
+      where.append(" and e.eventTime >= :from");
+      params.put("from", query.getFrom());
+    }
+    if (query.getTo() != null) {
+      where.append(" and e.eventTime < :to");
+      params.put("to", query.getTo());
+    }
+    if (query.getUsernames() != null && !query.getUsernames().isEmpty()) {
+      where.append(" and e.username in (:usernames)");
+      params.put("usernames", query.getUsernames());
+    }
+    if (query.getDomains() != null && !query.getDomains().isEmpty()) {
+      where.append(" and e.domain in (:domains)");
+      params.put("domains", query.getDomains());
+    }
+    if (query.getActions() != null && !query.getActions().isEmpty()) {
+      where.append(" and e.action in (:actions)");
+      params.put("actions", query.getActions());
+    }
+    if (query.getObjectId() != null) {
+      where.append(" and e.objectId = :objectId");
+      params.put("objectId", query.getObjectId());
+      if (query.getObjectPrefix() != null) {
+        where.append(" and (e.objectPrefix = :objectPrefix or e.objectPrefix is null)");
+        params.put("objectPrefix", query.getObjectPrefix());
+      }
+    }
+    return where.toString();
+  }
+
+  private void bindParameters(Query<?> q, Map<String, Object> params) {
+    params.forEach(
+        (name, value) -> {
+          if (value instanceof Collection) {
+            q.setParameterList(name, (Collection<?>) value);
+          } else {
+            q.setParameter(name, value);
+          }
+        });
+  }
+
+  @Override
+  public Optional<Long> getEarliestEventTime() {
+    return Optional.ofNullable(
+        getSession()
+            .createQuery("select min(e.eventTime) from IndexedAuditEvent e", Long.class)
+            .uniqueResult());
+  }
+
+  @Override
+  public void saveGap(long fromTime, long toTime) {
+    getSession()
+        .createNativeQuery("insert into AuditEventGap (fromTime, toTime) values (:from, :to)")
+        .addSynchronizedQuerySpace(GAP_TABLE)
+        .setParameter("from", fromTime)
+        .setParameter("to", toTime)
+        .executeUpdate();
+  }
+
+  @Override
+  public boolean hasGap(AuditEventQuery query) {
+    String sql = "select count(*) from AuditEventGap where toTime >= :from";
+    if (query.getTo() != null) {
+      sql += " and fromTime < :to";
+    }
+    NativeQuery<?> q =
+        getSession()
+            .createNativeQuery(sql)
+            .addSynchronizedQuerySpace(GAP_TABLE)
+            .setParameter("from", query.getFrom() == null ? Long.MIN_VALUE : query.getFrom());
+    if (query.getTo() != null) {
+      q.setParameter("to", query.getTo());
+    }
+    return ((Number) q.uniqueResult()).longValue() > 0;
+  }
+}
@@ -0,0 +1,277 @@
+package com.researchspace.dao.hibernate;
+
+import static com.axiope.search.SearchUtils.BASE_RECORD_ORDER_BY_CREATED;
+import static com.axiope.search.SearchUtils.BASE_RECORD_ORDER_BY_LAST_MODIFIED;
+import static com.axiope.search.SearchUtils.ORDER_BY_NAME;
+
+import com.axiope.search.FieldNames;
+import com.researchspace.core.util.SortOrder;
+import com.researchspace.model.PaginationCriteria;
+import com.researchspace.model.record.BaseRecord;
+import com.researchspace.search.impl.LuceneSrchCfg;
+import com.researchspace.search.impl.RecordSortFieldsBinder;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import org.apache.lucene.search.BooleanQuery;
+import org.hibernate.search.engine.search.predicate.SearchPredicate;
+import org.hibernate.search.engine.search.predicate.dsl.BooleanPredicateClausesStep;
+import org.hibernate.search.engine.search.predicate.dsl.RangePredicateFieldMoreStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.mapper.orm.scope.SearchScope;
+import org.hibernate.search.mapper.orm.session.SearchSession;
+
+/**
+ * Sorts and pages ELN search hits inside the index, for searches whose hits are the result records
+ * themselves (see {@link #isIndexPageable(LuceneSrchCfg)}).
+ *
+ * <p>Sorting by name, creation or modification date uses the sort fields indexed by
+ * RecordSortFieldsBinder, with the record id as tie-breaker, so that the order is total. The sort
+ * values of the last hit of each page are kept as a search-after cursor, keyed by the search's
+ * {@link LuceneSrchCfg#getQueryKey()}, so the following page is fetched by a range predicate
+ * rather than by skipping over all preceding hits. Pages reached without a cursor (e.g. by jumping
+ * ahead, or when sorting by relevance) are fetched by offset.
+ *
+ * <p>This class is thread-safe.
+ */
+class ElnSearchPager {
+
+  static final int MAX_CURSORS = 1000;
+
+  /** A page of hits, as records in index order, and the total number of hits. */
+  @Getter
+  static class Page {
+    private final List<BaseRecord> hits;
+    private final int pageNumber;
+    private final long totalHits;
+
+    Page(List<BaseRecord> hits, int pageNumber, long totalHits) {
+      this.hits = hits;
+      this.pageNumber = pageNumber;
+      this.totalHits = totalHits;
+    }
+  }
+
+  /** Sort values of the last hit of a page, in the order of the sort fields. */
+  private static class Cursor {
+    private final Object[] sortValues;
+
+    Cursor(Object[] sortValues) {
+      this.sortValues = sortValues;
+    }
+  }
+
+  private final Map<String, Cursor> cursors =
+      Collections.synchronizedMap(
+          new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cursor> eldest) {
+              return size() > MAX_CURSORS;
+            }
+          });
+
+  /**
+   * Whether the hits of a search can be sorted and paged in the index. This is so if every hit is
+   * a result record in its own right, and if records are excluded only by predicates on indexed
+   * fields. Otherwise the hits must be adapted, merged and filtered before they can be sorted.
+   */
+  static boolean isIndexPageable(LuceneSrchCfg cfg) {
+    boolean mergesAttachmentHits =
+        cfg.getFullTextOption().isPresent()
+            && !cfg.isNotebookFilter()
+            && !cfg.getFilters().isSomeFilterActive();
+    return !mergesAttachmentHits
+        && !cfg.getReadPrincipalFilterList().isEmpty()
+        && !cfg.isNotebookFilter()
+        && !cfg.areRecordsSelected()
+        && !cfg.getFilters().isOntologiesFilter()
+        && (cfg.getRecordFilterList() == null || cfg.isRecordFilterListUsableInLucene());
+  }
+
+  /**
+   * Whether a set of record ids is small enough to be matched in the index by an {@link
+   * #idPredicate(SearchPredicateFactory, Collection)}.
+   */
+  static boolean isIdSetUsableInLucene(Collection<Long> ids) {
+    return ids.size() <= BooleanQuery.getMaxClauseCount();
+  }
+
+  /**
+   * @return a predicate matching records with one of the given ids, which must not be empty
+   */
+  static SearchPredicate idPredicate(SearchPredicateFactory f, Collection<Long> ids) {
+    BooleanPredicateClausesStep<?> idFilter = f.bool();
+    for (Long id : ids) {
+      idFilter = idFilter.should(f.match().field(FieldNames.RECORD_ID).matching(id));
+    }
+    return idFilter.minimumShouldMatchNumber(1).toPredicate();
+  }
+
+  /**
+   * @return the sort fields for the ordering requested by the pagination criteria, or an empty
+   *     list if hits should be ordered by relevance
+   */
+  static List<String> getSortFields(PaginationCriteria<?> pgCrit) {
+    String orderBy = pgCrit == null ? null : pgCrit.getOrderBy();
+    if (orderBy == null || pgCrit.getSortOrder() == null) {
+      return List.of();
+    } else if (orderBy.equalsIgnoreCase(ORDER_BY_NAME)) {
+      return List.of(
+          FieldNames.SORT_NAME, FieldNames.SORT_MODIFICATION_DATE, FieldNames.RECORD_ID);
+    } else if (orderBy.equalsIgnoreCase(BASE_RECORD_ORDER_BY_LAST_MODIFIED)) {
+      return List.of(FieldNames.SORT_MODIFICATION_DATE, FieldNames.RECORD_ID);
+    } else if (orderBy.equalsIgnoreCase(BASE_RECORD_ORDER_BY_CREATED)) {
+      return List.of(FieldNames.SORT_CREATION_DATE, FieldNames.RECORD_ID);
+    }
+    return List.of();
+  }
+
+  /**
+   * Fetches the page of hits requested by the search's pagination criteria. As with in-memory
+   * pagination, a request for a page beyond the last returns the first page.
+   *
+   * @param predicate matches exactly the records to page through; must be usable in the scope
+   */
+  Page fetchPage(
+      SearchSession session,
+      SearchScope<BaseRecord> scope,
+      SearchPredicate predicate,
+      LuceneSrchCfg cfg) {
+    PaginationCriteria<?> pgCrit = cfg.getPaginationCriteria();
+    int pageSize = pgCrit == null ? cfg.getPageSize() : pgCrit.getResultsPerPage();
+    int pageNumber = pgCrit == null ? cfg.getPageNumber() : pgCrit.getPageNumber().intValue();
+    int maxResults = cfg.getMaxResults();
+    List<String> sortFields = getSortFields(pgCrit);
+    boolean descending = pgCrit != null && pgCrit.getSortOrder() == SortOrder.DESC;
+    String queryKey = cfg.getQueryKey();
+
+    long offset = (long) pageNumber * pageSize;
+    Cursor previous =
+        sortFields.isEmpty() || pageNumber == 0
+            ? null
+            : cursors.get(cursorKey(queryKey, pageNumber - 1));
+    long totalHits = 0;
+    List<BaseRecord> hits = null;
+    if (previous != null) {
+      SearchPredicateFactory f = scope.predicate();
+      SearchPredicate afterPrevious =
+          f.bool()
+              .must(predicate)
+              .must(searchAfter(f, sortFields, previous.sortValues, descending))
+              .toPredicate();
+      SearchResult<BaseRecord> result =
+          search(session, scope, afterPrevious, sortFields, descending)
+              .fetch(limit(offset, pageSize, maxResults));
+      if (!result.hits().isEmpty()) {
+        totalHits = Math.min(offset + result.total().hitCount(), maxResults);
+        hits = result.hits();
+      }
+      // otherwise hits have been removed since the previous page was fetched; count them afresh
+    }
+    if (hits == null) {
+      SearchResult<BaseRecord> result =
+          search(session, scope, predicate, sortFields, descending)
+              .fetch((int) Math.min(offset, maxResults), limit(offset, pageSize, maxResults));
+      totalHits = Math.min(result.total().hitCount(), maxResults);
+      hits = result.hits();
+      if (offset >= totalHits && pageNumber > 0 && totalHits > 0) {
+        // supplied pagination criteria were out of bounds - return first page
+        pageNumber = 0;
+        offset = 0;
+        hits =
+            search(session, scope, predicate, sortFields, descending)
+                .fetchHits(0, limit(offset, pageSize, maxResults));
+      }
+    }
+
+    if (!sortFields.isEmpty() && !hits.isEmpty()) {
+      cursors.put(
+          cursorKey(queryKey, pageNumber),
+          new Cursor(getSortValues(hits.get(hits.size() - 1), sortFields)));
+    }
+    return new Page(hits, pageNumber, totalHits);
+  }
+
+  private SearchQuery<BaseRecord> search(
+      SearchSession session,
+      SearchScope<BaseRecord> scope,
+      SearchPredicate predicate,
+      List<String> sortFields,
+      boolean descending) {
+    return session
+        .search(scope)
+        .where(predicate)
+        .sort(
+            f ->
+                f.composite(
+                    b -> {
+                      if (sortFields.isEmpty()) {
+                        b.add(f.score());
+                        b.add(f.field(FieldNames.RECORD_ID).asc());
+                      }
+                      for (String field : sortFields) {
+                        b.add(descending ? f.field(field).desc() : f.field(field).asc());
+                      }
+                    }))
+        .toQuery();
+  }
+
+  /**
+   * Builds a predicate matching the hits that come after the given sort values, i.e. those whose
+   * first differing sort value is greater (or, if descending, smaller) than the cursor's.
+   */
+  static SearchPredicate searchAfter(
+      SearchPredicateFactory f, List<String> sortFields, Object[] sortValues, boolean descending) {
+    BooleanPredicateClausesStep<?> after = f.bool();
+    for (int i = 0; i < sortFields.size(); i++) {
+      BooleanPredicateClausesStep<?> clause = f.bool();
+      for (int j = 0; j < i; j++) {
+        clause = clause.must(f.match().field(sortFields.get(j)).matching(sortValues[j]));
+      }
+      RangePredicateFieldMoreStep<?, ?> range = f.range().field(sortFields.get(i));
+      clause =
+          clause.must(descending ? range.lessThan(sortValues[i]) : range.greaterThan(sortValues[i]));
+      after = after.should(clause);
+    }
+    return after.minimumShouldMatchNumber(1).toPredicate();
+  }
+
+  /**
+   * @return the values a record has, or had when it was indexed, for the given sort fields
+   */
+  static Object[] getSortValues(BaseRecord record, List<String> sortFields) {
+    Object[] values = new Object[sortFields.size()];
+    for (int i = 0; i < values.length; i++) {
+      switch (sortFields.get(i)) {
+        case FieldNames.SORT_NAME:
+          values[i] = RecordSortFieldsBinder.getSortName(record);
+          break;
+        case FieldNames.SORT_CREATION_DATE:
+          values[i] = RecordSortFieldsBinder.getSortMillis(record.getCreationDateMillis());
+          break;
+        case FieldNames.SORT_MODIFICATION_DATE:
+          values[i] = RecordSortFieldsBinder.getSortMillis(record.getModificationDateMillis());
+          break;
+        case FieldNames.RECORD_ID:
+          values[i] = record.getId();
+          break;
+        default:
+          throw new IllegalArgumentException("Not a sort field: " + sortFields.get(i));
+      }
+    }
+    return values;
+  }
+
+  private static int limit(long offset, int pageSize, int maxResults) {
+    return (int) Math.max(0, Math.min(pageSize, maxResults - offset));
+  }
+
+  private static String cursorKey(String queryKey, int pageNumber) {
+    return queryKey + "#" + pageNumber;
+  }
+}
@@ -32,6 +32,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.hibernate.transform.Transformers;
 import org.jetbrains.annotations.NotNull;
@@ -42,6 +43,13 @@ import org.springframework.stereotype.Repository;
 public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Long>
     implements FileMetadataDao {
 
+  // 'usage' is a reserved word in MariaDB
+  private static final String USAGE_BY_OWNER_QUERY =
+      "select usageBytes as `usage`, fileOwner as username from FileUsage where fileCount > 0 ";
+
+  // not mapped; updates name it as their query space, else Hibernate evicts all cached entities
+  private static final String CONTENTS_DIGEST_TABLE = "FileContentsDigest";
+
   public FileMetadataHibernate() {
     super(FileProperty.class);
   }
@@ -49,13 +57,22 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
   public Long getTotalFileUsageForUser(User user) {
     Number result =
         (Number)
-            getSession()
-                .createQuery("select sum(fileSize) from  FileProperty where fileOwner=:owner")
+            createUsageQuery("select usageBytes from FileUsage where fileOwner=:owner")
                 .setParameter("owner", user.getUsername())
                 .uniqueResult();
     return result != null ? result.longValue() : null;
   }
 
+  /*
+   * Usage is read from FileUsage, which FileUsageListener updates as FileProperties are flushed, so
+   * pending FileProperty changes are flushed first.
+   */
+  private NativeQuery<Object> createUsageQuery(String sql) {
+    return getSession()
+        .createNativeQuery(sql, Object.class)
+        .addSynchronizedEntityClass(FileProperty.class);
+  }
+
   @Override
   public Map<String, DatabaseUsageByUserGroupByResult> getTotalFileUsageForUsers(
       Collection<User> user, PaginationCriteria<User> pgCrit) {
@@ -64,12 +81,12 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
     SortOrder sortOrder = getSortOrder(pgCrit).orElse(SortOrder.DESC);
     Query<DatabaseUsageByUserGroupByResult> query =
         session
-            .createQuery(
-                "select sum(fileSize) as usage, fileOwner as username "
-                    + "from  FileProperty "
-                    + "where fileOwner in (:unames) group by fileOwner order by usage "
+            .createNativeQuery(
+                USAGE_BY_OWNER_QUERY
+                    + "and fileOwner in (:unames) order by usageBytes "
                     + sortOrder,
                 Object[].class)
+            .addSynchronizedEntityClass(FileProperty.class)
             .setTupleTransformer(Transformers.aliasToBean(DatabaseUsageByUserGroupByResult.class))
             .setParameterList("unames", unames);
     return doQuery(pgCrit, query);
@@ -93,7 +110,7 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
   @Override
   public Long getTotalFileUsage() {
     Number count =
-        (Number) getSession().createQuery("select sum(fileSize) from FileProperty").uniqueResult();
+        (Number) createUsageQuery("select sum(usageBytes) from FileUsage").uniqueResult();
     return count != null ? count.longValue() : 0L;
   }
 
@@ -117,12 +134,9 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
       return 0L;
     }
     List<String> unames = transformToString(group.getMembers(), "username");
-    Session session = getSession();
     Number count =
         (Number)
-            session
-                .createQuery(
-                    "select sum(fileSize) as usage from  FileProperty where fileOwner in (:unames)")
+            createUsageQuery("select sum(usageBytes) from FileUsage where fileOwner in (:unames)")
                 .setParameterList("unames", unames)
                 .uniqueResult();
     return extractSizeFromResult(count);
@@ -166,6 +180,7 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
     List<DatabaseUsageByGroupGroupByResult> results =
         session
             .createNativeQuery(query, Object[].class)
+            .addSynchronizedEntityClass(FileProperty.class)
             .setTupleTransformer(Transformers.aliasToBean(DatabaseUsageByGroupGroupByResult.class))
             .setMaxResults(pgCrit.getResultsPerPage())
             .setFirstResult(pgCrit.getFirstResultIndex())
@@ -187,7 +202,9 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
 
   private StringBuilder getBasicQuery(boolean filterByCommunity) {
     StringBuilder sb =
-        new StringBuilder().append("select g.id as groupId,  sum(fp.fileSize) as fileusage from ");
+        new StringBuilder()
+            .append("select g.id as groupId, cast(sum(fu.usageBytes) as double) as fileusage")
+            .append(" from ");
     if (filterByCommunity) {
       sb.append(
           " Community c left join  community_labGroups clg on clg.community_id=c.id inner join"
@@ -197,7 +214,7 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
     }
     sb.append("  inner join UserGroup ug on g.id=ug.group_id")
         .append(" inner join User u on u.id=ug.user_id")
-        .append(" left join FileProperty fp on fp.fileOwner=u.username");
+        .append(" left join FileUsage fu on fu.fileOwner=u.username");
     return sb;
   }
 
@@ -216,14 +233,16 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
 
     return getSession()
         .createNativeQuery(query, Object[].class)
+        .addSynchronizedEntityClass(FileProperty.class)
         .setTupleTransformer(Transformers.aliasToBean(DatabaseUsageByGroupGroupByResult.class))
         .list();
   }
 
   public Long getCountOfUsersWithFilesInFileSystem() {
-    Query<Long> q =
-        getSession().createQuery("select count( distinct fileOwner) from FileProperty", Long.class);
-    return q.uniqueResult();
+    Number count =
+        (Number)
+            createUsageQuery("select count(*) from FileUsage where fileCount > 0").uniqueResult();
+    return count.longValue();
   }
 
   public Map<String, DatabaseUsageByUserGroupByResult> getTotalFileUsageForAllUsers(
@@ -233,14 +252,9 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
     Query<DatabaseUsageByUserGroupByResult> query =
         session
             // sortOrder is an enum so can't be a bad string even though it's added by concatenation
-            .createQuery(
-                "select sum(fileSize) as usage, fileOwner as username "
-                    + "from  FileProperty "
-                    + "where fileOwner is not null "
-                    + "group by fileOwner"
-                    + " order by usage "
-                    + sortOrder,
-                Object[].class)
+            .createNativeQuery(
+                USAGE_BY_OWNER_QUERY + "order by usageBytes " + sortOrder, Object[].class)
+            .addSynchronizedEntityClass(FileProperty.class)
             .setTupleTransformer(Transformers.aliasToBean(DatabaseUsageByUserGroupByResult.class));
     return doQuery(pgCrit, query);
   }
@@ -253,6 +267,13 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
     return Optional.ofNullable(rc);
   }
 
+  @Override
+  public int reconcileFileUsage() {
+    Session session = getSession();
+    session.flush();
+    return session.doReturningWork(FileUsageMaintainer::reconcile);
+  }
+
   @Override
   public List<FileProperty> findProperties(Map<String, String> wheres) {
     Session session = getSession();
@@ -401,4 +422,66 @@ public class FileMetadataHibernate extends GenericDaoHibernate<FileProperty, Lon
         .setMaxResults(1)
         .getSingleResult();
   }
+
+  @Override
+  public void saveContentsDigest(FileProperty fileProperty, String digest) {
+    getSession()
+        .createNativeQuery(
+            "insert into FileContentsDigest (fileProperty_id, digest) values (:id, :digest)"
+                + " on duplicate key update digest = :digest")
+        .addSynchronizedQuerySpace(CONTENTS_DIGEST_TABLE)
+        .setParameter("id", fileProperty.getId())
+        .setParameter("digest", digest)
+        .executeUpdate();
+  }
+
+  @Override
+  public boolean removeContentsDigest(FileProperty fileProperty) {
+    return getSession()
+            .createNativeQuery("delete from FileContentsDigest where fileProperty_id = :id")
+            .addSynchronizedQuerySpace(CONTENTS_DIGEST_TABLE)
+            .setParameter("id", fileProperty.getId())
+            .executeUpdate()
+        > 0;
+  }
+
+  @Override
+  public List<FileProperty> getFilePropertiesWithContentsDigest(
+      String digest, FileStoreRoot root, int maxResults) {
+    return getSession()
+        .createNativeQuery(
+            "select fp.* from FileProperty fp join FileContentsDigest d on d.fileProperty_id ="
+                + " fp.id where d.digest = :digest and fp.root_id = :rootId order by fp.id",
+            FileProperty.class)
+        .setParameter("digest", digest)
+        .setParameter("rootId", root.getId())
+        .setMaxResults(maxResults)
+        .list();
+  }
+
+  @Override
+  public long countFilePropertiesWithContentsDigest(String digest) {
+    Number count =
+        (Number)
+            getSession()
+                .createNativeQuery("select count(*) from FileContentsDigest where digest = :digest")
+                .setParameter("digest", digest)
+                .uniqueResult();
+    return count == null ? 0L : count.longValue();
+  }
+
+  @Override
+  public List<FileProperty> getLocalFilePropertiesWithoutContentsDigest(
+      Long afterId, int maxResults) {
+    return getSession()
+        .createNativeQuery(
+            "select fp.* from FileProperty fp join FileStoreRoot r on r.id = fp.root_id left join"
+                + " FileContentsDigest d on d.fileProperty_id = fp.id where d.fileProperty_id is"
+                + " null and fp.external = false and r.external = false and fp.id > :afterId"
+                + " order by fp.id",
+            FileProperty.class)
+        .setParameter("afterId", afterId == null ? 0L : afterId)
+        .setMaxResults(maxResults)
+        .list();
+  }
 }
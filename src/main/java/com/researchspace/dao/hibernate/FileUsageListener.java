@@ -0,0 +1,89 @@
+package com.researchspace.dao.hibernate;
+
+import static java.util.Collections.singletonList;
+
+import com.researchspace.model.FileProperty;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Updates file usage per owner (see {@link FileUsageMaintainer}) in the same transaction as each
+ * insert or delete of a {@link FileProperty}, or a change of its owner or size.
+ */
+public class FileUsageListener
+    implements PostInsertEventListener, PostDeleteEventListener, PostUpdateEventListener {
+
+  /** */
+  private static final long serialVersionUID = 5046319213834072741L;
+
+  private static final String OWNER_PROPERTY = "fileOwner";
+  private static final String SIZE_PROPERTY = "fileSize";
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    if (event.getEntity() instanceof FileProperty) {
+      FileProperty fp = (FileProperty) event.getEntity();
+      long size = FileUsageMaintainer.parseSize(fp.getFileSize());
+      event
+          .getSession()
+          .doWork(conn -> FileUsageMaintainer.add(conn, fp.getFileOwner(), 1, size));
+    }
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    if (event.getEntity() instanceof FileProperty) {
+      FileProperty fp = (FileProperty) event.getEntity();
+      long size = FileUsageMaintainer.parseSize(fp.getFileSize());
+      event
+          .getSession()
+          .doWork(conn -> FileUsageMaintainer.add(conn, fp.getFileOwner(), -1, -size));
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    if (!(event.getEntity() instanceof FileProperty)) {
+      return;
+    }
+    FileProperty fp = (FileProperty) event.getEntity();
+    if (event.getOldState() == null) {
+      // previous owner and size aren't known, e.g. after merging a detached FileProperty
+      event
+          .getSession()
+          .doWork(conn -> FileUsageMaintainer.recount(conn, singletonList(fp.getFileOwner())));
+      return;
+    }
+    List<String> names = Arrays.asList(event.getPersister().getPropertyNames());
+    int ownerIndex = names.indexOf(OWNER_PROPERTY);
+    int sizeIndex = names.indexOf(SIZE_PROPERTY);
+    String oldOwner = (String) event.getOldState()[ownerIndex];
+    String newOwner = (String) event.getState()[ownerIndex];
+    String oldSize = (String) event.getOldState()[sizeIndex];
+    String newSize = (String) event.getState()[sizeIndex];
+    if (Objects.equals(oldOwner, newOwner) && Objects.equals(oldSize, newSize)) {
+      return;
+    }
+    event
+        .getSession()
+        .doWork(
+            conn -> {
+              FileUsageMaintainer.add(
+                  conn, oldOwner, -1, -FileUsageMaintainer.parseSize(oldSize));
+              FileUsageMaintainer.add(conn, newOwner, 1, FileUsageMaintainer.parseSize(newSize));
+            });
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+}
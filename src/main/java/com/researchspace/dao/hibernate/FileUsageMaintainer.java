@@ -0,0 +1,107 @@
+package com.researchspace.dao.hibernate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Keeps the FileUsage table consistent with FileProperty. FileUsage holds the number and total
+ * size of the FileProperties of each file owner, so that usage can be read without summing the
+ * sizes of all their files.
+ *
+ * <p>Must be called, on the connection that made the change, whenever a FileProperty is added,
+ * removed, or changes owner or size. Hibernate-managed changes are handled by {@link
+ * FileUsageListener}; bulk updates of FileProperty must call this class themselves. Any drift is
+ * repaired by {@link #reconcile}.
+ */
+final class FileUsageMaintainer {
+
+  private static final String ADD =
+      "insert into FileUsage (fileOwner, fileCount, usageBytes) values (?, ?, ?)"
+          + " on duplicate key update fileCount = fileCount + values(fileCount),"
+          + " usageBytes = usageBytes + values(usageBytes)";
+
+  // fileSize is a string column, so is summed as MariaDB converts it, as usage queries always have
+  private static final String RECOUNT_OWNER =
+      "insert into FileUsage (fileOwner, fileCount, usageBytes) select ?, count(fp.id),"
+          + " coalesce(sum(fp.fileSize), 0) from FileProperty fp where fp.fileOwner = ?"
+          + " on duplicate key update fileCount = values(fileCount),"
+          + " usageBytes = values(usageBytes)";
+
+  private static final String ACTUAL_USAGE =
+      "(select fileOwner, count(id) as fileCount, coalesce(sum(fileSize), 0) as usageBytes"
+          + " from FileProperty where fileOwner is not null group by fileOwner)";
+
+  private static final String REPAIR_DRIFTED =
+      "insert into FileUsage (fileOwner, fileCount, usageBytes) select a.fileOwner, a.fileCount,"
+          + " a.usageBytes from "
+          + ACTUAL_USAGE
+          + " a left join FileUsage u on u.fileOwner = a.fileOwner where u.fileOwner is null or"
+          + " u.fileCount <> a.fileCount or u.usageBytes <> a.usageBytes"
+          + " on duplicate key update fileCount = values(fileCount),"
+          + " usageBytes = values(usageBytes)";
+
+  private static final String REMOVE_ORPHANED =
+      "delete from FileUsage where fileOwner not in (select distinct fileOwner from FileProperty"
+          + " where fileOwner is not null)";
+
+  private FileUsageMaintainer() {}
+
+  /**
+   * Adds {@code fileCount} files of {@code bytes} total size to the usage of {@code fileOwner}; a
+   * negative count and size remove files.
+   */
+  static void add(Connection conn, String fileOwner, long fileCount, long bytes)
+      throws SQLException {
+    if (fileOwner == null || (fileCount == 0 && bytes == 0)) {
+      return;
+    }
+    try (PreparedStatement ps = conn.prepareStatement(ADD)) {
+      ps.setString(1, fileOwner);
+      ps.setLong(2, fileCount);
+      ps.setLong(3, bytes);
+      ps.executeUpdate();
+    }
+  }
+
+  /** Recalculates the usage of each of {@code fileOwners} from their FileProperties. */
+  static void recount(Connection conn, Collection<String> fileOwners) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(RECOUNT_OWNER)) {
+      for (String fileOwner : fileOwners) {
+        if (fileOwner != null) {
+          ps.setString(1, fileOwner);
+          ps.setString(2, fileOwner);
+          ps.executeUpdate();
+        }
+      }
+    }
+  }
+
+  /**
+   * Corrects the usage of every owner whose FileUsage row doesn't match their FileProperties, and
+   * removes rows for owners that no longer have any.
+   *
+   * @return the number of changed rows, as reported by the database; 0 if there was no drift
+   */
+  static int reconcile(Connection conn) throws SQLException {
+    try (PreparedStatement repair = conn.prepareStatement(REPAIR_DRIFTED);
+        PreparedStatement remove = conn.prepareStatement(REMOVE_ORPHANED)) {
+      return repair.executeUpdate() + remove.executeUpdate();
+    }
+  }
+
+  /**
+   * @param fileSize a FileProperty's fileSize
+   * @return the size in bytes, 0 if it isn't a number
+   */
+  static long parseSize(String fileSize) {
+    String trimmed = StringUtils.trimToEmpty(fileSize);
+    try {
+      return trimmed.isEmpty() ? 0 : Long.parseLong(trimmed);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.researchspace.dao.hibernate;
+
+import com.researchspace.model.record.BaseRecord;
+import com.researchspace.model.record.RecordToFolder;
+import java.util.Arrays;
+import java.util.Objects;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Updates the folder ancestry index (see {@link FolderAncestryMaintainer}) in the same transaction
+ * as each insert, delete or update of a {@link RecordToFolder}.
+ */
+public class FolderAncestryListener
+    implements PostInsertEventListener, PostDeleteEventListener, PostUpdateEventListener {
+
+  /** */
+  private static final long serialVersionUID = 3870172645093265133L;
+
+  private static final String FOLDER_PROPERTY = "folder";
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    if (event.getEntity() instanceof RecordToFolder) {
+      RecordToFolder rtf = (RecordToFolder) event.getEntity();
+      event
+          .getSession()
+          .doWork(
+              conn ->
+                  FolderAncestryMaintainer.linkAdded(
+                      conn, rtf.getFolder().getId(), rtf.getRecord().getId()));
+    }
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    if (event.getEntity() instanceof RecordToFolder) {
+      RecordToFolder rtf = (RecordToFolder) event.getEntity();
+      event
+          .getSession()
+          .doWork(conn -> FolderAncestryMaintainer.linkRemoved(conn, rtf.getRecord().getId()));
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    if (!(event.getEntity() instanceof RecordToFolder) || event.getOldState() == null) {
+      return;
+    }
+    int folderIndex =
+        Arrays.asList(event.getPersister().getPropertyNames()).indexOf(FOLDER_PROPERTY);
+    Object oldFolder = event.getOldState()[folderIndex];
+    Object newFolder = event.getState()[folderIndex];
+    if (!Objects.equals(idOf(oldFolder), idOf(newFolder))) {
+      RecordToFolder rtf = (RecordToFolder) event.getEntity();
+      // re-derives the child's ancestors from all its current links, including the new one
+      event
+          .getSession()
+          .doWork(conn -> FolderAncestryMaintainer.linkRemoved(conn, rtf.getRecord().getId()));
+    }
+  }
+
+  private Long idOf(Object folder) {
+    return folder == null ? null : ((BaseRecord) folder).getId();
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+}
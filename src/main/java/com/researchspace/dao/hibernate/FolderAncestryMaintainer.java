@@ -0,0 +1,110 @@
+package com.researchspace.dao.hibernate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the FolderAncestry table consistent with RecordToFolder. FolderAncestry is the transitive
+ * closure of RecordToFolder: it holds one (ancestor, descendant) row for every folder and every
+ * record somewhere below it, by any path, so that 'is X inside folder Y?' is a single indexed lookup
+ * however deep the hierarchy is.
+ *
+ * <p>Must be called, on the connection that made the change, whenever a RecordToFolder row is added,
+ * removed or re-pointed. Hibernate-managed changes are handled by {@link FolderAncestryListener};
+ * bulk updates of RecordToFolder must call this class themselves.
+ */
+final class FolderAncestryMaintainer {
+
+  // ancestors of the new parent, and the parent itself, become ancestors of the child and of
+  // everything below it
+  private static final String INSERT_LINK =
+      "insert ignore into FolderAncestry (ancestor_id, descendant_id) select a.id, d.id from"
+          + " (select ancestor_id as id from FolderAncestry where descendant_id = ? union select ?)"
+          + " a cross join (select descendant_id as id from FolderAncestry where ancestor_id = ?"
+          + " union select ?) d where a.id <> d.id";
+
+  // the union stops MySQL merging the derived tables into the delete, which it doesn't allow for
+  // subqueries on the table being deleted from
+  private static final String SUBTREE =
+      "(select id from (select descendant_id as id from FolderAncestry where ancestor_id = ?"
+          + " union select ?) s)";
+
+  private static final String DELETE_ANCESTORS_OF_SUBTREE =
+      "delete from FolderAncestry where descendant_id in "
+          + SUBTREE
+          + " and ancestor_id not in "
+          + SUBTREE;
+
+  private static final String LINKS_INTO_SUBTREE =
+      "select rtf.folder_id, rtf.record_id from RecordToFolder rtf where rtf.record_id in "
+          + SUBTREE
+          + " and rtf.folder_id not in "
+          + SUBTREE;
+
+  private static final String REBUILD =
+      "insert ignore into FolderAncestry (ancestor_id, descendant_id) with recursive anc"
+          + " (ancestor_id, descendant_id) as (select folder_id, record_id from RecordToFolder"
+          + " union select a.ancestor_id, r.record_id from anc a join RecordToFolder r on"
+          + " r.folder_id = a.descendant_id) select ancestor_id, descendant_id from anc where"
+          + " ancestor_id <> descendant_id";
+
+  private FolderAncestryMaintainer() {}
+
+  /** Records that {@code childId} has been put into folder {@code parentId}. */
+  static void linkAdded(Connection conn, long parentId, long childId) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(INSERT_LINK)) {
+      ps.setLong(1, parentId);
+      ps.setLong(2, parentId);
+      ps.setLong(3, childId);
+      ps.setLong(4, childId);
+      ps.executeUpdate();
+    }
+  }
+
+  /**
+   * Recomputes the ancestors of {@code childId} and of everything below it, after one of the
+   * child's RecordToFolder rows has been removed or moved to another folder. Ancestors outside the
+   * child's subtree are removed, then re-derived from the RecordToFolder rows that still lead into
+   * the subtree, so records that are also linked from elsewhere (e.g. shared into a group folder)
+   * keep those ancestors.
+   */
+  static void linkRemoved(Connection conn, long childId) throws SQLException {
+    List<long[]> linksIn = new ArrayList<>();
+    try (PreparedStatement ps = conn.prepareStatement(LINKS_INTO_SUBTREE)) {
+      setSubtreeParams(ps, childId, 1, 3);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          linksIn.add(new long[] {rs.getLong(1), rs.getLong(2)});
+        }
+      }
+    }
+    try (PreparedStatement ps = conn.prepareStatement(DELETE_ANCESTORS_OF_SUBTREE)) {
+      setSubtreeParams(ps, childId, 1, 3);
+      ps.executeUpdate();
+    }
+    for (long[] link : linksIn) {
+      linkAdded(conn, link[0], link[1]);
+    }
+  }
+
+  /** Recreates the whole table from RecordToFolder. */
+  static void rebuild(Connection conn) throws SQLException {
+    try (PreparedStatement delete = conn.prepareStatement("delete from FolderAncestry");
+        PreparedStatement insert = conn.prepareStatement(REBUILD)) {
+      delete.executeUpdate();
+      insert.executeUpdate();
+    }
+  }
+
+  private static void setSubtreeParams(PreparedStatement ps, long rootId, int... firstIndexes)
+      throws SQLException {
+    for (int index : firstIndexes) {
+      ps.setLong(index, rootId);
+      ps.setLong(index + 1, rootId);
+    }
+  }
+}
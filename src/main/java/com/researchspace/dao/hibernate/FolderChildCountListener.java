@@ -0,0 +1,98 @@
+package com.researchspace.dao.hibernate;
+
+import com.researchspace.model.record.BaseRecord;
+import com.researchspace.model.record.RecordToFolder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Evicts cached folder record counts (see {@link FolderChildCounts}) when a {@link
+ * RecordToFolder} is inserted, deleted or updated, or when a record is deleted, restored or changes
+ * type.
+ */
+public class FolderChildCountListener
+    implements PostInsertEventListener, PostDeleteEventListener, PostUpdateEventListener {
+
+  /** */
+  private static final long serialVersionUID = -2284906311562361377L;
+
+  private static final String FOLDER_PROPERTY = "folder";
+  private static final List<String> COUNTED_RECORD_PROPERTIES = List.of("deleted", "type");
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    if (event.getEntity() instanceof RecordToFolder) {
+      RecordToFolder rtf = (RecordToFolder) event.getEntity();
+      folderChanged(event.getSession().getFactory(), rtf.getFolder());
+    }
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    if (event.getEntity() instanceof RecordToFolder) {
+      RecordToFolder rtf = (RecordToFolder) event.getEntity();
+      folderChanged(event.getSession().getFactory(), rtf.getFolder());
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    SessionFactory sessionFactory = event.getSession().getFactory();
+    if (event.getEntity() instanceof RecordToFolder) {
+      // e.g. recordInFolderDeleted, or a move to another folder
+      folderChanged(sessionFactory, ((RecordToFolder) event.getEntity()).getFolder());
+      if (event.getOldState() != null) {
+        int folderIndex = propertyNames(event).indexOf(FOLDER_PROPERTY);
+        folderChanged(sessionFactory, event.getOldState()[folderIndex]);
+      }
+    } else if (event.getEntity() instanceof BaseRecord && countedPropertyChanged(event)) {
+      BaseRecord record = (BaseRecord) event.getEntity();
+      // don't load the parents during a flush
+      if (Hibernate.isInitialized(record.getParents())) {
+        record.getParents().forEach(rtf -> folderChanged(sessionFactory, rtf.getFolder()));
+      } else {
+        FolderChildCounts.allFoldersChanged(sessionFactory);
+      }
+    }
+  }
+
+  private boolean countedPropertyChanged(PostUpdateEvent event) {
+    if (event.getOldState() == null) {
+      // not known, e.g. after merging a detached record
+      return true;
+    }
+    List<String> names = propertyNames(event);
+    for (String property : COUNTED_RECORD_PROPERTIES) {
+      int index = names.indexOf(property);
+      if (index >= 0 && !Objects.equals(event.getOldState()[index], event.getState()[index])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private List<String> propertyNames(PostUpdateEvent event) {
+    return Arrays.asList(event.getPersister().getPropertyNames());
+  }
+
+  private void folderChanged(SessionFactory sessionFactory, Object folder) {
+    if (folder != null && ((BaseRecord) folder).getId() != null) {
+      FolderChildCounts.folderChanged(sessionFactory, ((BaseRecord) folder).getId());
+    }
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+}
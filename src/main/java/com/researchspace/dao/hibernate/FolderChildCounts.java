@@ -0,0 +1,144 @@
+package com.researchspace.dao.hibernate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches the number of records in a folder, for each record type filter, so that listing each page
+ * of a large folder doesn't count its contents again.
+ *
+ * <p>Counts are held in the {@link #CACHE_NAME} cache of ehcache.xml, from the same CacheManager as
+ * the second-level cache, and are evicted whenever a record is added to, removed from or deleted in
+ * the folder. Hibernate-managed changes are handled by {@link FolderChildCountListener}; bulk
+ * updates and native deletes of records or RecordToFolder must call this class themselves. Counts
+ * are evicted both when the change is flushed and when its transaction completes, and folders
+ * changed by the current transaction are counted without the cache until then.
+ *
+ * <p>The cache is per application node, so entries also expire after a short time (see
+ * ehcache.xml), to pick up changes made on other nodes.
+ */
+final class FolderChildCounts {
+
+  static final String CACHE_NAME = "com.researchspace.folderChildCounts";
+
+  private static final Long ALL_FOLDERS = -1L;
+
+  private FolderChildCounts() {}
+
+  /**
+   * @param sessionFactory the session factory, whose cache manager holds the counts
+   * @param folderId the folder whose records are counted
+   * @param filterKey identifies the record type filter used by the counter
+   * @param counter counts the records, if there is no cached count
+   * @return the cached or counted number of records
+   */
+  static long getCount(
+      SessionFactory sessionFactory, long folderId, String filterKey, LongSupplier counter) {
+    Cache<Long, HashMap<String, Long>> cache = getCache(sessionFactory);
+    Set<Long> pending = getPendingChanges(null);
+    if (cache == null
+        || (pending != null && (pending.contains(folderId) || pending.contains(ALL_FOLDERS)))) {
+      return counter.getAsLong();
+    }
+    HashMap<String, Long> cached = cache.get(folderId);
+    if (cached != null && cached.containsKey(filterKey)) {
+      return cached.get(filterKey);
+    }
+    long count = counter.getAsLong();
+    HashMap<String, Long> updated = cached == null ? new HashMap<>() : new HashMap<>(cached);
+    updated.put(filterKey, count);
+    // not stored if the folder's counts were evicted or replaced while counting
+    if (cached == null) {
+      cache.putIfAbsent(folderId, updated);
+    } else {
+      cache.replace(folderId, cached, updated);
+    }
+    return count;
+  }
+
+  /** Evicts the counts of a folder whose records have changed in the current transaction. */
+  static void folderChanged(SessionFactory sessionFactory, long folderId) {
+    Cache<Long, HashMap<String, Long>> cache = getCache(sessionFactory);
+    if (cache == null) {
+      return;
+    }
+    cache.remove(folderId);
+    Set<Long> pending = getPendingChanges(cache);
+    if (pending != null) {
+      pending.add(folderId);
+    }
+  }
+
+  /**
+   * Evicts all counts, when records have changed in the current transaction in folders whose ids
+   * aren't known.
+   */
+  static void allFoldersChanged(SessionFactory sessionFactory) {
+    Cache<Long, HashMap<String, Long>> cache = getCache(sessionFactory);
+    if (cache == null) {
+      return;
+    }
+    cache.removeAll();
+    Set<Long> pending = getPendingChanges(cache);
+    if (pending != null) {
+      pending.add(ALL_FOLDERS);
+    }
+  }
+
+  /*
+   * Folders changed in the current transaction, whose counts are evicted again when it completes.
+   * Registers the set if a cache is given and there is none yet.
+   */
+  @SuppressWarnings("unchecked")
+  private static Set<Long> getPendingChanges(Cache<Long, HashMap<String, Long>> cache) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return null;
+    }
+    Set<Long> pending =
+        (Set<Long>) TransactionSynchronizationManager.getResource(FolderChildCounts.class);
+    if (pending == null && cache != null) {
+      Set<Long> changed = new HashSet<>();
+      TransactionSynchronizationManager.bindResource(FolderChildCounts.class, changed);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(FolderChildCounts.class);
+              if (changed.contains(ALL_FOLDERS)) {
+                cache.removeAll();
+              } else {
+                cache.removeAll(changed);
+              }
+            }
+          });
+      pending = changed;
+    }
+    return pending;
+  }
+
+  /*
+   * The counts cache, or null if the second-level cache isn't JCache (e.g. it's disabled) or has no
+   * counts cache.
+   */
+  private static Cache<Long, HashMap<String, Long>> getCache(SessionFactory sessionFactory) {
+    RegionFactory regionFactory =
+        sessionFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+    if (!(regionFactory instanceof JCacheRegionFactory)) {
+      return null;
+    }
+    CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+    return cacheManager == null || cacheManager.isClosed()
+        ? null
+        : cacheManager.getCache(CACHE_NAME);
+  }
+}
@@ -12,9 +12,14 @@ import com.researchspace.model.User;
 import com.researchspace.model.core.RecordType;
 import com.researchspace.model.record.BaseRecord;
 import com.researchspace.model.record.Folder;
+import com.researchspace.model.record.RecordToFolder;
 import com.researchspace.model.views.TreeViewItem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.hibernate.query.Query;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.stereotype.Repository;
@@ -22,6 +27,8 @@ import org.springframework.stereotype.Repository;
 @Repository(value = "folderDao")
 public class FolderDaoHibernateImpl extends GenericDaoHibernate<Folder, Long> implements FolderDao {
 
+  private static final int MAX_FOLDERS_PER_FETCH = 1000;
+
   public FolderDaoHibernateImpl() {
     super(Folder.class);
   }
@@ -277,4 +284,69 @@ public class FolderDaoHibernateImpl extends GenericDaoHibernate<Folder, Long> im
             .setParameter("importsType", "%" + RecordType.IMPORTS.name() + "%")
             .uniqueResult());
   }
+
+  @Override
+  public boolean isDescendantOf(Long recordId, Long folderId) {
+    return !getSession()
+        .createNativeQuery(
+            "select descendant_id from FolderAncestry where ancestor_id = :folderId and"
+                + " descendant_id = :recordId",
+            Long.class)
+        .addSynchronizedEntityClass(RecordToFolder.class)
+        .setParameter("folderId", folderId)
+        .setParameter("recordId", recordId)
+        .setMaxResults(1)
+        .list()
+        .isEmpty();
+  }
+
+  @Override
+  public Set<Long> getRecordIdsInOrBelow(Collection<Long> recordIds, Collection<Long> folderIds) {
+    if (recordIds.isEmpty() || folderIds.isEmpty()) {
+      return new HashSet<>();
+    }
+    Set<Long> result = new HashSet<>(recordIds);
+    result.retainAll(folderIds);
+    result.addAll(
+        getSession()
+            .createNativeQuery(
+                "select distinct descendant_id from FolderAncestry where ancestor_id in"
+                    + " (:folderIds) and descendant_id in (:recordIds)",
+                Long.class)
+            .addSynchronizedEntityClass(RecordToFolder.class)
+            .setParameterList("folderIds", folderIds)
+            .setParameterList("recordIds", recordIds)
+            .list());
+    return result;
+  }
+
+  @Override
+  public List<Long> getDescendantFolderIds(Long folderId) {
+    return getSession()
+        .createNativeQuery(
+            "select fa.descendant_id from FolderAncestry fa join Folder f on f.id ="
+                + " fa.descendant_id where fa.ancestor_id = :folderId",
+            Long.class)
+        .addSynchronizedEntityClass(RecordToFolder.class)
+        .setParameter("folderId", folderId)
+        .list();
+  }
+
+  @Override
+  public List<Folder> getFoldersWithChildren(Collection<Long> folderIds) {
+    List<Long> ids = new ArrayList<>(folderIds);
+    List<Folder> folders = new ArrayList<>();
+    for (int from = 0; from < ids.size(); from += MAX_FOLDERS_PER_FETCH) {
+      List<Long> batch = ids.subList(from, Math.min(from + MAX_FOLDERS_PER_FETCH, ids.size()));
+      folders.addAll(
+          getSession()
+              .createQuery(
+                  "select distinct f from Folder f left join fetch f.children rtf left join fetch"
+                      + " rtf.record where f.id in (:ids)",
+                  Folder.class)
+              .setParameterList("ids", batch)
+              .list());
+    }
+    return folders;
+  }
 }
@@ -1,5 +1,6 @@
 package com.researchspace.dao.hibernate;
 
+import com.axiope.search.FieldNames;
 import com.axiope.search.IFileSearcher;
 import com.axiope.search.IFullTextSearcher;
 import com.axiope.search.InventorySearchConfig;
@@ -12,6 +13,7 @@ import com.axiope.search.SearchUtils;
 import com.researchspace.core.util.ISearchResults;
 import com.researchspace.core.util.SearchResultsImpl;
 import com.researchspace.dao.DAOUtils;
+import com.researchspace.dao.FolderDao;
 import com.researchspace.dao.RecordGroupSharingDao;
 import com.researchspace.dao.RecordUserFavoritesDao;
 import com.researchspace.model.EcatAudio;
@@ -61,6 +63,8 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.hibernate.SessionFactory;
 import org.hibernate.search.engine.search.predicate.SearchPredicate;
+import org.hibernate.search.engine.search.predicate.dsl.BooleanPredicateClausesStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
 import org.hibernate.search.mapper.orm.Search;
 import org.hibernate.search.mapper.orm.scope.SearchScope;
 import org.hibernate.search.mapper.orm.session.SearchSession;
@@ -83,6 +87,7 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
   private final IFileSearcher fileSearcher;
   private final RecordUserFavoritesDao recordUserFavoritesDao;
   private final RecordGroupSharingDao recordGroupSharingDao;
+  private final FolderDao folderDao;
 
   public FullTextSearcherImpl(
       DAOUtils daoUtils,
@@ -92,7 +97,8 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
       LuceneSearchTermListFactory termListFactory,
       IFileSearcher fileSearcher,
       RecordUserFavoritesDao recordUserFavoritesDao,
-      RecordGroupSharingDao recordGroupSharingDao) {
+      RecordGroupSharingDao recordGroupSharingDao,
+      FolderDao folderDao) {
     this.daoUtils = daoUtils;
     this.permissionUtils = permissionUtils;
     this.inventoryPermissionUtils = inventoryPermissionUtils;
@@ -101,9 +107,11 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
     this.fileSearcher = fileSearcher;
     this.recordUserFavoritesDao = recordUserFavoritesDao;
     this.recordGroupSharingDao = recordGroupSharingDao;
+    this.folderDao = folderDao;
   }
 
   private final RSQueryBuilder queryBuilder = new RSQueryBuilder();
+  private final ElnSearchPager elnSearchPager = new ElnSearchPager();
   private BaseRecordAdaptable baseRecordAdapter;
 
   @Override
@@ -118,8 +126,17 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
     LuceneSrchCfg luceneSearchConfig = new LuceneSrchCfg(searchConfig, termListFactory);
     List<BaseRecord> hits;
     try {
+      List<Set<Long>> recordIdRestrictions = getRecordIdRestrictions(luceneSearchConfig);
+      if (ElnSearchPager.isIndexPageable(luceneSearchConfig)
+          && recordIdRestrictions.stream().allMatch(ElnSearchPager::isIdSetUsableInLucene)) {
+        Optional<ISearchResults<BaseRecord>> page =
+            getIndexPagedElnRecords(luceneSearchConfig, recordIdRestrictions);
+        if (page.isPresent()) {
+          return page.get();
+        }
+      }
       List<IFieldLinkableElement> hibList = getElnHibernateList(luceneSearchConfig);
-      hits = filterAndSortQueryList(hibList, luceneSearchConfig);
+      hits = filterAndSortQueryList(hibList, luceneSearchConfig, recordIdRestrictions);
 
     } catch (Exception e) {
       log.error("Error in getting the Lucene query list", e);
@@ -142,6 +159,114 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
     return records;
   }
 
+  /**
+   * Gets a page of ELN search results by sorting and paging the hits in the index, so that only the
+   * records on the requested page are loaded. This is only possible if hits and results correspond
+   * one to one, see {@link ElnSearchPager#isIndexPageable(LuceneSrchCfg)}.
+   *
+   * @return the page, or an empty optional if the search also matches comments
+   */
+  private Optional<ISearchResults<BaseRecord>> getIndexPagedElnRecords(
+      LuceneSrchCfg srchConfig, List<Set<Long>> recordIdRestrictions) {
+    PaginationCriteria<?> criteria = srchConfig.getPaginationCriteria();
+    ISearchResults<BaseRecord> noResults =
+        new SearchResultsImpl<>(
+            List.of(), criteria.getPageNumber().intValue(), 0L, criteria.getResultsPerPage());
+    if (recordIdRestrictions.stream().anyMatch(Set::isEmpty)) {
+      return Optional.of(noResults);
+    }
+    SearchSession searchSession = getSearchSession();
+    boolean documentsOnly = srchConfig.getFilters().isDocumentsFilter();
+    if (!documentsOnly && canMatchComments(srchConfig)) {
+      // a comment hit stands for its document, which may also be a hit in its own right
+      SearchScope<EcatCommentItem> commentScope = searchSession.scope(EcatCommentItem.class);
+      SearchPredicate commentPredicate = queryBuilder.getSearchPredicate(commentScope, srchConfig);
+      if (commentPredicate != null
+          && searchSession.search(commentScope).where(commentPredicate).fetchTotalHitCount() > 0) {
+        log.debug("Search matches comments, sorting and paging in memory");
+        return Optional.empty();
+      }
+    }
+
+    List<Class<? extends BaseRecord>> recordClasses =
+        documentsOnly ? List.of(StructuredDocument.class) : ELN_RECORD_CLASSES;
+    SearchScope<BaseRecord> scope = searchSession.scope(recordClasses);
+    SearchPredicate predicate = queryBuilder.getSearchPredicate(scope, srchConfig);
+    if (predicate == null) {
+      return Optional.of(noResults);
+    }
+    SearchPredicateFactory f = scope.predicate();
+    BooleanPredicateClausesStep<?> recordPredicate =
+        f.bool()
+            .must(predicate)
+            .mustNot(f.match().field(FieldNames.HIDDEN_FROM_SEARCH).matching(true));
+    if (srchConfig.getFilters().isTemplatesFilter()) {
+      recordPredicate =
+          recordPredicate.must(f.match().field(FieldNames.IS_TEMPLATE).matching(true));
+    }
+    for (Set<Long> ids : recordIdRestrictions) {
+      recordPredicate = recordPredicate.must(ElnSearchPager.idPredicate(f, ids));
+    }
+
+    ElnSearchPager.Page page =
+        elnSearchPager.fetchPage(searchSession, scope, recordPredicate.toPredicate(), srchConfig);
+    // the index has already excluded unreadable, deleted and invisible records; this catches any
+    // changes not yet indexed, and records the user has deleted from their own folders
+    List<BaseRecord> results =
+        newResultFilterer(filterResultsByPermission(srchConfig, page.getHits()), srchConfig)
+            .filterAll();
+    results.replaceAll(daoUtils::initializeAndUnproxy);
+    // hits filtered out here aren't results, so aren't counted either
+    long totalHits = page.getTotalHits() - (page.getHits().size() - results.size());
+    return Optional.of(
+        new SearchResultsImpl<>(
+            results, page.getPageNumber(), totalHits, criteria.getResultsPerPage()));
+  }
+
+  /*
+   * Comments are only indexed with their text and their author, so can only match searches of
+   * field content or owner.
+   */
+  private static boolean canMatchComments(LuceneSrchCfg srchConfig) {
+    return srchConfig.getTermListFields().stream().anyMatch(COMMENT_SEARCH_FIELDS::contains);
+  }
+
+  /**
+   * @return for each active filter restricting results to a set of records, the ids of those
+   *     records
+   */
+  private List<Set<Long>> getRecordIdRestrictions(LuceneSrchCfg srchConfig) {
+    List<Set<Long>> restrictions = new ArrayList<>();
+    if (srchConfig.getFilters().isSharedFilter()) {
+      restrictions.add(
+          new HashSet<>(
+              recordGroupSharingDao.getSharedRecordIdsWithUser(srchConfig.getAuthenticatedUser())));
+    }
+    if (srchConfig.getFilters().isFavoritesFilter()) {
+      restrictions.add(
+          new HashSet<>(
+              recordUserFavoritesDao.getFavoriteRecordIdsByUser(
+                  srchConfig.getAuthenticatedUser().getId())));
+    }
+    return restrictions;
+  }
+
+  /**
+   * Creates a filterer for some hits. If the search is restricted to selected records, finds which
+   * of the hits are in, or below, the selection with one lookup in the folder ancestry index.
+   */
+  private PostTextSearchResultFilterer newResultFilterer(
+      List<BaseRecord> hits, LuceneSrchCfg srchConfig) {
+    if (!srchConfig.areRecordsSelected() || hits.isEmpty()) {
+      return new PostTextSearchResultFilterer(hits, srchConfig);
+    }
+    Set<Long> hitIds = hits.stream().map(BaseRecord::getId).collect(Collectors.toSet());
+    return new PostTextSearchResultFilterer(
+        hits,
+        srchConfig,
+        folderDao.getRecordIdsInOrBelow(hitIds, srchConfig.getSelectedRecordIds()));
+  }
+
   /** Paginate the results. */
   <T> ISearchResults<T> repaginateResults(LuceneSrchCfg srchConfig, ISearchResults<T> srchResults) {
 
@@ -162,13 +287,16 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
 
   /** Does final filtering on results retrieved by Lucene */
   private List<BaseRecord> filterAndSortQueryList(
-      List<IFieldLinkableElement> hits, LuceneSrchCfg srchConfig) throws IOException {
+      List<IFieldLinkableElement> hits,
+      LuceneSrchCfg srchConfig,
+      List<Set<Long>> recordIdRestrictions)
+      throws IOException {
     List<BaseRecord> hibernateBaseRecordList = new ArrayList<>();
     List<BaseRecord> attachmentBaseRecordList = new ArrayList<>();
 
     if (!hits.isEmpty()) {
       hibernateBaseRecordList =
-          new PostTextSearchResultFilterer(filterResultsByPermission(srchConfig, hits), srchConfig)
+          newResultFilterer(filterResultsByPermission(srchConfig, hits), srchConfig)
               .filterAll();
       if (srchConfig.getFilters().isDocumentsFilter()) {
         hibernateBaseRecordList =
@@ -202,8 +330,7 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
       List<BaseRecord> attachmentList = getAttachmentList(srchConfig, fullTextOption.get());
       if (!attachmentList.isEmpty()) {
         attachmentBaseRecordList =
-            new PostTextSearchResultFilterer(
-                    filterResultsByPermission(srchConfig, attachmentList), srchConfig)
+            newResultFilterer(filterResultsByPermission(srchConfig, attachmentList), srchConfig)
                 .filterAll();
       }
     }
@@ -212,17 +339,9 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
     resultList.addAll(hibernateBaseRecordList);
     resultList.addAll(attachmentBaseRecordList);
 
-    if (srchConfig.getFilters().isSharedFilter()) {
-      List<BaseRecord> sharedRecords =
-          recordGroupSharingDao.getSharedRecordsWithUser(srchConfig.getAuthenticatedUser());
-      resultList.retainAll(sharedRecords);
-    }
-
-    if (srchConfig.getFilters().isFavoritesFilter()) {
-      List<BaseRecord> userFavourites =
-          recordUserFavoritesDao.getFavoriteRecordsByUser(
-              srchConfig.getAuthenticatedUser().getId());
-      resultList.retainAll(userFavourites);
+    // shared and favorites filters
+    for (Set<Long> ids : recordIdRestrictions) {
+      resultList.removeIf(record -> !ids.contains(record.getId()));
     }
 
     // When we retrieve only results from LuceneFTsearchIndices.
@@ -281,6 +400,22 @@ public class FullTextSearcherImpl implements IFullTextSearcher {
           EcatDocumentFile.class,
           EcatChemistryFile.class);
 
+  private static final Set<String> COMMENT_SEARCH_FIELDS =
+      Set.of(FieldNames.FIELD_DATA, FieldNames.FLAT_FIELD_DATA, FieldNames.OWNER);
+
+  // The BaseRecord types among the above, whose hits are results in their own right
+  private static final List<Class<? extends BaseRecord>> ELN_RECORD_CLASSES =
+      List.of(
+          StructuredDocument.class,
+          Folder.class,
+          Notebook.class,
+          Snippet.class,
+          EcatAudio.class,
+          EcatImage.class,
+          EcatVideo.class,
+          EcatDocumentFile.class,
+          EcatChemistryFile.class);
+
   List<IFieldLinkableElement> getElnHibernateList(LuceneSrchCfg srchConfig) {
     SearchSession searchSession = getSearchSession();
     SearchScope<IFieldLinkableElement> scope = searchSession.scope(ELN_SEARCH_CLASSES);
@@ -0,0 +1,52 @@
+package com.researchspace.dao.hibernate;
+
+import com.researchspace.dao.InventoryBulkDao;
+import com.researchspace.model.User;
+import java.util.ArrayList;
+import java.util.Collection;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class InventoryBulkDaoHibernateImpl implements InventoryBulkDao {
+
+  // statements per JDBC batch, and ids per query when loading entities
+  static final int JDBC_BATCH_SIZE = 50;
+
+  private @Autowired SessionFactory sessionFactory;
+
+  private Session getSession() {
+    return sessionFactory.getCurrentSession();
+  }
+
+  @Override
+  public void enableJdbcBatching() {
+    getSession().setJdbcBatchSize(JDBC_BATCH_SIZE);
+  }
+
+  @Override
+  public void loadIntoSession(Class<?> entityClass, Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    getSession()
+        .byMultipleIds(entityClass)
+        .enableSessionCheck(true)
+        .withBatchSize(JDBC_BATCH_SIZE)
+        .multiLoad(new ArrayList<>(ids));
+  }
+
+  @Override
+  public void flushAndClear(User user) {
+    Session session = getSession();
+    session.flush();
+    session.clear();
+    if (user.getId() != null) {
+      // reattaches without a query, so lazy properties of the user can still be loaded
+      session.lock(user, LockMode.NONE);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.researchspace.dao.hibernate;
+
+import com.researchspace.comms.NotificationOutboxEntry;
+import com.researchspace.dao.GenericDaoHibernate;
+import com.researchspace.dao.NotificationOutboxDao;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.LockMode;
+import org.springframework.stereotype.Repository;
+
+@Repository("notificationOutboxDao")
+public class NotificationOutboxDaoHibernate
+    extends GenericDaoHibernate<NotificationOutboxEntry, Long> implements NotificationOutboxDao {
+
+  public NotificationOutboxDaoHibernate() {
+    super(NotificationOutboxEntry.class);
+  }
+
+  @Override
+  public List<Long> getDueEntryIds(long now, int maxResults) {
+    return getSession()
+        .createQuery(
+            "select e.id from NotificationOutboxEntry e where e.nextAttemptTime <= :now"
+                + " order by e.nextAttemptTime, e.id",
+            Long.class)
+        .setParameter("now", now)
+        .setMaxResults(maxResults)
+        .list();
+  }
+
+  @Override
+  public Optional<NotificationOutboxEntry> lockForDelivery(Long id) {
+    // skips rather than waits for an entry being delivered by another node
+    return getSession()
+        .createQuery(
+            "from NotificationOutboxEntry e where e.id = :id", NotificationOutboxEntry.class)
+        .setParameter("id", id)
+        .setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED)
+        .uniqueResultOptional();
+  }
+}
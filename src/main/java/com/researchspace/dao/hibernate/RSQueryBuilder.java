@@ -181,8 +181,12 @@ class RSQueryBuilder {
       LuceneSrchCfg cfg, SearchPredicateFactory f, SearchPredicate predicate) {
     if (cfg.isRestrictByUser()) {
       BooleanPredicateClausesStep<?> userFilter = f.bool();
-      for (String username : cfg.getUsernameFilterList()) {
-        userFilter = userFilter.should(ownerUsernameMatch(f, username));
+      if (cfg.getReadPrincipalFilterList().isEmpty()) {
+        for (String username : cfg.getUsernameFilterList()) {
+          userFilter = userFilter.should(ownerUsernameMatch(f, username));
+        }
+      } else {
+        userFilter = addReadPrincipalClauses(cfg, f, userFilter);
       }
       for (String sharedWith : cfg.getSharedWithFilterList()) {
         // sharedWith is a @KeywordField storing a comma-joined string of group unique names.
@@ -198,6 +202,36 @@ class RSQueryBuilder {
     return predicate;
   }
 
+  /**
+   * Adds clauses matching only records the user can read: BaseRecords owned by a user whose records
+   * are all readable by the searcher's role, or whose indexed read principals (owner and sharing
+   * ACL, see {@link com.researchspace.search.impl.ReadPrincipalsBinder}) include one of the
+   * searcher's principals. Comments have no sharing ACL, so they are still matched on the wider
+   * username filter, and permission-checked against their document afterwards.
+   */
+  private BooleanPredicateClausesStep<?> addReadPrincipalClauses(
+      LuceneSrchCfg cfg, SearchPredicateFactory f, BooleanPredicateClausesStep<?> userFilter) {
+    try {
+      for (String username : cfg.getRoleViewableUsernameFilterList()) {
+        userFilter = userFilter.should(f.match().field("owner.username").matching(username));
+      }
+      for (String principal : cfg.getReadPrincipalFilterList()) {
+        userFilter =
+            userFilter.should(f.match().field(FieldNames.READ_PRINCIPALS).matching(principal));
+      }
+    } catch (RuntimeException e) {
+      log.debug("owner.username or readPrincipals not in scope: {}", e.getMessage());
+    }
+    try {
+      for (String username : cfg.getUsernameFilterList()) {
+        userFilter = userFilter.should(f.match().field("owner_username").matching(username));
+      }
+    } catch (RuntimeException e) {
+      log.debug("owner_username not in scope: {}", e.getMessage());
+    }
+    return userFilter;
+  }
+
   /**
    * Builds a SHOULD-over-both-fields owner match for a single username. Owner is indexed two ways:
    *
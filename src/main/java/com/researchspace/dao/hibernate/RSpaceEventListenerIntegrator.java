@@ -24,6 +24,18 @@ public class RSpaceEventListenerIntegrator implements Integrator {
     EventListenerRegistry listenerRegistry =
         serviceRegistry.getService(EventListenerRegistry.class);
     listenerRegistry.appendListeners(EventType.POST_LOAD, new StructuredDocumentLoadListener());
+    FolderAncestryListener folderAncestryListener = new FolderAncestryListener();
+    listenerRegistry.appendListeners(EventType.POST_INSERT, folderAncestryListener);
+    listenerRegistry.appendListeners(EventType.POST_DELETE, folderAncestryListener);
+    listenerRegistry.appendListeners(EventType.POST_UPDATE, folderAncestryListener);
+    FolderChildCountListener folderChildCountListener = new FolderChildCountListener();
+    listenerRegistry.appendListeners(EventType.POST_INSERT, folderChildCountListener);
+    listenerRegistry.appendListeners(EventType.POST_DELETE, folderChildCountListener);
+    listenerRegistry.appendListeners(EventType.POST_UPDATE, folderChildCountListener);
+    FileUsageListener fileUsageListener = new FileUsageListener();
+    listenerRegistry.appendListeners(EventType.POST_INSERT, fileUsageListener);
+    listenerRegistry.appendListeners(EventType.POST_DELETE, fileUsageListener);
+    listenerRegistry.appendListeners(EventType.POST_UPDATE, fileUsageListener);
     // we have to set this, to ensure the default merge listener is not also included
     // else we get duplicated inserts
     listenerRegistry.setListeners(EventType.MERGE, new IdTransferringMergeEventListener());
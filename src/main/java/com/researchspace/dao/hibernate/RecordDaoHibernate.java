@@ -13,6 +13,7 @@ import com.researchspace.model.EcatMediaFile;
 import com.researchspace.model.PaginationCriteria;
 import com.researchspace.model.User;
 import com.researchspace.model.core.RecordType;
+import com.researchspace.model.dtos.FolderListingCursor;
 import com.researchspace.model.record.BaseRecord;
 import com.researchspace.model.record.Folder;
 import com.researchspace.model.record.Record;
@@ -138,10 +139,16 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
       final Long parentId,
       PaginationCriteria<? extends BaseRecord> pgCrit,
       RecordTypeFilter recordFilter) {
-    int firstResult = pgCrit.getFirstResultIndex();
+    return getPaginatedChildRecordsOfParentWithFilter(parentId, pgCrit, recordFilter, null);
+  }
+
+  @Override
+  public ISearchResults<BaseRecord> getPaginatedChildRecordsOfParentWithFilter(
+      final Long parentId,
+      PaginationCriteria<? extends BaseRecord> pgCrit,
+      RecordTypeFilter recordFilter,
+      FolderListingCursor cursor) {
     Session session = sessionFactory.getCurrentSession();
-    // get total number of hits to work out how many pages needed.
-    long totalHits = getChildRecordCount(parentId, recordFilter);
     // regular HQL OK for SDoc search
     Query<BaseRecord> query;
     if (pgCrit.getOrderBy() != null && pgCrit.getOrderBy().contains("template")) {
@@ -153,6 +160,9 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
       log.info("order by is 'template', retrieving docs by form name for folder {}", parentId);
       query =
           session.createQuery(structDocsInFolderQuery + pgCrit.getSortOrder(), BaseRecord.class);
+      query.setFirstResult(pgCrit.getFirstResultIndex());
+    } else if (FolderListingCursor.getKeysetField(pgCrit) != null) {
+      query = createKeysetQuery(session, pgCrit, recordFilter, cursor);
     } else {
       query =
           session.createQuery(
@@ -162,14 +172,62 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
                   + "  "
                   + makeOrderBy(pgCrit),
               BaseRecord.class);
+      query.setFirstResult(pgCrit.getFirstResultIndex());
     }
     query.setMaxResults(pgCrit.getResultsPerPage());
-    query.setFirstResult(firstResult);
     query.setParameter(PARENT_ID, parentId);
     List<BaseRecord> br = query.list();
+    // get total number of hits to work out how many pages needed.
+    long totalHits =
+        FolderChildCounts.getCount(
+            sessionFactory,
+            parentId,
+            FolderListingCursor.getFilterKey(recordFilter),
+            () -> getChildRecordCount(parentId, recordFilter));
     return new SearchResultsImpl<>(br, pgCrit, totalHits);
   }
 
+  /*
+   * Orders by the sort field then id, so that the order is total and a page can be started after
+   * the last record of the previous page, rather than by skipping all the records before it.
+   */
+  private Query<BaseRecord> createKeysetQuery(
+      Session session,
+      PaginationCriteria<? extends BaseRecord> pgCrit,
+      RecordTypeFilter recordFilter,
+      FolderListingCursor cursor) {
+    String field = "br.editInfo." + FolderListingCursor.getKeysetField(pgCrit);
+    SortOrder sortOrder = FolderListingCursor.getKeysetSortOrder(pgCrit);
+    String seek = "";
+    if (cursor != null) {
+      String comparison = SortOrder.ASC.equals(sortOrder) ? " > " : " < ";
+      seek =
+          String.format(
+              " and (%1$s%2$s:lastValue or (%1$s = :lastValue and br.id%2$s:lastId)) ",
+              field, comparison);
+    }
+    Query<BaseRecord> query =
+        session.createQuery(
+            "select br "
+                + RECORDS_IN_FOLDER_QUERY
+                + createInClause(recordFilter)
+                + seek
+                + " order by "
+                + field
+                + " "
+                + sortOrder
+                + ", br.id "
+                + sortOrder,
+            BaseRecord.class);
+    if (cursor != null) {
+      query.setParameter("lastValue", cursor.getTypedLastValue());
+      query.setParameter("lastId", cursor.getLastId());
+    } else {
+      query.setFirstResult(pgCrit.getFirstResultIndex());
+    }
+    return query;
+  }
+
   // BaseRecord properties that live in the embedded EditInfo component. Hibernate 6 no longer
   // resolves them implicitly, so only these fields get the explicit path prefix; anything else is
   // passed through unchanged.
@@ -419,21 +477,27 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
   }
 
   @Override
-  public List<String> getTextDataFromOntologiesOwnedByUser(User userOrPi) {
-    return getTagTextOrWholeOntologyDocumentCoreQuery(userOrPi, true, false, String.class).list();
-  }
-
-  @Override
-  public List<String> getTextDataFromOntologyFilesOwnedByUserIfSharedWithAGroup(
-      User userOrPi, Long[] ontologyRecordIDsSharedWithAGroup) {
-    return getVisibleOntologyTagsForUserWhenSharedWithAGroupQuery(
-            userOrPi, ontologyRecordIDsSharedWithAGroup)
+  public List<String> getTextDataFromOntologyDocument(Long ontologyDocId) {
+    return getSession()
+        .createQuery(
+            "select rtfData from TextField field where field.structuredDocument.id = (:id)",
+            String.class)
+        .setParameter("id", ontologyDocId)
         .list();
   }
 
   @Override
   public List<BaseRecord> getOntologyFilesOwnedByUser(User userOrPi) {
-    return getTagTextOrWholeOntologyDocumentCoreQuery(userOrPi, false, false, BaseRecord.class)
+    return getSession()
+        .createQuery(
+            "select distinct field.structuredDocument "
+                + " from TextField field where field.structuredDocument.owner.username ="
+                + " (:uname) and field.structuredDocument.form.owner.username='sysadmin1' and"
+                + " field.structuredDocument.form.editInfo.name = (:ontologyFormName)  and"
+                + " field.structuredDocument.deleted = false ",
+            BaseRecord.class)
+        .setParameter("uname", userOrPi.getUsername())
+        .setParameter("ontologyFormName", CustomFormAppInitialiser.ONTOLOGY_FORM_NAME)
         .list();
   }
 
@@ -444,38 +508,6 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
         .collect(Collectors.toList());
   }
 
-  private Query<String> getVisibleOntologyTagsForUserWhenSharedWithAGroupQuery(
-      User userOrPi, Long[] sharedOntologyIds) {
-    return getTagTextOrWholeOntologyDocumentCoreQuery(
-        userOrPi, true, true, String.class, sharedOntologyIds);
-  }
-
-  private <T> Query<T> getTagTextOrWholeOntologyDocumentCoreQuery(
-      User userOrPi,
-      boolean getText,
-      boolean useOnlyTargetOntologies,
-      Class<T> type,
-      Long... ontologyIDs) {
-    Query<T> q =
-        getSession()
-            .createQuery(
-                (getText ? "select distinct rtfData " : "select distinct field.structuredDocument ")
-                    + " from TextField field where field.structuredDocument.owner.username ="
-                    + " (:uname) and field.structuredDocument.form.owner.username='sysadmin1' and"
-                    + " field.structuredDocument.form.editInfo.name = (:ontologyFormName)  and"
-                    + " field.structuredDocument.deleted = false "
-                    + (useOnlyTargetOntologies
-                        ? " and field.structuredDocument.id in (:sharedDocIds) "
-                        : ""),
-                type)
-            .setParameter("uname", userOrPi.getUsername())
-            .setParameter("ontologyFormName", CustomFormAppInitialiser.ONTOLOGY_FORM_NAME);
-    if (useOnlyTargetOntologies) {
-      q.setParameterList("sharedDocIds", ontologyIDs);
-    }
-    return q;
-  }
-
   @Override
   public List<StructuredDocument> getontologyDocumentsCreatedInPastThirtyMinutesByCurrentUser(
       String uName) {
@@ -639,14 +671,23 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
     // Hibernate 6 HQL requires property paths, not SQL column names, and the SET target must be
     // the association itself (bound to an entity reference), not a dereferenced .id path.
     Folder newFolder = getSession().getReference(Folder.class, newFolderId);
-    return getSession()
-        .createMutationQuery(
-            "update RecordToFolder rtf set rtf.folder = :newFolder"
-                + " where rtf.folder.id = :fid and rtf.record.id = :recordId")
-        .setParameter("newFolder", newFolder)
-        .setParameter("fid", toUpdate.getFolder().getId())
-        .setParameter("recordId", toUpdate.getRecord().getId())
-        .executeUpdate();
+    Long recordId = toUpdate.getRecord().getId();
+    int updated =
+        getSession()
+            .createMutationQuery(
+                "update RecordToFolder rtf set rtf.folder = :newFolder"
+                    + " where rtf.folder.id = :fid and rtf.record.id = :recordId")
+            .setParameter("newFolder", newFolder)
+            .setParameter("fid", toUpdate.getFolder().getId())
+            .setParameter("recordId", recordId)
+            .executeUpdate();
+    // bulk updates bypass FolderAncestryListener and FolderChildCountListener
+    if (updated > 0) {
+      getSession().doWork(conn -> FolderAncestryMaintainer.linkRemoved(conn, recordId));
+      FolderChildCounts.folderChanged(sessionFactory, toUpdate.getFolder().getId());
+      FolderChildCounts.folderChanged(sessionFactory, newFolderId);
+    }
+    return updated;
   }
 
   @Override
@@ -719,6 +760,15 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
             .setParameter("ids", recordIds)
             .setParameter("originalOwner", currentOwner);
     query.executeUpdate();
+    // bulk updates bypass FolderAncestryListener and FolderChildCountListener; the records'
+    // previous folders aren't known
+    FolderChildCounts.allFoldersChanged(sessionFactory);
+    session.doWork(
+        conn -> {
+          for (Long recordId : recordIds) {
+            FolderAncestryMaintainer.linkRemoved(conn, recordId);
+          }
+        });
   }
 
   @Override
@@ -856,6 +906,10 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
 
   @Override
   public void updateFilePropertyOwnerForMediaFiles(List<Long> mediaIds, String newOwnerUsername) {
+    // bulk updates bypass FileUsageListener, so the usage of previous and new owners is recounted
+    Set<String> owners = new HashSet<>(getFilePropertyOwnersForMediaFiles(mediaIds));
+    owners.add(newOwnerUsername);
+
     getSession()
         .createNativeQuery(
             "UPDATE FileProperty fp"
@@ -905,5 +959,21 @@ public class RecordDaoHibernate extends GenericDaoHibernate<Record, Long> implem
         .setParameter("newOwnerUsername", newOwnerUsername)
         .setParameter("mediaIds", mediaIds)
         .executeUpdate();
+    getSession().doWork(conn -> FileUsageMaintainer.recount(conn, owners));
+  }
+
+  private List<String> getFilePropertyOwnersForMediaFiles(List<Long> mediaIds) {
+    return getSession()
+        .createNativeQuery(
+            "SELECT DISTINCT fp.fileOwner FROM FileProperty fp WHERE fp.id IN ("
+                + " SELECT em.fileProperty_id FROM EcatMediaFile em WHERE em.id IN :mediaIds"
+                + " UNION SELECT ei.thumbnailImageFP_id FROM EcatImage ei WHERE ei.id IN :mediaIds"
+                + " UNION SELECT ei.workingImageFP_id FROM EcatImage ei WHERE ei.id IN :mediaIds"
+                + " UNION SELECT edf.docThumbnailFP_id FROM EcatDocumentFile edf"
+                + " WHERE edf.id IN :mediaIds"
+                + " UNION SELECT t.thumbnailFP_id FROM Thumbnail t WHERE t.sourceId IN :mediaIds)",
+            String.class)
+        .setParameter("mediaIds", mediaIds)
+        .list();
   }
 }
@@ -167,7 +167,7 @@ public class RecordGroupSharingDaoHibernateImpl
   @Override
   public List<Long> getSharedRecordIdsWithUser(User user) {
     return getSession()
-        .createQuery("select distinct rgs.id" + SHARED_WITH_USER_BASE, Long.class)
+        .createQuery("select distinct shared.id" + SHARED_WITH_USER_BASE, Long.class)
         .setParameter("userId", user.getId())
         .list();
   }
@@ -199,32 +199,6 @@ public class RecordGroupSharingDaoHibernateImpl
     return result;
   }
 
-  @Override
-  public List<String> getTextDataFromOntologiesSharedWithUser(User subject) {
-    return getSession()
-        .createQuery("select distinct field.rtfData" + SHARED_ONTOLOGIES_BASE, String.class)
-        .setParameter("userId", subject.getId())
-        .setParameter("ontologyFormName", CustomFormAppInitialiser.ONTOLOGY_FORM_NAME)
-        .setParameter("sysadminUser", "sysadmin1")
-        .list();
-  }
-
-  @Override
-  public List<String> getTextDataFromOntologiesSharedWithUserIfSharedWithAGroup(
-      User subject, Long[] ontologyIDsSharedWithAGroup) {
-    return getSession()
-        .createQuery(
-            "select distinct field.rtfData"
-                + SHARED_ONTOLOGIES_BASE
-                + " and shared.id in (:sharedIds)",
-            String.class)
-        .setParameter("userId", subject.getId())
-        .setParameter("ontologyFormName", CustomFormAppInitialiser.ONTOLOGY_FORM_NAME)
-        .setParameter("sysadminUser", "sysadmin1")
-        .setParameterList("sharedIds", ontologyIDsSharedWithAGroup)
-        .list();
-  }
-
   @Override
   public List<BaseRecord> getOntologiesFilesSharedWithUser(User subject) {
     return getSession()
@@ -52,6 +52,16 @@ public class RecordUserFavoritesDaoHibernate extends GenericDaoHibernate<RecordU
     return result;
   }
 
+  @Override
+  public List<Long> getFavoriteRecordIdsByUser(Long userId) {
+    return getSession()
+        .createQuery(
+            "select distinct rus.record.id from RecordUserFavorites rus where rus.user.id=:userId",
+            Long.class)
+        .setParameter("userId", userId)
+        .list();
+  }
+
   public boolean isFavoriteRecordBy(Long recordId, Long userId) {
     Query<Long> query =
         getSession()
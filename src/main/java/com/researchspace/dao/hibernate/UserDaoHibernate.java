@@ -37,6 +37,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -199,6 +200,14 @@ public class UserDaoHibernate extends GenericDaoHibernate<User, Long> implements
         .isEmpty();
   }
 
+  @Override
+  public List<String> getUsernamesInCommunity(Long communityId) {
+    return getSession()
+        .createQuery("select distinct u.username " + USERS_IN_COMMUNITY_Q, String.class)
+        .setParameter("id", communityId)
+        .list();
+  }
+
   @Override
   public ISearchResults<User> listUsersInCommunity(
       Long communityId, PaginationCriteria<User> pgCrit) {
@@ -820,4 +829,32 @@ public class UserDaoHibernate extends GenericDaoHibernate<User, Long> implements
     }
     return new ArrayList<>(result);
   }
+
+  @Override
+  public void incrementPermissionsVersion(Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return;
+    }
+    getSession()
+        .createNativeQuery(
+            "insert into UserPermissionsVersion (user_id, version) select id, 1 from User where id"
+                + " in (:ids) on duplicate key update version = version + 1")
+        // else Hibernate evicts the whole second-level cache after the update
+        .addSynchronizedQuerySpace("UserPermissionsVersion")
+        .setParameterList("ids", userIds)
+        .executeUpdate();
+  }
+
+  @Override
+  public long getPermissionsVersion(String username) {
+    Number version =
+        (Number)
+            getSession()
+                .createNativeQuery(
+                    "select v.version from UserPermissionsVersion v join User u on u.id ="
+                        + " v.user_id where u.username = :username")
+                .setParameter(USERNAME, username)
+                .uniqueResult();
+    return version == null ? 0L : version.longValue();
+  }
 }
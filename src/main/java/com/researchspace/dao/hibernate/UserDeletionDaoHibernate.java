@@ -146,6 +146,8 @@ public class UserDeletionDaoHibernate implements UserDeletionDao {
     Query<?> query = session.createNativeQuery(queryStr);
     query.setParameter("uname", username);
     query.executeUpdate();
+    // bulk deletes bypass FileUsageListener
+    execute(username, session, "delete from FileUsage where fileOwner = :id");
     session.flush();
   }
 
@@ -541,6 +543,9 @@ public class UserDeletionDaoHibernate implements UserDeletionDao {
 
     executeDeleteByRecordOwner(userId, session, "RecordToFolder", "folder_id");
     executeDeleteByRecordOwner(userId, session, "RecordToFolder", RECORD_ID);
+    // bulk deletes bypass FolderChildCountListener; the user's records may be in other users'
+    // folders, e.g. shared group folders
+    FolderChildCounts.allFoldersChanged(sessionFactory);
     executeDeleteByRecordOwner(userId, session, "RecordAttachment_AUD", RECORD_ID);
     executeDeleteByRecordOwner(
         userId,
@@ -0,0 +1,231 @@
+package com.researchspace.dao.hibernate.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.support.StorageAccess;
+
+/**
+ * Publishes changes to Hibernate second-level cache regions to the other nodes of a cluster, and
+ * applies changes published by them to the regions of this node. Entries are evicted rather than
+ * copied, so each node reloads changed entities from the database, except for the update timestamps
+ * of tables, which are copied so that other nodes stop using cached query results as soon as the
+ * tables they read change.
+ *
+ * <p>Messages are signed with a secret shared by all nodes, and cache keys are only deserialized
+ * from messages with a valid signature, and only if they are of the types Hibernate uses as keys.
+ * Each message carries its sending time and a sequence number of its sender, so a captured message
+ * can't be replayed: messages older than {@link #MAX_MESSAGE_AGE_MILLIS}, or already received, are
+ * ignored. Node clocks must therefore be synchronized to well within that age.
+ */
+@Slf4j
+public class CacheInvalidationBus implements AutoCloseable {
+
+  static final String MAC_ALGORITHM = "HmacSHA256";
+  static final int MAC_LENGTH = 32;
+  private static final byte VERSION = 2;
+  static final long MAX_MESSAGE_AGE_MILLIS = 30_000;
+
+  // the types Hibernate uses for cache keys and entity ids, including RSpace's composite ids
+  private static final ObjectInputFilter KEY_FILTER =
+      ObjectInputFilter.Config.createFilter(
+          "maxdepth=8;maxrefs=64;maxarray=256;java.lang.*;java.math.*;java.util.*;java.time.*;"
+              + "org.hibernate.cache.internal.*;com.researchspace.model.**;!*");
+
+  enum Kind {
+    EVICT,
+    EVICT_ALL,
+    PUT
+  }
+
+  private final CacheInvalidationTransport transport;
+  private final SecretKeySpec secret;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Map<String, StorageAccess> regions = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  // sender node id and sequence number of messages received, mapped to their sending time
+  private final Map<String, Long> received = new ConcurrentHashMap<>();
+  private volatile long lastPruned;
+
+  public CacheInvalidationBus(CacheInvalidationTransport transport, String secret) {
+    if (secret == null || secret.length() < 16) {
+      throw new IllegalArgumentException(
+          "A cache invalidation secret of at least 16 characters is required");
+    }
+    this.transport = transport;
+    this.secret = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+  }
+
+  public void start() {
+    transport.start(this::receive);
+  }
+
+  /** Registers the local storage of a region, to which messages from other nodes are applied. */
+  public void register(String region, StorageAccess storage) {
+    regions.put(region, storage);
+  }
+
+  public void publishEvict(String region, Object key) {
+    publish(Kind.EVICT, region, key, null);
+  }
+
+  public void publishEvictAll(String region) {
+    publish(Kind.EVICT_ALL, region, null, null);
+  }
+
+  public void publishPut(String region, Object key, Object value) {
+    publish(Kind.PUT, region, key, value);
+  }
+
+  private void publish(Kind kind, String region, Object key, Object value) {
+    try {
+      transport.send(encode(kind, region, key, value));
+    } catch (IOException | RuntimeException e) {
+      // a cache must never fail the transaction that changed it
+      log.warn("Could not publish {} of {} in region {}: {}", kind, key, region, e.toString());
+    }
+  }
+
+  byte[] encode(Kind kind, String region, Object key, Object value) throws IOException {
+    return encode(kind, region, key, value, System.currentTimeMillis());
+  }
+
+  byte[] encode(Kind kind, String region, Object key, Object value, long sentAt)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      out.writeUTF(nodeId);
+      out.writeLong(sentAt);
+      out.writeLong(sequence.incrementAndGet());
+      out.writeByte(kind.ordinal());
+      out.writeUTF(region);
+      if (kind != Kind.EVICT_ALL) {
+        writeObject(out, key);
+      }
+      if (kind == Kind.PUT) {
+        writeObject(out, value);
+      }
+    }
+    byte[] message = bytes.toByteArray();
+    byte[] signed = Arrays.copyOf(message, message.length + MAC_LENGTH);
+    System.arraycopy(sign(message), 0, signed, message.length, MAC_LENGTH);
+    return signed;
+  }
+
+  private void writeObject(DataOutputStream out, Object object) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+      objects.writeObject(object);
+    }
+    out.writeInt(bytes.size());
+    bytes.writeTo(out);
+  }
+
+  void receive(byte[] signed) {
+    if (signed.length <= MAC_LENGTH) {
+      return;
+    }
+    byte[] message = Arrays.copyOf(signed, signed.length - MAC_LENGTH);
+    byte[] mac = Arrays.copyOfRange(signed, message.length, signed.length);
+    if (!MessageDigest.isEqual(mac, sign(message))) {
+      log.warn("Ignoring cache invalidation with invalid signature");
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+      if (in.readByte() != VERSION) {
+        return;
+      }
+      String sender = in.readUTF();
+      long sentAt = in.readLong();
+      long senderSequence = in.readLong();
+      if (nodeId.equals(sender) || !isFirstReceipt(sender, senderSequence, sentAt)) {
+        return;
+      }
+      Kind kind = Kind.values()[in.readByte()];
+      StorageAccess storage = regions.get(in.readUTF());
+      if (storage == null) {
+        return;
+      }
+      switch (kind) {
+        case EVICT:
+          storage.evictData(readObject(in));
+          break;
+        case EVICT_ALL:
+          storage.evictData();
+          break;
+        case PUT:
+          storage.putIntoCache(readObject(in), readObject(in), null);
+          break;
+      }
+    } catch (IOException | ClassNotFoundException e) {
+      log.warn("Could not read cache invalidation: {}", e.toString());
+    }
+  }
+
+  /*
+   * Whether a message is recent and hasn't been received before. Messages are only remembered for
+   * as long as they are recent, after which they are rejected for their age.
+   */
+  private boolean isFirstReceipt(String sender, long senderSequence, long sentAt) {
+    long now = System.currentTimeMillis();
+    if (Math.abs(now - sentAt) > MAX_MESSAGE_AGE_MILLIS) {
+      log.warn("Ignoring cache invalidation sent at {}, too old or from the future", sentAt);
+      return false;
+    }
+    if (now - lastPruned > MAX_MESSAGE_AGE_MILLIS) {
+      lastPruned = now;
+      received.values().removeIf(time -> now - time > 2 * MAX_MESSAGE_AGE_MILLIS);
+    }
+    if (received.putIfAbsent(sender + ":" + senderSequence, sentAt) != null) {
+      log.warn("Ignoring replayed cache invalidation from node {}", sender);
+      return false;
+    }
+    return true;
+  }
+
+  private Object readObject(DataInputStream in) throws IOException, ClassNotFoundException {
+    int length = in.readInt();
+    if (length < 0 || length > in.available()) {
+      throw new IOException("Invalid length " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      objects.setObjectInputFilter(KEY_FILTER);
+      return objects.readObject();
+    }
+  }
+
+  private byte[] sign(byte[] message) {
+    try {
+      Mac mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(secret);
+      return mac.doFinal(message);
+    } catch (GeneralSecurityException e) {
+      // every JVM must provide HmacSHA256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    transport.close();
+  }
+}
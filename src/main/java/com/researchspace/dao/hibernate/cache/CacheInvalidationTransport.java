@@ -0,0 +1,22 @@
+package com.researchspace.dao.hibernate.cache;
+
+import java.io.Closeable;
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded cache invalidation messages between the nodes of an RSpace cluster. Delivery is
+ * best effort: a lost message leaves an entry stale on the nodes that missed it until the entry
+ * expires, as configured for its region in ehcache.xml.
+ */
+public interface CacheInvalidationTransport extends Closeable {
+
+  /** Starts passing messages received from other nodes to {@code receiver}. */
+  void start(Consumer<byte[]> receiver);
+
+  /** Sends a message to all other nodes. Must not throw if a node is unreachable. */
+  void send(byte[] message);
+
+  /** Stops receiving and releases resources; does not throw. */
+  @Override
+  void close();
+}
@@ -0,0 +1,101 @@
+package com.researchspace.dao.hibernate.cache;
+
+import com.researchspace.dao.hibernate.cache.InvalidatingStorageAccess.RegionType;
+import java.net.SocketException;
+import java.util.Map;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * The JCache (Ehcache) region factory, which when 'rs.cache.invalidation.enabled' is true keeps the
+ * second-level cache regions of several RSpace nodes consistent, see {@link
+ * InvalidatingStorageAccess}. Otherwise it is the same as the standard JCache region factory.
+ *
+ * <p>Settings, passed in the Hibernate properties:
+ *
+ * <ul>
+ *   <li>rs.cache.invalidation.port: the UDP port on which this node receives invalidations
+ *   <li>rs.cache.invalidation.peers: the other nodes, as a comma-separated list of host:port
+ *   <li>rs.cache.invalidation.secret: a secret shared by all nodes, used to sign messages
+ * </ul>
+ */
+public class ClusteredJCacheRegionFactory extends JCacheRegionFactory {
+
+  static final String ENABLED = "rs.cache.invalidation.enabled";
+  static final String PORT = "rs.cache.invalidation.port";
+  static final String PEERS = "rs.cache.invalidation.peers";
+  static final String SECRET = "rs.cache.invalidation.secret";
+
+  private CacheInvalidationBus bus;
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+    super.prepareForUse(settings, configValues);
+    if (!Boolean.parseBoolean(getSetting(configValues, ENABLED, "false"))) {
+      return;
+    }
+    int port = Integer.parseInt(getSetting(configValues, PORT, "47500"));
+    try {
+      bus =
+          new CacheInvalidationBus(
+              new UdpCacheInvalidationTransport(port, getSetting(configValues, PEERS, "")),
+              getSetting(configValues, SECRET, null));
+    } catch (SocketException e) {
+      throw new CacheException("Could not listen for cache invalidations on port " + port, e);
+    }
+    bus.start();
+  }
+
+  private static String getSetting(Map<?, ?> configValues, String name, String defaultValue) {
+    Object value = configValues.get(name);
+    return value == null || value.toString().isBlank() ? defaultValue : value.toString().trim();
+  }
+
+  @Override
+  protected void releaseFromUse() {
+    if (bus != null) {
+      bus.close();
+      bus = null;
+    }
+    super.releaseFromUse();
+  }
+
+  @Override
+  protected DomainDataStorageAccess createDomainDataStorageAccess(
+      DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+    DomainDataStorageAccess storage =
+        super.createDomainDataStorageAccess(regionConfig, buildingContext);
+    if (bus == null) {
+      return storage;
+    }
+    return new InvalidatingStorageAccess(
+        storage, regionConfig.getRegionName(), RegionType.DOMAIN_DATA, bus);
+  }
+
+  @Override
+  protected StorageAccess createQueryResultsRegionStorageAccess(
+      String regionName, SessionFactoryImplementor sessionFactory) {
+    StorageAccess storage = super.createQueryResultsRegionStorageAccess(regionName, sessionFactory);
+    if (bus == null) {
+      return storage;
+    }
+    return new InvalidatingStorageAccess(storage, regionName, RegionType.QUERY_RESULTS, bus);
+  }
+
+  @Override
+  protected StorageAccess createTimestampsRegionStorageAccess(
+      String regionName, SessionFactoryImplementor sessionFactory) {
+    StorageAccess storage = super.createTimestampsRegionStorageAccess(regionName, sessionFactory);
+    if (bus == null) {
+      return storage;
+    }
+    return new InvalidatingStorageAccess(storage, regionName, RegionType.TIMESTAMPS, bus);
+  }
+}
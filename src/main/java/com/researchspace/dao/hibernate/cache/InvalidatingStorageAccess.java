@@ -0,0 +1,111 @@
+package com.researchspace.dao.hibernate.cache;
+
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Storage of one second-level cache region that publishes changes made on this node to a {@link
+ * CacheInvalidationBus}. Entries cached after loading them from the database are not published,
+ * only writes and evictions:
+ *
+ * <ul>
+ *   <li>entity and collection regions: an entry locked for a write, and its replacement once the
+ *       transaction commits, or an evicted entry, is evicted on other nodes
+ *   <li>the update timestamps region: each table's timestamp is copied to other nodes
+ *   <li>query results regions: evicting a whole region is published; results are otherwise kept
+ *       valid by the timestamps
+ * </ul>
+ */
+class InvalidatingStorageAccess implements DomainDataStorageAccess {
+
+  enum RegionType {
+    DOMAIN_DATA,
+    QUERY_RESULTS,
+    TIMESTAMPS
+  }
+
+  private final StorageAccess delegate;
+  private final String regionName;
+  private final RegionType regionType;
+  private final CacheInvalidationBus bus;
+
+  InvalidatingStorageAccess(
+      StorageAccess delegate, String regionName, RegionType regionType, CacheInvalidationBus bus) {
+    this.delegate = delegate;
+    this.regionName = regionName;
+    this.regionType = regionType;
+    this.bus = bus;
+    // changes from other nodes are applied to the delegate, so aren't published again
+    bus.register(regionName, delegate);
+  }
+
+  @Override
+  public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+    return delegate.getFromCache(key, session);
+  }
+
+  @Override
+  public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+    boolean publish =
+        switch (regionType) {
+          case TIMESTAMPS -> true;
+          case QUERY_RESULTS -> false;
+          // read-write access locks an entry before writing, and replaces the lock afterwards
+          case DOMAIN_DATA ->
+              value instanceof SoftLock || delegate.getFromCache(key, session) instanceof SoftLock;
+        };
+    delegate.putIntoCache(key, value, session);
+    if (publish) {
+      if (regionType == RegionType.TIMESTAMPS) {
+        bus.publishPut(regionName, key, value);
+      } else {
+        bus.publishEvict(regionName, key);
+      }
+    }
+  }
+
+  @Override
+  public void putFromLoad(Object key, Object value, SharedSessionContractImplementor session) {
+    if (delegate instanceof DomainDataStorageAccess) {
+      ((DomainDataStorageAccess) delegate).putFromLoad(key, value, session);
+    } else {
+      delegate.putIntoCache(key, value, session);
+    }
+  }
+
+  @Override
+  public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+    delegate.removeFromCache(key, session);
+    bus.publishEvict(regionName, key);
+  }
+
+  @Override
+  public void clearCache(SharedSessionContractImplementor session) {
+    delegate.clearCache(session);
+    bus.publishEvictAll(regionName);
+  }
+
+  @Override
+  public boolean contains(Object key) {
+    return delegate.contains(key);
+  }
+
+  @Override
+  public void evictData() {
+    delegate.evictData();
+    bus.publishEvictAll(regionName);
+  }
+
+  @Override
+  public void evictData(Object key) {
+    delegate.evictData(key);
+    bus.publishEvict(regionName, key);
+  }
+
+  @Override
+  public void release() {
+    delegate.release();
+  }
+}
@@ -0,0 +1,114 @@
+package com.researchspace.dao.hibernate.cache;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Sends each message as a UDP datagram to a fixed list of peer nodes, and receives on a local port.
+ * Messages are small (a region name and a cache key), so each fits in one datagram.
+ *
+ * <p>Nodes send from the port they receive on, so only datagrams from the configured peers'
+ * addresses, as resolved on startup, are accepted; others are dropped before being read.
+ */
+@Slf4j
+public class UdpCacheInvalidationTransport implements CacheInvalidationTransport {
+
+  static final int MAX_MESSAGE_SIZE = 8192;
+
+  private final DatagramSocket socket;
+  private final List<InetSocketAddress> peers;
+  private final Set<InetSocketAddress> acceptedSenders;
+  private volatile boolean closed;
+
+  /**
+   * @param port local port to receive on
+   * @param peers the other nodes, as a comma-separated list of host:port
+   */
+  public UdpCacheInvalidationTransport(int port, String peers) throws SocketException {
+    this.socket = new DatagramSocket(port);
+    this.peers = parsePeers(peers);
+    this.acceptedSenders = new HashSet<>(this.peers);
+  }
+
+  static List<InetSocketAddress> parsePeers(String peers) {
+    List<InetSocketAddress> addresses = new ArrayList<>();
+    for (String peer : StringUtils.split(StringUtils.defaultString(peers), ',')) {
+      String hostAndPort = peer.trim();
+      int colon = hostAndPort.lastIndexOf(':');
+      if (colon <= 0) {
+        throw new IllegalArgumentException("Cache invalidation peer must be host:port: " + peer);
+      }
+      addresses.add(
+          new InetSocketAddress(
+              hostAndPort.substring(0, colon),
+              Integer.parseInt(hostAndPort.substring(colon + 1))));
+    }
+    return addresses;
+  }
+
+  @Override
+  public void start(Consumer<byte[]> receiver) {
+    Thread thread = new Thread(() -> receive(receiver), "cache-invalidation-receiver");
+    thread.setDaemon(true);
+    thread.start();
+    log.info("Receiving cache invalidations on port {}, sending to {}", getLocalPort(), peers);
+  }
+
+  private void receive(Consumer<byte[]> receiver) {
+    byte[] buffer = new byte[MAX_MESSAGE_SIZE];
+    while (!closed) {
+      DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+      try {
+        socket.receive(packet);
+        if (!acceptedSenders.contains(packet.getSocketAddress())) {
+          log.warn("Ignoring cache invalidation from {}, not a peer", packet.getSocketAddress());
+          continue;
+        }
+        receiver.accept(
+            Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getLength()));
+      } catch (IOException e) {
+        if (!closed) {
+          log.warn("Error receiving cache invalidation: {}", e.getMessage());
+        }
+      } catch (RuntimeException e) {
+        log.warn("Could not apply cache invalidation", e);
+      }
+    }
+  }
+
+  @Override
+  public void send(byte[] message) {
+    if (message.length > MAX_MESSAGE_SIZE) {
+      log.warn("Cache invalidation of {} bytes is too large to send", message.length);
+      return;
+    }
+    for (InetSocketAddress peer : peers) {
+      try {
+        socket.send(new DatagramPacket(message, message.length, peer));
+      } catch (IOException e) {
+        log.warn("Could not send cache invalidation to {}: {}", peer, e.getMessage());
+      }
+    }
+  }
+
+  int getLocalPort() {
+    return socket.getLocalPort();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    socket.close();
+  }
+}
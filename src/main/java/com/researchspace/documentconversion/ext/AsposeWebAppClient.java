@@ -51,12 +51,15 @@ public class AsposeWebAppClient extends AbstractDocumentConversionService
   private SimpleResilienceFacade apiClientResilientFacade;
 
   public AsposeWebAppClient(
-      URI uri, ConversionChecker conversionChecker, Supplier<String> customerIDSupplier) {
+      URI uri,
+      ConversionChecker conversionChecker,
+      Supplier<String> customerIDSupplier,
+      RestTemplate template) {
     this(
         uri,
         conversionChecker,
         customerIDSupplier,
-        new RestTemplate(),
+        template,
         new SimpleResilienceFacade(1000, 50));
   }
 
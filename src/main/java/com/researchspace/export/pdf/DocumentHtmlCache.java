@@ -0,0 +1,38 @@
+package com.researchspace.export.pdf;
+
+import java.util.function.Supplier;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the rendered HTML of documents, so that re-exporting or previewing a document that hasn't
+ * changed doesn't generate its HTML again.
+ *
+ * <p>Keys include the document's version and modification times, so a saved document gets a new
+ * key and the old entry expires. The cache is bounded by the number of entries in ehcache.xml, or
+ * the 'cache.com.researchspace.renderedDocumentHtml' deployment property. As HTML can embed images
+ * as data URLs, documents whose HTML is longer than {@link #MAX_CACHED_HTML_LENGTH} characters are
+ * not cached, which bounds the cache's heap use to about entries x that length.
+ */
+@Component
+public class DocumentHtmlCache {
+
+  public static final String RENDERED_DOCUMENT_HTML_CACHE =
+      "com.researchspace.renderedDocumentHtml";
+
+  /** Longest HTML that is cached, in characters */
+  public static final int MAX_CACHED_HTML_LENGTH = 100_000;
+
+  /**
+   * @param key identifies the document version and the options it is rendered with
+   * @param renderer renders the document if it isn't cached
+   * @return the cached or rendered HTML; rendered HTML is cached unless it's too long
+   */
+  @Cacheable(
+      value = RENDERED_DOCUMENT_HTML_CACHE,
+      key = "#key",
+      unless = "#result.html.length() > " + MAX_CACHED_HTML_LENGTH)
+  public RenderedDocumentHtml getOrRender(String key, Supplier<RenderedDocumentHtml> renderer) {
+    return renderer.get();
+  }
+}
@@ -65,4 +65,12 @@ public interface ExportProcessor {
       IRSpaceDoc rspaceDocument,
       ExportToFileConfig exportConfig)
       throws IOException;
+
+  /**
+   * Stops generating any exports into the folder that haven't been concatenated, e.g. after a
+   * document of the export failed, so that the folder can be deleted. By default does nothing.
+   *
+   * @param tempExportFolder the folder containing the export's files
+   */
+  default void cancelExports(File tempExportFolder) {}
 }
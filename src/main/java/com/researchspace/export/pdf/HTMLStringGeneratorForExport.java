@@ -40,6 +40,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -95,6 +96,12 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
   private @Autowired UserExternalIdResolver extIdResolver;
   private @Autowired ExternalWorkFlowDataManager externalWorkFlowDataManager;
   private @Autowired ExternalWorkflowHtmlGenerator externalWorkflowHtmlGenerator;
+  private DocumentHtmlCache documentHtmlCache;
+
+  @Autowired(required = false)
+  void setDocumentHtmlCache(DocumentHtmlCache documentHtmlCache) {
+    this.documentHtmlCache = documentHtmlCache;
+  }
 
   void setUrlPrefix(String urlPrefix) {
     this.urlPrefix = urlPrefix;
@@ -102,8 +109,10 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
 
   private Logger log = LoggerFactory.getLogger(getClass());
 
-  List<CommentAppendix> parseCommentImg(
-      StructuredDocumentHTMLViewConfig exportConfig, org.jsoup.nodes.Document jsoupDoc) {
+  /*
+   * Replaces comment icons with numbered references, returning the ids of the comments
+   */
+  List<Long> parseCommentImg(org.jsoup.nodes.Document jsoupDoc) {
     List<Long> lst = new ArrayList<Long>();
     int cnt = 1;
     try {
@@ -120,7 +129,7 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
     } catch (Exception ex) {
       log.error(ex.toString());
     }
-    return createCommentAppendix(exportConfig, lst);
+    return lst;
   }
 
   /* (non-Javadoc)
@@ -129,6 +138,84 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
   @Override
   public ExportProcessorInput extractHtmlStr(
       StructuredDocument strucDoc, StructuredDocumentHTMLViewConfig exportConfig) {
+    Optional<ExternalId> ownerOrcid =
+        extIdResolver.getExternalIdForUser(strucDoc.getOwner(), IdentifierScheme.ORCID);
+    RenderedDocumentHtml rendered;
+    if (documentHtmlCache != null && isCacheable(strucDoc, exportConfig)) {
+      rendered =
+          documentHtmlCache.getOrRender(
+              getCacheKey(strucDoc, exportConfig, ownerOrcid),
+              () -> renderHtml(strucDoc, exportConfig, ownerOrcid));
+    } else {
+      rendered = renderHtml(strucDoc, exportConfig, ownerOrcid);
+    }
+    List<CommentAppendix> comments = createCommentAppendix(exportConfig, rendered.getCommentIds());
+    List<ArchivalNfsFile> nfsLinks = createNfsLinks(rendered.getNfsElements());
+    RevisionInfo revisionInfo = null;
+    if (exportConfig.isProvenance()) {
+      revisionInfo = getAuditHistory(strucDoc);
+    }
+    return new ExportProcessorInput(
+        rendered.getHtml(),
+        comments,
+        revisionInfo,
+        nfsLinks,
+        new HashSet<>(rendered.getIgsnInventoryLinkedItems()));
+  }
+
+  /*
+   * Lists of materials and external workflow data can change without the document being saved,
+   * and field modification dates are shown in the session's time zone, so these aren't cached.
+   */
+  private boolean isCacheable(
+      StructuredDocument strucDoc, StructuredDocumentHTMLViewConfig exportConfig) {
+    return strucDoc.getId() != null
+        && !exportConfig.isIncludeExternalWorkflowData()
+        && !exportConfig.isIncludeFieldLastModifiedDate()
+        && strucDoc.getFields().stream().allMatch(field -> field.getListsOfMaterials().isEmpty());
+  }
+
+  private String getCacheKey(
+      StructuredDocument strucDoc,
+      StructuredDocumentHTMLViewConfig exportConfig,
+      Optional<ExternalId> ownerOrcid) {
+    StringBuilder key = new StringBuilder();
+    key.append(strucDoc.getId())
+        .append('_')
+        .append(strucDoc.getUserVersion().getVersion())
+        .append('_')
+        .append(strucDoc.getModificationDateMillis());
+    for (Field field : strucDoc.getFields()) {
+      key.append('_').append(field.getModificationDate());
+    }
+    // shown in the HTML, but changed without a new version
+    key.append('_')
+        .append(
+            digest(
+                strucDoc.getName(),
+                strucDoc.getDocTag(),
+                strucDoc.getOwner().getFullName(),
+                ownerOrcid.map(ExternalId::getIdentifier).orElse(null)));
+    key.append('_').append(exportConfig.isComments());
+    key.append('_').append(exportConfig.getPageSizeEnum());
+    return key.toString();
+  }
+
+  /*
+   * SHA-256 of the values, each prefixed by its length so that values can't run into each other
+   */
+  private String digest(String... values) {
+    StringBuilder joined = new StringBuilder();
+    for (String value : values) {
+      joined.append(value == null ? "-" : value.length() + ":" + value).append(';');
+    }
+    return DigestUtils.sha256Hex(joined.toString());
+  }
+
+  private RenderedDocumentHtml renderHtml(
+      StructuredDocument strucDoc,
+      StructuredDocumentHTMLViewConfig exportConfig,
+      Optional<ExternalId> ownerOrcid) {
     StringBuffer sbf = new StringBuffer();
     String docName = escapeHtml4(strucDoc.getName());
     String globalidLink = makeGlobalIdLink(strucDoc.getGlobalIdentifier());
@@ -181,12 +268,12 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
     ImageFieldExporter.addImageAltToImages(jsoupDoc);
     ImageFieldExporter.resizeChemImages(jsoupDoc);
     preProcess(jsoupDoc);
-    addMetaData(strucDoc, jsoupDoc);
-    List<CommentAppendix> comments = new ArrayList<>();
+    addMetaData(strucDoc, ownerOrcid, jsoupDoc);
+    List<Long> commentIds = new ArrayList<>();
     if (exportConfig.isComments()) {
-      comments = parseCommentImg(exportConfig, jsoupDoc);
+      commentIds = parseCommentImg(jsoupDoc);
     }
-    List<ArchivalNfsFile> nfsLinks = extractNfsLinks(strucDoc, htmlStr);
+    List<NfsElement> nfsElements = findNfsElements(htmlStr);
     scaleImages(exportConfig, jsoupDoc);
     addBaseURLToInternalLinks(jsoupDoc);
     replaceIframesWithEmbedCodeLink(jsoupDoc);
@@ -194,13 +281,8 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
     OutputSettings output = new OutputSettings().syntax(Syntax.xml);
     jsoupDoc.outputSettings(output);
     htmlStr = jsoupDoc.html();
-    RevisionInfo revisionInfo = null;
-    if (exportConfig.isProvenance()) {
-      revisionInfo = getAuditHistory(strucDoc);
-    }
     htmlStr = new SvgToPngConverter().replaceSvgObjectWithImg(htmlStr);
-    return new ExportProcessorInput(
-        htmlStr, comments, revisionInfo, nfsLinks, igsnInventoryLinkedItems);
+    return new RenderedDocumentHtml(htmlStr, commentIds, nfsElements, igsnInventoryLinkedItems);
   }
 
   /*
@@ -290,14 +372,18 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
     return new SessionTimeZoneUtils().formatDateTimeForClient(anyDate);
   }
 
-  private List<ArchivalNfsFile> extractNfsLinks(StructuredDocument strucDoc, String htmlStr) {
+  private List<NfsElement> findNfsElements(String htmlStr) {
     FieldContents contents = new FieldContents();
-    ArchiveModelFactory archiveModelFactory = new ArchiveModelFactory();
     contents =
         fieldParser.findFieldElementsInContentForCssClass(
             contents, htmlStr, FieldParserConstants.NET_FS_CLASSNAME);
+    return new ArrayList<>(contents.getElements(NfsElement.class).getElements());
+  }
+
+  private List<ArchivalNfsFile> createNfsLinks(List<NfsElement> nfsElements) {
+    ArchiveModelFactory archiveModelFactory = new ArchiveModelFactory();
     List<ArchivalNfsFile> allNfs = new ArrayList<>();
-    for (NfsElement nfs : contents.getElements(NfsElement.class).getElements()) {
+    for (NfsElement nfs : nfsElements) {
       NfsFileStore fileStore = nfsManager.getNfsFileStore(nfs.getFileStoreId());
       ArchivalNfsFile archiveNfs = archiveModelFactory.createArchivalNfs(fileStore, nfs);
       allNfs.add(archiveNfs);
@@ -305,7 +391,8 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
     return allNfs;
   }
 
-  private void addMetaData(StructuredDocument strucDoc, Document jsoupDoc) {
+  private void addMetaData(
+      StructuredDocument strucDoc, Optional<ExternalId> extId, Document jsoupDoc) {
     Element el = jsoupDoc.getElementsByTag("head").iterator().next();
     el.appendElement("meta").attr("name", "name").attr("content", escapeHtml4(strucDoc.getName()));
     el.appendElement("meta").attr("name", "provenance").attr("content", "rspace");
@@ -323,8 +410,6 @@ public class HTMLStringGeneratorForExport implements HTMLStringGenerator {
     if (!isEmpty(urlPrefix)) {
       el.appendElement("meta").attr("name", "baseURL").attr("content", urlPrefix);
     }
-    Optional<ExternalId> extId =
-        extIdResolver.getExternalIdForUser(strucDoc.getOwner(), IdentifierScheme.ORCID);
     if (extId.isPresent()) {
       el.appendElement("meta").attr("name", "OrcidID").attr("content", extId.get().getIdentifier());
     }
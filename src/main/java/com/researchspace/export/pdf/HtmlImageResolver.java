@@ -3,7 +3,12 @@ package com.researchspace.export.pdf;
 import com.lowagie.text.BadElementException;
 import com.lowagie.text.Image;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.text.StringEscapeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Element;
@@ -20,100 +25,165 @@ import org.xhtmlrenderer.simple.extend.FormSubmissionListener;
 /**
  * When an img tag such as <img src="a/path/img.png"> is encountered, replace with the bytes of the
  * image at "a/path/img.png"
+ *
+ * <p>Images are retrieved with {@link #retrieveImages} in the thread preparing the export, as this
+ * needs database access and the exporter's permissions, so that the document can be rendered in
+ * another thread by the factory from {@link #createFactory}. Rendering in another thread fails if
+ * an image wasn't retrieved beforehand, rather than retrieving it without a session or subject.
  */
 @Service
 @Slf4j
-public class HtmlImageResolver implements ReplacedElementFactory {
+public class HtmlImageResolver {
 
-  private @Autowired ImageRetrieverHelper imageRetrieverHelper;
-
-  private ReplacedElementFactory superFactory;
+  private static final Pattern IMG_SRC =
+      Pattern.compile(
+          "<img\\s[^>]*?\\bsrc\\s*=\\s*(\"([^\"]*)\"|'([^']*)')", Pattern.CASE_INSENSITIVE);
 
-  private ExportToFileConfig exportConfig;
-
-  private int dotsPerPixel;
+  private @Autowired ImageRetrieverHelper imageRetrieverHelper;
 
-  public void setDotsPerPixel(int dotsPerPixel) {
-    this.dotsPerPixel = dotsPerPixel;
+  /**
+   * @param xhtml the XHTML to be rendered
+   * @param exportConfig the export configuration
+   * @return the bytes of each image in the XHTML, by src attribute; <code>null</code> for images
+   *     that couldn't be retrieved
+   */
+  public Map<String, byte[]> retrieveImages(String xhtml, ExportToFileConfig exportConfig) {
+    Map<String, byte[]> images = new HashMap<>();
+    Matcher matcher = IMG_SRC.matcher(xhtml);
+    while (matcher.find()) {
+      String quoted = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+      String src = StringEscapeUtils.unescapeXml(quoted);
+      if (!src.startsWith("data:image/") && !images.containsKey(src)) {
+        images.put(src, retrieveImage(src, exportConfig));
+      }
+    }
+    return images;
   }
 
-  public void setExportConfig(ExportToFileConfig exportConfig) {
-    this.exportConfig = exportConfig;
+  private byte[] retrieveImage(String src, ExportToFileConfig exportConfig) {
+    try {
+      return imageRetrieverHelper.getImageBytesFromImgSrc(src, exportConfig);
+    } catch (IOException e) {
+      log.warn(String.format("Problem retrieving image %s for pdf.", src), e);
+      return null;
+    }
   }
 
-  public void setReplacedElementFactory(ReplacedElementFactory superFactory) {
-    this.superFactory = superFactory;
+  /**
+   * @param superFactory the renderer's own factory, used for all other elements
+   * @param dotsPerPixel the renderer's dots per pixel
+   * @param exportConfig the export configuration
+   * @param retrievedImages images from {@link #retrieveImages}
+   * @param inCallingThread whether rendering is in the thread that prepared the export, so that
+   *     images not in <code>retrievedImages</code> can be retrieved when needed
+   * @return a factory for rendering one document
+   */
+  public ReplacedElementFactory createFactory(
+      ReplacedElementFactory superFactory,
+      int dotsPerPixel,
+      ExportToFileConfig exportConfig,
+      Map<String, byte[]> retrievedImages,
+      boolean inCallingThread) {
+    return new ImageElementFactory(
+        superFactory, dotsPerPixel, exportConfig, retrievedImages, inCallingThread);
   }
 
-  @Override
-  public ReplacedElement createReplacedElement(
-      LayoutContext layoutContext,
-      BlockBox blockBox,
-      UserAgentCallback userAgentCallback,
-      int cssWidth,
-      int cssHeight) {
-    Element element = blockBox.getElement();
-
-    if (element == null) {
-      return null;
+  private class ImageElementFactory implements ReplacedElementFactory {
+
+    private final ReplacedElementFactory superFactory;
+    private final int dotsPerPixel;
+    private final ExportToFileConfig exportConfig;
+    private final Map<String, byte[]> retrievedImages;
+    private final boolean inCallingThread;
+
+    ImageElementFactory(
+        ReplacedElementFactory superFactory,
+        int dotsPerPixel,
+        ExportToFileConfig exportConfig,
+        Map<String, byte[]> retrievedImages,
+        boolean inCallingThread) {
+      this.superFactory = superFactory;
+      this.dotsPerPixel = dotsPerPixel;
+      this.exportConfig = exportConfig;
+      this.retrievedImages = retrievedImages;
+      this.inCallingThread = inCallingThread;
     }
 
-    String nodeName = element.getNodeName();
-    if ("img".equals(nodeName)) {
-      if (!element.hasAttribute("src")) {
-        log.warn("An img element is missing a `src` attribute so cannot locate image.");
+    @Override
+    public ReplacedElement createReplacedElement(
+        LayoutContext layoutContext,
+        BlockBox blockBox,
+        UserAgentCallback userAgentCallback,
+        int cssWidth,
+        int cssHeight) {
+      Element element = blockBox.getElement();
+
+      if (element == null) {
         return null;
       }
 
-      String src = element.getAttribute("src");
-      if (src.startsWith("data:image/")) {
-        if (src.contains(";base64,")) {
-          // tinymce seems to allow encoded images with spaces (which it must strip out) which
-          // aren't valid in base64, so remove any spaces.
-          element.setAttribute("src", src.replaceAll("\\s", ""));
+      String nodeName = element.getNodeName();
+      if ("img".equals(nodeName)) {
+        if (!element.hasAttribute("src")) {
+          log.warn("An img element is missing a `src` attribute so cannot locate image.");
+          return null;
         }
-        // image is already embedded so does not need to be retrieved
-        return this.superFactory.createReplacedElement(
-            layoutContext, blockBox, userAgentCallback, cssWidth, cssHeight);
-      }
 
-      try {
-        byte[] imageBytes =
-            imageRetrieverHelper.getImageBytesFromImgSrc(element.getAttribute("src"), exportConfig);
-        if (imageBytes == null) {
-          return null;
+        String src = element.getAttribute("src");
+        if (src.startsWith("data:image/")) {
+          if (src.contains(";base64,")) {
+            // tinymce seems to allow encoded images with spaces (which it must strip out) which
+            // aren't valid in base64, so remove any spaces.
+            element.setAttribute("src", src.replaceAll("\\s", ""));
+          }
+          // image is already embedded so does not need to be retrieved
+          return this.superFactory.createReplacedElement(
+              layoutContext, blockBox, userAgentCallback, cssWidth, cssHeight);
+        }
+
+        if (!retrievedImages.containsKey(src) && !inCallingThread) {
+          throw new IllegalStateException("Image " + src + " wasn't retrieved before rendering");
         }
-        final Image image = Image.getInstance(imageBytes);
-        image.scaleAbsolute(
-            image.getPlainWidth() * dotsPerPixel, image.getPlainHeight() * dotsPerPixel);
-        final FSImage fsImage = new ITextFSImage(image);
-        if (fsImage != null) {
-          if ((cssWidth != -1) || (cssHeight != -1)) {
-            fsImage.scale(cssWidth, cssHeight);
+        try {
+          byte[] imageBytes =
+              retrievedImages.containsKey(src)
+                  ? retrievedImages.get(src)
+                  : imageRetrieverHelper.getImageBytesFromImgSrc(src, exportConfig);
+          if (imageBytes == null) {
+            return null;
           }
-          return new ITextImageElement(fsImage);
+          final Image image = Image.getInstance(imageBytes);
+          image.scaleAbsolute(
+              image.getPlainWidth() * dotsPerPixel, image.getPlainHeight() * dotsPerPixel);
+          final FSImage fsImage = new ITextFSImage(image);
+          if (fsImage != null) {
+            if ((cssWidth != -1) || (cssHeight != -1)) {
+              fsImage.scale(cssWidth, cssHeight);
+            }
+            return new ITextImageElement(fsImage);
+          }
+        } catch (IOException | BadElementException e) {
+          log.warn(String.format("Problem adding image %s to pdf.", src), e);
+          return null;
         }
-      } catch (IOException | BadElementException e) {
-        log.warn(String.format("Problem adding image %s to pdf.", src), e);
-        return null;
       }
+      return this.superFactory.createReplacedElement(
+          layoutContext, blockBox, userAgentCallback, cssWidth, cssHeight);
     }
-    return this.superFactory.createReplacedElement(
-        layoutContext, blockBox, userAgentCallback, cssWidth, cssHeight);
-  }
 
-  @Override
-  public void reset() {
-    this.superFactory.reset();
-  }
+    @Override
+    public void reset() {
+      this.superFactory.reset();
+    }
 
-  @Override
-  public void remove(Element e) {
-    this.superFactory.remove(e);
-  }
+    @Override
+    public void remove(Element e) {
+      this.superFactory.remove(e);
+    }
 
-  @Override
-  public void setFormSubmissionListener(FormSubmissionListener listener) {
-    this.superFactory.setFormSubmissionListener(listener);
+    @Override
+    public void setFormSubmissionListener(FormSubmissionListener listener) {
+      this.superFactory.setFormSubmissionListener(listener);
+    }
   }
 }
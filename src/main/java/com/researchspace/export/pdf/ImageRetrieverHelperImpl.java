@@ -22,6 +22,8 @@ import com.researchspace.service.RSChemElementManager;
 import com.researchspace.service.RSMathManager;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.batik.transcoder.TranscoderException;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
@@ -47,6 +49,9 @@ public class ImageRetrieverHelperImpl implements ImageRetrieverHelper {
   private static final int EXTERNAL_IMAGE_TIMEOUT_MS = 2000;
   final int MAX_IMG_SIZE_BYTES = 10_000_000;
 
+  // icons are bundled with the application, so are read once
+  private final Map<String, byte[]> staticData = new ConcurrentHashMap<>();
+
   public byte[] getImageBytesFromImgSrc(String imgSrcValue, ExportToFileConfig config)
       throws IOException {
     byte[] imageData = null;
@@ -82,13 +87,17 @@ public class ImageRetrieverHelperImpl implements ImageRetrieverHelper {
   }
 
   private byte[] getStaticData(String imgSrcValue) throws IOException {
-    byte[] imageData = null;
+    byte[] imageData = staticData.get(imgSrcValue);
+    if (imageData != null) {
+      return imageData;
+    }
     Resource icon = resourceLocator.getResource(imgSrcValue);
     if (!icon.exists() || !icon.isReadable()) {
       LOG.warn("icon with path {} cannot be loaded", imgSrcValue);
     } else {
       imageData = new byte[(int) icon.contentLength()];
       IOUtils.read(icon.getInputStream(), imageData);
+      staticData.put(imgSrcValue, imageData);
     }
     return imageData;
   }
@@ -15,21 +15,48 @@ import com.researchspace.repository.spi.IdentifierScheme;
 import com.researchspace.service.MessageSourceUtils;
 import com.researchspace.service.UserExternalIdResolver;
 import com.researchspace.service.UserLocaleService;
+import com.researchspace.service.archive.export.ExportFailureException;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.xhtmlrenderer.layout.SharedContext;
 import org.xhtmlrenderer.pdf.ITextFontResolver;
 import org.xhtmlrenderer.pdf.ITextRenderer;
 
-/** Convert the HTML representation of a {@link StructuredDocument} to PDF for export. */
+/**
+ * Convert the HTML representation of a {@link StructuredDocument} to PDF for export.
+ *
+ * <p>If a 'pdfRenderTaskExecutor' is configured, and page numbers restart for each document, the
+ * HTML of each document is prepared in the calling thread, then rendered by the executor while the
+ * next document is prepared. Concatenation waits for each document's rendering in turn, for up to
+ * 'pdf.renderTimeoutSeconds', and renderings of failed exports are cancelled by {@link
+ * #cancelExports}. At most 'pdf.maxQueuedRenders' documents of an export wait for the executor,
+ * holding their HTML and images; further documents are rendered in the calling thread. Font
+ * resolvers, with the additional fonts registered, are reused between renderings.
+ */
 @Service
 public class PdfProcessor extends AbstractExportProcessor implements ExportProcessor {
 
@@ -40,6 +67,17 @@ public class PdfProcessor extends AbstractExportProcessor implements ExportProce
   private final MessageSourceUtils messages;
   private final UserLocaleService userLocaleService;
 
+  private final Queue<ITextFontResolver> fontResolvers = new ConcurrentLinkedQueue<>();
+  // renderings not yet concatenated, by export folder then output file
+  private final Map<File, Map<File, Rendering>> pendingRenders = new ConcurrentHashMap<>();
+  private AsyncTaskExecutor renderExecutor;
+
+  @Value("${pdf.renderTimeoutSeconds:600}")
+  private int renderTimeoutSeconds = 600;
+
+  @Value("${pdf.maxQueuedRenders:8}")
+  private int maxQueuedRenders = 8;
+
   @Autowired
   public PdfProcessor(
       UserExternalIdResolver idResolver,
@@ -60,6 +98,12 @@ public class PdfProcessor extends AbstractExportProcessor implements ExportProce
     Logger.getLogger("org.xhtmlrenderer").setLevel(java.util.logging.Level.WARNING);
   }
 
+  @Autowired(required = false)
+  @Qualifier("pdfRenderTaskExecutor")
+  public void setRenderExecutor(AsyncTaskExecutor renderExecutor) {
+    this.renderExecutor = renderExecutor;
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -78,14 +122,176 @@ public class PdfProcessor extends AbstractExportProcessor implements ExportProce
       throws IOException {
 
     // 1 pdf export can contain multiple docs
-    int pdfPageLength;
+    String html = prepareHtml(documentData, strucDoc, config);
+    Map<String, byte[]> images = imageResolver.retrieveImages(html, config);
+    int startPage = config.getStartPage();
+    // with continuous page numbers, the next document's start page depends on this one
+    if (renderExecutor != null && config.isRestartPageNumberPerDoc()) {
+      submitRender(tempExportFile, html, images, startPage, config);
+      config.setStartPage(0);
+      return;
+    }
+    int pdfPageLength = render(tempExportFile, html, images, startPage, config, true);
+    config.setStartPage(calculatePageNumber(config, pdfPageLength));
+  }
+
+  private void submitRender(
+      File tempExportFile,
+      String html,
+      Map<String, byte[]> images,
+      int startPage,
+      ExportToFileConfig config)
+      throws IOException {
+    Map<File, Rendering> renderings =
+        pendingRenders.computeIfAbsent(
+            tempExportFile.getParentFile(), folder -> new ConcurrentHashMap<>());
+    if (renderings.values().stream().filter(Rendering::isQueued).count() >= maxQueuedRenders) {
+      // the executor is behind, so this document isn't held in memory until it catches up
+      render(tempExportFile, html, images, startPage, config, true);
+      return;
+    }
+    Rendering rendering =
+        new Rendering(() -> render(tempExportFile, html, images, startPage, config, false));
+    renderings.put(tempExportFile, rendering);
+    try {
+      rendering.task = renderExecutor.submit(rendering::runInBackground);
+    } catch (TaskRejectedException e) {
+      removePendingRender(tempExportFile);
+      render(tempExportFile, html, images, startPage, config, true);
+    }
+  }
+
+  /**
+   * Waits until the file is rendered, if it is being rendered in another thread, or renders it
+   * now if its rendering hasn't started, e.g. as it's queued or was discarded by the executor.
+   * Renderings that time out are left for {@link #cancelExports}.
+   */
+  private void awaitRender(File exportFile) throws IOException {
+    Map<File, Rendering> renderings = pendingRenders.get(exportFile.getParentFile());
+    Rendering rendering = renderings == null ? null : renderings.get(exportFile);
+    if (rendering == null) {
+      return;
+    }
+    if (rendering.start()) {
+      rendering.cancelTask();
+      removePendingRender(exportFile);
+      rendering.result.complete(rendering.takeJob().render(true));
+      return;
+    }
     try {
-      pdfPageLength = doExportPdf(tempExportFile, documentData, strucDoc, config);
-    } catch (DocumentException e) {
-      throw new IOException("Could not generate PDFWriter", e);
+      rendering.result.get(renderTimeoutSeconds, TimeUnit.SECONDS);
+      removePendingRender(exportFile);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      rendering.cancelTask();
+      throw new IOException("Interrupted while waiting for PDF rendering", e);
+    } catch (TimeoutException e) {
+      rendering.cancelTask();
+      throw new ExportFailureException(
+          "Rendering [" + exportFile.getName() + "] took over " + renderTimeoutSeconds + "s");
+    } catch (ExecutionException e) {
+      removePendingRender(exportFile);
+      throw new ExportFailureException(
+          "Exception when rendering [" + exportFile.getName() + "]: " + e.getCause());
+    }
+  }
+
+  private void removePendingRender(File exportFile) {
+    Map<File, Rendering> renderings = pendingRenders.get(exportFile.getParentFile());
+    if (renderings != null) {
+      renderings.remove(exportFile);
+      pendingRenders.remove(exportFile.getParentFile(), Collections.emptyMap());
+    }
+  }
+
+  /**
+   * Renderings that haven't started are abandoned, and those in progress are interrupted and
+   * waited for, so the folder can be deleted.
+   */
+  @Override
+  public void cancelExports(File tempExportFolder) {
+    Map<File, Rendering> renderings = pendingRenders.remove(tempExportFolder);
+    if (renderings == null) {
+      return;
+    }
+    for (Rendering rendering : renderings.values()) {
+      if (rendering.start()) {
+        rendering.takeJob();
+        rendering.result.cancel(false);
+        rendering.cancelTask();
+        continue;
+      }
+      rendering.cancelTask();
+      try {
+        rendering.result.get(renderTimeoutSeconds, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException | TimeoutException | CancellationException e) {
+        log.warn("Abandoned rendering in {}: {}", tempExportFolder, e.toString());
+      }
+    }
+  }
+
+  /* Package scoped for testing */
+  int getIdleFontResolverCount() {
+    return fontResolvers.size();
+  }
+
+  @FunctionalInterface
+  private interface RenderJob {
+    int render(boolean inCallingThread) throws IOException;
+  }
+
+  /**
+   * A document's rendering by the executor. Whichever of the executor's task and the thread
+   * needing the result starts it first runs it, so renderings don't wait on a busy or discarding
+   * executor. The job, holding the document's HTML and images, is released when started, so only
+   * the result is kept until concatenation.
+   */
+  private static class Rendering {
+    private volatile RenderJob job;
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Future<?> task;
+
+    Rendering(RenderJob job) {
+      this.job = job;
+    }
+
+    boolean start() {
+      return started.compareAndSet(false, true);
+    }
+
+    boolean isQueued() {
+      return !started.get();
+    }
+
+    /** Called only by the thread that started the rendering */
+    RenderJob takeJob() {
+      RenderJob toRun = job;
+      job = null;
+      return toRun;
+    }
+
+    void runInBackground() {
+      if (!start()) {
+        return;
+      }
+      try {
+        result.complete(takeJob().render(false));
+      } catch (Throwable e) {
+        // including errors, so the exporting thread isn't left waiting
+        result.completeExceptionally(e);
+      }
+    }
+
+    void cancelTask() {
+      Future<?> submitted = task;
+      if (submitted != null) {
+        submitted.cancel(true);
+      }
     }
-    int startPage = calculatePageNumber(config, pdfPageLength);
-    config.setStartPage(startPage);
   }
 
   /***
@@ -105,34 +311,59 @@ public class PdfProcessor extends AbstractExportProcessor implements ExportProce
     return 0;
   }
 
-  private int doExportPdf(
-      File tempExportFile,
-      ExportProcessorInput documentData,
-      IRSpaceDoc strucDoc,
-      ExportToFileConfig config)
-      throws DocumentException, IOException {
-
+  private String prepareHtml(
+      ExportProcessorInput documentData, IRSpaceDoc strucDoc, ExportToFileConfig config) {
     log.debug("Before: {}", documentData.getDocumentAsHtml());
     documentData = preProcessHTML(documentData);
+    return pdfHtmlGenerator.prepareHtml(documentData, strucDoc, config);
+  }
+
+  private int render(
+      File tempExportFile,
+      String html,
+      Map<String, byte[]> images,
+      int startPage,
+      ExportToFileConfig config,
+      boolean inCallingThread)
+      throws IOException {
+    ITextFontResolver fontResolver = borrowFontResolver();
+    try {
+      ITextRenderer renderer = new ITextRenderer();
+      SharedContext sharedContext = renderer.getSharedContext();
+      sharedContext.setFontResolver(fontResolver);
+      sharedContext.setReplacedElementFactory(
+          imageResolver.createFactory(
+              sharedContext.getReplacedElementFactory(),
+              sharedContext.getDotsPerPixel(),
+              config,
+              images,
+              inCallingThread));
+      sharedContext.setPrint(true);
+      sharedContext.setInteractive(false);
+      renderer.setDocumentFromString(html);
+      renderer.layout();
+      try (FileOutputStream out = new FileOutputStream(tempExportFile)) {
+        renderer.createPDF(out, true, startPage);
+      } catch (DocumentException e) {
+        throw new IOException("Could not generate PDFWriter", e);
+      }
+      return renderer.getWriter().getPageNumber();
+    } finally {
+      fontResolvers.offer(fontResolver);
+    }
+  }
 
-    String html = pdfHtmlGenerator.prepareHtml(documentData, strucDoc, config);
-
-    ITextRenderer renderer = new ITextRenderer();
-    imageResolver.setReplacedElementFactory(
-        renderer.getSharedContext().getReplacedElementFactory());
-    imageResolver.setDotsPerPixel(renderer.getSharedContext().getDotsPerPixel());
-    imageResolver.setExportConfig(config);
-    renderer.getSharedContext().setReplacedElementFactory(imageResolver);
-    registerAdditionalFonts(renderer.getFontResolver());
-    SharedContext sharedContext = renderer.getSharedContext();
-    sharedContext.setPrint(true);
-    sharedContext.setInteractive(false);
-    renderer.setDocumentFromString(html);
-    renderer.layout();
-    try (FileOutputStream out = new FileOutputStream(tempExportFile)) {
-      renderer.createPDF(out, true, config.getStartPage());
+  /*
+  Registering the additional fonts reads them from disk, so font resolvers are reused. A resolver
+  caches fonts as they are used, so is only used by one rendering at a time.
+   */
+  private ITextFontResolver borrowFontResolver() {
+    ITextFontResolver fontResolver = fontResolvers.poll();
+    if (fontResolver == null) {
+      fontResolver = new ITextRenderer().getFontResolver();
+      registerAdditionalFonts(fontResolver);
     }
-    return renderer.getWriter().getPageNumber();
+    return fontResolver;
   }
 
   /*
@@ -227,11 +458,15 @@ public class PdfProcessor extends AbstractExportProcessor implements ExportProce
       pdfDocument.open();
 
       for (int i = 0; i < tmpExportedFiles.size(); i++) {
+        awaitRender(tmpExportedFiles.get(i));
         PdfReader pdfReader = new PdfReader(tmpExportedFiles.get(i).getAbsolutePath());
         numPages = pdfReader.getNumberOfPages();
         for (int pageNum = 0; pageNum < numPages; ) {
           pdfCopy.addPage(pdfCopy.getImportedPage(pdfReader, ++pageNum));
         }
+        // write out this document's pages and release them before reading the next
+        pdfCopy.freeReader(pdfReader);
+        pdfReader.close();
         if (i < tmpExportedFiles.size()) {
           pos.add(pageOffset + 1);
           pageOffset += numPages;
@@ -0,0 +1,24 @@
+package com.researchspace.export.pdf;
+
+import com.researchspace.model.netfiles.NfsElement;
+import java.util.List;
+import java.util.Set;
+import lombok.Value;
+
+/**
+ * The HTML of a document's fields, with what was found in it, as generated by {@link
+ * HTMLStringGeneratorForExport} before comments, NFS file store details and revision history are
+ * looked up. These can change without the document being saved, so are not part of it.
+ */
+@Value
+public class RenderedDocumentHtml {
+
+  String html;
+
+  /** Ids of the comments whose icons were replaced by numbered references, in order */
+  List<Long> commentIds;
+
+  List<NfsElement> nfsElements;
+
+  Set<String> igsnInventoryLinkedItems;
+}
@@ -1,6 +1,7 @@
 package com.researchspace.extmessages.base;
 
 import com.researchspace.analytics.service.AnalyticsManager;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.User;
 import com.researchspace.model.apps.AppConfigElementSet;
 import com.researchspace.model.comms.MessageOrRequest;
@@ -30,6 +31,13 @@ public abstract class AbstractExternalWebhookMessageSender implements ExternalMe
   protected @Autowired MessageSourceUtils messages;
   protected @Autowired AnalyticsManager analyticsMgr;
 
+  private RestTemplate restTemplate;
+
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("webhooks");
+  }
+
   @Override
   public final ResponseEntity<String> sendMessage(
       MessageDetails message, AppConfigElementSet messageConfig, User subject) {
@@ -88,7 +96,7 @@ public abstract class AbstractExternalWebhookMessageSender implements ExternalMe
    * Package scoped for testing
    */
   RestTemplate getRestTemplate() {
-    return new RestTemplate();
+    return restTemplate;
   }
 
   /**
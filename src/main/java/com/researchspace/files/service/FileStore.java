@@ -109,8 +109,8 @@ public interface FileStore {
   FileStoreRoot getCurrentLocalFileStoreRoot();
 
   /**
-   * Removes file from fileSystem. Note: currently has a dummy implementation, which doesn't remove
-   * anything.
+   * Removes file from fileSystem. Note: only the internal file store removes anything, and only
+   * files it stored with deduplication enabled.
    *
    * @param fileProperty
    * @return true if file was removed
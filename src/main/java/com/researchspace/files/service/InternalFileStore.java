@@ -35,4 +35,15 @@ public interface InternalFileStore extends FileStore {
    * @return The current filestore root.
    */
   FileStoreRoot setupInternalFileStoreRoot();
+
+  /**
+   * Deduplicates the contents of files stored before deduplication was enabled, one batch at a
+   * time. Should be called repeatedly, passing in the previous return value, until it returns
+   * <code>null</code>.
+   *
+   * @param afterId the id returned by the previous call, or <code>null</code> to start
+   * @param batchSize maximum number of FileProperties to process in this call
+   * @return the id of the last FileProperty processed, or <code>null</code> if there were none left
+   */
+  Long deduplicateStoredFiles(Long afterId, int batchSize);
 }
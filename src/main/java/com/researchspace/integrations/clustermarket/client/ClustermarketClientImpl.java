@@ -1,6 +1,7 @@
 package com.researchspace.integrations.clustermarket.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.User;
 import com.researchspace.model.dto.IntegrationInfo;
 import com.researchspace.service.IntegrationsHandler;
@@ -23,14 +24,16 @@ import org.springframework.web.client.RestTemplate;
     backoff = @Backoff(delayExpression = "${services.retry.back-off-delay-in-millis}"))
 @Component
 public class ClustermarketClientImpl implements ClustermarketClient {
-  private RestTemplate restTemplate = new RestTemplate();
+  private RestTemplate restTemplate;
   private IntegrationsHandler integrationsHandler;
 
   @Value("${clustermarket.api.url}")
   private String clustermarketApiUrl;
 
-  public ClustermarketClientImpl(IntegrationsHandler integrationsHandler) {
+  public ClustermarketClientImpl(
+      IntegrationsHandler integrationsHandler, HttpClientFactory httpClientFactory) {
     this.integrationsHandler = integrationsHandler;
+    this.restTemplate = httpClientFactory.createRestTemplate("clustermarket");
   }
 
   public JsonNode getBookings(User user, String accessToken) {
@@ -1,5 +1,6 @@
 package com.researchspace.licensews.client;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.core.util.cache.CacheState;
 import com.researchspace.core.util.cache.TimeLimitedMemoryCache;
 import com.researchspace.licenseserver.model.CustomerInfo;
@@ -57,8 +58,9 @@ public class LicenseWSClient implements RemoteLicenseService {
   // this is thread-safe
   RestTemplate restTemplate;
 
-  public LicenseWSClient() {
-    this.restTemplate = new RestTemplate();
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("license");
   }
 
   @Override
@@ -0,0 +1,31 @@
+package com.researchspace.linkedelements;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The new ids of the elements linked from a text field that have been copied along with it, keyed
+ * by their original ids. Passed to {@link RichTextUpdater#updateIdsInCopy(CopiedElementIds,
+ * String)} to update all the links in the copied field in one pass.
+ */
+@Getter
+public class CopiedElementIds {
+
+  /** Original field id of images and annotations to new field id */
+  private final Map<Long, Long> imageParentIds = new HashMap<>();
+
+  private final Map<Long, Long> annotationIds = new HashMap<>();
+  private final Map<Long, Long> sketchIds = new HashMap<>();
+  private final Map<Long, Long> commentIds = new HashMap<>();
+  private final Map<Long, Long> chemIds = new HashMap<>();
+  private final Map<Long, Long> stoichiometryIds = new HashMap<>();
+  private final Map<Long, Long> mathIds = new HashMap<>();
+
+  /**
+   * If set, the id of the field that thumbnails and audio/video links are moved to; can be <code>
+   * null</code>
+   */
+  @Setter private Long mediaFieldId;
+}
@@ -17,6 +17,7 @@ import com.researchspace.model.Thumbnail;
 import com.researchspace.model.netfiles.NfsElement;
 import com.researchspace.model.record.RecordInformation;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -284,6 +285,35 @@ public class FieldContents {
     // these are separate as they are the same class so can't be distinguished by class type.
     getSketchAnnotationDeltas(newContents, added, removed);
     getImageAnnotationDeltas(newContents, added, removed);
+    getThumbnailDeltas(newContents, added, removed);
+  }
+
+  private void getThumbnailDeltas(
+      FieldContents newContents, FieldContents added, FieldContents removed) {
+    // compared by the properties in their URLs, as parsed thumbnails have no ids
+    Set<List<Object>> oldKeys =
+        thumbnails.stream().map(FieldContents::thumbnailKey).collect(Collectors.toSet());
+    Set<List<Object>> newKeys =
+        newContents.thumbnails.stream()
+            .map(FieldContents::thumbnailKey)
+            .collect(Collectors.toSet());
+    newContents.thumbnails.stream()
+        .filter(t -> !oldKeys.contains(thumbnailKey(t)))
+        .forEach(added::addThumbnail);
+    thumbnails.stream()
+        .filter(t -> !newKeys.contains(thumbnailKey(t)))
+        .forEach(removed::addThumbnail);
+  }
+
+  private static List<Object> thumbnailKey(Thumbnail thumbnail) {
+    return Arrays.asList(
+        thumbnail.getSourceType(),
+        thumbnail.getSourceId(),
+        thumbnail.getSourceParentId(),
+        thumbnail.getRevision(),
+        thumbnail.getWidth(),
+        thumbnail.getHeight(),
+        thumbnail.getRotation());
   }
 
   private void getSketchAnnotationDeltas(
@@ -107,26 +107,72 @@ public class RichTextUpdater {
   }
 
   public String updateCommentIdsInCopy(Map<Long, Long> oldKey2NewKey, String fieldData) {
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.getCommentIds().putAll(oldKey2NewKey);
+    return updateIdsInCopy(ids, fieldData);
+  }
+
+  /**
+   * Updates the links to all the elements that were copied along with a text field, in a single
+   * parse of the field. The result is the same as calling {@link
+   * #updateImageIdsAndAnnoIdsInCopy(Map, Map, String)}, {@link #updateSketchIdsInCopy(Map,
+   * String)}, {@link #updateCommentIdsInCopy(Map, String)}, {@link #updateChemIdsInCopy(Map,
+   * String)}, {@link #updateStoichiometryIdsInCopy(Map, String)}, {@link
+   * #updateMathIdsInCopy(Map, String)}, {@link #updateThumbnailParentIds(String, Long)} and {@link
+   * #updateAVIdsInCopy(String, Long)} in turn, for those types of element that have ids to update.
+   *
+   * @param ids the new ids of copied elements
+   * @param fieldData the copied field's content
+   * @return the updated content
+   */
+  public String updateIdsInCopy(CopiedElementIds ids, String fieldData) {
     if (StringUtils.isBlank(fieldData)) {
       return fieldData;
     }
+    boolean updateImages = !ids.getImageParentIds().isEmpty() || !ids.getAnnotationIds().isEmpty();
     Document d = Jsoup.parse(fieldData);
-
-    Elements elements = d.getElementsByTag("img");
-    for (int i = 0; i < elements.size(); i++) {
-      Element el = elements.get(i);
-
-      if (isComment(el)) {
-        String oldId = el.attr("id");
-        Long replacement = oldKey2NewKey.get(Long.parseLong(oldId));
-        if (replacement != null) {
-          el.attr("id", replacement + "");
+    for (Element el : d.getAllElements()) {
+      if ("img".equals(el.tagName())) {
+        if (updateImages && isImageOrAnnotation(el)) {
+          updateImageOrAnnotationInCopy(el, ids);
+        }
+        if (!ids.getSketchIds().isEmpty() && isSketch(el)) {
+          updateSketchInCopy(el, ids.getSketchIds());
         }
+        if (!ids.getCommentIds().isEmpty() && isComment(el)) {
+          updateCommentInCopy(el, ids.getCommentIds());
+        }
+        if (!ids.getChemIds().isEmpty() && isChemImage(el)) {
+          updateChemInCopy(el, ids.getChemIds());
+        }
+        if (!ids.getStoichiometryIds().isEmpty() && isChemImage(el)) {
+          rewriteStoichiometryAttribute(el, ids.getStoichiometryIds());
+        }
+      } else if ("div".equals(el.tagName())) {
+        if (!ids.getStoichiometryIds().isEmpty()
+            && "true".equalsIgnoreCase(el.attr(DATA_STOICHIOMETRY_TABLE_ONLY).trim())) {
+          rewriteStoichiometryAttribute(el, ids.getStoichiometryIds());
+        }
+        if (!ids.getMathIds().isEmpty() && isMathDiv(el)) {
+          updateMathInCopy(el, ids.getMathIds());
+        }
+      }
+      if (ids.getMediaFieldId() != null) {
+        updateThumbnailParentId(el, ids.getMediaFieldId());
+        updateAVIdInCopy(el, ids.getMediaFieldId());
       }
     }
     return d.body().html();
   }
 
+  private void updateCommentInCopy(Element el, Map<Long, Long> oldKey2NewKey) {
+    String oldId = el.attr("id");
+    Long replacement = oldKey2NewKey.get(Long.parseLong(oldId));
+    if (replacement != null) {
+      el.attr("id", replacement + "");
+    }
+  }
+
   public boolean isComment(Element el) {
     return getClassAttrLowerCase(el)
         .contains(FieldParserConstants.COMMENT_CLASS_NAME.toLowerCase());
@@ -453,37 +499,33 @@ public class RichTextUpdater {
    */
   public String updateImageIdsAndAnnoIdsInCopy(
       Map<Long, Long> oldParent2NewParent, Map<Long, Long> oldAnnoId2NewAnnoId, String fieldData) {
-
-    if (StringUtils.isBlank(fieldData)) {
-      return fieldData;
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.getImageParentIds().putAll(oldParent2NewParent);
+    if (oldAnnoId2NewAnnoId != null) {
+      ids.getAnnotationIds().putAll(oldAnnoId2NewAnnoId);
     }
-    Document d = Jsoup.parse(fieldData);
-    Elements elements = d.getElementsByTag("img");
-    for (int i = 0; i < elements.size(); i++) {
-      Element el = elements.get(i);
+    return updateIdsInCopy(ids, fieldData);
+  }
 
-      if (isImageOrAnnotation(el)) {
-        String oldId = el.attr("id");
+  private void updateImageOrAnnotationInCopy(Element el, CopiedElementIds ids) {
+    String oldId = el.attr("id");
 
-        Long oldFld = Long.parseLong(oldId.split("-")[0]);
-        Long oldImg = Long.parseLong(oldId.split("-")[1]);
-        Long newFld = oldParent2NewParent.get(oldFld);
-        if (newFld != null) {
-          el.attr("id", newFld + "-" + oldImg);
-          el.attr("src", GET_IMAGE_URL + newFld + "-" + oldImg + "/" + randomGenerator.nextLong());
-        }
+    Long oldFld = Long.parseLong(oldId.split("-")[0]);
+    Long oldImg = Long.parseLong(oldId.split("-")[1]);
+    Long newFld = ids.getImageParentIds().get(oldFld);
+    if (newFld != null) {
+      el.attr("id", newFld + "-" + oldImg);
+      el.attr("src", GET_IMAGE_URL + newFld + "-" + oldImg + "/" + randomGenerator.nextLong());
+    }
 
-        if (el.hasAttr(DATA_TYPE)
-            && FieldParserConstants.DATA_TYPE_ANNOTATION.equals(el.attr(DATA_TYPE))
-            && (el.hasAttr(DATA_ID))) {
-          Long oldAnnoId = Long.parseLong(el.attr(DATA_ID));
-          Long newAnnotId = oldAnnoId2NewAnnoId.get(oldAnnoId);
-          el.attr(DATA_ID, "" + newAnnotId);
-          el.attr("src", GET_ANNOTATION_URL + newAnnotId + "/" + randomGenerator.nextLong());
-        }
-      }
+    if (el.hasAttr(DATA_TYPE)
+        && FieldParserConstants.DATA_TYPE_ANNOTATION.equals(el.attr(DATA_TYPE))
+        && (el.hasAttr(DATA_ID))) {
+      Long oldAnnoId = Long.parseLong(el.attr(DATA_ID));
+      Long newAnnotId = ids.getAnnotationIds().get(oldAnnoId);
+      el.attr(DATA_ID, "" + newAnnotId);
+      el.attr("src", GET_ANNOTATION_URL + newAnnotId + "/" + randomGenerator.nextLong());
     }
-    return d.body().html();
   }
 
   /**
@@ -495,47 +537,36 @@ public class RichTextUpdater {
    * @return the updated string.
    */
   public String updateSketchIdsInCopy(Map<Long, Long> oldKey2NewKey, String fieldData) {
-    if (StringUtils.isBlank(fieldData)) {
-      return fieldData;
-    }
-    Document d = Jsoup.parse(fieldData);
-    Elements elements = d.getElementsByTag("img");
-    for (int i = 0; i < elements.size(); i++) {
-      Element el = elements.get(i);
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.getSketchIds().putAll(oldKey2NewKey);
+    return updateIdsInCopy(ids, fieldData);
+  }
 
-      if (isSketch(el)) {
-        String oldId = el.attr("id");
-        Long replacement = oldKey2NewKey.get(Long.parseLong(oldId));
-        Date dt = new Date();
-        String stmp = Long.toString(dt.getTime());
-        el.attr("id", "" + replacement);
-        el.attr("src", "/image/getImageSketch/" + replacement + "/" + stmp);
-      }
-    }
-    return d.body().html();
+  private void updateSketchInCopy(Element el, Map<Long, Long> oldKey2NewKey) {
+    String oldId = el.attr("id");
+    Long replacement = oldKey2NewKey.get(Long.parseLong(oldId));
+    Date dt = new Date();
+    String stmp = Long.toString(dt.getTime());
+    el.attr("id", "" + replacement);
+    el.attr("src", "/image/getImageSketch/" + replacement + "/" + stmp);
   }
 
   public String updateMathIdsInCopy(Map<Long, Long> oldKey2NewKey, String fieldData) {
-    if (StringUtils.isBlank(fieldData)) {
-      return fieldData;
-    }
-    Document d = Jsoup.parse(fieldData);
-    Elements elements = d.getElementsByTag("div");
-    for (int i = 0; i < elements.size(); i++) {
-      Element el = elements.get(i);
-      if (isMathDiv(el)) {
-        String oldId = el.attr(DATA_MATHID);
-        Long replacement = oldKey2NewKey.get(Long.parseLong(oldId));
-        if (replacement != null) {
-          el.attr(DATA_MATHID, replacement + "");
-
-          Element svgObject = el.getElementsByTag(OBJECT).get(0);
-          String oldData = svgObject.attr("data");
-          svgObject.attr("data", oldData.replace(oldId, replacement + ""));
-        }
-      }
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.getMathIds().putAll(oldKey2NewKey);
+    return updateIdsInCopy(ids, fieldData);
+  }
+
+  private void updateMathInCopy(Element el, Map<Long, Long> oldKey2NewKey) {
+    String oldId = el.attr(DATA_MATHID);
+    Long replacement = oldKey2NewKey.get(Long.parseLong(oldId));
+    if (replacement != null) {
+      el.attr(DATA_MATHID, replacement + "");
+
+      Element svgObject = el.getElementsByTag(OBJECT).get(0);
+      String oldData = svgObject.attr("data");
+      svgObject.attr("data", oldData.replace(oldId, replacement + ""));
     }
-    return d.body().html();
   }
 
   /**
@@ -546,39 +577,27 @@ public class RichTextUpdater {
    * @return the updated string.
    */
   public String updateChemIdsInCopy(Map<Long, Long> oldKey2NewKey, String fieldData) {
-    if (StringUtils.isBlank(fieldData)) {
-      return fieldData;
-    }
-    Document d = Jsoup.parse(fieldData);
-    Elements elements = d.getElementsByTag("img");
-    for (int i = 0; i < elements.size(); i++) {
-      Element el = elements.get(i);
-      if (isChemImage(el)) {
-        String oldId = el.attr("id");
-        Long replacement = oldKey2NewKey.get(Long.parseLong(oldId));
-        if (replacement != null) {
-          Map<String, String> newAttributes = makeChemImageAttributes("" + replacement);
-          updateIdAndSrcAttributes(newAttributes, el);
-        }
-      }
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.getChemIds().putAll(oldKey2NewKey);
+    return updateIdsInCopy(ids, fieldData);
+  }
+
+  private void updateChemInCopy(Element el, Map<Long, Long> oldKey2NewKey) {
+    String oldId = el.attr("id");
+    Long replacement = oldKey2NewKey.get(Long.parseLong(oldId));
+    if (replacement != null) {
+      Map<String, String> newAttributes = makeChemImageAttributes("" + replacement);
+      updateIdAndSrcAttributes(newAttributes, el);
     }
-    return d.body().html();
   }
 
   public String updateStoichiometryIdsInCopy(Map<Long, Long> oldId2NewId, String fieldData) {
     if (StringUtils.isBlank(fieldData) || oldId2NewId.isEmpty()) {
       return fieldData;
     }
-    Document d = Jsoup.parse(fieldData);
-    for (Element el : d.getElementsByTag("img")) {
-      if (isChemImage(el)) {
-        rewriteStoichiometryAttribute(el, oldId2NewId);
-      }
-    }
-    for (Element el : d.select("div[" + DATA_STOICHIOMETRY_TABLE_ONLY + "=true]")) {
-      rewriteStoichiometryAttribute(el, oldId2NewId);
-    }
-    return d.body().html();
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.getStoichiometryIds().putAll(oldId2NewId);
+    return updateIdsInCopy(ids, fieldData);
   }
 
   public List<Long> findStandaloneStoichiometryIds(String fieldData) {
@@ -1546,36 +1565,41 @@ public class RichTextUpdater {
 
   public String updateAVIdsInCopy(String content, Long newFieldId) {
     Document dc = Jsoup.parse(content);
-    Elements elms =
-        dc.getElementsByAttributeValueContaining(CLASS, FieldParserConstants.AUDIO_CLASSNAME);
-    elms.addAll(
-        dc.getElementsByAttributeValueContaining(CLASS, FieldParserConstants.VIDEO_CLASSNAME));
-    for (Element elm : elms) {
+    for (Element elm : dc.getAllElements()) {
+      updateAVIdInCopy(elm, newFieldId);
+    }
+    return dc.body().html();
+  }
+
+  private void updateAVIdInCopy(Element elm, Long newFieldId) {
+    String classLC = getClassAttrLowerCase(elm);
+    if (classLC.contains(FieldParserConstants.AUDIO_CLASSNAME.toLowerCase())
+        || classLC.contains(FieldParserConstants.VIDEO_CLASSNAME.toLowerCase())) {
       String compId = elm.attr("id");
       compId = compId.replaceAll("^\\d+-", newFieldId + "-");
       elm.attr("id", compId);
     }
-    return dc.body().html();
   }
 
   public String updateThumbnailParentIds(String content, Long newParentId) {
     Document dc = Jsoup.parse(content);
-    Elements elms =
-        dc.getElementsByAttributeValueContaining(
-            CLASS, FieldParserConstants.IMAGE_DROPPED_CLASS_NAME);
-    for (Element elm : elms) {
-      if (elm.attr("src").startsWith("/thumbnail")) {
-        String src = elm.attr("src");
-        src = src.replaceFirst("sourceParentId=\\d+", "sourceParentId=" + newParentId);
-        elm.attr("src", src);
-        String id = elm.attr("id");
-        id = id.replaceFirst("^\\d+-", newParentId + "-");
-        elm.attr("id", id);
-      }
+    for (Element elm : dc.getAllElements()) {
+      updateThumbnailParentId(elm, newParentId);
     }
     return dc.body().html();
   }
 
+  private void updateThumbnailParentId(Element elm, Long newParentId) {
+    if (isImageOrAnnotation(elm) && elm.attr("src").startsWith("/thumbnail")) {
+      String src = elm.attr("src");
+      src = src.replaceFirst("sourceParentId=\\d+", "sourceParentId=" + newParentId);
+      elm.attr("src", src);
+      String id = elm.attr("id");
+      id = id.replaceFirst("^\\d+-", newParentId + "-");
+      elm.attr("id", id);
+    }
+  }
+
   /** Generates new src URL for a thumbnail */
   private String thumbnailToSrcRef(Thumbnail thumbnail) {
     Map<String, Object> velocityModel =
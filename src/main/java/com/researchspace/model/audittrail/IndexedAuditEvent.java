@@ -0,0 +1,56 @@
+package com.researchspace.model.audittrail;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An audit trail event as written to the audit log, stored so that audit searches can use indexes
+ * rather than reading the log files. Rows are only ever inserted.
+ */
+@Entity
+@Table(name = "AuditEvent")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IndexedAuditEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /** Time of the event, in milliseconds since the epoch */
+  private long eventTime;
+
+  private String username;
+
+  private String fullName;
+
+  @Enumerated(EnumType.STRING)
+  private AuditDomain domain;
+
+  @Enumerated(EnumType.STRING)
+  private AuditAction action;
+
+  /** The event's audit data, as JSON */
+  @Lob private String data;
+
+  private String description;
+
+  /** Database id of the object the event is about, if its audit data identifies one */
+  private Long objectId;
+
+  /**
+   * Global id prefix of the object, e.g. 'SD', or <code>null</code> if the audit data only has its
+   * database id
+   */
+  private String objectPrefix;
+}
@@ -0,0 +1,221 @@
+package com.researchspace.model.dtos;
+
+import com.axiope.search.SearchUtils;
+import com.researchspace.core.util.ISearchResults;
+import com.researchspace.core.util.SortOrder;
+import com.researchspace.model.PaginationCriteria;
+import com.researchspace.model.core.RecordType;
+import com.researchspace.model.record.BaseRecord;
+import com.researchspace.model.views.RecordTypeFilter;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The position after the last record of a page of a folder listing, so that the next page can be
+ * listed from it (keyset pagination) rather than by counting and skipping the records before it.
+ * Tokens aren't signed, so they only carry the position: the total number of records comes from
+ * the folder's cached count, as for other pages.
+ *
+ * <p>Listings sorted by name, creation or modification time are supported. A cursor is passed to
+ * clients as an opaque token, and only used for the listing and page it was created for: otherwise
+ * the page is listed by offset as before.
+ */
+@Slf4j
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class FolderListingCursor {
+
+  private static final String VERSION = "2";
+  private static final String SEPARATOR = "|";
+  private static final List<String> KEYSET_FIELDS =
+      List.of(
+          SearchUtils.ORDER_BY_NAME,
+          SearchUtils.BASE_RECORD_ORDER_BY_CREATED,
+          SearchUtils.BASE_RECORD_ORDER_BY_LAST_MODIFIED);
+
+  private final Long folderId;
+  private final String filterKey;
+
+  /** 'name', 'creationDateMillis' or 'modificationDateMillis' */
+  private final String orderBy;
+
+  private final SortOrder sortOrder;
+  private final int resultsPerPage;
+
+  /** The 0-based page number that this cursor lists */
+  private final long pageNumber;
+
+  private final Long lastId;
+
+  /** The sort value of the last record, a name or time in milliseconds */
+  private final String lastValue;
+
+  /**
+   * @param pgCrit pagination criteria of a folder listing
+   * @return the field that the listing can be paged through by keyset, or <code>null</code> if it
+   *     can only be paged by offset
+   */
+  public static String getKeysetField(PaginationCriteria<?> pgCrit) {
+    String orderBy = pgCrit.getOrderBy();
+    if (StringUtils.isEmpty(orderBy)) {
+      return SearchUtils.BASE_RECORD_ORDER_BY_LAST_MODIFIED;
+    }
+    orderBy = StringUtils.removeStart(orderBy, "editInfo.");
+    return KEYSET_FIELDS.contains(orderBy) ? orderBy : null;
+  }
+
+  /**
+   * @param pgCrit pagination criteria of a folder listing
+   * @return the listing's sort order; listings without an orderBy are sorted by modification time,
+   *     most recent first
+   */
+  public static SortOrder getKeysetSortOrder(PaginationCriteria<?> pgCrit) {
+    return StringUtils.isEmpty(pgCrit.getOrderBy()) ? SortOrder.DESC : pgCrit.getSortOrder();
+  }
+
+  /**
+   * Creates a cursor for the page after the listed one, if there is one and the listing's sort
+   * order supports it.
+   *
+   * @param folderId the listed folder
+   * @param pgCrit pagination criteria of the listed page
+   * @param filter the filter used for the listing, may be <code>null</code>
+   * @param results the listed page
+   * @return a cursor for the next page, or <code>null</code>
+   */
+  public static FolderListingCursor forNextPage(
+      Long folderId,
+      PaginationCriteria<?> pgCrit,
+      RecordTypeFilter filter,
+      ISearchResults<BaseRecord> results) {
+    String keysetField = getKeysetField(pgCrit);
+    List<BaseRecord> records = results.getResults();
+    long nextPage = pgCrit.getPageNumber() + 1;
+    if (keysetField == null
+        || records.isEmpty()
+        || results.getTotalHits() <= nextPage * pgCrit.getResultsPerPage()) {
+      return null;
+    }
+    BaseRecord last = records.get(records.size() - 1);
+    String lastValue = getSortValue(last, keysetField);
+    if (lastValue == null) {
+      return null;
+    }
+    return new FolderListingCursor(
+        folderId,
+        getFilterKey(filter),
+        keysetField,
+        getKeysetSortOrder(pgCrit),
+        pgCrit.getResultsPerPage(),
+        nextPage,
+        last.getId(),
+        lastValue);
+  }
+
+  private static String getSortValue(BaseRecord record, String keysetField) {
+    switch (keysetField) {
+      case SearchUtils.ORDER_BY_NAME:
+        return record.getName();
+      case SearchUtils.BASE_RECORD_ORDER_BY_CREATED:
+        return Objects.toString(record.getCreationDateMillis(), null);
+      default:
+        return Objects.toString(record.getModificationDateMillis(), null);
+    }
+  }
+
+  /**
+   * @param filter a record type filter, may be <code>null</code>
+   * @return a key identifying the types of records the filter lists
+   */
+  public static String getFilterKey(RecordTypeFilter filter) {
+    if (filter == null) {
+      return "";
+    }
+    Set<RecordType> wanted = new TreeSet<>(filter.getWantedTypes());
+    Set<RecordType> excluded = new TreeSet<>(filter.getExcludedTypes());
+    return StringUtils.join(wanted, ",") + "-" + StringUtils.join(excluded, ",");
+  }
+
+  /**
+   * @return whether this cursor is for the given page of the given listing
+   */
+  public boolean continues(Long folderId, PaginationCriteria<?> pgCrit, RecordTypeFilter filter) {
+    return Objects.equals(this.folderId, folderId)
+        && filterKey.equals(getFilterKey(filter))
+        && orderBy.equals(getKeysetField(pgCrit))
+        && sortOrder == getKeysetSortOrder(pgCrit)
+        && resultsPerPage == pgCrit.getResultsPerPage()
+        && pageNumber == pgCrit.getPageNumber();
+  }
+
+  /**
+   * @return the sort value of the last record, as a Long for times
+   */
+  public Object getTypedLastValue() {
+    return SearchUtils.ORDER_BY_NAME.equals(orderBy) ? lastValue : Long.valueOf(lastValue);
+  }
+
+  /**
+   * @return this cursor as a URL-safe token
+   */
+  public String toToken() {
+    String joined =
+        String.join(
+            SEPARATOR,
+            VERSION,
+            String.valueOf(folderId),
+            filterKey,
+            orderBy,
+            sortOrder.name(),
+            String.valueOf(resultsPerPage),
+            String.valueOf(pageNumber),
+            String.valueOf(lastId),
+            lastValue);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param token a token from {@link #toToken()}, may be blank
+   * @return the cursor, or <code>null</code> if the token is blank or can't be read
+   */
+  public static FolderListingCursor fromToken(String token) {
+    if (StringUtils.isBlank(token)) {
+      return null;
+    }
+    try {
+      String joined = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      // the last value is a name, which can contain the separator
+      String[] parts = StringUtils.splitPreserveAllTokens(joined, SEPARATOR, 9);
+      if (parts.length != 9 || !VERSION.equals(parts[0]) || !KEYSET_FIELDS.contains(parts[3])) {
+        log.debug("Ignoring unrecognised folder listing token {}", token);
+        return null;
+      }
+      FolderListingCursor cursor =
+          new FolderListingCursor(
+              Long.valueOf(parts[1]),
+              parts[2],
+              parts[3],
+              SortOrder.valueOf(parts[4]),
+              Integer.parseInt(parts[5]),
+              Long.parseLong(parts[6]),
+              Long.valueOf(parts[7]),
+              parts[8]);
+      cursor.getTypedLastValue(); // validates times
+      return cursor;
+    } catch (IllegalArgumentException e) {
+      log.debug("Ignoring invalid folder listing token {}: {}", token, e.getMessage());
+      return null;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.researchspace.model.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -80,6 +81,12 @@ public class WorkspaceSettings implements Serializable {
   private Long pageNumber = 0L;
   private Integer resultsPerPage;
 
+  /**
+   * Token from the previous page's listing, to list the next page from where it ended. Ignored if
+   * it isn't for this folder, ordering and page.
+   */
+  @JsonIgnore private String pageToken;
+
   // Other settings
   private WorkspaceViewMode currentViewMode;
 
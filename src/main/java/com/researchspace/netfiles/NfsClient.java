@@ -98,6 +98,14 @@ public interface NfsClient extends Serializable {
     return false;
   }
 
+  /**
+   * flag stating if the client can be used by several threads at once, so that file transfers can
+   * run in parallel (see {@link NfsParallelTransfers})
+   */
+  default boolean supportsParallelTransfers() {
+    return false;
+  }
+
   /**
    * flag stating if the client supports write operations on the filestore (mainly file creation and
    * delete). Implementations that return {@code true} must also implement {@link
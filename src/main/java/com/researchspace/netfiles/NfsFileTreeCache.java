@@ -0,0 +1,175 @@
+package com.researchspace.netfiles;
+
+import com.researchspace.model.netfiles.NfsFileStore;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds directory listings of net file stores, for each user and file system, so that browsing
+ * back and forth doesn't list the same remote directories again.
+ *
+ * <p>Listings expire after the TTL of the 'com.researchspace.netfiles.fileTree' cache in
+ * ehcache.xml. All listings of a file system are dropped when a user asks for a refreshed listing,
+ * or when files are written to it through RSpace.
+ *
+ * <p>With 'netfilestores.listing.prefetch' set, listing a folder also lists some of its subfolders
+ * in the background, on the 'nfsTransferTaskExecutor', ready for when the user opens one. Only
+ * clients that can be used by several threads at once are used for prefetching (see {@link
+ * NfsClient#supportsParallelTransfers()}), as the user may go on using the client meanwhile.
+ */
+@Slf4j
+@Component
+public class NfsFileTreeCache {
+
+  public static final String NFS_FILE_TREE_CACHE = "com.researchspace.netfiles.fileTree";
+
+  static final int PREFETCH_MAX_FOLDERS = 10;
+
+  @Value("${netfilestores.listing.prefetch:false}")
+  private boolean prefetch;
+
+  private final Cache cache;
+  private TaskExecutor taskExecutor;
+
+  // part of each key, incremented to drop all listings of a file system
+  private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+  @Autowired
+  public NfsFileTreeCache(CacheManager cacheManager) {
+    Cache configured = cacheManager.getCache(NFS_FILE_TREE_CACHE);
+    this.cache = configured != null ? configured : new NoOpCache(NFS_FILE_TREE_CACHE);
+  }
+
+  @Autowired(required = false)
+  public void setTaskExecutor(@Qualifier("nfsTransferTaskExecutor") TaskExecutor taskExecutor) {
+    this.taskExecutor = taskExecutor;
+  }
+
+  void setPrefetch(boolean prefetch) {
+    this.prefetch = prefetch;
+  }
+
+  /**
+   * Gets a listing, from the cache or from the file system.
+   *
+   * @param username the RSpace user browsing the file system
+   * @param fileSystemId id of the file system the client connects to
+   * @param client the user's client for the file system
+   * @param path path to list, as passed to {@link NfsClient#createFileTree}
+   * @param filestore the filestore being browsed, or <code>null</code>
+   * @param refresh whether to list the file system again, rather than use cached listings
+   * @return file tree node for the path, with its child nodes
+   * @throws IOException if the path couldn't be listed
+   */
+  public NfsFileTreeNode getFileTree(
+      String username,
+      Long fileSystemId,
+      NfsClient client,
+      String path,
+      NfsFileStore filestore,
+      boolean refresh)
+      throws IOException {
+    if (refresh) {
+      invalidate(fileSystemId);
+    }
+    String key = getKey(username, fileSystemId, client, path, filestore);
+    NfsFileTreeNode fileTree = cache.get(key, NfsFileTreeNode.class);
+    if (fileTree == null) {
+      fileTree = client.createFileTree(path, null, filestore);
+      cache.put(key, fileTree);
+      if (prefetch
+          && taskExecutor != null
+          && client.supportsParallelTransfers()
+          && !(cache instanceof NoOpCache)) {
+        prefetchSubfolders(username, fileSystemId, client, path, filestore, fileTree);
+      }
+    }
+    return fileTree;
+  }
+
+  /**
+   * Drops all cached listings of a file system, e.g. after files were written to it.
+   *
+   * @param fileSystemId
+   */
+  public void invalidate(Long fileSystemId) {
+    generations.computeIfAbsent(fileSystemId, id -> new AtomicLong()).incrementAndGet();
+  }
+
+  private void prefetchSubfolders(
+      String username,
+      Long fileSystemId,
+      NfsClient client,
+      String path,
+      NfsFileStore filestore,
+      NfsFileTreeNode fileTree) {
+    List<String> subfolderPaths =
+        fileTree.getNodes().stream()
+            .filter(NfsFileTreeNode::getIsFolder)
+            .limit(PREFETCH_MAX_FOLDERS)
+            .map(node -> getSubfolderPath(path, node.getFileName()))
+            .toList();
+    if (subfolderPaths.isEmpty()) {
+      return;
+    }
+    try {
+      taskExecutor.execute(
+          () -> {
+            for (String subfolderPath : subfolderPaths) {
+              String key = getKey(username, fileSystemId, client, subfolderPath, filestore);
+              if (cache.get(key) != null) {
+                continue;
+              }
+              try {
+                cache.put(key, client.createFileTree(subfolderPath, null, filestore));
+              } catch (IOException | RuntimeException e) {
+                log.debug("Couldn't prefetch listing of {}: {}", subfolderPath, e.getMessage());
+              }
+            }
+          });
+    } catch (TaskRejectedException e) {
+      log.debug("Skipping prefetch of subfolders of {}, executor is busy", path);
+    }
+  }
+
+  private static String getSubfolderPath(String path, String name) {
+    return StringUtils.isEmpty(path) ? name : StringUtils.removeEnd(path, "/") + "/" + name;
+  }
+
+  String getKey(
+      String username, Long fileSystemId, NfsClient client, String path, NfsFileStore filestore) {
+    long generation = generations.computeIfAbsent(fileSystemId, id -> new AtomicLong()).get();
+    Long filestoreId = filestore != null ? filestore.getId() : null;
+    return String.join(
+        ":",
+        String.valueOf(fileSystemId),
+        String.valueOf(generation),
+        username,
+        client.getUsername(),
+        String.valueOf(filestoreId),
+        normalisePath(path));
+  }
+
+  /** so that e.g. 'a/b/', 'a//b' and 'a/b' share a listing */
+  static String normalisePath(String path) {
+    if (path == null) {
+      return "";
+    }
+    String normalised = path.replaceAll("/{2,}", "/");
+    return normalised.length() > 1 ? StringUtils.removeEnd(normalised, "/") : normalised;
+  }
+}
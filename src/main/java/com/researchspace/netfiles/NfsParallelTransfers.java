@@ -0,0 +1,103 @@
+package com.researchspace.netfiles;
+
+import com.researchspace.spring.taskexecutors.ParallelTasks;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a batch of file transfers (downloads or uploads) against a net file store, several at a time
+ * on the 'nfsTransferTaskExecutor', with at most 'netfilestores.transfers.maxPerConnection' running
+ * at once for each client connection, however many batches use it.
+ *
+ * <p>Transfers run one at a time, in the calling thread, for clients that don't support parallel
+ * transfers (see {@link NfsClient#supportsParallelTransfers()}), or without an executor, e.g. in
+ * tests.
+ */
+@Slf4j
+@Component
+public class NfsParallelTransfers {
+
+  @Value("${netfilestores.transfers.maxPerConnection:4}")
+  private int maxPerConnection = 4;
+
+  private TaskExecutor taskExecutor;
+
+  // weak keys, so clients of logged out users can be collected
+  private final Map<NfsClient, Semaphore> connectionPermits =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  public NfsParallelTransfers() {}
+
+  /**
+   * @param taskExecutor may be <code>null</code>
+   */
+  NfsParallelTransfers(TaskExecutor taskExecutor, int maxPerConnection) {
+    this.taskExecutor = taskExecutor;
+    this.maxPerConnection = maxPerConnection;
+  }
+
+  @Autowired(required = false)
+  public void setTaskExecutor(@Qualifier("nfsTransferTaskExecutor") TaskExecutor taskExecutor) {
+    this.taskExecutor = taskExecutor;
+  }
+
+  /**
+   * Runs the transfers and returns once they have all finished. Transfers should handle their own
+   * failures; if one throws, the others still run, and the first exception is rethrown at the end.
+   *
+   * @param client the client the transfers use
+   * @param transfers transfers, started in this order
+   */
+  public void runAll(NfsClient client, List<? extends Runnable> transfers) {
+    boolean parallel =
+        taskExecutor != null
+            && maxPerConnection > 1
+            && transfers.size() > 1
+            && client.supportsParallelTransfers();
+    Semaphore permits =
+        parallel
+            ? connectionPermits.computeIfAbsent(client, c -> new Semaphore(maxPerConnection))
+            : new Semaphore(1);
+    List<Runnable> tasks = new ArrayList<>(transfers.size());
+    for (Runnable transfer : transfers) {
+      tasks.add(() -> runWithPermit(transfer, permits));
+    }
+
+    Throwable failure;
+    try {
+      // transfers keep running after a failure
+      TaskExecutor executor = parallel ? taskExecutor : null;
+      failure = ParallelTasks.runAll(executor, maxPerConnection, tasks, false);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for NFS transfers", e);
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+  }
+
+  private void runWithPermit(Runnable transfer, Semaphore permits) {
+    permits.acquireUninterruptibly();
+    try {
+      transfer.run();
+    } catch (RuntimeException | Error e) {
+      log.warn("NFS transfer failed: {}", e.getMessage());
+      throw e;
+    } finally {
+      permits.release();
+    }
+  }
+}
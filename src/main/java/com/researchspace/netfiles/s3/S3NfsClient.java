@@ -184,6 +184,11 @@ public class S3NfsClient extends NfsAbstractClient implements WritableNfsClient
     return stripped.contains("/") ? StringUtils.substringBeforeLast(stripped, "/") : "";
   }
 
+  @Override
+  public boolean supportsParallelTransfers() {
+    return true;
+  }
+
   @Override
   public boolean supportsServerSideTransfer() {
     return true;
@@ -28,12 +28,12 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.Security;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 /** NfsClient fully based on smbj library, to provide smb2/3 support. */
@@ -162,7 +162,8 @@ public class SmbjClient extends NfsAbstractClient implements NfsClient {
     rootNode.setIsFolder(isDirectory);
   }
 
-  private final SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+  // thread-safe, as listings and downloads may run in parallel
+  private static final FastDateFormat DATE_FORMAT = FastDateFormat.getInstance("yyyy-MM-dd");
 
   private NfsFileTreeNode getNodeFromSmbjInfo(
       FileIdBothDirectoryInformation f,
@@ -183,7 +184,7 @@ public class SmbjClient extends NfsAbstractClient implements NfsClient {
     node.calculateLogicPath(fullPathToTarget, activeUserFolder);
 
     Date dt = f.getLastWriteTime().toDate();
-    node.setFileDate(sdf.format(dt));
+    node.setFileDate(DATE_FORMAT.format(dt));
     node.setModificationDateMillis(dt.getTime());
 
     node.setIsFolder(isFolder);
@@ -299,7 +300,7 @@ public class SmbjClient extends NfsAbstractClient implements NfsClient {
     }
   }
 
-  private DiskShare getConnectedDiskShare() throws IOException {
+  private synchronized DiskShare getConnectedDiskShare() throws IOException {
     // reuse connection if available, re-connect if not
     if (client == null || connection == null || !connection.isConnected()) {
       log.info("connecting smbj client");
@@ -332,8 +333,14 @@ public class SmbjClient extends NfsAbstractClient implements NfsClient {
     return true;
   }
 
+  /** smbj connections and sessions can be shared by several threads, each opening its own files */
   @Override
-  public void closeSession() {
+  public boolean supportsParallelTransfers() {
+    return true;
+  }
+
+  @Override
+  public synchronized void closeSession() {
     if (client != null) {
       client.close();
       client = null;
@@ -2,34 +2,65 @@ package com.researchspace.search.impl;
 
 import com.axiope.search.IFileIndexer;
 import com.researchspace.core.util.FolderOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexFormatTooNewException;
 import org.apache.lucene.index.IndexFormatTooOldException;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.tika.Tika;
 import org.apache.tika.exception.TikaException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /** Index Files in file store for search */
 @Slf4j
@@ -37,12 +68,18 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
 
   private static final long MAX_WRITELOCK_WAIT = 5000L;
 
+  static final String REFRESH_LAG_METRIC = "rspace.attachment.index.refresh.lag";
+
   public static final String FIELD_PATH = "fullpath";
 
   public static final String FIELD_NAME = "filename";
 
   public static final String FIELD_CONTENTS = "contents";
 
+  static final String FIELD_SIZE = "filesize";
+
+  static final String FIELD_MODIFIED = "lastmodified";
+
   private static final String[] SUFFIXES = {
     ".odp", ".odt", ".ods", ".pdf", ".doc", ".txt", ".xml", ".html", ".rtf", ".xls", ".ppt",
     ".pptx", ".docx", ".xlsx", ".csv"
@@ -51,8 +88,19 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
   private IndexWriter writer;
   private FileFilter filter;
   private Directory dir;
+  private SearcherManager searcherManager;
   private boolean initialised;
 
+  // nanoTime of the oldest commit not yet visible to searchers, or 0 if all commits are visible
+  private final AtomicLong unrefreshedCommitNanos = new AtomicLong();
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Value("${rs.attachment.index.threads:4}")
+  private int parserThreads = 4;
+
+  @Value("${rs.attachment.index.commitBatchSize:500}")
+  private int commitBatchSize = 500;
+
   public FileIndexer() {
     filter = new IndexFileFilter();
   }
@@ -68,6 +116,7 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
     dir = FSDirectory.open(folder.toPath());
 
     if (deleteIndex) {
+      new ReindexCheckpoint(folder).clear();
       writer = openWriter(folder, OpenMode.CREATE);
       writer.deleteAll();
       writer.commit();
@@ -78,10 +127,49 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
       // onInitialAppDeployment hasn't created one yet.
       writer = openWriter(folder, OpenMode.CREATE_OR_APPEND);
     }
+    searcherManager = new SearcherManager(writer, null);
+    searcherManager.addListener(new RefreshLagListener());
 
     initialised = true;
   }
 
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /* for testing */
+  void setParserThreads(int parserThreads) {
+    this.parserThreads = parserThreads;
+  }
+
+  /* for testing */
+  void setCommitBatchSize(int commitBatchSize) {
+    this.commitBatchSize = commitBatchSize;
+  }
+
+  /*
+   * Records, for each refresh, how long the oldest commit it makes visible had been waiting
+   */
+  private class RefreshLagListener implements ReferenceManager.RefreshListener {
+    private long refreshingCommitNanos;
+
+    @Override
+    public void beforeRefresh() {
+      refreshingCommitNanos = unrefreshedCommitNanos.getAndSet(0);
+    }
+
+    @Override
+    public void afterRefresh(boolean didRefresh) {
+      if (refreshingCommitNanos != 0) {
+        Timer.builder(REFRESH_LAG_METRIC)
+            .description("Time from an attachment index commit until it is visible to searches")
+            .register(meterRegistry)
+            .record(System.nanoTime() - refreshingCommitNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
   // An index written by an incompatible Lucene version cannot be opened at all, even
   // just to delete it (IndexWriter reads the existing segments file in every OpenMode),
   // so recover by wiping the folder and starting an empty index. The index is derived
@@ -120,6 +208,11 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
     return writer;
   }
 
+  @Override
+  public SearcherManager getSearcherManager() {
+    return searcherManager;
+  }
+
   /*
    * Forcibly removes lock, for use in testing (non-Javadoc)
    *
@@ -127,11 +220,15 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
    */
   public void close() throws IOException {
     try {
+      if (searcherManager != null) {
+        searcherManager.close();
+      }
       if (writer != null) {
         writer.close();
       }
     } finally {
       initialised = false;
+      searcherManager = null;
       writer = null;
     }
   }
@@ -141,6 +238,9 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
       init();
     }
     writer.commit();
+    unrefreshedCommitNanos.compareAndSet(0, System.nanoTime());
+    // non-blocking: if another thread is already refreshing, the next search will pick this up
+    searcherManager.maybeRefresh();
   }
 
   public void deleteAll() throws IOException {
@@ -157,31 +257,219 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
     return indexFolder(dataFolder, failFast);
   }
 
+  /**
+   * Indexes all indexable files under <code>folder</code>. Files are streamed from a walk of the
+   * folder to a pool of parser threads, and added to the index in walk order with a commit every
+   * <code>commitBatchSize</code> files. After each commit a checkpoint is saved, so that if this
+   * method is interrupted, calling it again resumes after the last committed file. Files whose size
+   * and modification time match their existing index entry are not parsed again.
+   *
+   * @return the number of documents in the index
+   */
   public int indexFolder(File folder, boolean failFast) throws IOException {
-    List<File> fileList = new ArrayList<File>();
-    extractFiles(folder, fileList);
-    int indexed = 0;
-    for (File fx : fileList) {
-      if (accept(fx)) {
+    if (!initialised) {
+      init();
+    }
+    ReindexCheckpoint checkpoint = new ReindexCheckpoint(getIndexFolder());
+    String resumeAfter = checkpoint.getLastCommittedPath(folder);
+    if (resumeAfter != null) {
+      log.info("Resuming interrupted indexing of {} after {}", folder, resumeAfter);
+    }
+    checkpoint.start(folder);
+
+    FolderIndexRun run = new FolderIndexRun(folder, failFast, checkpoint);
+    try {
+      new IndexableFileLocator(folder).walk(folder, resumeAfter, run::submit);
+      run.finish();
+    } finally {
+      run.shutdown();
+    }
+    checkpoint.clear();
+    return writer.getDocStats().numDocs;
+  }
+
+  /*
+   * A single pass over a folder. Parsing runs on the pool, but documents are added to the
+   * writer by the walking thread in walk order, so the checkpoint can always be the last added
+   * file, and with failFast no file after a failure is added.
+   */
+  private class FolderIndexRun {
+    private final File root;
+    private final boolean failFast;
+    private final ReindexCheckpoint checkpoint;
+    private final ExecutorService parsers;
+    private final Deque<PendingFile> pending = new ArrayDeque<>();
+    private long committed;
+    private int uncommitted;
+    private int processed;
+    private int skipped;
+    private String lastAddedPath;
+
+    FolderIndexRun(File root, boolean failFast, ReindexCheckpoint checkpoint) {
+      this.root = root;
+      this.failFast = failFast;
+      this.checkpoint = checkpoint;
+      this.committed = checkpoint.getFilesCommitted(root);
+      this.parsers =
+          Executors.newFixedThreadPool(
+              parserThreads, new CustomizableThreadFactory("attachment-indexer-"));
+    }
+
+    void submit(File file) throws IOException {
+      if (!accept(file)) {
+        return;
+      }
+      Future<Document> document =
+          isUnchanged(file) ? null : parsers.submit(() -> getIndexDocument(file));
+      pending.addLast(new PendingFile(file, document));
+      // bounds memory: at most a few parsed documents wait per parser thread
+      while (pending.size() > parserThreads * 4) {
+        addNext();
+      }
+    }
+
+    void finish() throws IOException {
+      while (!pending.isEmpty()) {
+        addNext();
+      }
+      commitBatch();
+      log.info("{} files indexed, {} unchanged files skipped.", processed - skipped, skipped);
+    }
+
+    void shutdown() {
+      pending.stream()
+          .map(PendingFile::getDocument)
+          .filter(Objects::nonNull)
+          .forEach(doc -> doc.cancel(true));
+      parsers.shutdownNow();
+    }
+
+    private void addNext() throws IOException {
+      PendingFile next = pending.removeFirst();
+      String path = next.getFile().getAbsolutePath();
+      if (next.getDocument() == null) {
+        skipped++;
+      } else {
         try {
-          indexFile(fx);
-        } catch (Exception e) {
-          log.warn("Could not index file {} - {}", fx.getAbsolutePath(), e.getMessage());
-          if (e instanceof IOException) {
-            if (!failFast || "Error: End-of-File, expected line".equals(e.getMessage())) {
-              // most probably harmless PDFBox error, just skip the file
-            } else {
-              throw e; // rethrow IO exception which might be due to full index or file problem
-            }
-          }
+          writer.updateDocument(new Term(FIELD_PATH, path), next.getDocument().get());
+          uncommitted++;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while indexing " + path);
+        } catch (ExecutionException e) {
+          handleParseFailure(path, e.getCause());
         }
       }
-      indexed++;
-      if ((indexed % 100) == 0) {
-        log.info("{} files indexed, {} to go.", indexed, (fileList.size() - indexed));
+      lastAddedPath = path;
+      processed++;
+      if ((processed % 100) == 0) {
+        log.info("{} files indexed, {} to go.", processed, pending.size());
+      }
+      if (uncommitted >= commitBatchSize) {
+        commitBatch();
       }
     }
-    return writer.getDocStats().numDocs;
+
+    private void handleParseFailure(String path, Throwable cause) throws IOException {
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      log.warn("Could not index file {} - {}", path, cause.getMessage());
+      if (cause instanceof IOException
+          && failFast
+          && !"Error: End-of-File, expected line".equals(cause.getMessage())) {
+        // keep what's indexed so far, then rethrow IO exception which might be due to full index
+        // or file problem. Anything else is most probably a harmless parser error, skip the file
+        commitBatch();
+        throw (IOException) cause;
+      }
+    }
+
+    private void commitBatch() throws IOException {
+      commit();
+      committed += uncommitted;
+      uncommitted = 0;
+      if (lastAddedPath != null) {
+        checkpoint.save(root, lastAddedPath, committed);
+      }
+    }
+  }
+
+  @AllArgsConstructor
+  @Getter
+  private static class PendingFile {
+    private final File file;
+    private final Future<Document> document; // null if the file is unchanged since last indexed
+  }
+
+  /*
+   * Whether the file's index entry was made from a file of the same size and modification time.
+   */
+  boolean isUnchanged(File file) throws IOException {
+    IndexSearcher searcher = searcherManager.acquire();
+    try {
+      TopDocs hits =
+          searcher.search(new TermQuery(new Term(FIELD_PATH, file.getAbsolutePath())), 1);
+      if (hits.scoreDocs.length == 0) {
+        return false;
+      }
+      Document indexed =
+          searcher
+              .storedFields()
+              .document(hits.scoreDocs[0].doc, Set.of(FIELD_SIZE, FIELD_MODIFIED));
+      IndexableField size = indexed.getField(FIELD_SIZE);
+      IndexableField modified = indexed.getField(FIELD_MODIFIED);
+      return size != null
+          && modified != null
+          && size.numericValue().longValue() == file.length()
+          && modified.numericValue().longValue() == file.lastModified();
+    } finally {
+      searcherManager.release(searcher);
+    }
+  }
+
+  /**
+   * Deletes the index entries of files that no longer exist, such as files deleted while the
+   * index was not being updated.
+   *
+   * @return the number of entries deleted
+   */
+  @Override
+  public int deleteEntriesOfMissingFiles() throws IOException {
+    if (!initialised) {
+      init();
+    }
+    List<String> missing = new ArrayList<>();
+    IndexSearcher searcher = searcherManager.acquire();
+    try {
+      IndexReader reader = searcher.getIndexReader();
+      Bits liveDocs = MultiBits.getLiveDocs(reader);
+      StoredFields storedFields = searcher.storedFields();
+      for (int doc = 0; doc < reader.maxDoc(); doc++) {
+        if (liveDocs != null && !liveDocs.get(doc)) {
+          continue;
+        }
+        String path = storedFields.document(doc, Set.of(FIELD_PATH)).get(FIELD_PATH);
+        if (path != null && !new File(path).exists()) {
+          missing.add(path);
+        }
+      }
+    } finally {
+      searcherManager.release(searcher);
+    }
+    for (String path : missing) {
+      writer.deleteDocuments(new Term(FIELD_PATH, path));
+    }
+    if (!missing.isEmpty()) {
+      commit();
+      log.info("Deleted index entries of {} missing files", missing.size());
+    }
+    return missing.size();
+  }
+
+  @Override
+  public boolean hasInterruptedReindex() throws IOException {
+    return new ReindexCheckpoint(getIndexFolder()).exists();
   }
 
   public void indexFile(File file) throws IOException {
@@ -193,7 +481,7 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
     }
 
     Document dc = getIndexDocument(file);
-    writer.addDocument(dc);
+    writer.updateDocument(new Term(FIELD_PATH, file.getAbsolutePath()), dc);
     commit();
   }
 
@@ -235,14 +523,11 @@ public class FileIndexer extends AttachmentSearchBase implements IFileIndexer {
     dc.add(contentFld);
     dc.add(nameFld);
     dc.add(pathFld);
+    dc.add(new StoredField(FIELD_SIZE, fx.length()));
+    dc.add(new StoredField(FIELD_MODIFIED, fx.lastModified()));
     return dc;
   }
 
-  protected void extractFiles(File folder, List<File> fileList) {
-    IndexableFileLocator fileLocator = new IndexableFileLocator(folder);
-    fileLocator.doExtractFiles(folder, fileList);
-  }
-
   static class IndexFileFilter implements FileFilter {
 
     @Override
@@ -2,6 +2,12 @@ package com.researchspace.search.impl;
 
 import com.researchspace.core.util.MediaUtils;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -32,7 +38,37 @@ class IndexableFileLocator {
             .collect(Collectors.toSet());
   }
 
+  /** Receives each file found by {@link #walk}, in walk order. */
+  @FunctionalInterface
+  interface FileConsumer {
+    void accept(File file) throws IOException;
+  }
+
   void doExtractFiles(File currFolder, List<File> fileList) {
+    try {
+      walk(currFolder, null, fileList::add);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // not thrown by List.add
+    }
+  }
+
+  /**
+   * Streams the indexable files under <code>currFolder</code> to <code>consumer</code> without
+   * collecting them first. Folder contents are visited in name order, so the walk order is stable
+   * between runs and a position in it can be used to resume an interrupted walk.
+   *
+   * @param currFolder the folder to walk
+   * @param resumeAfter absolute path of a file already visited in a previous walk; this file and
+   *     all files before it in walk order are skipped. Can be <code>null</code> to visit all files.
+   * @param consumer receives each file
+   */
+  void walk(File currFolder, String resumeAfter, FileConsumer consumer) throws IOException {
+    Path resumePath = resumeAfter != null ? Paths.get(resumeAfter) : null;
+    doWalk(currFolder, resumePath, consumer);
+  }
+
+  private void doWalk(File currFolder, Path resumeAfter, FileConsumer consumer)
+      throws IOException {
     boolean match =
         fileStoreSectionsToInclude.stream()
             .anyMatch(p -> currFolder.getAbsolutePath().startsWith(p));
@@ -40,23 +76,44 @@ class IndexableFileLocator {
       log.info("Excluding filestore section [{}] and its subfolders from indexing", currFolder);
       return;
     }
-    log.debug("Current file count is {}", fileList.size());
     log.info("Looking at folder {}", currFolder.getAbsolutePath());
     File[] files = currFolder.listFiles();
     if (files == null) {
       throw new IllegalArgumentException(
           String.format("%s is  not a folder", currFolder.getAbsolutePath()));
     }
-    log.debug("Adding {} files for indexing!", files.length);
+    Arrays.sort(files, Comparator.comparing(File::getName));
+    log.debug("Found {} files or folders", files.length);
     for (File fx : files) {
       if (!fx.exists()) {
         continue;
       }
+      Path path = fx.getAbsoluteFile().toPath();
       if (fx.isDirectory()) {
-        doExtractFiles(fx, fileList);
-      } else {
-        fileList.add(fx);
+        // skip whole subtrees that were completely visited in a previous walk
+        if (resumeAfter == null
+            || resumeAfter.startsWith(path)
+            || compareWalkOrder(path, resumeAfter) > 0) {
+          doWalk(fx, resumeAfter, consumer);
+        }
+      } else if (resumeAfter == null || compareWalkOrder(path, resumeAfter) > 0) {
+        consumer.accept(fx);
+      }
+    }
+  }
+
+  /*
+   * Compares paths name by name, matching the order of a depth-first walk with sorted folder
+   * listings. A folder sorts before its contents.
+   */
+  static int compareWalkOrder(Path a, Path b) {
+    int common = Math.min(a.getNameCount(), b.getNameCount());
+    for (int i = 0; i < common; i++) {
+      int comparison = a.getName(i).toString().compareTo(b.getName(i).toString());
+      if (comparison != 0) {
+        return comparison;
       }
     }
+    return Integer.compare(a.getNameCount(), b.getNameCount());
   }
 }
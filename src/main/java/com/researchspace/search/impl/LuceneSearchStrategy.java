@@ -2,33 +2,53 @@ package com.researchspace.search.impl;
 
 import com.axiope.search.FileSearchResult;
 import com.axiope.search.FileSearchStrategy;
+import com.axiope.search.IFileIndexer;
 import com.axiope.search.SearchQueryParseException;
 import com.researchspace.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexNotFoundException;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
-import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
 
-/** Performs Lucene search on locally indexed FileStore */
+/**
+ * Performs Lucene search on locally indexed FileStore.
+ *
+ * <p>Searches are run against a long-lived {@link SearcherManager} rather than opening the index
+ * per query. If an initialised {@link IFileIndexer} is set, its near-real-time manager is used, so
+ * that searches see each commit as soon as it is made; otherwise a manager is opened on the index
+ * folder and refreshed before each search.
+ */
 @Slf4j
 public class LuceneSearchStrategy extends AttachmentSearchBase implements FileSearchStrategy {
+
+  static final String QUERY_TIME_METRIC = "rspace.attachment.search.query";
+
   private int defaultReturnDocs;
   private boolean isInitialized = false;
+  private boolean includeExplanations = false;
+
+  private IFileIndexer fileIndexer;
+  private Directory searchFolder;
+  private SearcherManager folderSearcherManager;
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
   public LuceneSearchStrategy() {
     super();
@@ -48,32 +68,93 @@ public class LuceneSearchStrategy extends AttachmentSearchBase implements FileSe
     defaultReturnDocs = nbrDocs;
   }
 
-  public List<FileSearchResult> searchFiles(String searchStr, User subject) throws IOException {
-    if (!isInitialized) {
-      setIndexFolder();
-    }
-    List<FileSearchResult> files;
-    try (Directory searchFolder = FSDirectory.open(getIndexFolder().toPath());
-        IndexReader indexReader = DirectoryReader.open(searchFolder)) {
+  /**
+   * Whether each hit should carry a Lucene score explanation. This is expensive (it re-scores every
+   * hit) so is off by default, and should only be enabled for diagnosing relevance problems.
+   */
+  public void setIncludeExplanations(boolean includeExplanations) {
+    this.includeExplanations = includeExplanations;
+  }
+
+  /** Sets the indexer whose writer-backed searcher should be used for searches. */
+  public void setFileIndexer(IFileIndexer fileIndexer) {
+    this.fileIndexer = fileIndexer;
+  }
+
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
 
+  public List<FileSearchResult> searchFiles(String searchStr, User subject) throws IOException {
+    Query query;
+    try {
       Analyzer analyzer = new StandardAnalyzer();
       // allow parser AND/OR, default tokenize is OR
       QueryParser queryParser = new QueryParser(FileIndexer.FIELD_CONTENTS, analyzer);
-      Query query = queryParser.parse(QueryParser.escape(searchStr));
+      query = queryParser.parse(QueryParser.escape(searchStr));
+    } catch (ParseException e) {
+      throw new SearchQueryParseException(e);
+    }
 
-      IndexSearcher luceneSearcher = new IndexSearcher(indexReader);
-      TopDocs docs = luceneSearcher.search(query, defaultReturnDocs);
-      files = setResultFiles(luceneSearcher, docs, query);
-    } catch (IndexNotFoundException e) {
+    SearcherManager searcherManager = getSearcherManager();
+    if (searcherManager == null) {
       // Index has not been initialised yet (no attachments have been indexed); return empty
       // results.
       log.info(
           "Attachment search index not found at {}, returning empty results", getIndexFolderPath());
       return new ArrayList<>();
-    } catch (ParseException e) {
-      throw new SearchQueryParseException(e);
     }
-    return files;
+
+    long start = System.nanoTime();
+    searcherManager.maybeRefresh();
+    IndexSearcher luceneSearcher = searcherManager.acquire();
+    try {
+      TopDocs docs = luceneSearcher.search(query, defaultReturnDocs);
+      return setResultFiles(luceneSearcher, docs, query);
+    } finally {
+      searcherManager.release(luceneSearcher);
+      Timer.builder(QUERY_TIME_METRIC)
+          .description("Time to search the attachment index and load the matching documents")
+          .register(meterRegistry)
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  synchronized SearcherManager getSearcherManager() throws IOException {
+    if (fileIndexer != null && fileIndexer.isInitialised()) {
+      return fileIndexer.getSearcherManager();
+    }
+    if (folderSearcherManager == null) {
+      if (!isInitialized) {
+        setIndexFolder();
+        isInitialized = true;
+      }
+      searchFolder = FSDirectory.open(getIndexFolder().toPath());
+      try {
+        folderSearcherManager = new SearcherManager(searchFolder, null);
+      } catch (IndexNotFoundException e) {
+        searchFolder.close();
+        searchFolder = null;
+        return null;
+      }
+    }
+    return folderSearcherManager;
+  }
+
+  /** Releases the folder-based searcher, if one was opened. */
+  public synchronized void close() throws IOException {
+    try {
+      if (folderSearcherManager != null) {
+        folderSearcherManager.close();
+      }
+      if (searchFolder != null) {
+        searchFolder.close();
+      }
+    } finally {
+      folderSearcherManager = null;
+      searchFolder = null;
+    }
   }
 
   // ------------------support method --------------------
@@ -81,15 +162,13 @@ public class LuceneSearchStrategy extends AttachmentSearchBase implements FileSe
       throws IOException {
     List<FileSearchResult> lst = new ArrayList<>();
     for (ScoreDoc sdc : docs.scoreDocs) {
-
-      Explanation ex = searcher.explain(query, sdc.doc);
-      Document dc = searcher.doc(sdc.doc);
+      Document dc = searcher.storedFields().document(sdc.doc);
       FileSearchResult rf =
           FileSearchResult.builder()
               .fileName(dc.get(FileIndexer.FIELD_NAME))
               .filePath(dc.get(FileIndexer.FIELD_PATH))
               .score(sdc.doc)
-              .explain(ex.toString())
+              .explain(includeExplanations ? searcher.explain(query, sdc.doc).toString() : null)
               .rspaceRelativePath(absPathToRelPath(dc.get(FileIndexer.FIELD_PATH)))
               .build();
       lst.add(rf);
@@ -128,6 +128,14 @@ public class LuceneSrchCfg {
     return delegate.getSharedWithFilter();
   }
 
+  public List<String> getReadPrincipalFilterList() {
+    return delegate.getReadPrincipalFilter();
+  }
+
+  public List<String> getRoleViewableUsernameFilterList() {
+    return delegate.getRoleViewableUsernameFilter();
+  }
+
   public boolean isRestrictByUser() {
     return delegate.isRestrictByUser();
   }
@@ -150,6 +158,36 @@ public class LuceneSrchCfg {
     return delegate.getFilters();
   }
 
+  /**
+   * Key identifying the hits of this search and their order: everything that determines them
+   * except the requested page number. Two searches with the same key page through the same list.
+   */
+  public String getQueryKey() {
+    PaginationCriteria<?> pgCrit = getPaginationCriteria();
+    List<Long> recordFilterIds =
+        getRecordFilterList() == null
+            ? null
+            : getRecordFilterList().stream().map(BaseRecord::getId).collect(Collectors.toList());
+    return String.join(
+        "|",
+        getAuthenticatedUser() == null ? "" : getAuthenticatedUser().getUsername(),
+        delegate.getOptionsURL(),
+        delegate.getTermsURL(),
+        String.valueOf(getOperator()),
+        String.valueOf(getFolderId()),
+        String.valueOf(isNotebookFilter()),
+        String.valueOf(getFilters()),
+        String.valueOf(isRestrictByUser()),
+        String.valueOf(getUsernameFilterList()),
+        String.valueOf(getSharedWithFilterList()),
+        String.valueOf(getReadPrincipalFilterList()),
+        String.valueOf(getRoleViewableUsernameFilterList()),
+        String.valueOf(recordFilterIds),
+        String.valueOf(getMaxResults()),
+        pgCrit == null ? "" : pgCrit.getOrderBy() + "," + pgCrit.getSortOrder(),
+        String.valueOf(pgCrit == null ? getPageSize() : pgCrit.getResultsPerPage()));
+  }
+
   /**
    * Function to parse options and terms after being set. Extracts both terms for lucene search, as
    * well as other things like records filter. Should be called by every constructor and setter for
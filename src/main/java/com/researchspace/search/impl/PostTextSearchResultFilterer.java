@@ -21,6 +21,9 @@ public class PostTextSearchResultFilterer {
 
   private Set<Long> selectedRecords;
 
+  // ids of hits known to be in, or below, the selected records; null if not known
+  private Set<Long> hitsInSelection;
+
   public PostTextSearchResultFilterer(List<BaseRecord> initialHits, LuceneSrchCfg config) {
     this.initialHits = initialHits;
     luceneSrchConfig = config;
@@ -28,6 +31,17 @@ public class PostTextSearchResultFilterer {
     selectedRecords = new HashSet<>(config.getSelectedRecordIds());
   }
 
+  /**
+   * @param hitsInSelection ids of those hits that are in, or below, the selected records, as
+   *     looked up in the folder ancestry index. Hits not in this set are filtered out when records
+   *     are selected, without walking up their parent folders.
+   */
+  public PostTextSearchResultFilterer(
+      List<BaseRecord> initialHits, LuceneSrchCfg config, Set<Long> hitsInSelection) {
+    this(initialHits, config);
+    this.hitsInSelection = hitsInSelection;
+  }
+
   // applies filters based on configuration in the LuceneSrchCfg supplied to this object
   public List<BaseRecord> filterAll() {
     Stream<BaseRecord> filterStream =
@@ -92,12 +106,16 @@ public class PostTextSearchResultFilterer {
    * @return true if the record is included in the selection.
    */
   private boolean filterUnselected(BaseRecord hit) {
+    if (hitsInSelection != null) {
+      return hitsInSelection.contains(hit.getId());
+    }
     return isRecordSelected(hit);
   }
 
   /**
    * Recursive function to check if folder or one of its ancestors is included in the folder
-   * selection
+   * selection. Only used if the hits in the selection haven't been looked up in the folder ancestry
+   * index.
    *
    * <p>Works in O(k) time, where k is the max folder depth in the user's file hierarchy. In the
    * future, for additional speedup, can consider making a hash-set for non-selected records as
@@ -0,0 +1,20 @@
+package com.researchspace.search.impl;
+
+import com.researchspace.model.record.BaseRecord;
+import org.hibernate.search.mapper.orm.mapping.HibernateOrmMappingConfigurationContext;
+import org.hibernate.search.mapper.orm.mapping.HibernateOrmSearchMappingConfigurer;
+
+/**
+ * Adds Hibernate Search mappings for entities defined outside this project, which therefore can't
+ * be annotated here. Mappings defined here are merged with the annotation-based mappings.
+ */
+public class RSpaceSearchMappingConfigurer implements HibernateOrmSearchMappingConfigurer {
+
+  @Override
+  public void configure(HibernateOrmMappingConfigurationContext context) {
+    // lets full-text search restrict hits to readable records inside the query
+    context.programmaticMapping().type(BaseRecord.class).binder(new ReadPrincipalsBinder());
+    // lets ELN search sort and page records in the index
+    context.programmaticMapping().type(BaseRecord.class).binder(new RecordSortFieldsBinder());
+  }
+}
@@ -0,0 +1,75 @@
+package com.researchspace.search.impl;
+
+import com.axiope.search.FieldNames;
+import com.researchspace.model.permissions.ACLElement;
+import com.researchspace.model.record.BaseRecord;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.mapper.pojo.bridge.TypeBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.TypeBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.TypeBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.TypeBridgeWriteContext;
+
+/**
+ * Indexes, on every {@link BaseRecord}, the principals that may read it by virtue of ownership or
+ * sharing: the owner's username, and each user or group unique name in the record's sharing ACL.
+ * Sharing propagates ACL elements to notebook entries and folder contents, so the record's own ACL
+ * is sufficient.
+ *
+ * <p>The ACL is part of the record, so any change to ownership or sharing makes the record dirty
+ * and it is reindexed; hence only the root entity is declared as a dependency.
+ */
+public class ReadPrincipalsBinder implements TypeBinder {
+
+  @Override
+  public void bind(TypeBindingContext context) {
+    context.dependencies().useRootOnly();
+    IndexFieldReference<String> principalsField =
+        context
+            .indexSchemaElement()
+            .field(FieldNames.READ_PRINCIPALS, f -> f.asString())
+            .multiValued()
+            .toReference();
+    context.bridge(BaseRecord.class, new Bridge(principalsField));
+  }
+
+  private static class Bridge implements TypeBridge<BaseRecord> {
+    private final IndexFieldReference<String> principalsField;
+
+    Bridge(IndexFieldReference<String> principalsField) {
+      this.principalsField = principalsField;
+    }
+
+    @Override
+    public void write(
+        DocumentElement target, BaseRecord record, TypeBridgeWriteContext context) {
+      for (String principal : getReadPrincipals(record)) {
+        target.addValue(principalsField, principal);
+      }
+    }
+  }
+
+  /**
+   * @param record a record
+   * @return the owner's username followed by the principals named in the record's sharing ACL
+   */
+  static Set<String> getReadPrincipals(BaseRecord record) {
+    Set<String> principals = new LinkedHashSet<>();
+    if (record.getOwner() != null) {
+      principals.add(record.getOwner().getUsername());
+    }
+    if (record.getSharingACL() != null) {
+      for (ACLElement element : record.getSharingACL().getAclElements()) {
+        // elements are of the form 'principal=DOMAIN:ACTIONS:CONSTRAINTS'
+        String principal = StringUtils.substringBefore(element.getAsString(), "=");
+        if (StringUtils.isNotBlank(principal)) {
+          principals.add(principal);
+        }
+      }
+    }
+    return principals;
+  }
+}
@@ -0,0 +1,96 @@
+package com.researchspace.search.impl;
+
+import com.axiope.search.FieldNames;
+import com.researchspace.model.record.BaseRecord;
+import java.util.Locale;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.mapper.pojo.bridge.TypeBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.TypeBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.TypeBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.TypeBridgeWriteContext;
+
+/**
+ * Indexes, on every {@link BaseRecord}, sortable copies of the properties that ELN search results
+ * can be ordered by (name, creation and modification date, with the record id as a tie-breaker),
+ * together with the flags that ELN search otherwise checks after loading each hit. Names are
+ * indexed in lower case, so that they sort ignoring case, as when search results are sorted in
+ * memory.
+ *
+ * <p>All values are properties of the record itself, so only the root entity is declared as a
+ * dependency.
+ */
+public class RecordSortFieldsBinder implements TypeBinder {
+
+  @Override
+  public void bind(TypeBindingContext context) {
+    context.dependencies().useRootOnly();
+    var schema = context.indexSchemaElement();
+    context.bridge(
+        BaseRecord.class,
+        new Bridge(
+            schema
+                .field(FieldNames.SORT_NAME, f -> f.asString().sortable(Sortable.YES))
+                .toReference(),
+            schema
+                .field(FieldNames.SORT_CREATION_DATE, f -> f.asLong().sortable(Sortable.YES))
+                .toReference(),
+            schema
+                .field(FieldNames.SORT_MODIFICATION_DATE, f -> f.asLong().sortable(Sortable.YES))
+                .toReference(),
+            schema.field(FieldNames.RECORD_ID, f -> f.asLong().sortable(Sortable.YES)).toReference(),
+            schema.field(FieldNames.IS_TEMPLATE, f -> f.asBoolean()).toReference(),
+            schema.field(FieldNames.HIDDEN_FROM_SEARCH, f -> f.asBoolean()).toReference()));
+  }
+
+  private static class Bridge implements TypeBridge<BaseRecord> {
+    private final IndexFieldReference<String> nameField;
+    private final IndexFieldReference<Long> creationDateField;
+    private final IndexFieldReference<Long> modificationDateField;
+    private final IndexFieldReference<Long> recordIdField;
+    private final IndexFieldReference<Boolean> templateField;
+    private final IndexFieldReference<Boolean> hiddenField;
+
+    Bridge(
+        IndexFieldReference<String> nameField,
+        IndexFieldReference<Long> creationDateField,
+        IndexFieldReference<Long> modificationDateField,
+        IndexFieldReference<Long> recordIdField,
+        IndexFieldReference<Boolean> templateField,
+        IndexFieldReference<Boolean> hiddenField) {
+      this.nameField = nameField;
+      this.creationDateField = creationDateField;
+      this.modificationDateField = modificationDateField;
+      this.recordIdField = recordIdField;
+      this.templateField = templateField;
+      this.hiddenField = hiddenField;
+    }
+
+    @Override
+    public void write(DocumentElement target, BaseRecord record, TypeBridgeWriteContext context) {
+      // every record gets a value for every sort field, so that search-after cursors never have
+      // to deal with missing values
+      target.addValue(nameField, getSortName(record));
+      target.addValue(creationDateField, getSortMillis(record.getCreationDateMillis()));
+      target.addValue(modificationDateField, getSortMillis(record.getModificationDateMillis()));
+      target.addValue(recordIdField, record.getId());
+      target.addValue(templateField, record.isTemplate());
+      target.addValue(hiddenField, isHiddenFromSearch(record));
+    }
+  }
+
+  /** The value indexed for a record's name, which search-after cursors must match. */
+  public static String getSortName(BaseRecord record) {
+    return record.getName() == null ? "" : record.getName().toLowerCase(Locale.ROOT);
+  }
+
+  /** The value indexed for a record's creation or modification date. */
+  public static long getSortMillis(Long millis) {
+    return millis == null ? 0L : millis;
+  }
+
+  static boolean isHiddenFromSearch(BaseRecord record) {
+    return record.isDeleted() || record.isInvisible();
+  }
+}
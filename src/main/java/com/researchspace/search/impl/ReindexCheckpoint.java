@@ -0,0 +1,106 @@
+package com.researchspace.search.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists the progress of a folder reindex next to the attachment index, so that a reindex
+ * interrupted by a shutdown or crash can resume after the last committed file rather than starting
+ * again. The checkpoint is only written after the index has been committed, so every file up to and
+ * including the recorded path is guaranteed to be in the index.
+ */
+@Slf4j
+class ReindexCheckpoint {
+
+  static final String CHECKPOINT_FILE_NAME = "reindex.checkpoint";
+
+  private static final String ROOT = "root";
+  private static final String LAST_COMMITTED_PATH = "lastCommittedPath";
+  private static final String FILES_COMMITTED = "filesCommitted";
+
+  private final File checkpointFile;
+
+  ReindexCheckpoint(File indexFolder) {
+    this.checkpointFile = new File(indexFolder, CHECKPOINT_FILE_NAME);
+  }
+
+  /** Whether a reindex was started and has not yet completed. */
+  boolean exists() {
+    return checkpointFile.exists();
+  }
+
+  /**
+   * @param root the folder being reindexed
+   * @return the path of the last committed file of an interrupted reindex of <code>root</code>, or
+   *     <code>null</code> if there is no checkpoint for this folder, or nothing was committed yet.
+   */
+  String getLastCommittedPath(File root) {
+    Properties props = load();
+    if (!root.getAbsolutePath().equals(props.getProperty(ROOT))) {
+      return null;
+    }
+    return props.getProperty(LAST_COMMITTED_PATH);
+  }
+
+  long getFilesCommitted(File root) {
+    Properties props = load();
+    if (!root.getAbsolutePath().equals(props.getProperty(ROOT))) {
+      return 0;
+    }
+    return Long.parseLong(props.getProperty(FILES_COMMITTED, "0"));
+  }
+
+  /** Marks a reindex of <code>root</code> as started, with nothing committed yet. */
+  void start(File root) throws IOException {
+    if (getLastCommittedPath(root) == null) {
+      save(root, null, 0);
+    }
+  }
+
+  /** Records that all files up to and including <code>lastCommittedPath</code> are committed. */
+  void save(File root, String lastCommittedPath, long filesCommitted) throws IOException {
+    Properties props = new Properties();
+    props.setProperty(ROOT, root.getAbsolutePath());
+    if (lastCommittedPath != null) {
+      props.setProperty(LAST_COMMITTED_PATH, lastCommittedPath);
+    }
+    props.setProperty(FILES_COMMITTED, Long.toString(filesCommitted));
+    // write-then-rename so a crash mid-write never leaves a truncated checkpoint
+    File tmp = new File(checkpointFile.getParentFile(), CHECKPOINT_FILE_NAME + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+      props.store(writer, "Attachment reindex progress");
+    }
+    Files.move(
+        tmp.toPath(),
+        checkpointFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /** Removes the checkpoint once a reindex has completed. */
+  void clear() throws IOException {
+    Files.deleteIfExists(checkpointFile.toPath());
+  }
+
+  private Properties load() {
+    Properties props = new Properties();
+    if (checkpointFile.exists()) {
+      try (Reader reader = Files.newBufferedReader(checkpointFile.toPath(), StandardCharsets.UTF_8)) {
+        props.load(reader);
+      } catch (IOException e) {
+        log.warn(
+            "Could not read reindex checkpoint {}, reindexing from the start: {}",
+            checkpointFile.getAbsolutePath(),
+            e.getMessage());
+      }
+    }
+    return props;
+  }
+}
@@ -0,0 +1,49 @@
+package com.researchspace.service;
+
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.service.audit.search.AuditEventQuery;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores and searches the audit trail events copied from the audit log, see {@link
+ * com.researchspace.service.audit.search.AuditEventIndexer}.
+ */
+public interface AuditEventManager {
+
+  /**
+   * Saves the events in a new transaction, as events are written by a background thread.
+   *
+   * @param events unsaved events
+   */
+  void saveAll(List<IndexedAuditEvent> events);
+
+  /**
+   * Gets a page of events matching the query, ordered by time.
+   *
+   * @param query
+   * @param firstResult index of the first event to return
+   * @param maxResults maximum number of events to return
+   * @return a possibly empty list of events
+   */
+  List<IndexedAuditEvent> search(AuditEventQuery query, int firstResult, int maxResults);
+
+  /** Counts the events matching the query. */
+  long count(AuditEventQuery query);
+
+  /**
+   * @return the time of the earliest stored event, or empty if there are no events yet
+   */
+  Optional<Long> getEarliestEventTime();
+
+  /**
+   * Records, in a new transaction, that events between the given times, inclusive, could not be
+   * stored, so that searches of that time range use the log files.
+   */
+  void saveGap(long fromTime, long toTime);
+
+  /**
+   * @return whether events in the query's time range may not have been stored
+   */
+  boolean hasGap(AuditEventQuery query);
+}
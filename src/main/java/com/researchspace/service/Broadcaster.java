@@ -12,4 +12,16 @@ public interface Broadcaster {
    * @param comm the {@link Communication} to broadcast.
    */
   void broadcast(Communication comm);
+
+  /**
+   * Reads what is needed to broadcast a communication, so that it can be sent after the current
+   * transaction has ended, without holding it open, e.g. by the notification outbox. By default the
+   * whole broadcast is deferred.
+   *
+   * @param comm the {@link Communication} to broadcast
+   * @return sends the broadcast, throwing an exception if it fails
+   */
+  default Runnable prepareBroadcast(Communication comm) {
+    return () -> broadcast(comm);
+  }
 }
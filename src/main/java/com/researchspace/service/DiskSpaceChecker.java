@@ -27,6 +27,15 @@ public interface DiskSpaceChecker {
   void assertEnoughDiskSpaceToCopyFileSizeIntoArchiveDir(long fileSizeInBytes, File archiveDir)
       throws DiskSpaceLimitException;
 
+  /**
+   * Checks the projected size of an archive being zipped while it is exported, i.e. the zip written
+   * so far plus the entries queued to be written, against the archive size limit and the available
+   * disk space. Throws DiskSpaceLimitException otherwise.
+   *
+   * @throws DiskSpaceLimitException if the archive exceeds the limit or the available disk space
+   */
+  void assertArchiveSizeWithinLimit(long archiveSizeInBytes) throws DiskSpaceLimitException;
+
   /*
    * =========================================================================================
    *   deployment property setters/getters, setters are public so can be changed in IT tests
@@ -9,7 +9,18 @@ public interface EmailBroadcast {
 
   String UNKNOWN_EMAIL_SUFFIX = "-unknown@researchspace.com";
 
-  /** Sends a complete rendered email to the supplied recipients. */
+  /**
+   * Sends a complete rendered email to the supplied recipients. Failures are logged, not thrown.
+   */
   @Async(value = "emailTaskExecutor")
   void sendEmail(EmailContent content, List<String> recipients, Communication comm);
+
+  /**
+   * Sends a complete rendered email to the supplied recipients in the calling thread, for callers
+   * that handle failures themselves, e.g. by retrying later.
+   *
+   * @throws org.springframework.mail.MailSendException if the email couldn't be sent to some
+   *     recipients
+   */
+  void deliverEmail(EmailContent content, List<String> recipients, Communication comm);
 }
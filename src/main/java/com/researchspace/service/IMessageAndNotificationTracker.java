@@ -2,6 +2,7 @@ package com.researchspace.service;
 
 import com.researchspace.model.comms.MessageType;
 import com.researchspace.model.dtos.NotificationStatus;
+import java.util.Collection;
 
 /** Tracks the number of unread notifications and messages */
 public interface IMessageAndNotificationTracker {
@@ -15,6 +16,22 @@ public interface IMessageAndNotificationTracker {
    */
   int changeUserNotificationCount(Long userId, Integer incrementAmount);
 
+  /**
+   * Changes the notification counts of several users, without publishing them until {@link
+   * #sendPendingNotificationUpdates()} is called, so that users who receive several notifications
+   * in quick succession get a single update.
+   *
+   * @param userIds
+   * @param incrementAmount, can be -ve if decrementing.
+   */
+  void changeUserNotificationCounts(Collection<Long> userIds, int incrementAmount);
+
+  /**
+   * Publishes the counts of users changed by {@link #changeUserNotificationCounts(Collection, int)}
+   * since the last call, once per user.
+   */
+  void sendPendingNotificationUpdates();
+
   /**
    * Sets notification count to 0.
    *
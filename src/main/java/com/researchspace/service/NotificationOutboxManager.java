@@ -0,0 +1,65 @@
+package com.researchspace.service;
+
+import com.researchspace.comms.NotificationDelivery;
+import com.researchspace.comms.NotificationOutboxEntry;
+import com.researchspace.model.comms.Notification;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Broadcasts notifications through an outbox: entries are saved in the transaction that creates a
+ * notification, and delivered to each {@link Broadcaster} afterwards, see {@link
+ * com.researchspace.comms.NotificationDispatcher}. Failed deliveries are retried with increasing
+ * delays.
+ */
+public interface NotificationOutboxManager {
+
+  /**
+   * Adds an entry for each broadcaster to the outbox, in the current transaction.
+   *
+   * @param notification a saved notification
+   */
+  void addToOutbox(Notification notification);
+
+  /**
+   * Gets the ids of outbox entries due for delivery, in a new transaction.
+   *
+   * @param maxResults maximum number of ids to return
+   */
+  List<Long> getDueEntryIds(int maxResults);
+
+  /**
+   * Claims an outbox entry for delivery in a new transaction, and prepares its broadcast. The entry
+   * isn't due again until {@link #CLAIM_MILLIS} later, so once the transaction has committed the
+   * broadcast can be sent without holding a transaction or lock, and is retried if this node stops
+   * before recording the outcome with {@link #delivered(NotificationDelivery)} or {@link
+   * #deliveryFailed(NotificationDelivery, RuntimeException)}.
+   *
+   * @param entryId id of a {@link NotificationOutboxEntry}
+   * @return the claimed delivery, or empty if the entry no longer exists, isn't due, is being
+   *     claimed by another application node, or was discarded or failed while preparing it
+   */
+  Optional<NotificationDelivery> claim(Long entryId);
+
+  /**
+   * Removes a delivered entry from the outbox, in a new transaction.
+   *
+   * @param delivery a delivery whose broadcast was sent
+   */
+  void delivered(NotificationDelivery delivery);
+
+  /**
+   * Schedules a retry of a failed delivery in a new transaction. After {@link #MAX_ATTEMPTS}
+   * failures the entry is removed and the notification's originator is notified.
+   *
+   * @param delivery a delivery whose broadcast failed
+   * @param failure the broadcaster's exception
+   */
+  void deliveryFailed(NotificationDelivery delivery, RuntimeException failure);
+
+  /** Number of delivery attempts for each entry */
+  int MAX_ATTEMPTS = 5;
+
+  /** Time for which a claimed entry isn't due, see {@link #claim(Long)} */
+  long CLAIM_MILLIS = 10 * 60 * 1000L;
+}
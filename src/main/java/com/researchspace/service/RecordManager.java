@@ -7,6 +7,7 @@ import com.researchspace.model.EditStatus;
 import com.researchspace.model.PaginationCriteria;
 import com.researchspace.model.User;
 import com.researchspace.model.core.RecordType;
+import com.researchspace.model.dtos.FolderListingCursor;
 import com.researchspace.model.dtos.GalleryFilterCriteria;
 import com.researchspace.model.dtos.WorkspaceFilters;
 import com.researchspace.model.field.ErrorList;
@@ -484,6 +485,20 @@ public interface RecordManager {
       PaginationCriteria<? extends BaseRecord> pgCrit,
       RecordTypeFilter recordTypefilter);
 
+  /**
+   * As {@link #listFolderRecords(Long, PaginationCriteria, RecordTypeFilter)}, but if a cursor
+   * from a previous page of the same listing is given, lists the page from the cursor's position
+   * rather than counting the folder's records and skipping those of previous pages.
+   *
+   * @param cursor it could be null; cursors for other folders, orderings or pages are ignored
+   * @return An {@link ISearchResults}
+   */
+  ISearchResults<BaseRecord> listFolderRecords(
+      Long parentId,
+      PaginationCriteria<? extends BaseRecord> pgCrit,
+      RecordTypeFilter recordTypefilter,
+      FolderListingCursor cursor);
+
   /**
    * Paginate database lookup of {@link Record} objects. This is equivalent to
    *
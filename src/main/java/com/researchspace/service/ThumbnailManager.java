@@ -5,6 +5,7 @@ import com.researchspace.model.Thumbnail;
 import com.researchspace.model.User;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.Collection;
 
 public interface ThumbnailManager extends GenericManager<Thumbnail, Long> {
 
@@ -22,6 +23,15 @@ public interface ThumbnailManager extends GenericManager<Thumbnail, Long> {
   Thumbnail getThumbnail(Thumbnail example, User subject)
       throws IllegalArgumentException, IOException, URISyntaxException;
 
+  /**
+   * Asynchronously generates any of the given thumbnails that don't exist yet, so that they are
+   * ready by the time they are first viewed. Failures are logged and otherwise ignored.
+   *
+   * @param examples thumbnails to generate, as for {@link #getThumbnail(Thumbnail, User)}
+   * @param subject current subject
+   */
+  void generateThumbnailsInBackground(Collection<Thumbnail> examples, User subject);
+
   /**
    * Gets byte [] image data of the given thumbnail.
    *
@@ -15,6 +15,7 @@ import com.researchspace.model.events.UserAccountEvent;
 import com.researchspace.model.permissions.ConstraintBasedPermission;
 import com.researchspace.model.preference.Preference;
 import com.researchspace.model.views.UserView;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -210,6 +211,15 @@ public interface UserManager extends GenericManager<User, Long> {
    */
   ISearchResults<User> getViewableUsers(User subject, PaginationCriteria<User> pgCrit);
 
+  /**
+   * Gets the usernames of the users returned by {@link #getViewableUsers(User,
+   * PaginationCriteria)}, without loading the users where possible.
+   *
+   * @param subject The {@link User} performing the search.
+   * @return A possibly empty, modifiable set of usernames
+   */
+  Set<String> getViewableUsernames(User subject);
+
   /**
    * Boolean test for whether a user with the specified username exists in the DB.
    *
@@ -254,6 +264,17 @@ public interface UserManager extends GenericManager<User, Long> {
    */
   Set<User> getViewableUserSet(User subject);
 
+  /**
+   * Gets the users all of whose records the subject can read because of the subject's role: the
+   * subject themselves, plus lab group members for a PI or a lab admin with view-all permission, or
+   * community members for a community admin. Unlike {@link #getViewableUserSet(User)}, this does
+   * not include owners who have merely shared some records with the subject.
+   *
+   * @param subject
+   * @return List<User> User list, including the subject.
+   */
+  List<User> getViewableUsersByRole(User subject);
+
   /**
    * Returns list of users that has some connection to the subject and will be able to see subject's
    * profile even if subject opted out from public listings.
@@ -381,4 +402,24 @@ public interface UserManager extends GenericManager<User, Long> {
    * @throws IllegalStateException if the original user is not a sysadmin ROLE
    */
   User getOriginalUserForOperateAs(User subject);
+
+  /**
+   * Records that the roles, groups or shared items of these users have changed, so that the
+   * permissions cached for them on any node are reloaded, see {@link
+   * com.researchspace.auth.PermissionUtils#refreshCacheIfNotified()}.
+   *
+   * @param users persisted users; unsaved users are ignored
+   */
+  void notifyPermissionsChanged(Collection<User> users);
+
+  /**
+   * Gets the permissions version of a user, which is incremented by {@link
+   * #notifyPermissionsChanged(Collection)}. Versions are cached for a few seconds, as this is
+   * called in most requests; changes made on this node are seen as soon as they're committed, and
+   * changes made on other nodes when the cached version expires.
+   *
+   * @param username
+   * @return the version, or 0 if the user's permissions have never changed
+   */
+  long getPermissionsVersion(String username);
 }
@@ -26,6 +26,7 @@ import com.researchspace.core.util.imageutils.ImageProcessingFailureException;
 import com.researchspace.core.util.progress.ProgressMonitor;
 import com.researchspace.dao.FolderDao;
 import com.researchspace.dao.InternalLinkDao;
+import com.researchspace.dao.InventoryBulkDao;
 import com.researchspace.linkedelements.FieldContents;
 import com.researchspace.linkedelements.FieldElementLinkPair;
 import com.researchspace.linkedelements.FieldElementLinkPairs;
@@ -109,10 +110,16 @@ abstract class AbstractImporterStrategyImpl {
   @Autowired FormImporter formImporter;
   @Autowired FieldParser fieldParser;
   @Autowired IPropertyHolder properties;
+  @Autowired InventoryBulkDao bulkDao;
 
   @Value("${import.allowCreationDateAfterModificationDate}")
   private boolean allowCreationDateAfterModificationDate;
 
+  // the import runs in a single transaction, so the session is cleared regularly to stop it
+  // slowing down as documents are added; 0 to never clear it
+  @Value("${import.documentsPerBatch:50}")
+  private int documentsPerBatch = 50;
+
   void insertRecordsToDatabase(
       User importingUser,
       IArchiveModel archive,
@@ -139,13 +146,16 @@ abstract class AbstractImporterStrategyImpl {
     List<ArchivalDocumentParserRef> refs = archive.getCurrentVersions();
     // preserve order of creation, see RSPAC-1313
     refs.sort(ArchivalDocumentParserRef.SortArchivalDocumentParserRefByCreationDateAsc);
+    report.setDocumentCount(refs.size());
     for (ArchivalDocumentParserRef ref : refs) {
       log.info(
           "Importing document {} with name '{}'",
           ref.getArchivalDocument().getDocId(),
           ref.getArchivalDocument().getName());
       monitor.setDescription(
-          messages.getMessage("archiveImport.progress.document", new Object[] {ref.getName()}));
+          messages.getMessage("archiveImport.progress.document", new Object[] {ref.getName()})
+              + String.format(
+                  " (%d/%d)", report.getProcessedDocumentCount() + 1, report.getDocumentCount()));
       try {
         insertToDatabase(
             ref,
@@ -167,6 +177,11 @@ abstract class AbstractImporterStrategyImpl {
         log.error(errMsg, e);
       } finally {
         monitor.worked((monitor.getTotalWorkUnits() / numElements));
+        report.documentProcessed();
+      }
+      if (documentsPerBatch > 0 && report.getProcessedDocumentCount() % documentsPerBatch == 0) {
+        // folders and media files created above are only used by id after this
+        bulkDao.flushAndClear(importingUser);
       }
     }
   }
@@ -25,7 +25,7 @@ public class ArchiveImporterManagerImpl implements ArchiveImporterManager {
       ImportStrategy importStrategy) {
     ImportArchiveReport report = new ImportArchiveReport();
     try {
-      IArchiveModel archiveModel = archiveParser.loadArchive(zipFile, report, iconfig);
+      IArchiveModel archiveModel = archiveParser.loadArchive(zipFile, report, iconfig, monitor);
       if (!report.isValidationSuccessful()) {
         report
             .getErrorList()
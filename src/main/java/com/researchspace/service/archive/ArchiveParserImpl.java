@@ -2,7 +2,7 @@ package com.researchspace.service.archive;
 
 import static com.researchspace.archive.ArchiveFileNameData.DOC_PREFIX;
 import static com.researchspace.archive.ArchiveFileNameData.MEDIA_PREFIX;
-import static com.researchspace.core.util.XMLReadWriteUtils.fromXML;
+import static com.researchspace.service.archive.ArchiveXMLReader.fromXML;
 import static com.researchspace.service.archive.ExportImport.EXT_WF_SCHEMA;
 import static com.researchspace.service.archive.ExportImport.SCHEMAS_FOLDER;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
@@ -24,8 +24,8 @@ import com.researchspace.archive.ArchiveUtils;
 import com.researchspace.archive.ExportRecordList;
 import com.researchspace.archive.IArchiveModel;
 import com.researchspace.archive.model.ArchiveUsers;
-import com.researchspace.core.util.XMLReadWriteUtils;
 import com.researchspace.core.util.ZipUtils;
+import com.researchspace.core.util.progress.ProgressMonitor;
 import com.researchspace.core.util.version.SemanticVersion;
 import com.researchspace.core.util.version.Versionable;
 import com.researchspace.dao.ArchiveDao;
@@ -33,6 +33,7 @@ import com.researchspace.model.ArchivalCheckSum;
 import com.researchspace.model.Version;
 import com.researchspace.service.MessageSourceUtils;
 import com.researchspace.service.RSMetaDataManager;
+import com.researchspace.spring.taskexecutors.ParallelTasks;
 import jakarta.xml.bind.JAXBException;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -41,7 +42,10 @@ import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
@@ -51,9 +55,19 @@ import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.io.filefilter.WildcardFileFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.xml.sax.SAXException;
 
-/** Parses archive files. */
+/**
+ * Parses archive files.
+ *
+ * <p>Record folders are parsed by up to 'archive.import.parseThreads' threads, using the
+ * 'archiveImportTaskExecutor' when there is one, and the zip file's checksum is calculated while it
+ * is unzipped. JAXB contexts and XSDs are only compiled once, see {@link ArchiveXMLReader}.
+ */
 @Slf4j
 public class ArchiveParserImpl implements IArchiveParser {
 
@@ -70,13 +84,28 @@ public class ArchiveParserImpl implements IArchiveParser {
   @Autowired
   private Versionable rspaceVersion;
 
+  @Value("${archive.import.parseThreads:4}")
+  private int parseThreads = 4;
+
+  private TaskExecutor taskExecutor;
+
+  @Autowired(required = false)
+  public void setTaskExecutor(@Qualifier("archiveImportTaskExecutor") TaskExecutor taskExecutor) {
+    this.taskExecutor = taskExecutor;
+  }
+
   @SneakyThrows
   public IArchiveModel loadArchive(
-      File zipFile, ImportArchiveReport report, ArchivalImportConfig iconfig) {
+      File zipFile,
+      ImportArchiveReport report,
+      ArchivalImportConfig iconfig,
+      ProgressMonitor monitor) {
     // Check whether it's a zip file that unzips fine
     boolean isZip = isZipFile(zipFile);
     File zipFolder = null;
+    FutureTask<Long> zipChecksum = new FutureTask<>(() -> calculateChecksum(zipFile));
     if (isZip) {
+      runInBackground(zipChecksum);
       try {
         zipFolder = extractZipFolder(zipFile, new File(iconfig.getUnzipPath()));
       } catch (IOException e) {
@@ -84,6 +113,7 @@ public class ArchiveParserImpl implements IArchiveParser {
       }
     }
     if (!isZip || zipFolder == null) {
+      zipChecksum.cancel(true);
       report.setValidationResult(ImportValidationRule.ZIP_FILE_CAN_UNZIP, false);
       return null;
     }
@@ -94,7 +124,7 @@ public class ArchiveParserImpl implements IArchiveParser {
     long checksum = 0L;
     String zipContentsChecksum = "";
     try {
-      checksum = calculateChecksum(zipFile);
+      checksum = getChecksum(zipChecksum);
       zipContentsChecksum = calculateZipContentsChecksum(zipFolder);
 
       report.setValidationResult(ImportValidationRule.CHECKSUM_CALCULATED, true);
@@ -111,7 +141,7 @@ public class ArchiveParserImpl implements IArchiveParser {
       }
     }
     // Parse unzipped files
-    IArchiveModel rc = parse(zipFolder, report);
+    IArchiveModel rc = parse(zipFolder, report, monitor);
 
     // Check manifest
     try {
@@ -137,6 +167,33 @@ public class ArchiveParserImpl implements IArchiveParser {
     return rc;
   }
 
+  private void runInBackground(Runnable task) {
+    if (taskExecutor == null) {
+      return;
+    }
+    try {
+      taskExecutor.execute(task);
+    } catch (TaskRejectedException e) {
+      log.debug("Archive import pool is busy, calculating checksum after unzipping");
+    }
+  }
+
+  private long getChecksum(FutureTask<Long> zipChecksum) throws IOException {
+    // runs the task here, unless the pool has already started it
+    zipChecksum.run();
+    try {
+      return zipChecksum.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new ImportFailureException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while calculating checksum", e);
+    }
+  }
+
   private void verifyVersionCompatibilities(ImportArchiveReport report, ArchiveManifest manifest) {
     // only consider major and minor versions; qualifiers shouldn't affect archive compatibilities
     SemanticVersion manifestMajMin =
@@ -159,8 +216,7 @@ public class ArchiveParserImpl implements IArchiveParser {
 
   private void checkUserSchemaOK(ImportArchiveReport report, IArchiveModel rc) {
     try {
-      ArchiveUsers fromXml =
-          XMLReadWriteUtils.fromXML(rc.getUserInfo(), ArchiveUsers.class, null, null);
+      ArchiveUsers fromXml = fromXML(rc.getUserInfo(), ArchiveUsers.class, null, null);
       if (!metadataMgr.isArchiveImportable(userSchemaId, new Version(fromXml.getSchemaVersion()))) {
         report.setValidationResult(ImportValidationRule.USER_SCHEMA_VERSION_RANGE_OK, false);
       } else {
@@ -179,8 +235,7 @@ public class ArchiveParserImpl implements IArchiveParser {
       return;
     }
     try {
-      ExportRecordList fromXml =
-          XMLReadWriteUtils.fromXML(rc.getFolderTree(), ExportRecordList.class, null, null);
+      ExportRecordList fromXml = fromXML(rc.getFolderTree(), ExportRecordList.class, null, null);
       if (!metadataMgr.isArchiveImportable(
           folderSchemaId, new Version(fromXml.getSchemaVersion()))) {
         report.setValidationResult(ImportValidationRule.FOLDER_SCHEMA_VERSION_RANGE_OK, false);
@@ -291,47 +346,45 @@ public class ArchiveParserImpl implements IArchiveParser {
    * @throws ImportFailureException which wraps underlying exceptions
    */
   public IArchiveModel parse(File rootFolder, ImportArchiveReport report) {
+    return parse(rootFolder, report, ProgressMonitor.NULL_MONITOR);
+  }
+
+  protected IArchiveModel parse(
+      File rootFolder, ImportArchiveReport report, ProgressMonitor monitor) {
     // checks content
     ArchiveModel archiveModel = initWorkDir(rootFolder, report);
 
+    List<File> recordFolders = new ArrayList<>(getRecordFolders(rootFolder));
+    report.setRecordFolderCount(recordFolders.size());
+    // Problem - this parses the whole archive into memory, this will break for large archives.
+    AbstractArchivalParserRef[] parserRefs =
+        parseRecordFolders(recordFolders, archiveModel, report, monitor);
+
     // Map from document id to all parser refs with that document id (contains all revisions)
     Multimap<Long, ArchivalDocumentParserRef> documentIdToParserRefs = HashMultimap.create();
 
-    // Iterates over all the folders in the archive.
-    // Problem - this parses the whole archive into memory, this will break for large archives.
-    for (File recordFolder : getRecordFolders(rootFolder)) {
-      String folderName = recordFolder.getName();
-      Collection<File> recordFiles = getRecordFiles(recordFolder);
-
-      if (recordFiles.isEmpty()) {
-        log.warn("Folder " + folderName + " did not contain any record data, skipping");
+    // added to the model in folder order, whichever thread parsed them
+    for (int i = 0; i < parserRefs.length; i++) {
+      AbstractArchivalParserRef parserRef = parserRefs[i];
+      if (parserRef == null) {
         continue;
       }
-
-      AbstractArchivalParserRef parserRef =
-          generateParserRef(report, archiveModel, folderName, recordFiles);
-      if (parserRef == null) {
-        log.warn(String.format("generateParserRef returned null for folder [%s]", recordFolder));
+      if (!parserRef.isDocument()) {
+        archiveModel.addMediaDoc((ArchivalGalleryMetaDataParserRef) parserRef);
         continue;
       }
-      parserRef.setName(folderName);
-      parserRef.setPath(recordFolder);
-
-      // If this is a document, add to documentIdToParserRefs
-      if (parserRef.isDocument()) {
-        ArchivalDocumentParserRef archivalDocumentParserRef = (ArchivalDocumentParserRef) parserRef;
-
-        if (archivalDocumentParserRef.getArchivalDocument() != null) {
-          documentIdToParserRefs.put(
-              archivalDocumentParserRef.getArchivalDocument().getDocId(),
-              archivalDocumentParserRef);
-        } else {
-          String errorMessage =
-              messages.getMessage(
-                  "archiveImport.errors.invalidDocumentFolder", new Object[] {folderName});
-          report.getErrorList().addErrorMsg(errorMessage);
-          throw new ImportFailureException(new NullPointerException(errorMessage));
-        }
+      ArchivalDocumentParserRef archivalDocumentParserRef = (ArchivalDocumentParserRef) parserRef;
+      archiveModel.addToAll(archivalDocumentParserRef);
+      if (archivalDocumentParserRef.getArchivalDocument() != null) {
+        documentIdToParserRefs.put(
+            archivalDocumentParserRef.getArchivalDocument().getDocId(), archivalDocumentParserRef);
+      } else {
+        String errorMessage =
+            messages.getMessage(
+                "archiveImport.errors.invalidDocumentFolder",
+                new Object[] {recordFolders.get(i).getName()});
+        report.getErrorList().addErrorMsg(errorMessage);
+        throw new ImportFailureException(new NullPointerException(errorMessage));
       }
     }
 
@@ -363,6 +416,83 @@ public class ArchiveParserImpl implements IArchiveParser {
     return archiveModel;
   }
 
+  /**
+   * Parses record folders in parallel; doesn't add them to the archive model.
+   *
+   * @return parser refs in the order of the folders, <code>null</code> for folders without a record
+   * @throws ImportFailureException the first failure to parse a folder; errors are wrapped in one
+   */
+  private AbstractArchivalParserRef[] parseRecordFolders(
+      List<File> recordFolders,
+      ArchiveModel archiveModel,
+      ImportArchiveReport report,
+      ProgressMonitor monitor) {
+    AbstractArchivalParserRef[] parserRefs = new AbstractArchivalParserRef[recordFolders.size()];
+    List<Runnable> tasks = new ArrayList<>(parserRefs.length);
+    for (int i = 0; i < parserRefs.length; i++) {
+      File recordFolder = recordFolders.get(i);
+      int index = i;
+      tasks.add(
+          () -> {
+            try {
+              parserRefs[index] = parseRecordFolder(recordFolder, archiveModel, report);
+            } finally {
+              report.recordFolderParsed();
+              describeParseProgress(report, monitor);
+            }
+          });
+    }
+    Throwable failure;
+    try {
+      // after a failure, remaining folders are skipped
+      failure = ParallelTasks.runAll(taskExecutor, parseThreads, tasks, true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ImportFailureException(e);
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure != null) {
+      throw new ImportFailureException(failure);
+    }
+    return parserRefs;
+  }
+
+  private void describeParseProgress(ImportArchiveReport report, ProgressMonitor monitor) {
+    if (monitor == ProgressMonitor.NULL_MONITOR) {
+      return;
+    }
+    String description =
+        messages.getMessage(
+            new DefaultMessageSourceResolvable(
+                new String[] {"archiveImport.progress.parsedFolders"},
+                new Object[] {report.getParsedRecordFolderCount(), report.getRecordFolderCount()},
+                "Read {0} of {1} archive folders"));
+    // folders are parsed by several threads
+    synchronized (monitor) {
+      monitor.setDescription(description);
+    }
+  }
+
+  private AbstractArchivalParserRef parseRecordFolder(
+      File recordFolder, ArchiveModel archiveModel, ImportArchiveReport report) {
+    String folderName = recordFolder.getName();
+    Collection<File> recordFiles = getRecordFiles(recordFolder);
+    if (recordFiles.isEmpty()) {
+      log.warn("Folder " + folderName + " did not contain any record data, skipping");
+      return null;
+    }
+    AbstractArchivalParserRef parserRef =
+        generateParserRef(report, archiveModel, folderName, recordFiles);
+    if (parserRef == null) {
+      log.warn(String.format("generateParserRef returned null for folder [%s]", recordFolder));
+      return null;
+    }
+    parserRef.setName(folderName);
+    parserRef.setPath(recordFolder);
+    return parserRef;
+  }
+
   private AbstractArchivalParserRef generateParserRef(
       ImportArchiveReport report,
       ArchiveModel archiveModel,
@@ -398,10 +528,11 @@ public class ArchiveParserImpl implements IArchiveParser {
       } catch (Exception ex) {
         log.error(
             String.format("Error when parsing content of XML archive folder [%s]", folderName));
-        report.setValidationResult(ImportValidationRule.XMLSCHEMA, false);
+        synchronized (report) {
+          report.setValidationResult(ImportValidationRule.XMLSCHEMA, false);
+        }
         throw new ImportFailureException(ex);
       }
-      archiveModel.addToAll(parserRef);
       return parserRef;
     } else if (isMediaFolder(folderName)) {
       ArchivalGalleryMetaDataParserRef parserRef = new ArchivalGalleryMetaDataParserRef();
@@ -422,10 +553,11 @@ public class ArchiveParserImpl implements IArchiveParser {
         }
       } catch (Exception ex) {
         log.error("Error parsing XML archives");
-        report.setValidationResult(ImportValidationRule.XMLSCHEMA, false);
+        synchronized (report) {
+          report.setValidationResult(ImportValidationRule.XMLSCHEMA, false);
+        }
         throw new ImportFailureException(ex);
       }
-      archiveModel.addMediaDoc(parserRef);
       return parserRef;
     }
     return null;
@@ -0,0 +1,97 @@
+package com.researchspace.service.archive;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.ValidationEventHandler;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.xml.sax.SAXException;
+
+/**
+ * Unmarshals archive XML files like {@link com.researchspace.core.util.XMLReadWriteUtils#fromXML},
+ * but creates the JAXB context of each class, and compiles each XSD, only once rather than for
+ * every file read. XSDs are cached by content, as each import unzips them to a new folder.
+ *
+ * <p>Safe to use from several threads, so that record folders can be parsed in parallel.
+ */
+final class ArchiveXMLReader {
+
+  // archives only contain a few XSDs, and their content rarely changes between versions
+  static final int MAX_CACHED_SCHEMAS = 50;
+
+  private static final Map<Class<?>, JAXBContext> contexts = new ConcurrentHashMap<>();
+  private static final Map<String, Schema> schemas = new ConcurrentHashMap<>();
+
+  private ArchiveXMLReader() {}
+
+  /**
+   * @param xmlFile the file to read
+   * @param clazz the class to unmarshal to
+   * @param xsdFile optional XSD to validate against, may be <code>null</code>
+   * @param validationHandler optional handler of validation events, may be <code>null</code>
+   * @return the unmarshalled object
+   * @throws JAXBException if the file couldn't be unmarshalled, or failed validation and there's
+   *     no validation handler
+   * @throws FileNotFoundException if the file doesn't exist
+   * @throws SAXException if the XSD couldn't be read or compiled
+   */
+  static <T> T fromXML(
+      File xmlFile, Class<T> clazz, File xsdFile, ValidationEventHandler validationHandler)
+      throws JAXBException, FileNotFoundException, SAXException {
+    Unmarshaller unmarshaller = getContext(clazz).createUnmarshaller();
+    if (xsdFile != null) {
+      unmarshaller.setSchema(getSchema(xsdFile));
+      if (validationHandler != null) {
+        unmarshaller.setEventHandler(validationHandler);
+      }
+    }
+    try (InputStream in = new BufferedInputStream(new FileInputStream(xmlFile))) {
+      return unmarshaller.unmarshal(new StreamSource(in), clazz).getValue();
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new JAXBException("Couldn't read " + xmlFile.getName(), e);
+    }
+  }
+
+  static JAXBContext getContext(Class<?> clazz) throws JAXBException {
+    JAXBContext context = contexts.get(clazz);
+    if (context == null) {
+      // may be created twice by concurrent callers, which is harmless
+      context = JAXBContext.newInstance(clazz);
+      contexts.putIfAbsent(clazz, context);
+    }
+    return context;
+  }
+
+  static Schema getSchema(File xsdFile) throws SAXException, FileNotFoundException {
+    String key;
+    try {
+      key = xsdFile.getName() + ":" + DigestUtils.sha256Hex(Files.readAllBytes(xsdFile.toPath()));
+    } catch (IOException e) {
+      throw new FileNotFoundException("Couldn't read schema " + xsdFile.getAbsolutePath());
+    }
+    Schema schema = schemas.get(key);
+    if (schema == null) {
+      schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(xsdFile);
+      if (schemas.size() >= MAX_CACHED_SCHEMAS) {
+        schemas.clear();
+      }
+      schemas.putIfAbsent(key, schema);
+    }
+    return schema;
+  }
+}
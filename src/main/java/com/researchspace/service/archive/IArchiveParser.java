@@ -2,6 +2,7 @@ package com.researchspace.service.archive;
 
 import com.researchspace.archive.ArchivalImportConfig;
 import com.researchspace.archive.IArchiveModel;
+import com.researchspace.core.util.progress.ProgressMonitor;
 import java.io.File;
 
 public interface IArchiveParser {
@@ -16,5 +17,23 @@ public interface IArchiveParser {
    * @param iconfig the configuration of the import.
    * @return
    */
-  IArchiveModel loadArchive(File zipFile, ImportArchiveReport report, ArchivalImportConfig iconfig);
+  default IArchiveModel loadArchive(
+      File zipFile, ImportArchiveReport report, ArchivalImportConfig iconfig) {
+    return loadArchive(zipFile, report, iconfig, ProgressMonitor.NULL_MONITOR);
+  }
+
+  /**
+   * Validates the contents of an archive, describing parsing progress on the monitor
+   *
+   * @param zipFile The zip archive file
+   * @param report the report to populate
+   * @param iconfig the configuration of the import.
+   * @param monitor described with the number of record folders parsed so far
+   * @return
+   */
+  IArchiveModel loadArchive(
+      File zipFile,
+      ImportArchiveReport report,
+      ArchivalImportConfig iconfig,
+      ProgressMonitor monitor);
 }
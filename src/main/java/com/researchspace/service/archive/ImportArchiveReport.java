@@ -13,6 +13,7 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -96,6 +97,12 @@ public class ImportArchiveReport implements Serializable {
   private boolean complete;
   private boolean validationComplete = false;
 
+  // progress, read while the import runs; record folders are parsed by several threads
+  private volatile int recordFolderCount;
+  private final AtomicInteger parsedRecordFolderCount = new AtomicInteger();
+  private volatile int documentCount;
+  private final AtomicInteger processedDocumentCount = new AtomicInteger();
+
   public List<ValidationResult> getResults() {
     return results;
   }
@@ -261,4 +268,46 @@ public class ImportArchiveReport implements Serializable {
   public ErrorList getInfoList() {
     return infoList;
   }
+
+  /**
+   * @return the number of document and media folders in the archive, or 0 until it is parsed
+   */
+  public int getRecordFolderCount() {
+    return recordFolderCount;
+  }
+
+  public void setRecordFolderCount(int recordFolderCount) {
+    this.recordFolderCount = recordFolderCount;
+  }
+
+  public int getParsedRecordFolderCount() {
+    return parsedRecordFolderCount.get();
+  }
+
+  /** Counts a record folder as parsed, whether or not it contained a valid record */
+  public void recordFolderParsed() {
+    parsedRecordFolderCount.incrementAndGet();
+  }
+
+  /**
+   * @return the number of documents to save, or 0 until saving starts
+   */
+  public int getDocumentCount() {
+    return documentCount;
+  }
+
+  public void setDocumentCount(int documentCount) {
+    this.documentCount = documentCount;
+  }
+
+  /**
+   * @return the number of documents saved, or that failed to save
+   */
+  public int getProcessedDocumentCount() {
+    return processedDocumentCount.get();
+  }
+
+  public void documentProcessed() {
+    processedDocumentCount.incrementAndGet();
+  }
 }
@@ -6,7 +6,7 @@ public class ImportFailureException extends RuntimeException {
   /** */
   private static final long serialVersionUID = 8370089589655190875L;
 
-  public ImportFailureException(Exception e) {
+  public ImportFailureException(Throwable e) {
     super("Import failed due to exception: " + e.getMessage(), e);
   }
 
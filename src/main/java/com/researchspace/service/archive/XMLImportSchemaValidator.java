@@ -16,10 +16,14 @@ public class XMLImportSchemaValidator implements ValidationEventHandler {
     this.report = report;
   }
 
+  // synchronized on the report, as record folders are validated in parallel
   @Override
   public boolean handleEvent(ValidationEvent event) {
-    report.getErrorList().addErrorMsg(formatMsg(event));
-    report.setValidationResult(ImportValidationRule.XMLSCHEMA, false);
+    String msg = formatMsg(event);
+    synchronized (report) {
+      report.getErrorList().addErrorMsg(msg);
+      report.setValidationResult(ImportValidationRule.XMLSCHEMA, false);
+    }
     return true;
   }
 
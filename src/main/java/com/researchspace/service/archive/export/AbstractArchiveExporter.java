@@ -27,6 +27,8 @@ import com.researchspace.model.record.BaseRecord;
 import com.researchspace.model.record.Record;
 import com.researchspace.model.record.RecordToFolder;
 import com.researchspace.model.record.StructuredDocument;
+import com.researchspace.netfiles.NfsParallelTransfers;
+import com.researchspace.service.DiskSpaceChecker;
 import com.researchspace.service.DiskSpaceLimitException;
 import com.researchspace.service.FilestoreAclChecker;
 import com.researchspace.service.MessageSourceUtils;
@@ -52,6 +54,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 public abstract class AbstractArchiveExporter implements ArchiveExportServiceManager {
 
@@ -67,6 +70,19 @@ public abstract class AbstractArchiveExporter implements ArchiveExportServiceMan
   private @Autowired RoRService rorService;
   private @Autowired FilestoreAclChecker filestoreAclChecker;
   private @Autowired MessageSourceUtils messages;
+  private @Autowired DiskSpaceChecker diskSpaceChecker;
+  private @Autowired(required = false) NfsParallelTransfers nfsTransfers;
+
+  /**
+   * If true, record folders are zipped as soon as each record is exported, see {@link
+   * StreamingZipWriter}, rather than the whole export being assembled on disk and then zipped.
+   */
+  @Value("${archive.export.streamToZip:false}")
+  private boolean streamToZip;
+
+  void setStreamToZip(boolean streamToZip) {
+    this.streamToZip = streamToZip;
+  }
 
   @Override
   public ArchiveResult exportArchive(
@@ -90,27 +106,33 @@ public abstract class AbstractArchiveExporter implements ArchiveExportServiceMan
       roCrate = RoCrateHandler.startProcessRoCrate(logicalFolders, folderTree, aconfig);
     }
     Set<String> igsnInventoryLinkedItems = new HashSet<>();
-    for (GlobalIdentifier rid : exportList.getRecordsToExport()) {
-      igsnInventoryLinkedItems.addAll(
-          exportRecord(
-                  aconfig,
-                  exportObjectGenerator,
-                  exportContext,
-                  archived,
-                  rid,
-                  folderTree,
-                  exportList,
-                  roCrate,
-                  logicalFolders)
-              .getIgsnInventoryLinkedItems());
-      aconfig.getProgressMonitor().worked(1);
-      log.debug(
-          "Export is {}% complete",
-          String.format("%.2f", aconfig.getProgressMonitor().getPercentComplete()));
+    ArchivalCheckSum csum;
+    try (StreamingZipWriter zipWriter = streamToZip ? newZipWriter(aconfig, exportContext) : null) {
+      for (GlobalIdentifier rid : exportList.getRecordsToExport()) {
+        igsnInventoryLinkedItems.addAll(
+            exportRecord(
+                    aconfig,
+                    exportObjectGenerator,
+                    exportContext,
+                    archived,
+                    rid,
+                    folderTree,
+                    exportList,
+                    roCrate,
+                    logicalFolders)
+                .getIgsnInventoryLinkedItems());
+        if (zipWriter != null) {
+          zipExportedRecordFolders(zipWriter, exportContext);
+        }
+        aconfig.getProgressMonitor().worked(1);
+        log.debug(
+            "Export is {}% complete",
+            String.format("%.2f", aconfig.getProgressMonitor().getPercentComplete()));
+      }
+      preZip(manifest, exportList, aconfig, exportContext, archived);
+      RoCrateHandler.finishProcessRoCrate(manifest, aconfig, exportContext, roCrate, archived);
+      csum = zipAndSaveChecksumInDB(aconfig, exportContext, zipWriter);
     }
-    preZip(manifest, exportList, aconfig, exportContext, archived);
-    RoCrateHandler.finishProcessRoCrate(manifest, aconfig, exportContext, roCrate, archived);
-    ArchivalCheckSum csum = zipAndSaveChecksumInDB(aconfig, exportObjectGenerator, exportContext);
     exportContext.setCsum(csum);
     ArchiveResult archiveResult =
         postArchive(aconfig, exportObjectGenerator, archived, folderTree, exportContext);
@@ -155,6 +177,7 @@ public abstract class AbstractArchiveExporter implements ArchiveExportServiceMan
         String uniqueExportName = new ArchiveFileNameData(record, revision).toFileName();
         File recordFolder = new File(context.getArchiveAssmblyFlder(), uniqueExportName);
         forceMkdir(recordFolder);
+        context.getRecordFoldersToZip().add(recordFolder);
         DataSetEntity.DataSetBuilder dsb = null;
         String datasetId = "./" + recordFolder.getName() + "/";
         if (roCrate != null) {
@@ -385,6 +408,7 @@ public abstract class AbstractArchiveExporter implements ArchiveExportServiceMan
       NfsExportContext nfsContext = new NfsExportContext(aconfig);
       nfsContext.setAclChecker(filestoreAclChecker);
       nfsContext.setMessages(messages);
+      nfsContext.setNfsTransfers(nfsTransfers);
       nfsContext.configureArchiveNfsDirForAssemblyFolder(archiveAssmblyFlder);
       context.setNfsContext(nfsContext);
     }
@@ -393,14 +417,37 @@ public abstract class AbstractArchiveExporter implements ArchiveExportServiceMan
     return context;
   }
 
+  private StreamingZipWriter newZipWriter(IArchiveExportConfig aconfig, ExportContext context)
+      throws IOException {
+    File zipFile = new File(aconfig.getTopLevelExportFolder(), context.getZipFileName());
+    return new StreamingZipWriter(zipFile, context.getArchiveAssmblyFlder());
+  }
+
+  /*
+   * Hands the folders of the record just exported to the zip writer, then checks the size the zip
+   * will have once they are written against the archive size limit.
+   */
+  private void zipExportedRecordFolders(StreamingZipWriter zipWriter, ExportContext context)
+      throws IOException {
+    zipWriter.addRecordFolders(new ArrayList<>(context.getRecordFoldersToZip()));
+    context.getRecordFoldersToZip().clear();
+    diskSpaceChecker.assertArchiveSizeWithinLimit(zipWriter.getProjectedZipSize());
+  }
+
   private ArchivalCheckSum zipAndSaveChecksumInDB(
-      IArchiveExportConfig aconfig,
-      ExportObjectGenerator exportObjectGnerator,
-      ExportContext exportContext)
+      IArchiveExportConfig aconfig, ExportContext exportContext, StreamingZipWriter zipWriter)
       throws IOException {
-    String contentsChecksum =
-        ArchiveUtils.calculateFolderContentsChecksum(exportContext.getArchiveAssmblyFlder());
-    long sum = writeZip(exportContext, aconfig);
+    String contentsChecksum;
+    long sum;
+    if (zipWriter == null) {
+      contentsChecksum =
+          ArchiveUtils.calculateFolderContentsChecksum(exportContext.getArchiveAssmblyFlder());
+      sum = writeZip(exportContext, aconfig);
+    } else {
+      sum = zipWriter.finish();
+      contentsChecksum = zipWriter.getContentsChecksum();
+      exportContext.setZipSize(zipWriter.getZipSize());
+    }
     ArchivalCheckSum csum = new ArchivalCheckSum();
     csum.setArchivalDate(new Date().getTime());
     csum.setUid(exportContext.getArchiveId());
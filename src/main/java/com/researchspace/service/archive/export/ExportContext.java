@@ -3,6 +3,8 @@ package com.researchspace.service.archive.export;
 import com.researchspace.archive.ImmutableExportRecordList;
 import com.researchspace.model.ArchivalCheckSum;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Data;
 
 /** Holds internal state of export action, accumulating data as export process continues */
@@ -17,4 +19,6 @@ class ExportContext {
   private ArchivalCheckSum csum;
   private NfsExportContext nfsContext;
   private ImmutableExportRecordList exportRecordList;
+  // record folders created since they were last handed to a StreamingZipWriter
+  private final List<File> recordFoldersToZip = new ArrayList<>();
 }
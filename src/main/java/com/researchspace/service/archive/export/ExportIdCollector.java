@@ -3,6 +3,7 @@ package com.researchspace.service.archive.export;
 import com.researchspace.archive.ExportRecordList;
 import com.researchspace.archive.ImmutableExportRecordList;
 import com.researchspace.archive.model.IArchiveExportConfig;
+import com.researchspace.model.SearchDepth;
 import com.researchspace.model.User;
 import com.researchspace.model.core.GlobalIdPrefix;
 import com.researchspace.model.core.GlobalIdentifier;
@@ -42,12 +43,15 @@ public class ExportIdCollector {
 
   // processes a folder tree
   private ImmutableExportRecordList getRecordIdsFromFolder(Long fid, User user) {
-    Folder fd1 = folderMgr.getFolder(fid, user);
-    if (fd1 == null) {
+    // checks the folder can be read
+    if (folderMgr.getFolder(fid, user) == null) {
       return null;
     }
+    // traverses the tree as loaded up front, with all sub-folders and their children fetched
+    // from the folder ancestry index, rather than each folder's children as they are reached
+    Folder tree = folderMgr.getFolder(fid, user, SearchDepth.INFINITE);
     ExportArchiveTreeTraversor traversor = new ExportArchiveTreeTraversor(exportCfg);
-    fd1.process(traversor);
+    tree.process(traversor);
     return traversor.getExportRecordList();
   }
 }
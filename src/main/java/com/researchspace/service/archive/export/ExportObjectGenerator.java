@@ -303,8 +303,9 @@ public class ExportObjectGenerator {
     addElementsToExport(
         context, fieldContents, new CommentFieldExporter(support), EcatComment.class);
     addElementsToExport(context, fieldContents, new ImageFieldExporter(support), EcatImage.class);
-    addElementsToExport(
-        context, fieldContents, new NfsElementFieldExporter(support), NfsElement.class);
+    NfsElementFieldExporter nfsExporter = new NfsElementFieldExporter(support);
+    nfsExporter.downloadLinkedResources(context, fieldContents.getElements(NfsElement.class));
+    addElementsToExport(context, fieldContents, nfsExporter, NfsElement.class);
     // ********* may add new export code here *********
     // These explicit method calls reduce the number of layers of indirection
     addImageAnnotationsToExport(context, fieldContents);
@@ -2,12 +2,14 @@ package com.researchspace.service.archive.export;
 
 import com.researchspace.archive.ArchivalNfsFile;
 import com.researchspace.linkedelements.FieldElementLinkPair;
+import com.researchspace.linkedelements.FieldElementLinkPairs;
 import com.researchspace.model.netfiles.NfsElement;
 import com.researchspace.model.netfiles.NfsFileStore;
 import com.researchspace.netfiles.NfsResourceDetails;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.List;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
@@ -18,6 +20,22 @@ class NfsElementFieldExporter extends AbstractFieldExporter<NfsElement> {
     super(support);
   }
 
+  /**
+   * Downloads the files linked from a field together, so that they can be downloaded in parallel,
+   * before the links are exported one by one.
+   */
+  void downloadLinkedResources(
+      FieldExportContext context, FieldElementLinkPairs<NfsElement> nfsPairs) {
+    if (!isExportWithNfsFilesIncluded(context)) {
+      return;
+    }
+    List<NfsElement> items =
+        nfsPairs.getElements().stream()
+            .filter(item -> context.getExportRecordList().containsFieldAttachment(item.getOid()))
+            .toList();
+    context.getNfsContext().downloadNfsResources(items, support);
+  }
+
   @Override
   void createFieldArchiveObject(
       NfsElement item, String replacementLink, FieldExportContext context) {
@@ -10,9 +10,11 @@ import com.researchspace.netfiles.NfsClient;
 import com.researchspace.netfiles.NfsException;
 import com.researchspace.netfiles.NfsFileDetails;
 import com.researchspace.netfiles.NfsFolderDetails;
+import com.researchspace.netfiles.NfsParallelTransfers;
 import com.researchspace.netfiles.NfsResourceDetails;
 import com.researchspace.netfiles.NfsTarget;
 import com.researchspace.service.DiskSpaceChecker;
+import com.researchspace.service.DiskSpaceLimitException;
 import com.researchspace.service.FilestoreAclChecker;
 import com.researchspace.service.ListFormatUtils;
 import com.researchspace.service.MessageSourceUtils;
@@ -20,7 +22,9 @@ import com.researchspace.service.NfsFileHandler;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -42,10 +46,12 @@ public class NfsExportContext {
   private File archiveAssemblyDir;
 
   private Map<Long, NfsFileStore> fileStoresByIdMap = new HashMap<>();
-  private Map<String, NfsResourceDetails> resolvedResources = new HashMap<>();
+  // synchronized, as files may be downloaded in parallel; values may be null
+  private Map<String, NfsResourceDetails> resolvedResources =
+      Collections.synchronizedMap(new HashMap<>());
 
-  private Map<String, String> errors = new HashMap<>();
-  private Map<String, String> folderSummaryMsgs = new HashMap<>();
+  private Map<String, String> errors = Collections.synchronizedMap(new HashMap<>());
+  private Map<String, String> folderSummaryMsgs = Collections.synchronizedMap(new HashMap<>());
 
   private IArchiveExportConfig exportConfig;
 
@@ -53,6 +59,9 @@ public class NfsExportContext {
 
   private MessageSourceUtils messages;
 
+  /** runs downloads in parallel; if not set, files are downloaded one at a time */
+  private NfsParallelTransfers nfsTransfers;
+
   public NfsExportContext(IArchiveExportConfig aconfig) {
     exportConfig = aconfig;
     nfsClients = aconfig.getAvailableNfsClients();
@@ -75,6 +84,60 @@ public class NfsExportContext {
     return downloadNfsResourceDetails(fileSystem, target, nfsElem.isFolderLink(), null, support);
   }
 
+  /**
+   * Downloads the files that the elements link to, several at a time where the file system allows,
+   * so that {@link #getDownloadedNfsResourceDetails} then finds them already downloaded. Folder
+   * links are downloaded one at a time, each downloading its files in parallel.
+   *
+   * <p>Failures other than running out of disk space are left for {@link
+   * #getDownloadedNfsResourceDetails} to report.
+   */
+  public void downloadNfsResources(List<NfsElement> nfsElems, FieldExporterSupport support) {
+    Map<Long, Map<String, Runnable>> fileDownloadsByFileSystem = new LinkedHashMap<>();
+    List<Runnable> folderDownloads = new ArrayList<>();
+    for (NfsElement nfsElem : nfsElems) {
+      // file stores are looked up here, as downloads may run in other threads
+      NfsFileStore nfsFileStore = getNfsFileStore(nfsElem.getFileStoreId(), support);
+      if (nfsFileStore == null) {
+        continue;
+      }
+      NfsFileSystem fileSystem = nfsFileStore.getFileSystem();
+      NfsTarget target =
+          new NfsTarget(nfsFileStore.getAbsolutePath(nfsElem.getPath()), nfsElem.getNfsId());
+      Runnable download =
+          () -> {
+            try {
+              downloadNfsResourceDetails(
+                  fileSystem, target, nfsElem.isFolderLink(), null, support);
+            } catch (DiskSpaceLimitException e) {
+              throw e;
+            } catch (RuntimeException e) {
+              log.warn("Couldn't download nfs element {}: {}", target, e.getMessage());
+            }
+          };
+      if (nfsElem.isFolderLink()) {
+        folderDownloads.add(download);
+      } else {
+        fileDownloadsByFileSystem
+            .computeIfAbsent(fileSystem.getId(), id -> new LinkedHashMap<>())
+            .putIfAbsent(fileSystem.getId() + "_" + target.getPath(), download);
+      }
+    }
+    for (Map.Entry<Long, Map<String, Runnable>> downloads : fileDownloadsByFileSystem.entrySet()) {
+      runDownloads(
+          nfsClients.get(downloads.getKey()), new ArrayList<>(downloads.getValue().values()));
+    }
+    folderDownloads.forEach(Runnable::run);
+  }
+
+  private void runDownloads(NfsClient nfsClient, List<Runnable> downloads) {
+    if (nfsTransfers == null || nfsClient == null) {
+      downloads.forEach(Runnable::run);
+    } else {
+      nfsTransfers.runAll(nfsClient, downloads);
+    }
+  }
+
   private NfsResourceDetails downloadNfsResourceDetails(
       NfsFileSystem fileSystem,
       NfsTarget nfsTarget,
@@ -270,21 +333,24 @@ public class NfsExportContext {
     FileUtils.forceMkdir(downloadedFolder);
     nfsFolderDetails.setLocalFile(downloadedFolder);
 
-    String folderKey = fileSystem.getId() + "_" + nfsTarget.getPath();
+    List<Runnable> childDownloads = new ArrayList<>();
     for (NfsResourceDetails child : nfsFolderDetails.getContent()) {
-      NfsResourceDetails childDetails = null;
       if (child.isFile()) {
-        childDetails =
-            downloadNfsResourceDetails(
-                fileSystem,
-                new NfsTarget(child.getFileSystemFullPath(), child.getNfsId()),
-                false,
-                downloadedFolder,
-                support);
+        NfsTarget childTarget = new NfsTarget(child.getFileSystemFullPath(), child.getNfsId());
+        childDownloads.add(
+            () ->
+                downloadNfsResourceDetails(
+                    fileSystem, childTarget, false, downloadedFolder, support));
       }
+    }
+    runDownloads(nfsClient, childDownloads);
 
-      // add a line to folder summary msg
+    String folderKey = fileSystem.getId() + "_" + nfsTarget.getPath();
+    for (NfsResourceDetails child : nfsFolderDetails.getContent()) {
       String childKey = fileSystem.getId() + "_" + child.getFileSystemFullPath();
+      NfsResourceDetails childDetails = child.isFile() ? resolvedResources.get(childKey) : null;
+
+      // add a line to folder summary msg
       String childMsg = null;
       if (childDetails != null) {
         childMsg = "included";
@@ -0,0 +1,245 @@
+package com.researchspace.service.archive.export;
+
+import com.researchspace.archive.ArchiveUtils;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.FileUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Writes the zip file of an export while the export is still being assembled. Record folders are
+ * handed over as soon as they are complete, then zipped in order by a single writer thread while
+ * the following records are exported, and deleted. The assembly folder so only ever holds a few
+ * records, and whatever is written last (indexes, manifests, resources).
+ *
+ * <p>The zip's CRC32 and its contents checksum (see {@link
+ * ArchiveUtils#calculateFolderContentsChecksum(File)}) are computed from the bytes as they are
+ * written, so neither the assembly folder nor the zip is read again afterwards. The zip has the same
+ * entries as one made from the complete assembly folder by ZipUtils.createZip: the folder's name is
+ * the top-level entry, and folders have entries of their own.
+ */
+class StreamingZipWriter implements Closeable {
+
+  /** Record folders waiting to be zipped, beyond which adding another waits for the writer */
+  static final int MAX_PENDING_FOLDERS = 4;
+
+  private final File zipFile;
+  private final Path assemblyFolder;
+  private final String rootEntryName;
+  private final CRC32 crc = new CRC32();
+  private final ZipOutputStream zip;
+  private final ExecutorService writer =
+      Executors.newSingleThreadExecutor(new CustomizableThreadFactory("archive-zip-writer-"));
+  private final Deque<Future<?>> pending = new ArrayDeque<>();
+  private final Set<File> queuedFolders = new HashSet<>();
+  // size of the queued folders not yet zipped, measured before the writer can delete them
+  private final AtomicLong queuedBytes = new AtomicLong();
+  // only accessed by one thread at a time, as each task waits for the previous one
+  private final Set<String> writtenEntries = new HashSet<>();
+  private final SortedMap<Path, String> contentHashes = new TreeMap<>();
+  private boolean finished;
+
+  StreamingZipWriter(File zipFile, File assemblyFolder) throws IOException {
+    this.zipFile = zipFile;
+    this.assemblyFolder = assemblyFolder.toPath();
+    this.rootEntryName = assemblyFolder.getName() + "/";
+    this.zip =
+        new ZipOutputStream(
+            new BufferedOutputStream(new CheckedOutputStream(new FileOutputStream(zipFile), crc)));
+    addEntry(this.assemblyFolder);
+  }
+
+  /**
+   * Queues complete record folders, which must be inside the assembly folder, to be zipped and then
+   * deleted. A folder that was queued before is ignored. Waits if the writer is too far behind.
+   *
+   * @throws IOException if zipping a previously added folder failed
+   */
+  void addRecordFolders(List<File> recordFolders) throws IOException {
+    for (File folder : recordFolders) {
+      if (!queuedFolders.add(folder)) {
+        continue;
+      }
+      long folderSize = FileUtils.sizeOfDirectory(folder);
+      queuedBytes.addAndGet(folderSize);
+      pending.addLast(
+          writer.submit(
+              () -> {
+                addTree(folder.toPath());
+                queuedBytes.addAndGet(-folderSize);
+                FileUtils.deleteDirectory(folder);
+                return null;
+              }));
+    }
+    while (pending.size() > MAX_PENDING_FOLDERS
+        || (!pending.isEmpty() && pending.peekFirst().isDone())) {
+      awaitNext();
+    }
+  }
+
+  /**
+   * Zips everything still in the assembly folder and closes the zip file.
+   *
+   * @return the CRC32 checksum of the zip file
+   */
+  long finish() throws IOException {
+    while (!pending.isEmpty()) {
+      awaitNext();
+    }
+    addTree(assemblyFolder);
+    zip.close();
+    writer.shutdown();
+    finished = true;
+    return crc.getValue();
+  }
+
+  /**
+   * @return the contents checksum of the zip, once {@link #finish()} has been called
+   */
+  String getContentsChecksum() {
+    return ArchiveUtils.calculateContentsChecksum(contentHashes);
+  }
+
+  /**
+   * @return current size of the zip file
+   */
+  long getZipSize() {
+    return zipFile.length();
+  }
+
+  /**
+   * @return size of the zip once the queued record folders are written to it, counting their files
+   *     uncompressed
+   */
+  long getProjectedZipSize() {
+    return zipFile.length() + queuedBytes.get();
+  }
+
+  /** Stops the writer; if the zip wasn't finished, the incomplete zip file is deleted. */
+  @Override
+  public void close() throws IOException {
+    // interrupts reading a file, so a folder being zipped is abandoned straight away
+    writer.shutdownNow();
+    try {
+      awaitWriterStopped();
+      zip.close();
+    } finally {
+      if (!finished) {
+        Files.deleteIfExists(zipFile.toPath());
+      }
+    }
+  }
+
+  private void awaitWriterStopped() throws IOException {
+    try {
+      if (!writer.awaitTermination(1, TimeUnit.MINUTES)) {
+        throw new IOException("Timed out stopping the writer of " + zipFile.getName());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while stopping writer of " + zipFile.getName());
+    }
+  }
+
+  private void awaitNext() throws IOException {
+    try {
+      pending.removeFirst().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while writing " + zipFile.getName());
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Could not write " + zipFile.getName(), e.getCause());
+    }
+  }
+
+  private void addTree(Path root) throws IOException {
+    List<Path> paths;
+    try (Stream<Path> walk = Files.walk(root)) {
+      paths = walk.collect(Collectors.toList());
+    }
+    for (Path path : paths) {
+      addEntry(path);
+    }
+  }
+
+  /*
+   * Adds a file or folder, unless it has already been added, e.g. the top-level folder which is
+   * added first and walked again by finish().
+   */
+  private void addEntry(Path path) throws IOException {
+    Path relative = assemblyFolder.relativize(path);
+    boolean isFolder = Files.isDirectory(path);
+    String entryName =
+        relative.toString().isEmpty()
+            ? rootEntryName
+            : rootEntryName + toEntryPath(relative) + (isFolder ? "/" : "");
+    if (!writtenEntries.add(entryName)) {
+      return;
+    }
+    zip.putNextEntry(new ZipEntry(entryName));
+    String contentsHash = ArchiveUtils.FOLDER_CONTENTS_HASH;
+    if (!isFolder) {
+      MessageDigest md5 = newMd5();
+      try (InputStream in = new DigestInputStream(Files.newInputStream(path), md5)) {
+        in.transferTo(zip);
+      }
+      contentsHash = Hex.encodeHexString(md5.digest());
+    }
+    zip.closeEntry();
+    if (!path.toFile().isHidden()) {
+      contentHashes.put(relative, contentsHash);
+    }
+  }
+
+  private static String toEntryPath(Path relative) {
+    StringBuilder sb = new StringBuilder();
+    for (Path element : relative) {
+      if (sb.length() > 0) {
+        sb.append('/');
+      }
+      sb.append(element.toString());
+    }
+    return sb.toString();
+  }
+
+  private static MessageDigest newMd5() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package com.researchspace.service.audit.search;
+
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.service.AuditEventManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * When 'audit.index.enabled' is true, stores every audit event written to the audit log in the
+ * {@link AuditEventManager}, so that audit searches don't need to read the log files.
+ *
+ * <p>Events are captured by a Log4j appender added to the audit logger, so exactly the events in
+ * the log are stored. They are queued and saved in batches by a background thread, so auditing
+ * never waits for the database. A batch that can't be saved is retried a few times. Events that
+ * still aren't stored, or that didn't fit in the queue, are only written to the log, and their
+ * time range is recorded as a gap, which searches read from the log files instead.
+ */
+@Slf4j
+public class AuditEventIndexer {
+
+  /** Name of the logger that audit events are written to, see log4j2.xml */
+  static final String AUDIT_LOGGER = "com.researchspace.model.audittrail.AuditTrailService";
+
+  private static final int BATCH_SIZE = 500;
+  private static final int SAVE_ATTEMPTS = 3;
+
+  private @Autowired AuditEventManager auditEventManager;
+
+  @Value("${audit.index.enabled:false}")
+  private boolean enabled;
+
+  @Value("${audit.index.queueSize:10000}")
+  private int queueSize;
+
+  // delay before the first retry of a batch, which grows with each retry
+  private long retryDelayMillis = 1000;
+
+  private BlockingQueue<IndexedAuditEvent> queue;
+  private final AtomicLong dropped = new AtomicLong();
+  private volatile boolean running;
+  private Thread writer;
+  private IndexingAppender appender;
+  private LoggerContext loggerContext;
+  private PropertyChangeListener reconfigurationListener;
+
+  // time range of events not stored and not yet recorded as a gap; empty if from > to
+  private long unstoredFrom = Long.MAX_VALUE;
+  private long unstoredTo = Long.MIN_VALUE;
+
+  @PostConstruct
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    queue = new ArrayBlockingQueue<>(queueSize);
+    running = true;
+    writer = new Thread(this::writeQueuedEvents, "audit-event-indexer");
+    writer.setDaemon(true);
+    writer.start();
+
+    appender = new IndexingAppender(this);
+    appender.start();
+    loggerContext = (LoggerContext) LogManager.getContext(false);
+    // the logging configuration is replaced when the logging folder is set, see
+    // LoggingInitializer
+    reconfigurationListener =
+        evt -> {
+          if (LoggerContext.PROPERTY_CONFIG.equals(evt.getPropertyName())
+              && evt.getNewValue() instanceof Configuration) {
+            addAppender((Configuration) evt.getNewValue());
+          }
+        };
+    loggerContext.addPropertyChangeListener(reconfigurationListener);
+    addAppender(loggerContext.getConfiguration());
+    log.info("Audit events will be indexed");
+  }
+
+  private synchronized void addAppender(Configuration config) {
+    LoggerConfig loggerConfig = config.getLoggerConfig(AUDIT_LOGGER);
+    if (!AUDIT_LOGGER.equals(loggerConfig.getName())) {
+      log.warn("No logger configured for {}, audit events won't be indexed", AUDIT_LOGGER);
+      return;
+    }
+    if (!loggerConfig.getAppenders().containsKey(appender.getName())) {
+      config.addAppender(appender);
+      loggerConfig.addAppender(appender, null, null);
+      loggerContext.updateLoggers(config);
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    loggerContext.removePropertyChangeListener(reconfigurationListener);
+    Configuration config = loggerContext.getConfiguration();
+    LoggerConfig loggerConfig = config.getLoggerConfig(AUDIT_LOGGER);
+    if (AUDIT_LOGGER.equals(loggerConfig.getName())) {
+      loggerConfig.removeAppender(appender.getName());
+      loggerContext.updateLoggers(config);
+    }
+    appender.stop();
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(10));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return whether audit events are being indexed
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return whether some events couldn't be stored, and their time range is not yet recorded as a
+   *     gap
+   */
+  public synchronized boolean hasUnrecordedGap() {
+    return unstoredFrom <= unstoredTo;
+  }
+
+  void add(IndexedAuditEvent event) {
+    if (!queue.offer(event)) {
+      notStored(event.getEventTime(), event.getEventTime());
+      long count = dropped.incrementAndGet();
+      // 1st, then every 1000th
+      if (count % 1000 == 1) {
+        log.warn("Audit event queue is full, {} events not indexed", count);
+      }
+    }
+  }
+
+  private synchronized void notStored(long from, long to) {
+    unstoredFrom = Math.min(unstoredFrom, from);
+    unstoredTo = Math.max(unstoredTo, to);
+  }
+
+  void writeQueuedEvents() {
+    List<IndexedAuditEvent> batch = new ArrayList<>(BATCH_SIZE);
+    try {
+      while (running || !queue.isEmpty()) {
+        IndexedAuditEvent first = queue.poll(1, TimeUnit.SECONDS);
+        if (first != null) {
+          batch.add(first);
+          queue.drainTo(batch, BATCH_SIZE - 1);
+          saveBatch(batch);
+          batch.clear();
+        }
+        recordGap();
+      }
+      recordGap();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      batch.forEach(event -> notStored(event.getEventTime(), event.getEventTime()));
+      queue.forEach(event -> notStored(event.getEventTime(), event.getEventTime()));
+      recordGap();
+    }
+  }
+
+  private void saveBatch(List<IndexedAuditEvent> batch) throws InterruptedException {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        auditEventManager.saveAll(batch);
+        return;
+      } catch (RuntimeException e) {
+        if (attempt == SAVE_ATTEMPTS) {
+          log.error("Could not index {} audit events: {}", batch.size(), e.getMessage());
+          batch.forEach(event -> notStored(event.getEventTime(), event.getEventTime()));
+          return;
+        }
+        log.warn("Could not index {} audit events, retrying: {}", batch.size(), e.getMessage());
+        // the transaction was rolled back, so ids assigned by the failed inserts aren't used
+        batch.forEach(event -> event.setId(null));
+        Thread.sleep(retryDelayMillis * attempt);
+      }
+    }
+  }
+
+  /*
+   * Saves the range of events not stored as a gap. The range is kept until saved, so that searches
+   * meanwhile use the log files too, see hasUnrecordedGap().
+   */
+  private void recordGap() {
+    long from;
+    long to;
+    synchronized (this) {
+      if (unstoredFrom > unstoredTo) {
+        return;
+      }
+      from = unstoredFrom;
+      to = unstoredTo;
+    }
+    try {
+      auditEventManager.saveGap(from, to);
+    } catch (RuntimeException e) {
+      // tried again after the next batch
+      log.warn(
+          "Could not record audit events not indexed from {} to {}: {}", from, to, e.getMessage());
+      return;
+    }
+    synchronized (this) {
+      // if more events weren't stored meanwhile, the wider range is saved next time
+      if (unstoredFrom == from && unstoredTo == to) {
+        unstoredFrom = Long.MAX_VALUE;
+        unstoredTo = Long.MIN_VALUE;
+      }
+    }
+  }
+
+  static class IndexingAppender extends AbstractAppender {
+    private final AuditEventIndexer indexer;
+
+    IndexingAppender(AuditEventIndexer indexer) {
+      super("auditEventIndexer", null, null, true, Property.EMPTY_ARRAY);
+      this.indexer = indexer;
+    }
+
+    @Override
+    public void append(LogEvent event) {
+      IndexedAuditEvent auditEvent =
+          AuditLogLineParser.parse(event.getMessage().getFormattedMessage(), event.getTimeMillis());
+      if (auditEvent != null) {
+        indexer.add(auditEvent);
+      }
+    }
+  }
+}
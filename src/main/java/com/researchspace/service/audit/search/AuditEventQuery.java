@@ -0,0 +1,36 @@
+package com.researchspace.service.audit.search;
+
+import com.researchspace.model.audittrail.AuditAction;
+import com.researchspace.model.audittrail.AuditDomain;
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Value;
+
+/** Restrictions on a search of {@link IndexedAuditEvent}s; all are optional. */
+@Value
+@Builder
+public class AuditEventQuery {
+
+  /** Earliest event time, inclusive, in milliseconds since the epoch */
+  private Long from;
+
+  /** Latest event time, exclusive, in milliseconds since the epoch */
+  private Long to;
+
+  private Set<String> usernames;
+  private Set<AuditDomain> domains;
+  private Set<AuditAction> actions;
+
+  /** Database id of the object the events are about */
+  private Long objectId;
+
+  /**
+   * Global id prefix of the object, e.g. 'SD'. Events whose data only has the object's database id
+   * match any prefix.
+   */
+  private String objectPrefix;
+
+  /** Most recent events first, if true */
+  @Builder.Default private boolean descending = true;
+}
@@ -0,0 +1,120 @@
+package com.researchspace.service.audit.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchspace.model.audittrail.AuditAction;
+import com.researchspace.model.audittrail.AuditDomain;
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.model.core.GlobalIdentifier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.EnumUtils;
+
+/**
+ * Parses the audit trail messages written to the audit log, which have the form:
+ *
+ * <pre>
+ * domain:RECORD action:COPY [{"data":{...}}] user1a(Bob Smith)description:[optional description]
+ * </pre>
+ */
+@Slf4j
+class AuditLogLineParser {
+
+  private static final Pattern PREFIX = Pattern.compile("^domain:(\\S+) action:(\\S+) \\[");
+  private static final String DESCRIPTION_START = ")description:[";
+  private static final Pattern NUMERIC_ID = Pattern.compile("\\d{1,18}");
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private AuditLogLineParser() {}
+
+  /**
+   * @param message an audit log message, without the date prefix added by the log layout
+   * @param timestamp time of the event
+   * @return the event, or <code>null</code> if the message is not an audit event
+   */
+  static IndexedAuditEvent parse(String message, long timestamp) {
+    if (message == null) {
+      return null;
+    }
+    String line = message.trim();
+    Matcher m = PREFIX.matcher(line);
+    if (!m.find()) {
+      return null;
+    }
+    AuditDomain domain = EnumUtils.getEnum(AuditDomain.class, m.group(1));
+    AuditAction action = EnumUtils.getEnum(AuditAction.class, m.group(2));
+    if (domain == null || action == null) {
+      return null;
+    }
+
+    String description = null;
+    int descriptionIndex = line.lastIndexOf(DESCRIPTION_START);
+    if (descriptionIndex > 0 && line.endsWith("]")) {
+      description =
+          line.substring(descriptionIndex + DESCRIPTION_START.length(), line.length() - 1);
+      line = line.substring(0, descriptionIndex + 1);
+    }
+    int dataEnd = line.lastIndexOf("] ");
+    if (dataEnd < m.end() || !line.endsWith(")")) {
+      return null;
+    }
+    String data = line.substring(m.end(), dataEnd);
+    String user = line.substring(dataEnd + 2);
+    int nameStart = user.indexOf('(');
+    if (nameStart <= 0) {
+      return null;
+    }
+
+    IndexedAuditEvent event = new IndexedAuditEvent();
+    try {
+      setObjectId(mapper.readTree(data), event);
+    } catch (JsonProcessingException e) {
+      log.warn("Audit data is not valid JSON, not indexed: {}", data);
+      return null;
+    }
+    event.setEventTime(timestamp);
+    event.setDomain(domain);
+    event.setAction(action);
+    event.setData(data);
+    event.setUsername(user.substring(0, nameStart));
+    event.setFullName(user.substring(nameStart + 1, user.length() - 1));
+    event.setDescription(description);
+    return event;
+  }
+
+  /*
+   * Sets the id of the object the event is about: the 'oid', or else 'id', of the top-level data.
+   * Ids of other objects in the data, e.g. the owner or parent folder, aren't indexed.
+   */
+  private static void setObjectId(JsonNode auditData, IndexedAuditEvent event) {
+    JsonNode data = auditData.path("data");
+    JsonNode oid = data.path("oid");
+    if (oid.isObject()) {
+      oid = oid.path("idString");
+    }
+    if (setGlobalId(oid, event)) {
+      return;
+    }
+    JsonNode id = data.path("id");
+    if (id.isIntegralNumber()) {
+      event.setObjectId(id.asLong());
+    } else if (!setGlobalId(id, event)
+        && id.isTextual()
+        && NUMERIC_ID.matcher(id.asText()).matches()) {
+      event.setObjectId(Long.parseLong(id.asText()));
+    }
+  }
+
+  private static boolean setGlobalId(JsonNode value, IndexedAuditEvent event) {
+    if (!value.isTextual() || !GlobalIdentifier.isValid(value.asText())) {
+      return false;
+    }
+    GlobalIdentifier globalId = new GlobalIdentifier(value.asText());
+    event.setObjectId(globalId.getDbId());
+    event.setObjectPrefix(globalId.getPrefix().name());
+    return true;
+  }
+}
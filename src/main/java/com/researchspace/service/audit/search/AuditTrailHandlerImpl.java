@@ -9,9 +9,7 @@ import com.researchspace.model.audittrail.AuditAction;
 import com.researchspace.model.audittrail.AuditTrailService;
 import com.researchspace.model.audittrail.GenericEvent;
 import com.researchspace.service.UserManager;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -53,20 +51,13 @@ public class AuditTrailHandlerImpl implements AuditTrailHandler {
     AuditTrailSearchElement internalCfg = new AuditTrailSearchElement(inputSearchConfig);
 
     if (!isSysAdmin(subject)) {
-
-      PaginationCriteria<User> pgcrit = PaginationCriteria.createDefaultForClass(User.class);
-      pgcrit.setResultsPerPage(Integer.MAX_VALUE);
-      List<User> viewableUsers = userManager.getViewableUsers(subject, pgcrit).getResults();
-      if (!viewableUsers.contains(subject)) {
-        viewableUsers.add(subject);
-      }
+      // only the usernames are needed, so avoid loading all viewable users
+      Set<String> usernames = userManager.getViewableUsernames(subject);
+      usernames.add(subject.getUsername());
       // get intersection of supplied and viewable unames ub
-      boolean usernameRestriction = !inputSearchConfig.getUsernames().isEmpty();
-      Set<String> usernames =
-          viewableUsers.stream()
-              .map(u -> u.getUsername())
-              .filter(s -> !usernameRestriction || inputSearchConfig.getUsernames().contains(s))
-              .collect(Collectors.toSet());
+      if (!inputSearchConfig.getUsernames().isEmpty()) {
+        usernames.retainAll(inputSearchConfig.getUsernames());
+      }
       internalCfg.setUsernames(usernames);
     }
     return internalCfg;
@@ -0,0 +1,120 @@
+package com.researchspace.service.audit.search;
+
+import com.researchspace.core.util.ISearchResults;
+import com.researchspace.core.util.SearchResultsImpl;
+import com.researchspace.core.util.SortOrder;
+import com.researchspace.model.PaginationCriteria;
+import com.researchspace.model.User;
+import com.researchspace.model.audittrail.AuditData;
+import com.researchspace.model.audittrail.GenericEvent;
+import com.researchspace.model.audittrail.HistoricData;
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.model.core.GlobalIdentifier;
+import com.researchspace.service.AuditEventManager;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Searches the audit events stored by {@link AuditEventIndexer}, with the same results as
+ * searching the audit log files but using database indexes and pagination.
+ *
+ * <p>Events are only stored from when indexing was enabled, so searches that start before the
+ * earliest stored event, or that have no start date, are passed to the log file search. So are
+ * searches of a time range in which events could not be stored, see {@link
+ * AuditEventManager#hasGap(AuditEventQuery)}.
+ */
+public class IndexedAuditTrailSearch implements IAuditTrailSearch {
+
+  private final IAuditTrailSearch logFileSearch;
+
+  private @Autowired AuditEventManager auditEventManager;
+  private @Autowired AuditEventIndexer indexer;
+
+  // stored events are never removed, so once known this doesn't change
+  private volatile Long earliestIndexedTime;
+
+  public IndexedAuditTrailSearch(IAuditTrailSearch logFileSearch) {
+    this.logFileSearch = logFileSearch;
+  }
+
+  @Override
+  public ISearchResults<AuditTrailSearchResult> search(
+      PaginationCriteria<AuditTrailSearchResult> pgCrit, AuditTrailSearchElement searchConfig) {
+    if (!indexer.isEnabled() || !isIndexedFrom(searchConfig.getDateFrom())) {
+      return logFileSearch.search(pgCrit, searchConfig);
+    }
+    AuditEventQuery query = toQuery(searchConfig, pgCrit);
+    if (indexer.hasUnrecordedGap() || auditEventManager.hasGap(query)) {
+      return logFileSearch.search(pgCrit, searchConfig);
+    }
+    long total = auditEventManager.count(query);
+    if (total == 0) {
+      return SearchResultsImpl.emptyResult(pgCrit);
+    }
+    int pageSize = pgCrit.getResultsPerPage();
+    int firstResult = (int) Math.min(pgCrit.getPageNumber() * pageSize, Integer.MAX_VALUE);
+    List<AuditTrailSearchResult> results =
+        auditEventManager.search(query, firstResult, pageSize).stream()
+            .map(this::toSearchResult)
+            .collect(Collectors.toList());
+    return new SearchResultsImpl<>(results, pgCrit, total);
+  }
+
+  private boolean isIndexedFrom(Date dateFrom) {
+    if (dateFrom == null) {
+      return false;
+    }
+    if (earliestIndexedTime == null) {
+      earliestIndexedTime = auditEventManager.getEarliestEventTime().orElse(null);
+    }
+    return earliestIndexedTime != null && dateFrom.getTime() >= earliestIndexedTime;
+  }
+
+  private AuditEventQuery toQuery(
+      AuditTrailSearchElement searchConfig, PaginationCriteria<AuditTrailSearchResult> pgCrit) {
+    AuditEventQuery.AuditEventQueryBuilder query =
+        AuditEventQuery.builder()
+            .from(searchConfig.getDateFrom().getTime())
+            .usernames(searchConfig.getUsernames())
+            .domains(searchConfig.getDomains())
+            .actions(searchConfig.getActions())
+            .descending(!SortOrder.ASC.equals(pgCrit.getSortOrder()));
+    if (searchConfig.getDateTo() != null) {
+      // the end date is included
+      LocalDate endDate =
+          searchConfig.getDateTo().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+      query.to(endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+    if (!StringUtils.isBlank(searchConfig.getOid())) {
+      GlobalIdentifier oid = new GlobalIdentifier(searchConfig.getOid());
+      query.objectId(oid.getDbId()).objectPrefix(oid.getPrefix().name());
+    }
+    return query.build();
+  }
+
+  private AuditTrailSearchResult toSearchResult(IndexedAuditEvent event) {
+    AuditData auditData;
+    try {
+      auditData = AuditData.fromJson(event.getData());
+    } catch (Exception e) {
+      // the data was valid JSON when stored, see AuditLogLineParser
+      throw new IllegalStateException("Could not read data of audit event " + event.getId(), e);
+    }
+    User subject = new User();
+    subject.setUsername(event.getUsername());
+    HistoricData data =
+        new HistoricData(
+            event.getDomain(),
+            new GenericEvent(subject, Collections.emptyMap(), event.getAction()),
+            auditData);
+    data.setFullName(event.getFullName());
+    data.setDescription(event.getDescription());
+    return new AuditTrailSearchResult(data, event.getEventTime());
+  }
+}
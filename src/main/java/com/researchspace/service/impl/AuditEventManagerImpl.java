@@ -0,0 +1,54 @@
+package com.researchspace.service.impl;
+
+import com.researchspace.dao.AuditEventDao;
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.service.AuditEventManager;
+import com.researchspace.service.audit.search.AuditEventQuery;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service("auditEventManager")
+public class AuditEventManagerImpl implements AuditEventManager {
+
+  private @Autowired AuditEventDao auditEventDao;
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void saveAll(List<IndexedAuditEvent> events) {
+    auditEventDao.saveAll(events);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<IndexedAuditEvent> search(AuditEventQuery query, int firstResult, int maxResults) {
+    return auditEventDao.search(query, firstResult, maxResults);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long count(AuditEventQuery query) {
+    return auditEventDao.count(query);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<Long> getEarliestEventTime() {
+    return auditEventDao.getEarliestEventTime();
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void saveGap(long fromTime, long toTime) {
+    auditEventDao.saveGap(fromTime, toTime);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public boolean hasGap(AuditEventQuery query) {
+    return auditEventDao.hasGap(query);
+  }
+}
@@ -25,13 +25,7 @@ public class CommunicationEmailBroadcaster implements Broadcaster {
 
   @Override
   public void broadcast(Communication communication) {
-    List<String> recipients =
-        communication.getRecipients().stream()
-            .map(target -> target.getRecipient())
-            .filter(User::isEnabled)
-            .filter(recipient -> wantsEmail(communication, recipient))
-            .map(User::getEmail)
-            .toList();
+    List<String> recipients = getRecipients(communication);
     if (recipients.isEmpty()) {
       return;
     }
@@ -40,6 +34,31 @@ public class CommunicationEmailBroadcaster implements Broadcaster {
     emailSender.sendEmail(content, recipients, communication);
   }
 
+  /** Renders the email now, and sends it in the calling thread when run */
+  @Override
+  public Runnable prepareBroadcast(Communication communication) {
+    List<String> recipients = getRecipients(communication);
+    if (recipients.isEmpty()) {
+      return () -> {};
+    }
+
+    EmailContent content = contentGenerator.generate(communication);
+    // the originator's address may be added to the message's headers when sent
+    if (communication.getOriginator() != null) {
+      communication.getOriginator().getEmail();
+    }
+    return () -> emailSender.deliverEmail(content, recipients, communication);
+  }
+
+  private List<String> getRecipients(Communication communication) {
+    return communication.getRecipients().stream()
+        .map(target -> target.getRecipient())
+        .filter(User::isEnabled)
+        .filter(recipient -> wantsEmail(communication, recipient))
+        .map(User::getEmail)
+        .toList();
+  }
+
   private boolean wantsEmail(Communication communication, User recipient) {
     Preference preference =
         communication.isNotification()
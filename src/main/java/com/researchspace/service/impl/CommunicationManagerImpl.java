@@ -1,6 +1,7 @@
 package com.researchspace.service.impl;
 
 import com.researchspace.comms.CommunicationTargetFinderPolicy;
+import com.researchspace.comms.NotificationDispatcher;
 import com.researchspace.core.util.ISearchResults;
 import com.researchspace.core.util.TransformerUtils;
 import com.researchspace.dao.CommunicationDao;
@@ -59,6 +60,7 @@ public class CommunicationManagerImpl implements CommunicationManager {
   private @Autowired UserDao userDao;
   private @Autowired IMessageAndNotificationTracker notificnTracker;
   private @Autowired MessageSourceUtils messages;
+  private @Autowired NotificationDispatcher notificationDispatcher;
 
   private List<Broadcaster> broadcasters = new ArrayList<>();
 
@@ -321,7 +323,7 @@ public class CommunicationManagerImpl implements CommunicationManager {
   }
 
   /*
-   * Creates, saves and broadcasts a notification
+   * Creates and saves a notification, which is broadcast after commit
    */
   public Notification doCreateNotification(
       NotificationType type,
@@ -336,12 +338,8 @@ public class CommunicationManagerImpl implements CommunicationManager {
     Set<CommunicationTarget> cts = createCommunicationTargetsForUsers(recipients, notificn);
     notificn.setRecipients(cts);
     commDao.save(notificn);
-    broadcast(notificn, cts);
-
-    // Notify the request's recipients that the status has changed
-    for (CommunicationTarget ct : notificn.getRecipients()) {
-      notificnTracker.changeUserNotificationCount(ct.getRecipient().getId(), 1);
-    }
+    // broadcasts and notifies the recipients once committed
+    notificationDispatcher.notificationCreated(notificn, true);
     return notificn;
   }
 
@@ -406,12 +404,7 @@ public class CommunicationManagerImpl implements CommunicationManager {
     Set<CommunicationTarget> targets = createCommunicationTargetsForUsers(toNotify, notificn);
     notificn.setRecipients(targets);
     commDao.save(notificn);
-    if (config.isBroadcast()) {
-      broadcast(notificn, targets);
-    }
-    for (CommunicationTarget ct : targets) {
-      notificnTracker.changeUserNotificationCount(ct.getRecipient().getId(), 1);
-    }
+    notificationDispatcher.notificationCreated(notificn, config.isBroadcast());
     return notificn;
   }
 
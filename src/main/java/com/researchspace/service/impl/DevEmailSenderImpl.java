@@ -24,6 +24,11 @@ public class DevEmailSenderImpl implements EmailBroadcast, ConfigurableLogger {
         content.htmlContent());
   }
 
+  @Override
+  public void deliverEmail(EmailContent content, List<String> recipients, Communication comm) {
+    sendEmail(content, recipients, comm);
+  }
+
   /**
    * Overrides default logger (for testing purposes)
    *
@@ -52,7 +52,13 @@ public class DiskSpaceCheckerImpl implements DiskSpaceChecker {
 
     long currentArchiveSize =
         (archiveDir != null && archiveDir.exists()) ? FileUtils.sizeOf(archiveDir) : 0;
-    int totalMBs = bytesToMBs(currentArchiveSize + byteLength);
+    assertArchiveSizeWithinLimit(currentArchiveSize + byteLength);
+  }
+
+  @Override
+  public void assertArchiveSizeWithinLimit(long archiveSizeInBytes)
+      throws DiskSpaceLimitException {
+    int totalMBs = bytesToMBs(archiveSizeInBytes);
 
     if (totalMBs > maxArchiveSizeMB && maxArchiveSizeMB > 0) {
       throw new DiskSpaceLimitException(
@@ -8,6 +8,7 @@ import com.researchspace.dao.InternalLinkDao;
 import com.researchspace.dao.RSMathDao;
 import com.researchspace.dao.RecordDao;
 import com.researchspace.files.service.FileStore;
+import com.researchspace.linkedelements.CopiedElementIds;
 import com.researchspace.linkedelements.FieldContents;
 import com.researchspace.linkedelements.FieldParser;
 import com.researchspace.linkedelements.RichTextUpdater;
@@ -48,7 +49,6 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -81,17 +81,15 @@ public class DocumentCopyManagerImpl implements DocumentCopyManager {
   private @Autowired InternalLinkDao internalLinkDao;
   private @Autowired @Qualifier("compositeFileStore") FileStore fileStore;
 
-  private String copyAnnotationsToField(
+  private void copyAnnotationsToField(
       Long destParentId,
       Record record,
-      String content,
       List<EcatImageAnnotation> imageAnns,
-      User user) {
-    String updatedContent = content;
-
-    Map<Long, Long> oldParent2NewParent = new HashMap<>();
-    Map<Long, Long> oldAnnoId2NewAnnoId = new HashMap<>();
-    Map<Long, Long> oldSketchId2NewSketchId = new HashMap<>();
+      User user,
+      CopiedElementIds copiedIds) {
+    Map<Long, Long> oldParent2NewParent = copiedIds.getImageParentIds();
+    Map<Long, Long> oldAnnoId2NewAnnoId = copiedIds.getAnnotationIds();
+    Map<Long, Long> oldSketchId2NewSketchId = copiedIds.getSketchIds();
 
     for (EcatImageAnnotation origAnn : imageAnns) {
       boolean permitted = canUserCopyElement(origAnn, user);
@@ -108,26 +106,15 @@ public class DocumentCopyManagerImpl implements DocumentCopyManager {
         }
       }
     }
-    // we could use 1 map, but using 2 should avoid unnecessary
-    // parsing of the text field.
-    if (!oldParent2NewParent.isEmpty()) {
-      updatedContent =
-          updater.updateImageIdsAndAnnoIdsInCopy(
-              oldParent2NewParent, oldAnnoId2NewAnnoId, updatedContent);
-    }
-    if (!oldSketchId2NewSketchId.isEmpty()) {
-      updatedContent = updater.updateSketchIdsInCopy(oldSketchId2NewSketchId, updatedContent);
-    }
-    return updatedContent;
   }
 
-  private String copyCommentsToField(
+  private void copyCommentsToField(
       Long destFieldId,
       Record destRecord,
-      String content,
       List<EcatComment> originalComments,
-      User user) {
-    Map<Long, Long> oldKey2NewKey = new HashMap<>();
+      User user,
+      CopiedElementIds copiedIds) {
+    Map<Long, Long> oldKey2NewKey = copiedIds.getCommentIds();
     for (EcatComment comment : originalComments) {
       boolean permitted = canUserCopyElement(comment, user);
       if (permitted) {
@@ -138,18 +125,17 @@ public class DocumentCopyManagerImpl implements DocumentCopyManager {
         oldKey2NewKey.put(comment.getComId(), commentCopy.getComId());
       }
     }
-    return updater.updateCommentIdsInCopy(oldKey2NewKey, content);
   }
 
-  private String copyChemElementsToField(
+  private void copyChemElementsToField(
       Long destFieldId,
       Record destRecord,
       String fieldData,
       List<RSChemElement> originalChemElements,
-      User user) {
-    String updatedContent = fieldData;
-    Map<Long, Long> chemOldKey2NewKey = new HashMap<>();
-    Map<Long, Long> stoichOldId2NewId = new HashMap<>();
+      User user,
+      CopiedElementIds copiedIds) {
+    Map<Long, Long> chemOldKey2NewKey = copiedIds.getChemIds();
+    Map<Long, Long> stoichOldId2NewId = copiedIds.getStoichiometryIds();
 
     for (RSChemElement origChem : originalChemElements) {
       boolean permitted = canUserCopyElement(origChem, user);
@@ -214,24 +200,15 @@ public class DocumentCopyManagerImpl implements DocumentCopyManager {
         }
       }
     }
-
-    if (!chemOldKey2NewKey.isEmpty()) {
-      updatedContent = updater.updateChemIdsInCopy(chemOldKey2NewKey, fieldData);
-    }
-    if (!stoichOldId2NewId.isEmpty()) {
-      updatedContent = updater.updateStoichiometryIdsInCopy(stoichOldId2NewId, updatedContent);
-    }
-    return updatedContent;
   }
 
-  private String copyMathElementsToField(
+  private void copyMathElementsToField(
       Long destFieldId,
       Record destRecord,
-      String fieldData,
       List<RSMath> originalMathElements,
-      User user) {
-    String updatedContent = fieldData;
-    Map<Long, Long> mathOldKey2NewKey = new HashMap<>();
+      User user,
+      CopiedElementIds copiedIds) {
+    Map<Long, Long> mathOldKey2NewKey = copiedIds.getMathIds();
     for (RSMath origMath : originalMathElements) {
       boolean permitted = canUserCopyElement(origMath, user);
       if (permitted) {
@@ -246,15 +223,9 @@ public class DocumentCopyManagerImpl implements DocumentCopyManager {
         mathOldKey2NewKey.put(origMath.getId(), copyMath.getId());
       }
     }
-
-    if (!mathOldKey2NewKey.isEmpty()) {
-      updatedContent = updater.updateMathIdsInCopy(mathOldKey2NewKey, fieldData);
-    }
-    return updatedContent;
   }
 
-  private String copyThumbnailsToField(
-      Long newFieldId, String content, Set<Thumbnail> contentThumbs, User user) {
+  private boolean copyThumbnailsToField(Long newFieldId, Set<Thumbnail> contentThumbs, User user) {
 
     boolean thumbsUpdated = false;
     for (Thumbnail thumb : contentThumbs) {
@@ -270,12 +241,7 @@ public class DocumentCopyManagerImpl implements DocumentCopyManager {
         log.error("error on updating Thumbnail copy", e);
       }
     }
-
-    String newContent = content;
-    if (thumbsUpdated) { // if no thumbs updated than don't bother
-      newContent = updater.updateThumbnailParentIds(content, newFieldId);
-    }
-    return newContent;
+    return thumbsUpdated;
   }
 
   /**
@@ -296,30 +262,30 @@ public class DocumentCopyManagerImpl implements DocumentCopyManager {
   public String copyElementsInContent(
       Long destFieldId, Record destRecord, String content, User user) {
     FieldContents elementsFromContent = fieldParser.findFieldElementsInContent(content);
+    // the ids of copied elements are collected, then all links are updated in a single pass
+    CopiedElementIds copiedIds = new CopiedElementIds();
 
     // copy image annotations and sketches
     List<EcatImageAnnotation> annotationsAndSketches = new ArrayList<>();
     annotationsAndSketches.addAll(elementsFromContent.getImageAnnotations().getElements());
     annotationsAndSketches.addAll(elementsFromContent.getSketches().getElements());
-    String updatedContent =
-        copyAnnotationsToField(destFieldId, destRecord, content, annotationsAndSketches, user);
+    copyAnnotationsToField(destFieldId, destRecord, annotationsAndSketches, user, copiedIds);
 
     // copy comments
     List<EcatComment> originalComments =
         elementsFromContent.getElements(EcatComment.class).getElements();
-    updatedContent =
-        copyCommentsToField(destFieldId, destRecord, updatedContent, originalComments, user);
+    copyCommentsToField(destFieldId, destRecord, originalComments, user, copiedIds);
 
     // copy chem elements
     List<RSChemElement> originalChemElements =
         elementsFromContent.getElements(RSChemElement.class).getElements();
-    updatedContent =
-        copyChemElementsToField(
-            destFieldId, destRecord, updatedContent, originalChemElements, user);
+    copyChemElementsToField(
+        destFieldId, destRecord, content, originalChemElements, user, copiedIds);
 
     List<RSMath> mathElements = elementsFromContent.getElements(RSMath.class).getElements();
-    updatedContent =
-        copyMathElementsToField(destFieldId, destRecord, updatedContent, mathElements, user);
+    copyMathElementsToField(destFieldId, destRecord, mathElements, user, copiedIds);
+
+    String updatedContent = updater.updateIdsInCopy(copiedIds, content);
 
     if (destRecord instanceof StructuredDocument) {
       updatedContent =
@@ -512,8 +478,15 @@ public class DocumentCopyManagerImpl implements DocumentCopyManager {
 
     String newContent = content;
     if (updatedMedia) { // if no media updated than don't bother
-      newContent = copyThumbnailsToField(newFieldId, content, linkedItems.getThumbs(), user);
-      newContent = updater.updateAVIdsInCopy(newContent, newFieldId);
+      boolean thumbsUpdated = copyThumbnailsToField(newFieldId, linkedItems.getThumbs(), user);
+      if (thumbsUpdated) {
+        // thumbnail and audio/video links updated in the same pass
+        CopiedElementIds copiedIds = new CopiedElementIds();
+        copiedIds.setMediaFieldId(newFieldId);
+        newContent = updater.updateIdsInCopy(copiedIds, content);
+      } else {
+        newContent = updater.updateAVIdsInCopy(content, newFieldId);
+      }
     }
     return newContent;
   }
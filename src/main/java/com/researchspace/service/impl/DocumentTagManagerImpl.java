@@ -1,11 +1,8 @@
 package com.researchspace.service.impl;
 
 import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_NAME_DELIM;
-import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_NAME_ONTOLOGYFILE;
-import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_TAG_DELIMITER;
 import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_URL_DELIMITER;
 import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_VERSION_DELIM;
-import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_VERSION_ONTOLOGYFILES;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import com.researchspace.dao.FolderDao;
@@ -29,7 +26,6 @@ import com.researchspace.service.MessageSourceUtils;
 import com.researchspace.service.inventory.InventoryTagApiManager;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -40,7 +36,6 @@ import java.util.TreeSet;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -60,6 +55,7 @@ public class DocumentTagManagerImpl implements DocumentTagManager {
   @Autowired private DetailedRecordInformationProvider detailedRecordInformationProvider;
 
   @Autowired private BioPortalOntologiesService bioPortalOntologiesService;
+  @Autowired private OntologyTermIndex ontologyTermIndex;
 
   /**
    * Store timestamps of ontology doc updates by user - used so that batch edits in Iventory dont
@@ -316,125 +312,61 @@ public class DocumentTagManagerImpl implements DocumentTagManager {
   @Override
   public TreeSet<String> getTagsPlusOntologiesForViewableDocuments(
       User subject, String tagFilter, int pos) {
-    Set<String> unsorted = getTagsPlusOntologiesViewableByUser(subject, tagFilter);
-    TreeSet<String> sorted = new TreeSet<>();
-    if (unsorted.size() > MAX_ONTOLOGY_RESULTS_SIZE) {
-      sorted.add(TOO_MANY_ONTOLOGY_RESULTS);
-      return sorted;
-    } else {
-      sorted = new TreeSet<>(unsorted);
-    }
-    if (sorted.size() < ONTOLOGY_RESULTS_PAGE_SIZE) {
-      sorted.add(SMALL_DATASET_IN_SINGLE_BLOCK);
-      return sorted;
-    }
-    List<String> chosenData = new ArrayList<>(sorted);
-    chosenData.sort(String::compareTo);
-    if (ONTOLOGY_RESULTS_PAGE_SIZE * (pos + 1) <= sorted.size()) {
-      chosenData =
-          chosenData.subList(
-              pos * ONTOLOGY_RESULTS_PAGE_SIZE, (pos + 1) * ONTOLOGY_RESULTS_PAGE_SIZE);
-    } else {
-      chosenData =
-          chosenData.subList(
-              (sorted.size() / ONTOLOGY_RESULTS_PAGE_SIZE) * ONTOLOGY_RESULTS_PAGE_SIZE,
-              sorted.size());
-      chosenData.add(FINAL_DATA);
-    }
-    return new TreeSet(chosenData);
+    return OntologyTermIndex.mergePage(
+        getTagsPlusOntologiesViewableByUser(subject, tagFilter), pos);
   }
 
-  private Set<String> getTagsPlusOntologiesViewableByUser(User subject, String tagFilter) {
-    Set<String> parsedOntologyTerms = new HashSet<>();
-    Set<String> tagsPlusOntologyTermsViewableByUserFromStructureDocs = new HashSet<>();
+  /**
+   * @return sorted lists of the matching tags from each source; a tag can be in several lists
+   */
+  private List<List<String>> getTagsPlusOntologiesViewableByUser(User subject, String tagFilter) {
+    List<List<String>> sortedTags = new ArrayList<>();
     boolean allOntologiesAndTagsFromDocumentsAreAllowed =
         !enforceOntologiesIfAnyGroupEnforces(subject);
     boolean bioOntologiesAllowed = allGroupsAllowBioOntologies(subject);
-    List<String> userPlusSharedOntologiesText = new ArrayList<>();
-    List<String> userOntologiesText = null;
-    List<String> sharedOntologiesText = null;
+    List<BaseRecord> ontologyDocuments = new ArrayList<>();
     if (allOntologiesAndTagsFromDocumentsAreAllowed) { // all tags in any document/or ontology the
       // user can read are used
-      populateTagsViewableByUserFromElnAndInventory(
-          subject, tagFilter, tagsPlusOntologyTermsViewableByUserFromStructureDocs);
-      userOntologiesText = recordDao.getTextDataFromOntologiesOwnedByUser(subject);
-      sharedOntologiesText = sharingDao.getTextDataFromOntologiesSharedWithUser(subject);
+      TreeSet<String> tagsFromStructuredDocs = new TreeSet<>();
+      populateTagsViewableByUserFromElnAndInventory(subject, tagFilter, tagsFromStructuredDocs);
+      sortedTags.add(new ArrayList<>(tagsFromStructuredDocs));
+      ontologyDocuments.addAll(recordDao.getOntologyFilesOwnedByUser(subject));
+      ontologyDocuments.addAll(sharingDao.getOntologiesFilesSharedWithUser(subject));
     } else { // only tags in Ontology docs shared with a Group are used
       List<BaseRecord> ontologyDocumentsVisibleForUser =
           recordDao.getOntologyFilesOwnedByUser(subject);
-      List<Long> ontologyDocumentsBelongingToUserSharedWithAGroup =
-          extractIDsOfFilesFilteringForBeingSharedWithAGroup(ontologyDocumentsVisibleForUser);
-      userOntologiesText =
-          recordDao.getTextDataFromOntologyFilesOwnedByUserIfSharedWithAGroup(
-              subject, ontologyDocumentsBelongingToUserSharedWithAGroup.toArray(Long[]::new));
+      Set<Long> ontologyDocumentsBelongingToUserSharedWithAGroup =
+          new HashSet<>(
+              extractIDsOfFilesFilteringForBeingSharedWithAGroup(ontologyDocumentsVisibleForUser));
       List<BaseRecord> sharedontologyDocumentsVisibleForUser =
           sharingDao.getOntologiesFilesSharedWithUser(subject);
-      List<Long> sharedontologyDocumentsVisibleForUserAlsoSharedWithAGroup =
-          extractIDsOfFilesFilteringForBeingSharedWithUsersGroup(
-              sharedontologyDocumentsVisibleForUser, subject);
-      sharedOntologiesText =
-          sharingDao.getTextDataFromOntologiesSharedWithUserIfSharedWithAGroup(
-              subject,
-              sharedontologyDocumentsVisibleForUserAlsoSharedWithAGroup.toArray(Long[]::new));
+      Set<Long> sharedIdsAlsoSharedWithAGroup =
+          new HashSet<>(
+              extractIDsOfFilesFilteringForBeingSharedWithUsersGroup(
+                  sharedontologyDocumentsVisibleForUser, subject));
+      ontologyDocumentsVisibleForUser.stream()
+          .filter(doc -> ontologyDocumentsBelongingToUserSharedWithAGroup.contains(doc.getId()))
+          .forEach(ontologyDocuments::add);
+      sharedontologyDocumentsVisibleForUser.stream()
+          .filter(doc -> sharedIdsAlsoSharedWithAGroup.contains(doc.getId()))
+          .forEach(ontologyDocuments::add);
     }
-    userPlusSharedOntologiesText.addAll(userOntologiesText);
-    userPlusSharedOntologiesText.addAll(sharedOntologiesText);
+    String filterLc = tagFilter.toLowerCase();
     if (bioOntologiesAllowed) {
       List<String> bioPortalData = bioPortalOntologiesService.getBioOntologyDataForQuery(tagFilter);
-      parsedOntologyTerms.addAll(bioPortalData);
+      sortedTags.add(OntologyTerms.fromTerms(bioPortalData).getMatchingTags(filterLc));
     }
-    // parsedOntologies contains user ontology text and also text from external ontologies.
-    // User ontologies are converted to key=value pairs, external ontologies are not
-    List<String> parsedOntologies =
-        parseUserOntologiesToKeyValuePairs(userPlusSharedOntologiesText);
-    parsedOntologyTerms.addAll(parsedOntologies);
-    String filterLc = tagFilter.toLowerCase();
-    int count = 0;
-    for (String ontologyTerm : parsedOntologyTerms) {
-      boolean isFromOntologyFile = false;
-      String[] tags = null;
-      if (ontologyTerm.contains(
-          RSPACE_EXTONTOLOGY_TAG_DELIMITER)) { // tags from external ontology file, imported into
-        // RSpace
-        isFromOntologyFile = true;
-        tags = ontologyTerm.split(RSPACE_EXTONTOLOGY_TAG_DELIMITER);
-      } else if (ontologyTerm.contains(RSPACE_EXTONTOLOGY_URL_DELIMITER)) {
-        tags = new String[] {ontologyTerm}; // user tags
-      } else {
-        tags = ontologyTerm.split(StructuredDocument.TAG_DELIMITER);
-      }
-      String ontologyName = "";
-      String ontologyVersion = "";
-      if (isFromOntologyFile) {
-        // the first two 'tags' are actually the ontology NAME and VERSION
-        ontologyName = tags[0].replace(RSPACE_EXTONTOLOGY_NAME_ONTOLOGYFILE, "");
-        ontologyVersion = tags[1].replace(RSPACE_EXTONTOLOGY_VERSION_ONTOLOGYFILES, "");
-        tags = Arrays.copyOfRange(tags, 2, tags.length); // remove ontology name and version
-      }
-      for (String tag : tags) {
-        String toTest = tag;
-        if (toTest.indexOf(RSPACE_EXTONTOLOGY_URL_DELIMITER) != -1) {
-          toTest = toTest.split(RSPACE_EXTONTOLOGY_URL_DELIMITER)[0];
-        }
-        if (toTest.toLowerCase().contains(filterLc)) {
-          String term =
-              isFromOntologyFile
-                  ? tag.trim()
-                      + RSPACE_EXTONTOLOGY_NAME_DELIM
-                      + ontologyName
-                      + RSPACE_EXTONTOLOGY_VERSION_DELIM
-                      + ontologyVersion
-                  : tag.trim();
-          if (tagsPlusOntologyTermsViewableByUserFromStructureDocs.add(term)) {
-            count++;
-          }
-          if (count > MAX_ONTOLOGY_RESULTS_SIZE) {
-            return tagsPlusOntologyTermsViewableByUserFromStructureDocs;
-          }
-        }
+    // tags of user and external ontologies are parsed once per document version
+    Set<Long> seenIds = new HashSet<>();
+    for (BaseRecord ontologyDocument : ontologyDocuments) {
+      if (seenIds.add(ontologyDocument.getId())) {
+        OntologyTerms terms =
+            ontologyTermIndex.getTerms(
+                ontologyDocument.getId(), ontologyDocument.getModificationDateMillis());
+        sortedTags.add(terms.getMatchingTags(filterLc));
       }
     }
-    return tagsPlusOntologyTermsViewableByUserFromStructureDocs;
+    return sortedTags;
   }
 
   private boolean enforceOntologiesIfAnyGroupEnforces(User user) {
@@ -546,57 +478,4 @@ public class DocumentTagManagerImpl implements DocumentTagManager {
       }
     }
   }
-
-  /**
-   * Each block of text here is the rtfData from a field in an ontology file User ontologies
-   * (intended to be human readable, therefore formatted with html) have a different format to
-   * external ontologies (not intended to be human readable). This code parses user ontologies and
-   * does nothing to external ontologies. User ontologies can specify key value pairs in the format
-   * <key>=<val1>,<val2> etc where the values are comma delimited. This code will convert that into
-   * multiple tags, each containing the key and '=' plus val1, then val2 etc. <key>=<val1>,<val2>
-   * would become two tags, key=val1 and key=val2
-   *
-   * @param ontologies
-   * @return
-   */
-  @NotNull
-  private List<String> parseUserOntologiesToKeyValuePairs(List<String> ontologies) {
-    return ontologies.stream()
-        .map(text -> parseOntologiesToKeyValuePairs(text))
-        .flatMap(Collection::stream)
-        .filter(text -> !StringUtils.isEmpty(text))
-        .collect(Collectors.toList());
-  }
-
-  private List<String> parseOntologiesToKeyValuePairs(String text) {
-    // user created ontology files all start with '<p>'
-    if (text.length() > 2 && !text.substring(0, 3).equals("<p>")) {
-      return List.of(
-          text); // assumption - no <p> in an uploaded external ontology file as first char
-      // note - if edited an uploaded files does get <p> inserted, hence we have further checks
-      // below.
-    }
-    List<String> parsed = new ArrayList<>();
-    String[] allOntologyTermsInFile = text.split("</p>");
-    for (String ontologyEntry : allOntologyTermsInFile) {
-      ontologyEntry = ontologyEntry.replaceFirst("<p>", "");
-      int splitPosOnFirstEquals = ontologyEntry.indexOf('=');
-      if (splitPosOnFirstEquals != -1) {
-        String key = ontologyEntry.substring(0, splitPosOnFirstEquals);
-        String allValueText = ontologyEntry.substring(splitPosOnFirstEquals + 1);
-        // if key has commas, assume we are trying to parse an uploaded file by accident
-        // that contains a <p> and an '='
-        if (key.split(",").length > 1) {
-          return List.of(text); // stop parsing
-        }
-        String[] values = allValueText.split(",");
-        for (String val : values) {
-          parsed.add(key + "=" + val);
-        }
-      } else {
-        parsed.add(ontologyEntry);
-      }
-    }
-    return parsed;
-  }
 }
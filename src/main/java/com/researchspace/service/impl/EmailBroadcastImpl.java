@@ -34,6 +34,7 @@ import org.jsoup.helper.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 
 /**
  * This is the main class for sending emails. It uses rate-limiting and retry mechanism, which work
@@ -172,21 +173,44 @@ public class EmailBroadcastImpl implements EmailBroadcast {
 
   @Override
   public void sendEmail(EmailContent content, List<String> recipients, Communication comm) {
+    // already logged, and there's no caller waiting to handle it
+    send(content, recipients, comm);
+  }
+
+  @Override
+  public void deliverEmail(EmailContent content, List<String> recipients, Communication comm) {
+    Throwable failure = send(content, recipients, comm);
+    if (failure != null) {
+      throw new MailSendException("Email not sent: " + failure.getMessage(), failure);
+    }
+  }
+
+  /*
+   * Sends each batch of addresses, even if an earlier batch fails.
+   * @return the first failure, or null if all batches were sent
+   */
+  private Throwable send(EmailContent content, List<String> recipients, Communication comm) {
     List<String> addresses = new EmailConfig(recipients, content, comm).addresses();
+    Throwable failure = null;
     for (int start = 0; start < addresses.size(); start += addressChunkSize) {
       List<String> batch =
           addresses.subList(start, Math.min(start + addressChunkSize, addresses.size()));
-      rateLimiter.executeRunnable(() -> sendAndLog(new EmailConfig(batch, content, comm)));
+      Try<Void> sent =
+          rateLimiter.executeSupplier(() -> sendAndLog(new EmailConfig(batch, content, comm)));
+      if (sent.isFailure() && failure == null) {
+        failure = sent.getCause();
+      }
     }
+    return failure;
   }
 
-  private void sendAndLog(EmailConfig config) {
+  private Try<Void> sendAndLog(EmailConfig config) {
     String id = RandomStringUtils.randomAlphabetic(10);
     logEmailSendStart(config.content().htmlContent(), id);
     Retry retry = Retry.of("email", retryConfig);
     CheckedRunnable internal = createEmailSenderInternal(config, id);
     CheckedRunnable decorated = Retry.decorateCheckedRunnable(retry, internal);
-    Try.run(decorated)
+    return Try.run(decorated)
         .onFailure(t -> emailErrorLog.error("Unexpected email error: {}", t.getMessage()));
   }
 
@@ -7,11 +7,13 @@ import com.researchspace.linkedelements.FieldContents;
 import com.researchspace.linkedelements.FieldLinksEntitiesSynchronizer;
 import com.researchspace.linkedelements.FieldParser;
 import com.researchspace.model.EcatMediaFile;
+import com.researchspace.model.Thumbnail;
 import com.researchspace.model.User;
 import com.researchspace.model.field.Field;
 import com.researchspace.model.record.RecordInformation;
 import com.researchspace.model.record.StructuredDocument;
 import com.researchspace.service.FieldManager;
+import com.researchspace.service.ThumbnailManager;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -21,6 +23,7 @@ import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 
 public class FieldLinksEntitySyncImpl implements FieldLinksEntitiesSynchronizer {
 
@@ -30,6 +33,7 @@ public class FieldLinksEntitySyncImpl implements FieldLinksEntitiesSynchronizer
   private @Autowired FieldManager fieldManager;
   private @Autowired FieldParser fieldParser;
   private @Autowired InternalLinkDao internalLinkDao;
+  private @Autowired ThumbnailManager thumbnailManager;
 
   @Override
   public FieldContentDelta syncFieldWithEntitiesOnautosave(
@@ -45,6 +49,9 @@ public class FieldLinksEntitySyncImpl implements FieldLinksEntitiesSynchronizer
         fieldParser.findFieldElementChanges(tempField.getFieldData(), newFieldData);
     logSyncStageTime(sw, "calculating field changes");
 
+    // resizing an image changes only its thumbnail, not the linked elements
+    generateAddedThumbnails(incomingChangesRelativeToTempField, subject);
+
     if (incomingChangesRelativeToTempField.isUnchanged()) {
       return incomingChangesRelativeToTempField;
     }
@@ -59,6 +66,20 @@ public class FieldLinksEntitySyncImpl implements FieldLinksEntitiesSynchronizer
     return incomingChangesRelativeToTempField;
   }
 
+  // images newly inserted or resized in the field will be shown at their new size
+  private void generateAddedThumbnails(FieldContentDelta delta, User subject) {
+    Set<Thumbnail> added = delta.getAdded().getThumbs();
+    if (added.isEmpty()) {
+      return;
+    }
+    try {
+      thumbnailManager.generateThumbnailsInBackground(new ArrayList<>(added), subject);
+    } catch (TaskRejectedException e) {
+      // thumbnails will be generated when first requested instead
+      log.info("Thumbnail queue is full, not pre-generating {} thumbnails", added.size());
+    }
+  }
+
   private static final int SYNC_STAGE_TIME_LOG_THRESHOLD = 1000; // 1 second per stage
 
   private void logSyncStageTime(StopWatch stopWatch, String stageDesc) {
@@ -0,0 +1,74 @@
+package com.researchspace.service.impl;
+
+import com.researchspace.files.service.InternalFileStore;
+import com.researchspace.service.IApplicationInitialisor;
+import lombok.AccessLevel;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * Deduplicates files stored before 'rs.filestore.dedup.enabled' was switched on, in the background
+ * after startup, if 'rs.filestore.dedup.migrateOnStartup' is also true.
+ *
+ * <p>Each batch is committed in its own transaction, and files already deduplicated have a recorded
+ * digest, so an interrupted migration carries on where it stopped on the next startup.
+ */
+@Slf4j
+public class FileStoreDeduplicationInitialisor implements IApplicationInitialisor {
+
+  static final int BATCH_SIZE = 200;
+
+  @Value("${rs.filestore.dedup.enabled:false}")
+  @Setter(AccessLevel.PACKAGE)
+  private boolean deduplicate;
+
+  @Value("${rs.filestore.dedup.migrateOnStartup:false}")
+  @Setter(AccessLevel.PACKAGE)
+  private boolean migrateOnStartup;
+
+  @Autowired
+  @Setter(AccessLevel.PACKAGE)
+  private InternalFileStore internalFileStore;
+
+  @Autowired
+  @Qualifier("indexTaskExecutor")
+  @Setter(AccessLevel.PACKAGE)
+  private TaskExecutor taskExecutor;
+
+  @Override
+  public void onInitialAppDeployment() {}
+
+  @Override
+  public void onAppVersionUpdate() {}
+
+  @Override
+  public void onAppStartup(ApplicationContext applicationContext) {
+    if (!deduplicate || !migrateOnStartup) {
+      log.info(
+          "'rs.filestore.dedup.enabled' and 'rs.filestore.dedup.migrateOnStartup' not both true,"
+              + " not deduplicating existing files");
+      return;
+    }
+    taskExecutor.execute(this::deduplicateStoredFiles);
+  }
+
+  void deduplicateStoredFiles() {
+    log.info("Deduplicating existing file store contents");
+    int batches = 0;
+    try {
+      Long lastId = internalFileStore.deduplicateStoredFiles(null, BATCH_SIZE);
+      while (lastId != null) {
+        batches++;
+        lastId = internalFileStore.deduplicateStoredFiles(lastId, BATCH_SIZE);
+      }
+      log.info("Deduplication of existing file store contents complete");
+    } catch (RuntimeException e) {
+      log.error("Deduplication of existing file store contents stopped after {} batches", batches, e);
+    }
+  }
+}
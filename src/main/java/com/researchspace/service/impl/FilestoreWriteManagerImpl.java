@@ -18,6 +18,7 @@ import com.researchspace.netfiles.DeletableTarget;
 import com.researchspace.netfiles.FilestoreAuditMetadata;
 import com.researchspace.netfiles.NfsClient;
 import com.researchspace.netfiles.NfsFactory;
+import com.researchspace.netfiles.NfsFileTreeCache;
 import com.researchspace.netfiles.WritableNfsClient;
 import com.researchspace.netfiles.WriteAttribution;
 import com.researchspace.properties.IPropertyHolder;
@@ -61,6 +62,7 @@ public class FilestoreWriteManagerImpl implements FilestoreWriteManager {
 
   @Autowired @Setter private IPropertyHolder properties;
   @Autowired @Setter private MessageSourceUtils messages;
+  @Autowired(required = false) @Setter private NfsFileTreeCache fileTreeCache;
 
   /** Source of the {@code rspace-created-at} write timestamp; overridable in tests. */
   @Setter private Clock clock = Clock.systemUTC();
@@ -121,6 +123,8 @@ public class FilestoreWriteManagerImpl implements FilestoreWriteManager {
       log.error("Error uploading files to filestore: ", e);
       errors.addError(new ObjectError("nfsClient", e.getMessage()));
       throwBindExceptionIfErrors(errors);
+    } finally {
+      listingsChanged(filestore);
     }
     return new UploadOutcome(operationResult, succeededMediaFiles);
   }
@@ -208,6 +212,11 @@ public class FilestoreWriteManagerImpl implements FilestoreWriteManager {
       result.add(
           new ApiExternalStorageOperationInfo(
               null, request.getSourcePath(), false, e.getMessage()));
+    } finally {
+      listingsChanged(destFilestore);
+      if (request.isDeleteSource()) {
+        listingsChanged(sourceFilestore);
+      }
     }
     return result;
   }
@@ -233,6 +242,8 @@ public class FilestoreWriteManagerImpl implements FilestoreWriteManager {
       log.error("Error deleting object from filestore: ", e);
       errors.addError(new ObjectError("path", e.getMessage()));
       throw new BindException(errors);
+    } finally {
+      listingsChanged(filestore);
     }
   }
 
@@ -306,6 +317,8 @@ public class FilestoreWriteManagerImpl implements FilestoreWriteManager {
       log.error("Error creating folder in filestore: ", e);
       errors.addError(new ObjectError("folderName", e.getMessage()));
       throw new BindException(errors);
+    } finally {
+      listingsChanged(filestore);
     }
     return toFilestoreRelative(filestore, absoluteFolder);
   }
@@ -333,6 +346,15 @@ public class FilestoreWriteManagerImpl implements FilestoreWriteManager {
       log.error("Error moving object within filestore: ", e);
       errors.addError(new ObjectError("sourcePath", e.getMessage()));
       throw new BindException(errors);
+    } finally {
+      listingsChanged(filestore);
+    }
+  }
+
+  /** Drops cached listings of the filestore's file system, which may no longer be accurate. */
+  private void listingsChanged(NfsFileStore filestore) {
+    if (fileTreeCache != null) {
+      fileTreeCache.invalidate(filestore.getFileSystem().getId());
     }
   }
 
@@ -215,6 +215,13 @@ public class FolderManagerImpl implements FolderManager {
   }
 
   private void initSubFolderTree(Folder rc, final SearchDepth depth) {
+    if (SearchDepth.INFINITE.equals(depth)) {
+      // finds all sub-folders at once from the folder ancestry index, rather than level by level
+      List<Long> folderIds = folderDao.getDescendantFolderIds(rc.getId());
+      folderIds.add(rc.getId());
+      folderDao.getFoldersWithChildren(folderIds);
+      return;
+    }
     for (RecordToFolder subFlder : rc.getChildren()) {
       subFlder.getClass(); // init;
       if (subFlder.getRecord().isFolder() && SearchDepth.INFINITE.equals(depth)) {
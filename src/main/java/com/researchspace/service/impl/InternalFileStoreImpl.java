@@ -20,8 +20,12 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -31,10 +35,20 @@ import org.joda.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-/** FileStore implementation for storing files locally on RSpace server */
+/**
+ * FileStore implementation for storing files locally on RSpace server.
+ *
+ * <p>If 'rs.filestore.dedup.enabled' is true, the digest of each saved file is recorded, and a file
+ * whose contents are already stored in the same root is replaced by a hard link to the existing
+ * copy (see {@link StoredContentLinker}). Every FileProperty keeps its own path, so nothing reading
+ * the file store needs to know about deduplication. A file saved with {@link
+ * FileDuplicateStrategy#REPLACE} over an existing one is moved over it rather than written into
+ * it, so files sharing its contents keep them.
+ */
 @Service
 @Transactional
 public class InternalFileStoreImpl implements InternalFileStore {
@@ -87,6 +101,16 @@ public class InternalFileStoreImpl implements InternalFileStore {
     this.fileMetadataDao = fileMetadataDao;
   }
 
+  /** How many stored copies of the same contents are tried as a link target */
+  static final int MAX_LINK_CANDIDATES = 5;
+
+  @Value("${rs.filestore.dedup.enabled:false}")
+  private boolean deduplicate;
+
+  public void setDeduplicate(boolean deduplicate) {
+    this.deduplicate = deduplicate;
+  }
+
   // ------------ facade ----------------------------------
   @Override
   public URI save(FileProperty meta, File sourceFile, FileDuplicateStrategy behaviourOnDuplicate)
@@ -98,8 +122,20 @@ public class InternalFileStoreImpl implements InternalFileStore {
 
     int suc = addMetadata(meta, sourceFileName, behaviourOnDuplicate);
     if (suc >= 0) { // success
-      String tgPath = meta.makeTargetPath(false);
-      URI rst = fileOp.addFile(tgPath, sourceFile, meta.parseFileKey());
+      File replaced = suc == 0 ? findFile(meta) : null;
+      URI rst;
+      if (replaced != null && replaced.isFile()) {
+        // the stored file may be a link shared by other FileProperties, so mustn't be written to
+        StoredContentLinker.replaceWithCopy(replaced, sourceFile);
+        rst = replaced.toURI();
+      } else {
+        String tgPath = meta.makeTargetPath(false);
+        rst = fileOp.addFile(tgPath, sourceFile, meta.parseFileKey());
+      }
+      if (deduplicate && rst != null) {
+        File stored = new File(rst);
+        shareStoredContent(meta, stored, StoredContentLinker.digest(stored));
+      }
       return rst;
     } else return null;
   }
@@ -123,17 +159,75 @@ public class InternalFileStoreImpl implements InternalFileStore {
       log.debug("Saving to {}", out.getAbsolutePath());
       long fsz;
 
+      MessageDigest digest = deduplicate ? StoredContentLinker.newDigest() : null;
       try (FileOutputStream fos = new FileOutputStream(out)) {
-        fsz = fileOp.copyStream(fos, inStream, 0);
+        // digest is computed as the stream is written, so the file isn't read twice
+        InputStream source = digest == null ? inStream : new DigestInputStream(inStream, digest);
+        fsz = fileOp.copyStream(fos, source, 0);
       }
       URI rst = out.toURI();
       fileProperty.setFileSize(Long.toString(fsz));
       fileMetadataDao.save(fileProperty);
+      if (digest != null) {
+        shareStoredContent(fileProperty, out, StoredContentLinker.toHex(digest));
+      }
 
       return rst;
     } else return null;
   }
 
+  /**
+   * Records the digest of a just-stored file and, if the same contents are already stored in the
+   * same root, replaces the file by a link to them. If linking isn't possible the file is kept as
+   * it is.
+   */
+  private void shareStoredContent(FileProperty fileProperty, File stored, String digest)
+      throws IOException {
+    if (fileProperty.getId() == null) {
+      return;
+    }
+    if (fileProperty.getRoot() != null) {
+      for (FileProperty other :
+          fileMetadataDao.getFilePropertiesWithContentsDigest(
+              digest, fileProperty.getRoot(), MAX_LINK_CANDIDATES)) {
+        if (other.getId().equals(fileProperty.getId())) {
+          continue;
+        }
+        File existing = findFile(other);
+        // size check guards against the file having been changed since its digest was recorded
+        if (existing != null
+            && existing.isFile()
+            && existing.length() == stored.length()
+            && StoredContentLinker.replaceWithLink(stored, existing)) {
+          log.debug("Stored {} as a link to {}", stored, existing);
+          break;
+        }
+      }
+    }
+    fileMetadataDao.saveContentsDigest(fileProperty, digest);
+  }
+
+  @Override
+  public Long deduplicateStoredFiles(Long afterId, int batchSize) {
+    checkInitialised();
+    List<FileProperty> batch =
+        fileMetadataDao.getLocalFilePropertiesWithoutContentsDigest(afterId, batchSize);
+    for (FileProperty fileProperty : batch) {
+      if (StringUtils.isEmpty(fileProperty.getRelPath())) {
+        continue;
+      }
+      try {
+        File stored = findFile(fileProperty);
+        if (stored != null && stored.isFile()) {
+          shareStoredContent(fileProperty, stored, StoredContentLinker.digest(stored));
+        }
+      } catch (IOException e) {
+        log.warn("Couldn't deduplicate file {}: {}", fileProperty.getRelPath(), e.getMessage());
+      }
+    }
+    return batch.isEmpty() ? null : batch.get(batch.size() - 1).getId();
+  }
+
   private void checkInitialised() {
     if (!initialised) {
       setupInternalFileStoreRoot();
@@ -289,11 +383,41 @@ public class InternalFileStoreImpl implements InternalFileStore {
     return getCurrentFileStoreRoot();
   }
 
+  /**
+   * Only files stored by the deduplicating mode are removed; otherwise this is a no-op. The file's
+   * path is deleted unless another FileProperty refers to the same path. Any other FileProperties
+   * with the same contents have their own links, so are unaffected.
+   */
   @Override
   public boolean removeFile(FileProperty fileProperty) {
+    if (fileProperty.getId() == null || !fileMetadataDao.removeContentsDigest(fileProperty)) {
+      return false;
+    }
+    boolean pathShared =
+        fileMetadataDao.findProperties(Map.of("relPath", fileProperty.getRelPath())).stream()
+            .anyMatch(
+                other ->
+                    !other.getId().equals(fileProperty.getId())
+                        && Objects.equals(rootId(other), rootId(fileProperty)));
+    if (pathShared) {
+      return false;
+    }
+    try {
+      File stored = findFile(fileProperty);
+      if (stored != null && stored.isFile()) {
+        fileOp.deleteFile(stored);
+        return true;
+      }
+    } catch (IOException e) {
+      log.warn("Couldn't delete file {}: {}", fileProperty.getRelPath(), e.getMessage());
+    }
     return false;
   }
 
+  private Long rootId(FileProperty fileProperty) {
+    return fileProperty.getRoot() == null ? null : fileProperty.getRoot().getId();
+  }
+
   @Override
   public Optional<Integer> removeUserFilestoreFiles(List<File> filestoreFiles) {
     if (filestoreFiles == null) {
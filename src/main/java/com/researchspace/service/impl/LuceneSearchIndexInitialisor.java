@@ -56,12 +56,15 @@ public class LuceneSearchIndexInitialisor implements IApplicationInitialisor {
           e.getMessage());
     }
 
-    log.info("Deleting all indices from Lucene FileStore index");
+    // the existing index is kept, so that files unchanged since they were indexed aren't parsed
     try {
-      indexer.init(true);
+      if (indexer.hasInterruptedReindex()) {
+        log.info("Resuming interrupted re-indexing of Lucene FileStore index");
+      }
+      indexer.init(false);
     } catch (IOException e) {
       log.error(
-          "failure to delete Lucene FileStore index. Exiting without reindexing : {}",
+          "failure to open Lucene FileStore index. Exiting without reindexing : {}",
           e.getMessage());
       return;
     }
@@ -69,6 +72,7 @@ public class LuceneSearchIndexInitialisor implements IApplicationInitialisor {
     log.info("Re-indexing File Store");
     try {
       indexer.indexFileStore(false);
+      indexer.deleteEntriesOfMissingFiles();
     } catch (Exception e) {
       log.error("failure to completely index FileStore - " + e.getMessage(), e);
     } catch (NoClassDefFoundError noClass) {
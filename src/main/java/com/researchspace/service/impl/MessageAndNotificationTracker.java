@@ -1,129 +1,216 @@
 package com.researchspace.service.impl;
 
+import com.researchspace.model.User;
 import com.researchspace.model.comms.MessageType;
 import com.researchspace.model.dtos.NotificationStatus;
+import com.researchspace.service.CommunicationManager;
 import com.researchspace.service.IMessageAndNotificationTracker;
+import com.researchspace.service.UserManager;
 import com.researchspace.webapp.messaging.NotificationMessage;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 /**
  * Tracks message and notification counts for users. When new notifications or messages are
  * generated within the system, this service publishes the updated counts to a topic for each user.
+ *
+ * <p>Counts are held in memory and changed atomically. A user's counts are loaded from the database
+ * when first needed, e.g. after a restart, and reloaded once older than
+ * 'notification.counts.maxAgeSeconds', so that changes made on other application nodes are picked
+ * up. As a count is loaded by the transaction that changes it, or after it has committed, a change
+ * to a count that isn't held yet is already included in the loaded count.
  */
+@Slf4j
 @Service
 public class MessageAndNotificationTracker implements IMessageAndNotificationTracker {
 
   @Autowired private SimpMessagingTemplate messagingTemplate;
 
-  private Map<Long, Integer> userToNotification = new ConcurrentHashMap<>();
-  private Map<Long, Integer> userToMessage = new ConcurrentHashMap<>();
-  private Map<Long, Integer> userToSpecialMessage = new ConcurrentHashMap<>();
+  // not set in unit tests, where counts are only held in memory
+  @Autowired @Lazy private CommunicationManager commMgr;
+  @Autowired @Lazy private UserManager userManager;
+
+  @Value("${notification.counts.maxAgeSeconds:60}")
+  private long maxAgeSeconds = 60;
+
+  private static final Function<Counts, AtomicInteger> NOTIFICATIONS = c -> c.notifications;
+  private static final Function<Counts, AtomicInteger> MESSAGES = c -> c.messages;
+  private static final Function<Counts, AtomicInteger> SPECIAL_MESSAGES = c -> c.specialMessages;
+
+  private final Map<Long, Counts> userToCounts = new ConcurrentHashMap<>();
+  // users whose changed counts haven't been published yet
+  private final Set<Long> pendingUpdates = ConcurrentHashMap.newKeySet();
+
+  /** A user's counts; each count is changed atomically, and never falls below 0 */
+  static final class Counts {
+    final AtomicInteger notifications;
+    final AtomicInteger messages;
+    final AtomicInteger specialMessages;
+    final long loadedAt;
+
+    Counts(int notifications, int messages, int specialMessages, long loadedAt) {
+      this.notifications = new AtomicInteger(notifications);
+      this.messages = new AtomicInteger(messages);
+      this.specialMessages = new AtomicInteger(specialMessages);
+      this.loadedAt = loadedAt;
+    }
+
+    Counts(NotificationStatus status, long loadedAt) {
+      this(
+          status.getNotificationCount(),
+          status.getMessageCount(),
+          status.getSpecialMessageCount(),
+          loadedAt);
+    }
+
+    static int add(AtomicInteger count, int incrementAmount) {
+      return count.updateAndGet(current -> Math.max(0, current + incrementAmount));
+    }
+  }
+
+  private boolean canLoadCounts() {
+    return commMgr != null && userManager != null;
+  }
+
+  /**
+   * @param userId
+   * @return the user's counts, loading them if they aren't held or have expired
+   */
+  private Counts getCounts(Long userId) {
+    Counts counts = userToCounts.get(userId);
+    if (counts != null && !isExpired(counts)) {
+      return counts;
+    }
+    Counts loaded = loadCounts(userId);
+    return loaded != null ? loaded : getOrCreate(userId, counts);
+  }
+
+  private Counts getOrCreate(Long userId, Counts counts) {
+    return counts != null
+        ? counts
+        : userToCounts.computeIfAbsent(
+            userId, id -> new Counts(0, 0, 0, System.currentTimeMillis()));
+  }
+
+  private boolean isExpired(Counts counts) {
+    return canLoadCounts()
+        && System.currentTimeMillis() - counts.loadedAt > TimeUnit.SECONDS.toMillis(maxAgeSeconds);
+  }
+
+  /**
+   * @return the user's counts from the database, now held, or <code>null</code> if they can't be
+   *     loaded
+   */
+  private Counts loadCounts(Long userId) {
+    if (!canLoadCounts()) {
+      return null;
+    }
+    try {
+      User user = userManager.get(userId);
+      Counts loaded = new Counts(commMgr.getNotificationStatus(user), System.currentTimeMillis());
+      userToCounts.put(userId, loaded);
+      return loaded;
+    } catch (RuntimeException e) {
+      log.warn("Could not load notification counts of user {}: {}", userId, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * @param count selects the count to change
+   * @return the new count
+   */
+  private int changeCount(Long userId, int incrementAmount, Function<Counts, AtomicInteger> count) {
+    Counts counts = userToCounts.get(userId);
+    if (counts == null || isExpired(counts)) {
+      Counts loaded = loadCounts(userId);
+      if (loaded != null) {
+        // loaded by the transaction making the change, or after it committed, so includes it
+        return count.apply(loaded).get();
+      }
+      counts = getOrCreate(userId, counts);
+    }
+    return Counts.add(count.apply(counts), incrementAmount);
+  }
 
   public void sendNotificationUpdate(Long userId) {
+    Counts counts = getCounts(userId);
     NotificationMessage notification =
         new NotificationMessage(
-            getNotificationCountFor(userId),
-            getMessageCountFor(userId),
-            getSpecialMessageCountFor(userId));
+            counts.notifications.get(), counts.messages.get(), counts.specialMessages.get());
     sendNotificationUpdate(userId, notification);
   }
 
   public int changeUserNotificationCount(Long userId, Integer incrementAmount) {
-    int newCount = doChangeCount(userId, incrementAmount, userToNotification);
+    int newCount = changeCount(userId, incrementAmount, NOTIFICATIONS);
     sendNotificationUpdate(userId);
     return newCount;
   }
 
+  @Override
+  public void changeUserNotificationCounts(Collection<Long> userIds, int incrementAmount) {
+    for (Long userId : userIds) {
+      changeCount(userId, incrementAmount, NOTIFICATIONS);
+      pendingUpdates.add(userId);
+    }
+  }
+
+  @Override
+  public void sendPendingNotificationUpdates() {
+    for (Long userId : new ArrayList<>(pendingUpdates)) {
+      if (pendingUpdates.remove(userId)) {
+        sendNotificationUpdate(userId);
+      }
+    }
+  }
+
   public void clearUserNotificationCount(Long userId) {
-    userToNotification.put(userId, 0);
+    getCounts(userId).notifications.set(0);
     sendNotificationUpdate(userId);
   }
 
   public Boolean userHasNewNotifications(Long userId) {
-    Integer rc = userToNotification.get(userId);
-    if (rc == null || rc == 0) {
-      return Boolean.FALSE;
-    }
-    return Boolean.TRUE;
+    return getNotificationCountFor(userId) > 0;
   }
 
   public Integer getNotificationCountFor(Long userId) {
-    return doGetCount(userId, userToNotification);
+    return getCounts(userId).notifications.get();
   }
 
   public Boolean userHasActiveMessages(Long userId) {
-    return doActiveMessages(userId, userToMessage);
+    return getMessageCountFor(userId) > 0;
   }
 
   public Integer getMessageCountFor(Long userId) {
-    return doGetCount(userId, userToMessage);
+    return getCounts(userId).messages.get();
   }
 
   @Override
   public Integer getSpecialMessageCountFor(Long userId) {
-    return doGetCount(userId, userToSpecialMessage);
+    return getCounts(userId).specialMessages.get();
   }
 
   @Override
   public void updateMessageCount(Long id, int increment, MessageType messageType) {
-    if (messageType.isStandardType()) {
-      changeUserMessageCount(id, increment);
-    } else {
-      changeUserSpecialMsgCount(id, increment);
-    }
-  }
-
-  private int changeUserSpecialMsgCount(Long userId, Integer incrementAmount) {
-    int newCount = doChangeCount(userId, incrementAmount, userToSpecialMessage);
-    sendNotificationUpdate(userId);
-    return newCount;
-  }
-
-  private int changeUserMessageCount(Long userId, int incrementAmount) {
-    int newCount = doChangeCount(userId, incrementAmount, userToMessage);
-    sendNotificationUpdate(userId);
-    return newCount;
-  }
-
-  private int doChangeCount(Long userId, int incrementAmount, Map<Long, Integer> userToCount) {
-    Integer crrCount = userToCount.get(userId);
-    if (crrCount == null) {
-      userToCount.put(userId, incrementAmount);
-      return incrementAmount;
-    } else {
-      int newAmount = crrCount + incrementAmount;
-      // never < 0
-      newAmount = (newAmount < 0) ? 0 : newAmount;
-      userToCount.put(userId, newAmount);
-      return newAmount;
-    }
-  }
-
-  private Integer doGetCount(Long userId, Map<Long, Integer> userToCount) {
-    Integer rc = userToCount.get(userId);
-    if (rc == null || rc == 0) {
-      rc = 0;
-    }
-    return rc;
-  }
-
-  private boolean doActiveMessages(Long userId, Map<Long, Integer> userToCount) {
-    Integer rc = userToCount.get(userId);
-    if (rc == null || rc == 0) {
-      return Boolean.FALSE;
-    }
-    return Boolean.TRUE;
+    changeCount(id, increment, messageType.isStandardType() ? MESSAGES : SPECIAL_MESSAGES);
+    sendNotificationUpdate(id);
   }
 
   @Override
   public void initCount(Long userId, NotificationStatus notificationStatus) {
-    userToNotification.put(userId, notificationStatus.getNotificationCount());
-    userToMessage.put(userId, notificationStatus.getMessageCount());
-    userToSpecialMessage.put(userId, notificationStatus.getSpecialMessageCount());
+    userToCounts.put(userId, new Counts(notificationStatus, System.currentTimeMillis()));
     sendNotificationUpdate(userId);
   }
 
@@ -15,6 +15,7 @@ import com.researchspace.netfiles.NfsAuthentication;
 import com.researchspace.netfiles.NfsClient;
 import com.researchspace.netfiles.NfsException;
 import com.researchspace.netfiles.NfsFactory;
+import com.researchspace.netfiles.NfsParallelTransfers;
 import com.researchspace.netfiles.WritableNfsClient;
 import com.researchspace.netfiles.WriteAttribution;
 import com.researchspace.service.FilestoreAclChecker;
@@ -25,6 +26,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +48,7 @@ public class NfsManagerImpl implements NfsManager {
   private @Autowired @Setter NfsFactory nfsFactory;
   private @Autowired @Setter FilestoreAclChecker aclChecker;
   private @Autowired MessageSourceUtils messages;
+  private @Autowired(required = false) @Setter NfsParallelTransfers nfsTransfers;
 
   @Autowired
   @Setter
@@ -305,6 +308,29 @@ public class NfsManagerImpl implements NfsManager {
           currentRecordToUpload.getId(),
           fileStore.findFile(currentRecordToUpload.getFileProperty()));
     }
-    return nfsClient.uploadFilesToNfs(path, mapRecordIdToFile, attribution);
+    if (nfsTransfers == null
+        || !nfsClient.supportsParallelTransfers()
+        || !hasDistinctFileNames(mapRecordIdToFile)) {
+      return nfsClient.uploadFilesToNfs(path, mapRecordIdToFile, attribution);
+    }
+
+    // uploaded as batches of one file, so that they can run in parallel
+    List<ApiExternalStorageOperationResult> results =
+        Collections.synchronizedList(new ArrayList<>());
+    List<Runnable> uploads = new ArrayList<>();
+    for (Map.Entry<Long, File> entry : mapRecordIdToFile.entrySet()) {
+      Map<Long, File> singleFile = Map.of(entry.getKey(), entry.getValue());
+      uploads.add(() -> results.add(nfsClient.uploadFilesToNfs(path, singleFile, attribution)));
+    }
+    nfsTransfers.runAll(nfsClient, uploads);
+    ApiExternalStorageOperationResult result = new ApiExternalStorageOperationResult();
+    results.forEach(singleFileResult -> result.addAll(singleFileResult.getFileInfoDetails()));
+    return result;
+  }
+
+  // files with the same name would race each other's existence checks if uploaded in parallel
+  private static boolean hasDistinctFileNames(Map<Long, File> mapRecordIdToFile) {
+    return mapRecordIdToFile.values().stream().map(File::getName).distinct().count()
+        == mapRecordIdToFile.size();
   }
 }
@@ -0,0 +1,202 @@
+package com.researchspace.service.impl;
+
+import com.researchspace.comms.NotificationDelivery;
+import com.researchspace.comms.NotificationOutboxEntry;
+import com.researchspace.dao.CommunicationDao;
+import com.researchspace.dao.NotificationOutboxDao;
+import com.researchspace.model.comms.Communication;
+import com.researchspace.model.comms.Notification;
+import com.researchspace.model.comms.NotificationType;
+import com.researchspace.service.Broadcaster;
+import com.researchspace.service.CommunicationManager;
+import com.researchspace.service.NotificationOutboxManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Outbox for the configured broadcasters. Each broadcaster has its own entry for a notification, so
+ * a failing broadcaster is retried without repeating the broadcasts that succeeded. Broadcasts are
+ * sent by the {@link com.researchspace.comms.NotificationDispatcher} between claiming an entry and
+ * recording the outcome, each in its own transaction.
+ *
+ * <p>Reports, tagged by broadcaster, the 'notification.broadcast' count of deliveries by outcome
+ * (delivered, retried or failed), the 'notification.broadcast.duration' of each broadcast and the
+ * 'notification.broadcast.delay' between a notification's creation and its delivery.
+ */
+@Slf4j
+public class NotificationOutboxManagerImpl implements NotificationOutboxManager {
+
+  static final long FIRST_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private @Autowired NotificationOutboxDao outboxDao;
+  private @Autowired CommunicationDao commDao;
+  private @Autowired @Lazy CommunicationManager commMgr;
+
+  private final Map<String, Broadcaster> broadcasters = new LinkedHashMap<>();
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  public NotificationOutboxManagerImpl(List<Broadcaster> broadcasters) {
+    for (Broadcaster broadcaster : broadcasters) {
+      String name = getName(broadcaster);
+      if (this.broadcasters.containsKey(name)) {
+        name = name + "-" + this.broadcasters.size();
+      }
+      this.broadcasters.put(name, broadcaster);
+    }
+  }
+
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * @return the names that outbox entries use for the broadcasters, in configuration order
+   */
+  List<String> getBroadcasterNames() {
+    return new ArrayList<>(broadcasters.keySet());
+  }
+
+  private static String getName(Broadcaster broadcaster) {
+    return broadcaster.getClass().getSimpleName();
+  }
+
+  @Override
+  public void addToOutbox(Notification notification) {
+    long now = System.currentTimeMillis();
+    for (String name : broadcasters.keySet()) {
+      outboxDao.save(new NotificationOutboxEntry(notification.getId(), name, now));
+    }
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+  public List<Long> getDueEntryIds(int maxResults) {
+    return outboxDao.getDueEntryIds(System.currentTimeMillis(), maxResults);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public Optional<NotificationDelivery> claim(Long entryId) {
+    long now = System.currentTimeMillis();
+    Optional<NotificationOutboxEntry> locked = outboxDao.lockForDelivery(entryId);
+    if (locked.isEmpty() || locked.get().getNextAttemptTime() > now) {
+      return Optional.empty();
+    }
+    NotificationOutboxEntry entry = locked.get();
+    Broadcaster broadcaster = broadcasters.get(entry.getBroadcaster());
+    Optional<Communication> notification = commDao.getSafeNull(entry.getNotificationId());
+    if (broadcaster == null || notification.isEmpty()) {
+      log.warn(
+          "Discarding outbox entry {}: broadcaster {} or notification {} no longer exists",
+          entryId,
+          entry.getBroadcaster(),
+          entry.getNotificationId());
+      outboxDao.remove(entryId);
+      return Optional.empty();
+    }
+
+    Runnable broadcast;
+    try {
+      broadcast = broadcaster.prepareBroadcast(notification.get());
+    } catch (RuntimeException e) {
+      handleFailure(entry, e, now);
+      return Optional.empty();
+    }
+    entry.setNextAttemptTime(now + CLAIM_MILLIS);
+    outboxDao.save(entry);
+    Timer duration =
+        Timer.builder("notification.broadcast.duration")
+            .tag("broadcaster", entry.getBroadcaster())
+            .register(meterRegistry);
+    return Optional.of(
+        new NotificationDelivery(
+            entryId,
+            entry.getBroadcaster(),
+            entry.getCreationTime(),
+            () -> duration.record(broadcast)));
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void delivered(NotificationDelivery delivery) {
+    outboxDao.remove(delivery.getEntryId());
+    count(delivery.getBroadcaster(), "delivered");
+    Timer.builder("notification.broadcast.delay")
+        .tag("broadcaster", delivery.getBroadcaster())
+        .register(meterRegistry)
+        .record(
+            Math.max(0, System.currentTimeMillis() - delivery.getCreationTime()),
+            TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void deliveryFailed(NotificationDelivery delivery, RuntimeException failure) {
+    outboxDao
+        .getSafeNull(delivery.getEntryId())
+        .ifPresent(entry -> handleFailure(entry, failure, System.currentTimeMillis()));
+  }
+
+  private void handleFailure(NotificationOutboxEntry entry, RuntimeException e, long now) {
+    entry.setAttempts(entry.getAttempts() + 1);
+    if (entry.getAttempts() < MAX_ATTEMPTS) {
+      log.info(
+          "Broadcast of notification {} by {} failed (attempt {}), will retry: {}",
+          entry.getNotificationId(),
+          entry.getBroadcaster(),
+          entry.getAttempts(),
+          e.getMessage());
+      entry.setNextAttemptTime(now + getRetryDelay(entry.getAttempts()));
+      entry.setLastError(
+          StringUtils.abbreviate(e.getMessage(), NotificationOutboxEntry.MAX_ERROR_LENGTH));
+      outboxDao.save(entry);
+      count(entry.getBroadcaster(), "retried");
+      return;
+    }
+
+    outboxDao.remove(entry.getId());
+    count(entry.getBroadcaster(), "failed");
+    String msg =
+        "General failure to broadcast from: "
+            + broadcasters.get(entry.getBroadcaster())
+            + ", message is ["
+            + e.getMessage()
+            + "]";
+    log.warn(msg);
+    commDao
+        .getSafeNull(entry.getNotificationId())
+        .map(Communication::getOriginator)
+        .ifPresent(
+            originator ->
+                commMgr.systemNotify(
+                    NotificationType.PROCESS_FAILED, msg, originator.getUsername(), false));
+  }
+
+  /**
+   * @param failedAttempts number of failed attempts so far, at least 1
+   * @return delay before the next attempt, doubling after each failure
+   */
+  static long getRetryDelay(int failedAttempts) {
+    return FIRST_RETRY_DELAY_MILLIS << Math.min(failedAttempts - 1, 10);
+  }
+
+  private void count(String broadcaster, String outcome) {
+    meterRegistry
+        .counter("notification.broadcast", "broadcaster", broadcaster, "outcome", outcome)
+        .increment();
+  }
+}
@@ -18,6 +18,7 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
@@ -296,6 +297,8 @@ public class OntologyDocManager {
           }
         }
         ontologyDocumentInWorkspace.getFields().get(fieldPos).setData(builder.toString());
+        // a new modification date makes OntologyTermIndex parse the new tags
+        ontologyDocumentInWorkspace.setModificationDate(new Date());
         recordMgr.save(ontologyDocumentInWorkspace, user);
       }
     } else {
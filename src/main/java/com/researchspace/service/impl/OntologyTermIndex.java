@@ -0,0 +1,127 @@
+package com.researchspace.service.impl;
+
+import static com.researchspace.service.DocumentTagManager.FINAL_DATA;
+import static com.researchspace.service.DocumentTagManager.MAX_ONTOLOGY_RESULTS_SIZE;
+import static com.researchspace.service.DocumentTagManager.ONTOLOGY_RESULTS_PAGE_SIZE;
+import static com.researchspace.service.DocumentTagManager.SMALL_DATASET_IN_SINGLE_BLOCK;
+import static com.researchspace.service.DocumentTagManager.TOO_MANY_ONTOLOGY_RESULTS;
+
+import com.researchspace.dao.RecordDao;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the parsed tags of ontology documents, so that tag autocompletion doesn't load and parse
+ * the text of every visible ontology document on each keystroke.
+ *
+ * <p>Entries are keyed by document id and modification time: an edited document gets a new key
+ * and is parsed again, and the old entry expires. Which documents a user can see is not cached, so
+ * sharing changes apply to the next search.
+ */
+@Component
+public class OntologyTermIndex {
+
+  public static final String ONTOLOGY_TERMS_CACHE = "com.researchspace.ontologyTerms";
+
+  private @Autowired RecordDao recordDao;
+
+  /**
+   * @param ontologyDocId id of an ontology document
+   * @param modificationDateMillis the document's modification time, only used for the cache key
+   * @return the document's tags
+   */
+  @Cacheable(value = ONTOLOGY_TERMS_CACHE, key = "#ontologyDocId + '_' + #modificationDateMillis")
+  public OntologyTerms getTerms(Long ontologyDocId, Long modificationDateMillis) {
+    return OntologyTerms.fromOntologyText(recordDao.getTextDataFromOntologyDocument(ontologyDocId));
+  }
+
+  /**
+   * Merges sorted lists of tags and returns the requested page of the distinct tags, holding at
+   * most two pages in memory. Markers are added as before the index existed: {@link
+   * com.researchspace.service.DocumentTagManager#SMALL_DATASET_IN_SINGLE_BLOCK} if there is less
+   * than one page, {@link com.researchspace.service.DocumentTagManager#FINAL_DATA} with the last
+   * page, which is also returned for pages past the end, and only {@link
+   * com.researchspace.service.DocumentTagManager#TOO_MANY_ONTOLOGY_RESULTS} if there are more than
+   * MAX_ONTOLOGY_RESULTS_SIZE tags.
+   *
+   * @param sortedTags lists of tags, each sorted
+   * @param pos page number, from 0
+   * @return the page of tags
+   */
+  static TreeSet<String> mergePage(List<? extends Iterable<String>> sortedTags, int pos) {
+    PriorityQueue<Head> heads = new PriorityQueue<>();
+    for (Iterable<String> tags : sortedTags) {
+      Iterator<String> it = tags.iterator();
+      if (it.hasNext()) {
+        heads.add(new Head(it.next(), it));
+      }
+    }
+    int pageStart = pos * ONTOLOGY_RESULTS_PAGE_SIZE;
+    int pageEnd = pageStart + ONTOLOGY_RESULTS_PAGE_SIZE;
+    List<String> page = new ArrayList<>();
+    List<String> lastPage = new ArrayList<>();
+    String previous = null;
+    int count = 0;
+    while (!heads.isEmpty()) {
+      Head head = heads.poll();
+      String tag = head.tag;
+      if (head.rest.hasNext()) {
+        head.tag = head.rest.next();
+        heads.add(head);
+      }
+      if (tag.equals(previous)) {
+        continue;
+      }
+      previous = tag;
+      if (count >= pageStart && count < pageEnd) {
+        page.add(tag);
+      }
+      if (count % ONTOLOGY_RESULTS_PAGE_SIZE == 0) {
+        lastPage.clear();
+      }
+      lastPage.add(tag);
+      count++;
+      if (count > MAX_ONTOLOGY_RESULTS_SIZE) {
+        TreeSet<String> tooMany = new TreeSet<>();
+        tooMany.add(TOO_MANY_ONTOLOGY_RESULTS);
+        return tooMany;
+      }
+    }
+
+    if (count < ONTOLOGY_RESULTS_PAGE_SIZE) {
+      TreeSet<String> all = new TreeSet<>(lastPage);
+      all.add(SMALL_DATASET_IN_SINGLE_BLOCK);
+      return all;
+    }
+    if (pageEnd <= count) {
+      return new TreeSet<>(page);
+    }
+    TreeSet<String> last = new TreeSet<>();
+    if (count % ONTOLOGY_RESULTS_PAGE_SIZE != 0) {
+      last.addAll(lastPage);
+    }
+    last.add(FINAL_DATA);
+    return last;
+  }
+
+  private static class Head implements Comparable<Head> {
+    private String tag;
+    private final Iterator<String> rest;
+
+    Head(String tag, Iterator<String> rest) {
+      this.tag = tag;
+      this.rest = rest;
+    }
+
+    @Override
+    public int compareTo(Head other) {
+      return tag.compareTo(other.tag);
+    }
+  }
+}
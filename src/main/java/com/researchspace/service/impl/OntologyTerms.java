@@ -0,0 +1,173 @@
+package com.researchspace.service.impl;
+
+import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_NAME_DELIM;
+import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_NAME_ONTOLOGYFILE;
+import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_TAG_DELIMITER;
+import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_URL_DELIMITER;
+import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_VERSION_DELIM;
+import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLOGY_VERSION_ONTOLOGYFILES;
+
+import com.researchspace.model.record.StructuredDocument;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The tags offered by an ontology document, parsed once so that autocompletion only has to match
+ * them against the filter. Each tag is kept with the lower-cased text that the filter is matched
+ * against, and tags are sorted.
+ */
+public class OntologyTerms {
+
+  static final OntologyTerms EMPTY = new OntologyTerms(new String[0], new String[0]);
+
+  private final String[] tags;
+  private final String[] matchTexts;
+
+  private OntologyTerms(String[] tags, String[] matchTexts) {
+    this.tags = tags;
+    this.matchTexts = matchTexts;
+  }
+
+  /**
+   * @param ontologyTexts the rtfData of the text fields of an ontology document
+   * @return the tags of the document
+   */
+  public static OntologyTerms fromOntologyText(Collection<String> ontologyTexts) {
+    Set<String> ontologyTerms = new LinkedHashSet<>();
+    for (String text : ontologyTexts) {
+      if (text != null) {
+        for (String term : parseOntologiesToKeyValuePairs(text)) {
+          if (!StringUtils.isEmpty(term)) {
+            ontologyTerms.add(term);
+          }
+        }
+      }
+    }
+    return fromTerms(ontologyTerms);
+  }
+
+  /**
+   * @param ontologyTerms already parsed terms, e.g. from BioPortal
+   * @return the tags of the terms
+   */
+  public static OntologyTerms fromTerms(Collection<String> ontologyTerms) {
+    List<String[]> tagsAndMatchTexts = new ArrayList<>();
+    for (String ontologyTerm : ontologyTerms) {
+      addTags(ontologyTerm, tagsAndMatchTexts);
+    }
+    tagsAndMatchTexts.sort(Comparator.comparing(tagAndMatchText -> tagAndMatchText[0]));
+    String[] tags = new String[tagsAndMatchTexts.size()];
+    String[] matchTexts = new String[tagsAndMatchTexts.size()];
+    for (int i = 0; i < tags.length; i++) {
+      tags[i] = tagsAndMatchTexts.get(i)[0];
+      matchTexts[i] = tagsAndMatchTexts.get(i)[1];
+    }
+    return new OntologyTerms(tags, matchTexts);
+  }
+
+  /**
+   * @param filterLc lower-cased filter
+   * @return sorted tags whose text contains the filter, may contain duplicates
+   */
+  public List<String> getMatchingTags(String filterLc) {
+    if (filterLc.isEmpty()) {
+      return Arrays.asList(tags);
+    }
+    List<String> matching = new ArrayList<>();
+    for (int i = 0; i < tags.length; i++) {
+      if (matchTexts[i].contains(filterLc)) {
+        matching.add(tags[i]);
+      }
+    }
+    return matching;
+  }
+
+  public int size() {
+    return tags.length;
+  }
+
+  private static void addTags(String ontologyTerm, List<String[]> tagsAndMatchTexts) {
+    boolean isFromOntologyFile = false;
+    String[] tags = null;
+    if (ontologyTerm.contains(
+        RSPACE_EXTONTOLOGY_TAG_DELIMITER)) { // tags from external ontology file, imported into
+      // RSpace
+      isFromOntologyFile = true;
+      tags = ontologyTerm.split(RSPACE_EXTONTOLOGY_TAG_DELIMITER);
+    } else if (ontologyTerm.contains(RSPACE_EXTONTOLOGY_URL_DELIMITER)) {
+      tags = new String[] {ontologyTerm}; // user tags
+    } else {
+      tags = ontologyTerm.split(StructuredDocument.TAG_DELIMITER);
+    }
+    String ontologyName = "";
+    String ontologyVersion = "";
+    if (isFromOntologyFile) {
+      // the first two 'tags' are actually the ontology NAME and VERSION
+      ontologyName = tags[0].replace(RSPACE_EXTONTOLOGY_NAME_ONTOLOGYFILE, "");
+      ontologyVersion = tags[1].replace(RSPACE_EXTONTOLOGY_VERSION_ONTOLOGYFILES, "");
+      tags = Arrays.copyOfRange(tags, 2, tags.length); // remove ontology name and version
+    }
+    for (String tag : tags) {
+      String toTest = tag;
+      if (toTest.indexOf(RSPACE_EXTONTOLOGY_URL_DELIMITER) != -1) {
+        toTest = toTest.split(RSPACE_EXTONTOLOGY_URL_DELIMITER)[0];
+      }
+      String term =
+          isFromOntologyFile
+              ? tag.trim()
+                  + RSPACE_EXTONTOLOGY_NAME_DELIM
+                  + ontologyName
+                  + RSPACE_EXTONTOLOGY_VERSION_DELIM
+                  + ontologyVersion
+              : tag.trim();
+      tagsAndMatchTexts.add(new String[] {term, toTest.toLowerCase()});
+    }
+  }
+
+  /**
+   * Each block of text here is the rtfData from a field in an ontology file User ontologies
+   * (intended to be human readable, therefore formatted with html) have a different format to
+   * external ontologies (not intended to be human readable). This code parses user ontologies and
+   * does nothing to external ontologies. User ontologies can specify key value pairs in the format
+   * <key>=<val1>,<val2> etc where the values are comma delimited. This code will convert that into
+   * multiple tags, each containing the key and '=' plus val1, then val2 etc. <key>=<val1>,<val2>
+   * would become two tags, key=val1 and key=val2
+   */
+  private static List<String> parseOntologiesToKeyValuePairs(String text) {
+    // user created ontology files all start with '<p>'
+    if (text.length() > 2 && !text.substring(0, 3).equals("<p>")) {
+      return List.of(
+          text); // assumption - no <p> in an uploaded external ontology file as first char
+      // note - if edited an uploaded files does get <p> inserted, hence we have further checks
+      // below.
+    }
+    List<String> parsed = new ArrayList<>();
+    String[] allOntologyTermsInFile = text.split("</p>");
+    for (String ontologyEntry : allOntologyTermsInFile) {
+      ontologyEntry = ontologyEntry.replaceFirst("<p>", "");
+      int splitPosOnFirstEquals = ontologyEntry.indexOf('=');
+      if (splitPosOnFirstEquals != -1) {
+        String key = ontologyEntry.substring(0, splitPosOnFirstEquals);
+        String allValueText = ontologyEntry.substring(splitPosOnFirstEquals + 1);
+        // if key has commas, assume we are trying to parse an uploaded file by accident
+        // that contains a <p> and an '='
+        if (key.split(",").length > 1) {
+          return List.of(text); // stop parsing
+        }
+        String[] values = allValueText.split(",");
+        for (String val : values) {
+          parsed.add(key + "=" + val);
+        }
+      } else {
+        parsed.add(ontologyEntry);
+      }
+    }
+    return parsed;
+  }
+}
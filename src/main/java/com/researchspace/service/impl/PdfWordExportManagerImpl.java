@@ -104,19 +104,24 @@ public class PdfWordExportManagerImpl extends AbstractExporter implements PdfWor
     List<File> tmpExportedFiles = new ArrayList<>();
 
     EcatDocumentFile exportResult = null;
-    Set<String> igsnInventoryLinkedItems =
-        processDocsForDocExport(
-            ownerOfWork, exportIds, exportTypes, config, exporter, details, tmpExportedFiles);
-    FileProperty fp = generateFilePropertyForExportedFile(config, exporter, details);
-
-    if (mergeFilesIntoFinalOutputFileAndSaveInFileStore(
-        tmpExportedFiles, details.getConcatenatedExportFile(), fp, config)) {
-      exportResult = addPdfToGallery(config, exporter, details, fp);
-    } else {
-      log.error("Couldn't generate EcatDocumentFile");
-      removeTempFiles(details);
+    try {
+      Set<String> igsnInventoryLinkedItems =
+          processDocsForDocExport(
+              ownerOfWork, exportIds, exportTypes, config, exporter, details, tmpExportedFiles);
+      FileProperty fp = generateFilePropertyForExportedFile(config, exporter, details);
+
+      if (mergeFilesIntoFinalOutputFileAndSaveInFileStore(
+          tmpExportedFiles, details.getConcatenatedExportFile(), fp, config)) {
+        exportResult = addPdfToGallery(config, exporter, details, fp);
+      } else {
+        log.error("Couldn't generate EcatDocumentFile");
+        removeTempFiles(details, config);
+      }
+      return new ExportEcatDocumentResult(exportResult, igsnInventoryLinkedItems);
+    } finally {
+      // documents may still be rendering if a later one failed
+      cancelExports(details, config);
     }
-    return new ExportEcatDocumentResult(exportResult, igsnInventoryLinkedItems);
   }
 
   public ExportFileResult doExportForSigning(
@@ -134,18 +139,22 @@ public class PdfWordExportManagerImpl extends AbstractExporter implements PdfWor
     // default type as StructuredDocument
     verifyInput(exportIds, exportTypes);
     List<File> tmpExportedFiles = new ArrayList<>();
-    Set<String> igsnInventoryLinkedItems =
-        processDocsForDocExport(
-            ownerOfWork, exportIds, exportTypes, config, exporter, details, tmpExportedFiles);
-    ExportProcessor processor = getExportProcessor(config);
     try {
-      processor.concatenateExportedFilesIntoOne(
-          details.getConcatenatedExportFile(), tmpExportedFiles, config);
-    } catch (IOException io) {
-      log.error("Couldn't generate PDF");
-      removeTempFiles(details);
+      Set<String> igsnInventoryLinkedItems =
+          processDocsForDocExport(
+              ownerOfWork, exportIds, exportTypes, config, exporter, details, tmpExportedFiles);
+      ExportProcessor processor = getExportProcessor(config);
+      try {
+        processor.concatenateExportedFilesIntoOne(
+            details.getConcatenatedExportFile(), tmpExportedFiles, config);
+      } catch (IOException io) {
+        log.error("Couldn't generate PDF");
+        removeTempFiles(details, config);
+      }
+      return new ExportFileResult(details.getConcatenatedExportFile(), igsnInventoryLinkedItems);
+    } finally {
+      cancelExports(details, config);
     }
-    return new ExportFileResult(details.getConcatenatedExportFile(), igsnInventoryLinkedItems);
   }
 
   private EcatDocumentFile addPdfToGallery(
@@ -185,7 +194,7 @@ public class PdfWordExportManagerImpl extends AbstractExporter implements PdfWor
       log.warn(ex.toString());
       postExportFailure(config, exporter, ex.getMessage());
     }
-    removeTempFiles(details);
+    removeTempFiles(details, config);
     return resultFile;
   }
 
@@ -202,6 +211,9 @@ public class PdfWordExportManagerImpl extends AbstractExporter implements PdfWor
       if (fp.getId() == null) {
         fg = false; // unsuccessful generation of fileProperty
       }
+    } catch (ExportFailureException ex) {
+      // a document that failed to render in the background, as from processDocsForDocExport
+      throw ex;
     } catch (Exception ex) {
       fg = false;
       log.error("Could not generate PDF content: " + ex.getMessage());
@@ -269,7 +281,8 @@ public class PdfWordExportManagerImpl extends AbstractExporter implements PdfWor
     return igsnInventoryLinkedItems;
   }
 
-  private void removeTempFiles(ExportOperationDetails details) {
+  private void removeTempFiles(ExportOperationDetails details, ExportToFileConfig config) {
+    cancelExports(details, config);
     File tempFolder = details.getTempExportFolder();
     if (tempFolder.exists()) {
       boolean delete = tempFolder.delete();
@@ -279,6 +292,13 @@ public class PdfWordExportManagerImpl extends AbstractExporter implements PdfWor
     }
   }
 
+  private void cancelExports(ExportOperationDetails details, ExportToFileConfig config) {
+    ExportProcessor processor = getExportProcessor(config);
+    if (processor != null) {
+      processor.cancelExports(details.getTempExportFolder());
+    }
+  }
+
   ExportOperationDetails createExportOperationDetails(ExportToFileConfig config)
       throws IOException {
     File tempExportFolderRoot =
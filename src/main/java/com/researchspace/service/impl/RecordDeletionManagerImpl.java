@@ -240,7 +240,7 @@ public class RecordDeletionManagerImpl implements RecordDeletionManager {
       parent = getParentFolder(parentId, toDelete);
     }
     Folder parentForPath = notebookParentProvided ? folderDao.get(notebookParentId) : parent;
-    RSPath sharedFolderPath = parentForPath.getShortestPathToParent(sharedFolderRoot);
+    RSPath sharedFolderPath = getPathToSharedFolderRoot(parentForPath, sharedFolderRoot);
 
     boolean deleteInSharedFolder = sharedFolderPath.size() > MIN_PATH_LENGTH_TOSHARED_ROOT_FOLDER;
     boolean notebookOwnerDeletesOtherUsersEntry =
@@ -398,6 +398,21 @@ public class RecordDeletionManagerImpl implements RecordDeletionManager {
     return recordDao.isRecord(id);
   }
 
+  /**
+   * Gets the shortest path from a folder up to the user's shared folder root. The folder ancestry
+   * index is checked first, so that the parent folders are only walked if the folder is inside the
+   * shared folder.
+   *
+   * @return the path, or an empty path if the folder isn't below the shared folder root
+   */
+  private RSPath getPathToSharedFolderRoot(Folder folder, Folder sharedFolderRoot) {
+    if (sharedFolderRoot == null
+        || !folderDao.isDescendantOf(folder.getId(), sharedFolderRoot.getId())) {
+      return new RSPath(new ArrayList<>());
+    }
+    return folder.getShortestPathToParent(sharedFolderRoot);
+  }
+
   private void doDeleteFolder(
       Folder parent,
       Folder folderToDelete,
@@ -405,7 +420,7 @@ public class RecordDeletionManagerImpl implements RecordDeletionManager {
       CompositeRecordOperationResult result) {
 
     Folder sharedFolderRoot = folderDao.getUserSharedFolder(userDeleting);
-    RSPath path = parent.getShortestPathToParent(sharedFolderRoot);
+    RSPath path = getPathToSharedFolderRoot(parent, sharedFolderRoot);
     if (!path.isEmpty() && path.size() > MIN_PATH_LENGTH_TOSHARED_ROOT_FOLDER) {
 
       // we're in a group folder, so by deleting this folder we are going to actually
@@ -45,6 +45,7 @@ import com.researchspace.model.core.GlobalIdentifier;
 import com.researchspace.model.core.RecordType;
 import com.researchspace.model.dmps.DMPSource;
 import com.researchspace.model.dmps.DMPUser;
+import com.researchspace.model.dtos.FolderListingCursor;
 import com.researchspace.model.dtos.GalleryFilterCriteria;
 import com.researchspace.model.dtos.WorkspaceFilters;
 import com.researchspace.model.dtos.WorkspaceListingConfig;
@@ -296,6 +297,21 @@ public class RecordManagerImpl implements RecordManager {
     return recordDao.getPaginatedChildRecordsOfParentWithFilter(parentId, pgCrit, recordTypefilter);
   }
 
+  @Override
+  public ISearchResults<BaseRecord> listFolderRecords(
+      Long parentId,
+      PaginationCriteria<? extends BaseRecord> pgCrit,
+      RecordTypeFilter recordTypefilter,
+      FolderListingCursor cursor) {
+    Validate.notNull(pgCrit, "Pagination criteria can't be null!");
+    if (cursor != null && !cursor.continues(parentId, pgCrit, recordTypefilter)) {
+      log.debug("Listing folder {} by offset, as cursor is for another listing", parentId);
+      cursor = null;
+    }
+    return recordDao.getPaginatedChildRecordsOfParentWithFilter(
+        parentId, pgCrit, recordTypefilter, cursor);
+  }
+
   @Override
   public ISearchResults<BaseRecord> listFolderRecords(
       Long parentId, PaginationCriteria<? extends BaseRecord> pgCrit) {
@@ -52,6 +52,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.validator.UrlValidator;
 import org.jsoup.helper.Validate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
@@ -73,6 +74,10 @@ public class SearchManagerImpl implements SearchManager {
   private @Autowired InventoryPermissionUtils invPermissionUtils;
   private @Autowired MessageSourceUtils messages;
 
+  // requires the ELN index to have been rebuilt with ReadPrincipalsBinder, e.g. rs.indexOnstartup
+  @Value("${search.eln.indexedReadPermissions.enabled:true}")
+  private boolean indexedReadPermissions = true;
+
   private ISearchResults<BaseRecord> getAttachments(WorkspaceListingConfig input, User user)
       throws IOException {
     String[] terms = input.getSrchTerms();
@@ -108,9 +113,31 @@ public class SearchManagerImpl implements SearchManager {
         userFilter.stream().map(User::getUsername).collect(Collectors.toList());
     usernameFilter.add(Constants.SYSADMIN_UNAME); // Sysadmin1 added to see public folders
     searchConfig.setUsernameFilter(usernameFilter);
+    if (searchConfig.isRestrictByUser() && indexedReadPermissions) {
+      setReadPrincipalFilters(searchConfig, user);
+    }
     return searchConfig;
   }
 
+  /*
+   * Restricts hits inside the query to records the user can read, rather than to everything
+   * owned by anyone who has shared something with them, so that far fewer hits have to be
+   * loaded and permission-checked afterwards.
+   */
+  private void setReadPrincipalFilters(SearchConfig searchConfig, User user) {
+    List<String> roleViewableUsernames =
+        userMgr.getViewableUsersByRole(user).stream()
+            .map(User::getUsername)
+            .collect(Collectors.toList());
+    roleViewableUsernames.add(Constants.SYSADMIN_UNAME);
+    searchConfig.setRoleViewableUsernameFilter(roleViewableUsernames);
+
+    List<String> readPrincipals = new ArrayList<>();
+    readPrincipals.add(user.getUsername());
+    user.getGroups().stream().map(Group::getUniqueName).forEach(readPrincipals::add);
+    searchConfig.setReadPrincipalFilter(readPrincipals);
+  }
+
   private boolean isASimpleAttachmentSearch(String[] options) {
     // handles attachment search from both advanced and simple options
     return options.length == 1 && ATTACHMENT_SEARCH_OPTION.equalsIgnoreCase(options[0]);
@@ -1,5 +1,6 @@
 package com.researchspace.service.impl;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.properties.IPropertyHolder;
 import com.researchspace.service.SignupCaptchaVerifier;
 import jakarta.servlet.http.HttpServletRequest;
@@ -39,6 +40,8 @@ public class SignupCaptchaVerifierImpl implements SignupCaptchaVerifier {
   @Value("${user.signup.captcha.verify.url}")
   private String googleCaptchaVerifyUrl;
 
+  private RestTemplate restTemplate;
+
   @Override
   public String verifyCaptchaFromRequest(HttpServletRequest request) {
 
@@ -84,7 +87,6 @@ public class SignupCaptchaVerifierImpl implements SignupCaptchaVerifier {
   public ResponseEntity<Map<Object, Object>> verifyRecaptchaAtGoogle(String captchaResponse) {
 
     String uri = googleCaptchaVerifyUrl;
-    RestTemplate template = new RestTemplate();
     HttpHeaders headers = new HttpHeaders();
     headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
 
@@ -97,7 +99,8 @@ public class SignupCaptchaVerifierImpl implements SignupCaptchaVerifier {
     ResponseEntity<Map<Object, Object>> response;
     try {
       response =
-          template.postForEntity(uri, request, (Class<Map<Object, Object>>) (Class<?>) Map.class);
+          restTemplate.postForEntity(
+              uri, request, (Class<Map<Object, Object>>) (Class<?>) Map.class);
     } catch (RestClientException rce) {
       log.warn("RestClientException when trying to verify Google's captcha", rce);
       return null;
@@ -118,4 +121,9 @@ public class SignupCaptchaVerifierImpl implements SignupCaptchaVerifier {
   public void setGoogleCaptchaVerifyUrl(String googleCaptchaVerifyUrl) {
     this.googleCaptchaVerifyUrl = googleCaptchaVerifyUrl;
   }
+
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("captcha");
+  }
 }
@@ -0,0 +1,108 @@
+package com.researchspace.service.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Shares identical file contents between paths in a local file store. Files with the same contents
+ * digest are made hard links to a single copy on disk, so each path keeps its own name and
+ * FileProperty, but the bytes are stored once. The filesystem counts the links, so deleting any one
+ * path never affects the others, and the space is released when the last path is deleted.
+ */
+@Slf4j
+final class StoredContentLinker {
+
+  static final String DIGEST_ALGORITHM = "SHA-256";
+
+  private StoredContentLinker() {}
+
+  static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      // every JVM must provide SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @return the hex-encoded digest of the file contents
+   */
+  static String digest(File file) throws IOException {
+    MessageDigest digest = newDigest();
+    byte[] buffer = new byte[8192];
+    try (InputStream is = Files.newInputStream(file.toPath())) {
+      int read;
+      while ((read = is.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return toHex(digest);
+  }
+
+  static String toHex(MessageDigest digest) {
+    return Hex.encodeHexString(digest.digest());
+  }
+
+  /**
+   * Replaces the contents of {@code target} by those of {@code source}. The target may be a link
+   * shared with other paths, so rather than being written to, a copy is made next to it and moved
+   * over it, which leaves the other paths with their contents.
+   */
+  static void replaceWithCopy(File target, File source) throws IOException {
+    Path targetPath = target.toPath();
+    Path copy = targetPath.resolveSibling(target.getName() + ".replace");
+    Files.copy(source.toPath(), copy, StandardCopyOption.REPLACE_EXISTING);
+    try {
+      Files.move(
+          copy, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.deleteIfExists(copy);
+      throw e;
+    }
+  }
+
+  /**
+   * Replaces {@code target} by a hard link to {@code existing}. The link is created next to the
+   * target and then moved over it, so readers see either the old file or the link, never a missing
+   * file.
+   *
+   * @return <code>true</code> if the target is now a link to the existing file, <code>false</code>
+   *     if it is unchanged, e.g. because the files are on different filesystems or the filesystem
+   *     doesn't support hard links
+   */
+  static boolean replaceWithLink(File target, File existing) {
+    Path targetPath = target.toPath();
+    Path existingPath = existing.toPath();
+    try {
+      if (Files.isSameFile(targetPath, existingPath)) {
+        return true;
+      }
+      Path link = targetPath.resolveSibling(target.getName() + ".link");
+      Files.deleteIfExists(link);
+      Files.createLink(link, existingPath);
+      try {
+        Files.move(
+            link, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        Files.deleteIfExists(link);
+        throw e;
+      }
+      return true;
+    } catch (FileAlreadyExistsException | UnsupportedOperationException e) {
+      log.debug("Can't link {} to {}: {}", target, existing, e.toString());
+    } catch (IOException e) {
+      log.warn("Can't link {} to {}: {}", target, existing, e.getMessage());
+    }
+    return false;
+  }
+}
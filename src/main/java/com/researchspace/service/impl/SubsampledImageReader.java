@@ -0,0 +1,79 @@
+package com.researchspace.service.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decodes images at reduced resolution for thumbnailing. Only every n-th pixel of every n-th row
+ * is decoded, so the memory needed depends on the size of the thumbnail rather than the size of the
+ * source image.
+ */
+@Slf4j
+final class SubsampledImageReader {
+
+  /**
+   * Decoded images are kept at least this many times larger than the thumbnail, so that the final
+   * scaling can smooth them.
+   */
+  static final int OVERSAMPLING = 2;
+
+  private SubsampledImageReader() {}
+
+  /**
+   * Reads the first image in the stream, subsampled to no less than {@link #OVERSAMPLING} times the
+   * target size in either orientation.
+   *
+   * @param is the image data; is not closed by this method
+   * @param targetWidth thumbnail width; if <code>null</code> or not positive, the image is read
+   *     at full resolution
+   * @param targetHeight thumbnail height; if <code>null</code> or not positive, the image is read
+   *     at full resolution
+   * @return the image, or an empty Optional if no ImageIO reader could decode the stream
+   */
+  static Optional<BufferedImage> read(InputStream is, Integer targetWidth, Integer targetHeight)
+      throws IOException {
+    try (ImageInputStream iis = ImageIO.createImageInputStream(is)) {
+      if (iis == null) {
+        return Optional.empty();
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+      if (!readers.hasNext()) {
+        return Optional.empty();
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(iis, true, true);
+        int factor =
+            getSubsamplingFactor(
+                reader.getWidth(0), reader.getHeight(0), targetWidth, targetHeight);
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(factor, factor, 0, 0);
+        return Optional.ofNullable(reader.read(0, param));
+      } catch (IOException | RuntimeException e) {
+        // some plugins can't read every variant of their format, e.g. unusual TIFF compressions
+        log.debug("Could not read image with {}: {}", reader.getClass().getName(), e.getMessage());
+        return Optional.empty();
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  static int getSubsamplingFactor(
+      int sourceWidth, int sourceHeight, Integer targetWidth, Integer targetHeight) {
+    if (targetWidth == null || targetHeight == null || targetWidth <= 0 || targetHeight <= 0) {
+      return 1;
+    }
+    // the thumbnail may be rotated, so the smaller side of the source must cover its larger side
+    int required = OVERSAMPLING * Math.max(targetWidth, targetHeight);
+    return Math.max(1, Math.min(sourceWidth, sourceHeight) / required);
+  }
+}
@@ -26,7 +26,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.apache.commons.io.IOUtils;
 import org.apache.shiro.authz.AuthorizationException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,8 +44,15 @@ import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Transactional
 @Service("thumbnailManager")
@@ -52,6 +67,22 @@ public class ThumbnailManagerImpl extends GenericManagerImpl<Thumbnail, Long>
   private @Autowired AuditManager auditManager;
   private @Autowired MessageSourceUtils messages;
 
+  // longest time a request waits for another request generating the same thumbnail
+  static final int MAX_WAIT_FOR_GENERATION_SECONDS = 60;
+
+  // thumbnails being generated, by getGenerationKey, so that concurrent requests for the same
+  // thumbnail share one decoding of the source image
+  private final ConcurrentMap<String, CompletableFuture<Thumbnail>> inProgress =
+      new ConcurrentHashMap<>();
+
+  private TransactionTemplate perThumbnailTransaction;
+
+  @Autowired
+  public void setTransactionManager(PlatformTransactionManager transactionManager) {
+    perThumbnailTransaction = new TransactionTemplate(transactionManager);
+    perThumbnailTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
   @Autowired
   public void setThumbnailDao(ThumbnailDao thumbnailDao) {
     this.thumbnailDao = thumbnailDao;
@@ -109,13 +140,115 @@ public class ThumbnailManagerImpl extends GenericManagerImpl<Thumbnail, Long>
       return existingThumbnail;
     }
 
-    // Otherwise, generate and return a new thumbnail
-    Thumbnail newThumbnail = generateThumbnail(thumbnail, subject);
+    // Otherwise, generate and return a new thumbnail, unless another request is already doing so
+    String key = getGenerationKey(thumbnail);
+    CompletableFuture<Thumbnail> generation = new CompletableFuture<>();
+    CompletableFuture<Thumbnail> otherGeneration = inProgress.putIfAbsent(key, generation);
+    if (otherGeneration != null) {
+      Optional<Thumbnail> generated = awaitGeneration(otherGeneration);
+      if (generated.isPresent()) {
+        checkPerms(subject, generated.get());
+        return generated.get();
+      }
+      // the other request failed or is taking too long, so generate it here
+      return generateAndSave(thumbnail, subject);
+    }
+    try {
+      Thumbnail newThumbnail = generateAndSave(thumbnail, subject);
+      completeAfterCommit(key, generation, newThumbnail);
+      return newThumbnail;
+    } catch (IOException | RuntimeException e) {
+      inProgress.remove(key, generation);
+      generation.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /*
+   * Each thumbnail is generated in its own transaction, so it's committed, and requests waiting
+   * for it are released, as soon as it's generated rather than at the end of the batch.
+   */
+  @Override
+  @Async(value = "thumbnailTaskExecutor")
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public void generateThumbnailsInBackground(Collection<Thumbnail> examples, User subject) {
+    for (Thumbnail example : examples) {
+      try {
+        perThumbnailTransaction.executeWithoutResult(
+            status -> {
+              try {
+                getThumbnail(example, subject);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+      } catch (RuntimeException e) {
+        log.warn("Could not pre-generate thumbnail {}: {}", example, e.getMessage());
+      }
+    }
+  }
+
+  private Thumbnail generateAndSave(Thumbnail example, User subject) throws IOException {
+    Thumbnail newThumbnail = generateThumbnail(example, subject);
     save(newThumbnail, subject);
     checkPerms(subject, newThumbnail);
     return newThumbnail;
   }
 
+  /*
+   * Identifies the thumbnail to generate; the same properties as are matched by
+   * ThumbnailDao#getThumbnail
+   */
+  private String getGenerationKey(Thumbnail example) {
+    return String.join(
+        ":",
+        String.valueOf(example.getSourceType()),
+        String.valueOf(example.getSourceId()),
+        String.valueOf(example.getSourceParentId()),
+        String.valueOf(example.getRevision()),
+        String.valueOf(example.getWidth()),
+        String.valueOf(example.getHeight()),
+        String.valueOf(example.getRotation()));
+  }
+
+  private Optional<Thumbnail> awaitGeneration(CompletableFuture<Thumbnail> generation) {
+    try {
+      return Optional.of(generation.get(MAX_WAIT_FOR_GENERATION_SECONDS, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    } catch (ExecutionException | TimeoutException e) {
+      log.debug("Did not get thumbnail from concurrent request: {}", e.toString());
+      return Optional.empty();
+    }
+  }
+
+  /*
+   * Requests waiting for the same thumbnail can only read it once it's committed; until then they
+   * keep waiting, and if it's rolled back they generate it themselves.
+   */
+  private void completeAfterCommit(
+      String key, CompletableFuture<Thumbnail> generation, Thumbnail generated) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      inProgress.remove(key, generation);
+      generation.complete(generated);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            inProgress.remove(key, generation);
+            if (status == STATUS_COMMITTED) {
+              generation.complete(generated);
+            } else {
+              generation.completeExceptionally(
+                  new IllegalStateException("Thumbnail generation was rolled back"));
+            }
+          }
+        });
+  }
+
   private void checkPerms(User subject, Thumbnail newThumbnail) {
     BaseRecord el = getEntityForSourceType(subject, newThumbnail);
     if (!(permUtils.isPermitted(el, PermissionType.READ, subject)
@@ -151,10 +284,9 @@ public class ThumbnailManagerImpl extends GenericManagerImpl<Thumbnail, Long>
 
     RSChemElement rsChemElement = chemElementManager.get(example.getSourceId(), subject);
     String fileName = rsChemElement.getOid().toString() + ".png";
-
-    try (InputStream is = new ByteArrayInputStream(rsChemElement.getDataImage())) {
-      return createThumbnailFromInputStream(is, example, subject, fileName);
-    }
+    byte[] dataImage = rsChemElement.getDataImage();
+    return createThumbnailFromImage(
+        () -> new ByteArrayInputStream(dataImage), example, subject, fileName);
   }
 
   private Thumbnail createThumbnailForImage(Thumbnail example, User subject)
@@ -173,8 +305,9 @@ public class ThumbnailManagerImpl extends GenericManagerImpl<Thumbnail, Long>
         throw new IllegalStateException("asked for image revision but retrieved null");
       }
     }
-    InputStream is = getInputStreamForImage(ecatImage);
-    return createThumbnailFromInputStream(is, example, subject, ecatImage.getFileName());
+    EcatImage source = ecatImage;
+    return createThumbnailFromImage(
+        () -> getInputStreamForImage(source), example, subject, ecatImage.getFileName());
   }
 
   // get WI file property, WI image blob, or
@@ -204,11 +337,27 @@ public class ThumbnailManagerImpl extends GenericManagerImpl<Thumbnail, Long>
     return is;
   }
 
-  private Thumbnail createThumbnailFromInputStream(
-      InputStream is, Thumbnail exampleThumbnail, User subject, String originalFileName)
+  /** Opens a new stream of image data each time it is called. */
+  private interface ImageSource {
+    InputStream open() throws IOException;
+  }
+
+  private Thumbnail createThumbnailFromImage(
+      ImageSource source, Thumbnail exampleThumbnail, User subject, String originalFileName)
       throws IOException {
 
-    Optional<BufferedImage> image = ImageUtils.getBufferedImageFromUploadedFile("png", is);
+    Optional<BufferedImage> image;
+    try (InputStream is = source.open()) {
+      image =
+          SubsampledImageReader.read(
+              is, exampleThumbnail.getWidth(), exampleThumbnail.getHeight());
+    }
+    if (!image.isPresent()) {
+      // not readable by ImageIO plugins; decode at full size
+      try (InputStream is = source.open()) {
+        image = ImageUtils.getBufferedImageFromUploadedFile("png", is);
+      }
+    }
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
     //noinspection OptionalGetWithoutIsPresent
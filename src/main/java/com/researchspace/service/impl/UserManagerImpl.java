@@ -1,6 +1,7 @@
 package com.researchspace.service.impl;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
 
 import com.researchspace.CacheNames;
 import com.researchspace.Constants;
@@ -36,10 +37,13 @@ import com.researchspace.service.UserExistsException;
 import com.researchspace.service.UserManager;
 import com.researchspace.session.SessionAttributeUtils;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.shiro.SecurityUtils;
@@ -50,12 +54,16 @@ import org.apache.shiro.session.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.orm.jpa.JpaSystemException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /** Implementation of UserManager interface. */
 @Service("userManager")
@@ -63,6 +71,8 @@ public class UserManagerImpl extends GenericManagerImpl<User, Long> implements U
 
   private static final Logger SECURITY_LOG = LoggerFactory.getLogger(SecurityLogger.class);
 
+  static final String PERMISSIONS_VERSION_CACHE = "com.researchspace.model.User.permissionsVersion";
+
   private RandomNumberGenerator randNumGen = new SecureRandomNumberGenerator();
   private UserDao userDao;
 
@@ -81,6 +91,9 @@ public class UserManagerImpl extends GenericManagerImpl<User, Long> implements U
   private @Autowired IVerificationPasswordValidator verificationPasswordValidator;
   private @Autowired MessageSourceUtils messages;
 
+  @Autowired(required = false)
+  private CacheManager cacheManager;
+
   /** {@inheritDoc} */
   public User getUser(String userId) {
     return userDao.get(Long.valueOf(userId));
@@ -510,6 +523,24 @@ public class UserManagerImpl extends GenericManagerImpl<User, Long> implements U
     return new SearchResultsImpl<>(user, pgCrit, 1);
   }
 
+  @Override
+  public Set<String> getViewableUsernames(User subject) {
+    if (subject.hasRole(Role.ADMIN_ROLE) && !subject.hasRole(Role.SYSTEM_ROLE)) {
+      User admin = userDao.getUserByUsername(subject.getUsername());
+      assertAdminHasAdminRole(admin);
+      List<Community> comms = communityDao.listCommunitiesForAdmin(admin.getId());
+      if (comms.isEmpty()) {
+        return new HashSet<>();
+      }
+      return new HashSet<>(userDao.getUsernamesInCommunity(comms.get(0).getId()));
+    }
+    PaginationCriteria<User> pgCrit = PaginationCriteria.createDefaultForClass(User.class);
+    pgCrit.setResultsPerPage(Integer.MAX_VALUE);
+    return getViewableUsers(subject, pgCrit).getResults().stream()
+        .map(User::getUsername)
+        .collect(Collectors.toCollection(HashSet::new));
+  }
+
   @Override
   public boolean userExists(String username) {
     return userDao.userExists(username);
@@ -529,6 +560,11 @@ public class UserManagerImpl extends GenericManagerImpl<User, Long> implements U
     return distinctUsers;
   }
 
+  @Override
+  public List<User> getViewableUsersByRole(User subject) {
+    return userDao.getViewableUsersByRole(subject);
+  }
+
   @Override
   public Set<User> populateConnectedUserSet(User subject) {
     Set<User> distinctUsers = new HashSet<>(getViewableUserSet(subject));
@@ -658,4 +694,64 @@ public class UserManagerImpl extends GenericManagerImpl<User, Long> implements U
     }
     return subject;
   }
+
+  @Override
+  public void notifyPermissionsChanged(Collection<User> users) {
+    userDao.incrementPermissionsVersion(
+        users.stream().map(User::getId).filter(Objects::nonNull).collect(toList()));
+    permissionsVersionsChanged(
+        users.stream().map(User::getUsername).filter(Objects::nonNull).collect(toList()));
+  }
+
+  /*
+   * Versions changed by the current transaction are read from the database until it completes, and
+   * are then evicted, so that they're seen at once on this node; other nodes see them when their
+   * cached versions expire. Only committed versions are cached.
+   */
+  @SuppressWarnings("unchecked")
+  private void permissionsVersionsChanged(List<String> usernames) {
+    Cache cache = getPermissionsVersionCache();
+    if (cache == null) {
+      return;
+    }
+    usernames.forEach(cache::evict);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    Set<String> changed =
+        (Set<String>) TransactionSynchronizationManager.getResource(PERMISSIONS_VERSION_CACHE);
+    if (changed == null) {
+      Set<String> changedInTransaction = new HashSet<>();
+      TransactionSynchronizationManager.bindResource(
+          PERMISSIONS_VERSION_CACHE, changedInTransaction);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(PERMISSIONS_VERSION_CACHE);
+              changedInTransaction.forEach(cache::evict);
+            }
+          });
+      changed = changedInTransaction;
+    }
+    changed.addAll(usernames);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public long getPermissionsVersion(String username) {
+    Cache cache = getPermissionsVersionCache();
+    Set<String> changed =
+        TransactionSynchronizationManager.isSynchronizationActive()
+            ? (Set<String>) TransactionSynchronizationManager.getResource(PERMISSIONS_VERSION_CACHE)
+            : null;
+    if (cache == null || (changed != null && changed.contains(username))) {
+      return userDao.getPermissionsVersion(username);
+    }
+    return cache.get(username, () -> userDao.getPermissionsVersion(username));
+  }
+
+  private Cache getPermissionsVersionCache() {
+    return cacheManager == null ? null : cacheManager.getCache(PERMISSIONS_VERSION_CACHE);
+  }
 }
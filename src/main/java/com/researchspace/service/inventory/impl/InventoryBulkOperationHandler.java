@@ -1,5 +1,6 @@
 package com.researchspace.service.inventory.impl;
 
+import static com.researchspace.dao.InventoryBulkDao.BULK_CHUNK_SIZE;
 import static com.researchspace.service.ListFormatUtils.formatList;
 
 import com.ibm.icu.text.ListFormatter;
@@ -16,6 +17,7 @@ import com.researchspace.api.v1.model.ApiInstrument;
 import com.researchspace.api.v1.model.ApiInstrumentTemplate;
 import com.researchspace.api.v1.model.ApiInventoryBulkOperationPost.BulkApiOperationType;
 import com.researchspace.api.v1.model.ApiInventoryBulkOperationResult;
+import com.researchspace.api.v1.model.ApiInventoryBulkOperationResult.ApiInventoryBulkOperationRecordResult;
 import com.researchspace.api.v1.model.ApiInventoryRecordInfo;
 import com.researchspace.api.v1.model.ApiInventoryRecordInfo.ApiInventoryRecordType;
 import com.researchspace.api.v1.model.ApiSample;
@@ -25,15 +27,28 @@ import com.researchspace.api.v1.model.ApiSampleWithFullSubSamples;
 import com.researchspace.api.v1.model.ApiSubSample;
 import com.researchspace.apiutils.ApiError;
 import com.researchspace.apiutils.ApiErrorCodes;
+import com.researchspace.dao.InventoryBulkDao;
 import com.researchspace.model.User;
+import com.researchspace.model.inventory.Container;
+import com.researchspace.model.inventory.Instrument;
+import com.researchspace.model.inventory.InstrumentTemplate;
+import com.researchspace.model.inventory.Sample;
+import com.researchspace.model.inventory.SampleTemplate;
+import com.researchspace.model.inventory.SubSample;
 import com.researchspace.service.MessageSourceUtils;
 import com.researchspace.service.inventory.InventoryMoveHelper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.BiFunction;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.BindException;
 import org.springframework.validation.SmartValidator;
 
@@ -49,6 +64,7 @@ public class InventoryBulkOperationHandler {
   private @Autowired InstrumentTemplatesApiController instrumentTemplatesApiController;
 
   private @Autowired InventoryMoveHelper inventoryMoveHelper;
+  private @Autowired InventoryBulkDao inventoryBulkDao;
 
   private @Autowired SmartValidator mvcValidator;
   private @Autowired ApiControllerAdvice apiControllerAdvice;
@@ -82,6 +98,10 @@ public class InventoryBulkOperationHandler {
    * exception when encountering the error, or continues with errors being collected in
    * result.errors.
    *
+   * <p>With rollback, all records are processed in one transaction, in chunks of {@link
+   * InventoryBulkDao#BULK_CHUNK_SIZE}: the existing records of a chunk are loaded together, and the
+   * session is flushed and cleared after each chunk, with JDBC batching of the writes.
+   *
    * @param bulkApiRequest request configuration
    * @result processed records and encountered errors
    */
@@ -117,6 +137,9 @@ public class InventoryBulkOperationHandler {
       BiFunction<ApiInventoryRecordInfo, User, ApiInventoryRecordInfo> operation) {
     ApiInventoryBulkOperationResult result = new ApiInventoryBulkOperationResult();
     List<ApiInventoryRecordInfo> records = bulkOpConfig.getRecords();
+    if (records == null) {
+      return result;
+    }
     User user = bulkOpConfig.getUser();
     boolean onErrorStopWithException = bulkOpConfig.isOnErrorStopWithException();
     // The canBeDeleted constraint only makes sense for deletion: it reports a sample that
@@ -124,11 +147,26 @@ public class InventoryBulkOperationHandler {
     // UPDATE/DUPLICATE/RESTORE/CHANGE_OWNER would falsely fail operations that have already
     // succeeded, so it is scoped to DELETE.
     boolean isDeleteOperation = bulkOpConfig.getOperationType() == BulkApiOperationType.DELETE;
-    if (records != null) {
-      for (ApiInventoryRecordInfo recInfo : records) {
+    // with rollback, all records are processed in the InventoryBulkOperationApiManager transaction
+    boolean singleTransaction =
+        onErrorStopWithException && TransactionSynchronizationManager.isActualTransactionActive();
+    boolean loadExistingRecords = bulkOpConfig.getOperationType() != BulkApiOperationType.CREATE;
+    List<Exception> validationErrors =
+        onErrorStopWithException ? null : validateRecordsWithMvcValidator(records);
+    if (singleTransaction) {
+      inventoryBulkDao.enableJdbcBatching();
+    }
+
+    for (int chunkStart = 0; chunkStart < records.size(); chunkStart += BULK_CHUNK_SIZE) {
+      int chunkEnd = Math.min(chunkStart + BULK_CHUNK_SIZE, records.size());
+      if (singleTransaction && loadExistingRecords) {
+        loadRecordsIntoSession(records.subList(chunkStart, chunkEnd));
+      }
+      for (int i = chunkStart; i < chunkEnd; i++) {
+        ApiInventoryRecordInfo recInfo = records.get(i);
         try {
-          if (!onErrorStopWithException) {
-            validateRecordWithMvcValidator(recInfo);
+          if (validationErrors != null && validationErrors.get(i) != null) {
+            throw validationErrors.get(i);
           }
           ApiInventoryRecordInfo operationResult = operation.apply(recInfo, user);
           if (operationResult != null) {
@@ -155,10 +193,37 @@ public class InventoryBulkOperationHandler {
           }
         }
       }
+      // more records to come, so write the processed ones and free up the session
+      if (singleTransaction && chunkEnd < records.size()) {
+        try {
+          inventoryBulkDao.flushAndClear(user);
+        } catch (Exception e) {
+          ApiError error = convertChunkFailureToApiError(result, chunkStart, e);
+          throw new InventoryBulkOperationException(error, result);
+        }
+      }
     }
     return result;
   }
 
+  /**
+   * Validates all records before any is processed.
+   *
+   * @return list with validation exception for each invalid record, or null for valid records
+   */
+  private List<Exception> validateRecordsWithMvcValidator(List<ApiInventoryRecordInfo> records) {
+    List<Exception> validationErrors = new ArrayList<>(records.size());
+    for (ApiInventoryRecordInfo recInfo : records) {
+      try {
+        validateRecordWithMvcValidator(recInfo);
+        validationErrors.add(null);
+      } catch (RuntimeException e) {
+        validationErrors.add(e);
+      }
+    }
+    return validationErrors;
+  }
+
   private void validateRecordWithMvcValidator(ApiInventoryRecordInfo recInfo) {
     BindException errors = new BindException(recInfo, "record");
     mvcValidator.validate(recInfo, errors);
@@ -168,6 +233,40 @@ public class InventoryBulkOperationHandler {
     }
   }
 
+  /** Loads the records' entities with one query per type, rather than one per record. */
+  private void loadRecordsIntoSession(List<ApiInventoryRecordInfo> records) {
+    Map<Class<?>, Set<Long>> idsByEntityClass = new HashMap<>();
+    for (ApiInventoryRecordInfo recInfo : records) {
+      Class<?> entityClass = getEntityClass(recInfo.getType());
+      if (entityClass != null && recInfo.getId() != null) {
+        idsByEntityClass.computeIfAbsent(entityClass, k -> new HashSet<>()).add(recInfo.getId());
+      }
+    }
+    idsByEntityClass.forEach(inventoryBulkDao::loadIntoSession);
+  }
+
+  private Class<?> getEntityClass(ApiInventoryRecordType recordType) {
+    if (recordType == null) {
+      return null;
+    }
+    switch (recordType) {
+      case SAMPLE:
+        return Sample.class;
+      case SAMPLE_TEMPLATE:
+        return SampleTemplate.class;
+      case SUBSAMPLE:
+        return SubSample.class;
+      case CONTAINER:
+        return Container.class;
+      case INSTRUMENT:
+        return Instrument.class;
+      case INSTRUMENT_TEMPLATE:
+        return InstrumentTemplate.class;
+      default:
+        return null;
+    }
+  }
+
   public ApiError convertExceptionToApiError(Exception e) {
     Throwable cause = e.getCause() == null ? e : e.getCause();
     if (cause instanceof BindException) {
@@ -180,6 +279,34 @@ public class InventoryBulkOperationHandler {
         e.getMessage());
   }
 
+  /**
+   * Reports a failure to write a chunk of records against each record of the chunk. Writes are
+   * batched, so the failure can't be traced to a single record.
+   *
+   * @param result the results so far, ending with those of the chunk
+   * @param chunkStart index of the chunk's first result
+   * @return the error now set on the chunk's successful results
+   */
+  ApiError convertChunkFailureToApiError(
+      ApiInventoryBulkOperationResult result, int chunkStart, Exception e) {
+    List<ApiInventoryBulkOperationRecordResult> results = result.getResults();
+    ApiError error =
+        new ApiError(
+            HttpStatus.BAD_REQUEST,
+            ApiErrorCodes.INVALID_FIELD.getCode(),
+            messages.getMessage("api.errors.detected", new Object[] {1}),
+            String.format(
+                "Saving records %d to %d failed: %s",
+                chunkStart + 1, results.size(), e.getMessage()));
+    for (ApiInventoryBulkOperationRecordResult recordResult :
+        results.subList(chunkStart, results.size())) {
+      if (recordResult.getError() == null) {
+        result.changeIntoErrorResult(recordResult, error);
+      }
+    }
+    return error;
+  }
+
   private ApiInventoryRecordInfo createInventoryRecord(ApiInventoryRecordInfo recInfo, User user) {
     ApiInventoryRecordType recInfoType = recInfo.getType();
     BindException errors = new BindException(recInfo, "record");
@@ -375,6 +502,9 @@ public class InventoryBulkOperationHandler {
 
   private List<ApiInventoryRecordInfo> moveAllRecordsFromList(
       List<ApiInventoryRecordInfo> recordsToMove, User user) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      loadRecordsIntoSession(recordsToMove);
+    }
     return inventoryMoveHelper.runBulkRecordMove(recordsToMove, user);
   }
 }
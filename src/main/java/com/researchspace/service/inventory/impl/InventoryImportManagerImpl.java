@@ -32,6 +32,7 @@ import com.researchspace.api.v1.model.ApiSampleWithFullSubSamples;
 import com.researchspace.api.v1.model.ApiSubSample;
 import com.researchspace.apiutils.ApiError;
 import com.researchspace.core.util.DateUtil;
+import com.researchspace.dao.InventoryBulkDao;
 import com.researchspace.model.User;
 import com.researchspace.model.core.GlobalIdentifier;
 import com.researchspace.model.inventory.Container;
@@ -91,6 +92,7 @@ public class InventoryImportManagerImpl implements InventoryImportManager {
   @Autowired private CsvSubSampleImporter subSampleCsvImporter;
   @Autowired private CsvInstrumentImporter instrumentCsvImporter;
   @Autowired private InventoryIdentifierApiManager inventoryIdentifierManager;
+  @Autowired private InventoryBulkDao inventoryBulkDao;
 
   @Override
   public ApiInventoryImportSampleParseResult parseSamplesCsvFile(
@@ -152,6 +154,7 @@ public class InventoryImportManagerImpl implements InventoryImportManager {
     }
 
     // start import
+    inventoryBulkDao.enableJdbcBatching();
     ApiInventoryImportResult importResult = new ApiInventoryImportResult(user);
     if (csvResult.getContainerResult() != null) {
       importContainers(importResult, csvResult);
@@ -631,6 +634,7 @@ public class InventoryImportManagerImpl implements InventoryImportManager {
         containerImportResult.addError(error);
         throw new InventoryImportException(error, importResult);
       }
+      flushAndClearAfterChunk(containerImportResult, importResult);
     }
 
     // move containers into requested parent, or into default workbench container
@@ -684,6 +688,28 @@ public class InventoryImportManagerImpl implements InventoryImportManager {
     }
   }
 
+  /**
+   * Writes the records created so far and clears the session after every {@link
+   * InventoryBulkDao#BULK_CHUNK_SIZE} records, so large imports don't slow down as the session
+   * grows. A failure to write is reported against all the lines of the chunk.
+   */
+  private void flushAndClearAfterChunk(
+      ApiInventoryImportPartialResult partialResult, ApiInventoryImportResult importResult) {
+    int importedCount = partialResult.getResults().size();
+    if (importedCount % InventoryBulkDao.BULK_CHUNK_SIZE != 0) {
+      return;
+    }
+    try {
+      inventoryBulkDao.flushAndClear(importResult.getCurrentUser());
+    } catch (Exception e) {
+      int chunkStart = importedCount - InventoryBulkDao.BULK_CHUNK_SIZE;
+      log.warn("Error on saving lines " + (chunkStart + 1) + " to " + importedCount, e);
+      ApiError error =
+          bulkOperationHandler.convertChunkFailureToApiError(partialResult, chunkStart, e);
+      throw new InventoryImportException(error, importResult);
+    }
+  }
+
   private ApiContainer getDefaultContainerForImportedItems(
       ApiInventoryImportResult importResult, ApiInventoryImportResult csvResult) {
 
@@ -756,6 +782,7 @@ public class InventoryImportManagerImpl implements InventoryImportManager {
         sampleImportResult.addError(error);
         throw new InventoryImportException(error, importResult);
       }
+      flushAndClearAfterChunk(sampleImportResult, importResult);
       sampleCount++;
     }
 
@@ -987,6 +1014,7 @@ public class InventoryImportManagerImpl implements InventoryImportManager {
         instrumentImportResult.addError(error);
         throw new InventoryImportException(error, importResult);
       }
+      flushAndClearAfterChunk(instrumentImportResult, importResult);
       instrumentCount++;
     }
   }
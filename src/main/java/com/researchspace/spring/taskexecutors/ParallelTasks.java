@@ -0,0 +1,71 @@
+package com.researchspace.spring.taskexecutors;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Runs a batch of tasks on several threads of a task executor, the calling thread being one of
+ * them. The calling thread works through the tasks too, so the batch completes even if the executor
+ * is busy, rejects or discards the other workers.
+ */
+@Slf4j
+public final class ParallelTasks {
+
+  private ParallelTasks() {}
+
+  /**
+   * Runs the tasks, started in this order, and returns once they have all finished.
+   *
+   * @param taskExecutor may be <code>null</code>, to run the tasks in the calling thread
+   * @param threads the most threads to run tasks on, including the calling thread
+   * @param tasks the tasks to run
+   * @param skipAfterFailure whether tasks not yet started are skipped once a task has failed
+   * @return the first exception or error thrown by a task, or <code>null</code> if none failed
+   * @throws InterruptedException if interrupted waiting for tasks running on other threads
+   */
+  public static Throwable runAll(
+      TaskExecutor taskExecutor,
+      int threads,
+      List<? extends Runnable> tasks,
+      boolean skipAfterFailure)
+      throws InterruptedException {
+    Queue<Runnable> queue = new ConcurrentLinkedQueue<>(tasks);
+    CountDownLatch finished = new CountDownLatch(tasks.size());
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Runnable worker =
+        () -> {
+          Runnable task;
+          while ((task = queue.poll()) != null) {
+            try {
+              if (!skipAfterFailure || failure.get() == null) {
+                task.run();
+              }
+            } catch (Throwable t) {
+              // errors too, else the batch would seem to succeed without the failed task
+              failure.compareAndSet(null, t);
+            } finally {
+              finished.countDown();
+            }
+          }
+        };
+
+    int workers = taskExecutor == null ? 1 : Math.min(threads, tasks.size());
+    for (int i = 1; i < workers; i++) {
+      try {
+        taskExecutor.execute(worker);
+      } catch (TaskRejectedException e) {
+        log.debug("Task executor is busy, running {} tasks on {} threads", tasks.size(), i);
+        break;
+      }
+    }
+    worker.run();
+    finished.await();
+    return failure.get();
+  }
+}
@@ -0,0 +1,39 @@
+package com.researchspace.spring.taskexecutors;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * What a task executor does with a task when all its threads are busy and its queue is full. Set
+ * per pool with the '&lt;pool&gt;.taskExecutor.rejection' deployment property.
+ */
+@Slf4j
+public enum RejectionPolicy {
+
+  /**
+   * The task is not run and the caller gets a TaskRejectedException. This is the default, except
+   * for the shared 'default' pool.
+   */
+  ABORT,
+
+  /**
+   * The task is run in the calling thread, which slows down the caller until the pool catches up.
+   */
+  CALLER_RUNS,
+
+  /** The task is not run, and a warning is logged. For work that can be safely skipped. */
+  DISCARD;
+
+  RejectedExecutionHandler createHandler(String poolName) {
+    switch (this) {
+      case CALLER_RUNS:
+        return new ThreadPoolExecutor.CallerRunsPolicy();
+      case DISCARD:
+        return (task, executor) ->
+            log.warn("Task executor '{}' is full, task discarded: {}", poolName, task);
+      default:
+        return new ThreadPoolExecutor.AbortPolicy();
+    }
+  }
+}
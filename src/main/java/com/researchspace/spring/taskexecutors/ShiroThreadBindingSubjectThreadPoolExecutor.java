@@ -1,11 +1,22 @@
 package com.researchspace.spring.taskexecutors;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.subject.Subject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -15,13 +26,24 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
  *
  * <p>This class overrides methods where appropriate, in order to bind the subject to the thread to
  * be executed.
+ *
+ * <p>If a {@link MeterRegistry} is available, the pool reports its size, active threads and queue
+ * ('executor.*' gauges), the time tasks wait in the queue ('executor.idle') and run for
+ * ('executor'), and the number of rejected tasks ('executor.rejected'), all tagged with the pool
+ * name.
  */
+@Slf4j
 public class ShiroThreadBindingSubjectThreadPoolExecutor extends ThreadPoolTaskExecutor {
 
   private static final long serialVersionUID = -5478877629946489046L;
   // for test introspection
   int configuredQueueCapacity;
 
+  private String poolName;
+  private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+  private boolean virtualThreads;
+  private MeterRegistry meterRegistry;
+
   /**
    * Not used, this is just to report a value that is set into a private variable in superclass
    * rspac-2150
@@ -32,17 +54,82 @@ public class ShiroThreadBindingSubjectThreadPoolExecutor extends ThreadPoolTaskE
     return configuredQueueCapacity;
   }
 
+  public RejectionPolicy getRejectionPolicy() {
+    return rejectionPolicy;
+  }
+
   public static ThreadPoolTaskExecutor createNewExecutor(
       int corePoolSize, int maxPoolSize, int queueCapacity) {
+    return createNewExecutor(corePoolSize, maxPoolSize, queueCapacity, RejectionPolicy.ABORT);
+  }
+
+  public static ShiroThreadBindingSubjectThreadPoolExecutor createNewExecutor(
+      int corePoolSize, int maxPoolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
     ShiroThreadBindingSubjectThreadPoolExecutor rc =
         new ShiroThreadBindingSubjectThreadPoolExecutor();
     rc.setCorePoolSize(corePoolSize);
     rc.setMaxPoolSize(maxPoolSize);
     rc.setQueueCapacity(queueCapacity);
     rc.configuredQueueCapacity = queueCapacity;
+    rc.rejectionPolicy = rejectionPolicy;
     return rc;
   }
 
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Runs tasks in virtual threads, if the JVM supports them (Java 21+); intended for pools whose
+   * tasks mostly wait on network or disk I/O. The pool sizes still limit how many tasks run at
+   * once.
+   */
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  @Override
+  public void setBeanName(String name) {
+    super.setBeanName(name);
+    this.poolName = name;
+  }
+
+  @Override
+  protected ExecutorService initializeExecutor(
+      ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+    String name = poolName != null ? poolName : getThreadNamePrefix();
+    if (virtualThreads) {
+      ThreadFactory virtualThreadFactory = VirtualThreads.createFactory(getThreadNamePrefix());
+      if (virtualThreadFactory != null) {
+        threadFactory = virtualThreadFactory;
+        // virtual threads are cheap to create, so don't keep idle ones
+        setAllowCoreThreadTimeOut(true);
+      } else {
+        log.warn("Virtual threads not supported by this JVM, '{}' uses platform threads", name);
+      }
+    }
+    RejectedExecutionHandler handler = rejectionPolicy.createHandler(name);
+    if (meterRegistry == null) {
+      return super.initializeExecutor(threadFactory, handler);
+    }
+
+    Tags tags = Tags.of("name", name);
+    Counter rejected = meterRegistry.counter("executor.rejected", tags);
+    Timer waiting = meterRegistry.timer("executor.idle", tags);
+    Timer running = meterRegistry.timer("executor", tags);
+    setTaskDecorator(new TimingTaskDecorator(waiting, running));
+    ExecutorService executor =
+        super.initializeExecutor(
+            threadFactory,
+            (task, pool) -> {
+              rejected.increment();
+              handler.rejectedExecution(task, pool);
+            });
+    new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+    return executor;
+  }
+
   @Override
   public <T> Future<T> submit(Callable<T> task) {
     // associate subject with supplied callable.
@@ -56,4 +143,29 @@ public class ShiroThreadBindingSubjectThreadPoolExecutor extends ThreadPoolTaskE
           "Executor [" + executor + "] did not accept task: " + task, ex);
     }
   }
+
+  /** Records how long each task waits in the queue and how long it runs for. */
+  static class TimingTaskDecorator implements TaskDecorator {
+    private final Timer waiting;
+    private final Timer running;
+
+    TimingTaskDecorator(Timer waiting, Timer running) {
+      this.waiting = waiting;
+      this.running = running;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+      long submitted = System.nanoTime();
+      return () -> {
+        long started = System.nanoTime();
+        waiting.record(started - submitted, TimeUnit.NANOSECONDS);
+        try {
+          task.run();
+        } finally {
+          running.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+      };
+    }
+  }
 }
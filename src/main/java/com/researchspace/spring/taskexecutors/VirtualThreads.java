@@ -0,0 +1,28 @@
+package com.researchspace.spring.taskexecutors;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads when running on Java 21 or later. RSpace is compiled for Java 17, so the
+ * virtual thread API is looked up at runtime.
+ */
+class VirtualThreads {
+
+  private VirtualThreads() {}
+
+  /**
+   * @param namePrefix prefix of the thread names, which are numbered from 1
+   * @return a factory of virtual threads, or <code>null</code> if this JVM doesn't support them
+   */
+  static ThreadFactory createFactory(String namePrefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder =
+          builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+}
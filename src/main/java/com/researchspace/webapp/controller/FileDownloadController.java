@@ -17,12 +17,11 @@ import com.researchspace.service.FileDuplicateStrategy;
 import com.researchspace.service.RSChemElementManager;
 import com.researchspace.service.RecordSigningManager;
 import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
@@ -47,8 +46,6 @@ public class FileDownloadController extends BaseController {
 
   public static final String STREAM_URL = "/Streamfile";
 
-  private static final int BUFFER_SIZE = 8192;
-
   @Autowired
   @Qualifier("compositeDocumentConverter")
   private DocumentConversionService converter;
@@ -72,10 +69,11 @@ public class FileDownloadController extends BaseController {
       @PathVariable("record_id") Long recordId,
       @PathVariable("nameFile") String name,
       @RequestParam(value = "revision", required = false) Long revisionId,
+      HttpServletRequest request,
       HttpServletResponse response)
       throws IOException {
     User subject = userManager.getAuthenticatedUserInSession();
-    doStreamFile(recordId, revisionId, null, response, subject);
+    doStreamFile(recordId, revisionId, null, request, response, subject);
   }
 
   @GetMapping("/{record_id}")
@@ -84,26 +82,34 @@ public class FileDownloadController extends BaseController {
       @PathVariable("record_id") Long recordId,
       @RequestParam(value = "revision", required = false) Long revisionId,
       @RequestParam(value = "version", required = false) Long version,
+      HttpServletRequest request,
       HttpServletResponse response)
       throws IOException {
     User subject = userManager.getAuthenticatedUserInSession();
-    doStreamFile(recordId, revisionId, version, response, subject);
+    doStreamFile(recordId, revisionId, version, request, response, subject);
   }
 
   private void doStreamFile(
-      Long recordId, Long revisionId, Long version, HttpServletResponse response, User subject)
+      Long recordId,
+      Long revisionId,
+      Long version,
+      HttpServletRequest request,
+      HttpServletResponse response,
+      User subject)
       throws IOException {
     EcatMediaFile ecatMediaFile =
         baseRecordManager.retrieveMediaFile(subject, recordId, revisionId, version, null);
     FileProperty fp = ecatMediaFile.getFileProperty();
     auditService.notify(new GenericEvent(subject, ecatMediaFile, AuditAction.DOWNLOAD));
-    doWriteToResponse(response, ecatMediaFile.getFileName(), ecatMediaFile.getContentType(), fp);
+    doWriteToResponse(
+        request, response, ecatMediaFile.getFileName(), ecatMediaFile.getContentType(), fp);
   }
 
   @GetMapping("/chemImage/{chemId}")
   public void getStreamChemImage(
       @PathVariable("chemId") Long chemElemId,
       @RequestParam(value = "revision", required = false) Long revisionId,
+      HttpServletRequest request,
       HttpServletResponse response)
       throws IOException {
     User subject = userManager.getAuthenticatedUserInSession();
@@ -113,12 +119,14 @@ public class FileDownloadController extends BaseController {
       return;
     }
 
-    writeChemImageToResponse(chem, response);
+    writeChemImageToResponse(chem, request, response);
   }
 
   @GetMapping("/chemFileImage/{ecatChemFileId}")
   public void getStreamChemFileImage(
-      @PathVariable("ecatChemFileId") Long ecatChemFileId, HttpServletResponse response)
+      @PathVariable("ecatChemFileId") Long ecatChemFileId,
+      HttpServletRequest request,
+      HttpServletResponse response)
       throws IOException {
     User subject = userManager.getAuthenticatedUserInSession();
     List<RSChemElement> chemElements =
@@ -127,43 +135,45 @@ public class FileDownloadController extends BaseController {
       log.error("Could not retrieve Image for chemical file: {}", ecatChemFileId);
       return;
     }
-    writeChemImageToResponse(chemElements.get(0), response);
+    writeChemImageToResponse(chemElements.get(0), request, response);
   }
 
-  private void writeChemImageToResponse(RSChemElement chemElement, HttpServletResponse response)
+  private void writeChemImageToResponse(
+      RSChemElement chemElement, HttpServletRequest request, HttpServletResponse response)
       throws IOException {
     FileProperty fp = chemElement.getImageFileProperty();
     if (fp != null) {
-      doWriteToResponse(response, fp.getFileName(), MediaType.IMAGE_PNG_VALUE, fp);
+      doWriteToResponse(request, response, fp.getFileName(), MediaType.IMAGE_PNG_VALUE, fp);
     } else {
       String filename = "chem" + chemElement.getId() + ".png";
-      ByteArrayInputStream bais = new ByteArrayInputStream(chemElement.getDataImage());
-      doWriteInputStreamToResponse(response, filename, MediaType.IMAGE_PNG_VALUE, bais);
+      doWriteBytesToResponse(
+          response, filename, MediaType.IMAGE_PNG_VALUE, chemElement.getDataImage());
     }
   }
 
   private void doWriteToResponse(
-      HttpServletResponse response, String fileName, String contentType, FileProperty fp)
+      HttpServletRequest request,
+      HttpServletResponse response,
+      String fileName,
+      String contentType,
+      FileProperty fp)
       throws IOException {
     Optional<FileInputStream> fis = fileStore.retrieve(fp);
     if (fis.isPresent()) {
-      doWriteInputStreamToResponse(response, fileName, contentType, fis.get());
+      setContentInfo(fileName, contentType, response);
+      FileResponseWriter.writeFileProperty(request, response, fp, fis.get());
     } else {
       log.error("Could not retrieve file for FileProperty {}", fp.getId());
     }
   }
 
-  private void doWriteInputStreamToResponse(
-      HttpServletResponse response, String fileName, String contentType, InputStream fis)
+  private void doWriteBytesToResponse(
+      HttpServletResponse response, String fileName, String contentType, byte[] bytes)
       throws IOException {
-    try (InputStream is = fis;
-        ServletOutputStream out = response.getOutputStream(); ) {
-      setContentInfo(fileName, contentType, response);
-      byte[] outputByte = new byte[BUFFER_SIZE];
-      int count = 0;
-      while ((count = is.read(outputByte, 0, BUFFER_SIZE)) != -1) {
-        out.write(outputByte, 0, count);
-      }
+    setContentInfo(fileName, contentType, response);
+    response.setContentLength(bytes.length);
+    try (ServletOutputStream out = response.getOutputStream()) {
+      out.write(bytes);
     }
   }
 
@@ -279,18 +289,21 @@ public class FileDownloadController extends BaseController {
   public void streamDirect(
       @PathVariable("record_id") Long docId,
       @RequestParam(value = "fileName") String fileName,
+      HttpServletRequest request,
       HttpServletResponse response)
       throws IOException {
     User subject = userManager.getAuthenticatedUserInSession();
     EcatMediaFile input = baseRecordManager.retrieveMediaFile(subject, docId, null, null, null);
     FileProperty fp =
         generateFileProperty(FilenameUtils.getExtension(fileName), input, fileName, subject);
-    doWriteToResponseFromFileProperty(response, fp);
+    doWriteToResponseFromFileProperty(request, response, fp);
   }
 
-  private void doWriteToResponseFromFileProperty(HttpServletResponse response, FileProperty fp)
+  private void doWriteToResponseFromFileProperty(
+      HttpServletRequest request, HttpServletResponse response, FileProperty fp)
       throws IOException {
     doWriteToResponse(
+        request,
         response,
         fp.getFileName(),
         MediaUtils.getContentTypeForFileExtension(fp.getFileCategory()),
@@ -311,6 +324,7 @@ public class FileDownloadController extends BaseController {
   public void streamFilePropertyDirect(
       @PathVariable("signatureId") Long signatureId,
       @PathVariable("filePropertyId") Long filePropertyId,
+      HttpServletRequest request,
       HttpServletResponse response)
       throws IOException {
     User user = userManager.getAuthenticatedUserInSession();
@@ -318,7 +332,7 @@ public class FileDownloadController extends BaseController {
         recordSharingMgr.getSignedExport(signatureId, user, filePropertyId);
     if (optFp.isPresent()) {
       FileProperty fp = optFp.get();
-      doWriteToResponseFromFileProperty(response, fp);
+      doWriteToResponseFromFileProperty(request, response, fp);
     } else {
       throw new IllegalStateException(getResourceNotFoundMessage("File", filePropertyId));
     }
@@ -0,0 +1,223 @@
+package com.researchspace.webapp.controller;
+
+import com.researchspace.model.FileProperty;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Writes stored file content to an HTTP response, for controllers that serve file downloads.
+ *
+ * <ul>
+ *   <li>Sets a strong ETag and Last-Modified, and answers matching conditional requests with 304
+ *       Not Modified and no content
+ *   <li>Serves single and multiple byte ranges ('Range' header, honouring 'If-Range'), so media
+ *       players can seek and interrupted downloads can be resumed
+ *   <li>Copies the file, or each range, from its {@link FileChannel} to the response stream in
+ *       small chunks, so the file is never held in memory. This isn't a zero-copy transfer, as the
+ *       servlet output stream is only wrapped as a channel
+ * </ul>
+ *
+ * Callers set the content type and disposition headers beforehand, as for a plain download.
+ */
+public final class FileResponseWriter {
+
+  private static final String BYTES = "bytes";
+
+  private FileResponseWriter() {}
+
+  /**
+   * A strong ETag for the current contents of a FileProperty: its contents hash if it has one,
+   * otherwise its id, size and last update, which all change whenever the file is replaced.
+   */
+  public static String getETag(FileProperty fileProperty, long size) {
+    if (!StringUtils.isBlank(fileProperty.getContentsHash())) {
+      return quote(fileProperty.getContentsHash());
+    }
+    long updated =
+        fileProperty.getUpdateDate() != null ? fileProperty.getUpdateDate().getTime() : 0L;
+    return quote(fileProperty.getId() + "-" + size + "-" + updated);
+  }
+
+  /**
+   * Writes the contents of a FileProperty, retrieved from the file store, then closes the stream.
+   */
+  public static void writeFileProperty(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FileProperty fileProperty,
+      FileInputStream contents)
+      throws IOException {
+    try (FileInputStream in = contents) {
+      long size = in.getChannel().size();
+      long lastModified =
+          fileProperty.getUpdateDate() != null ? fileProperty.getUpdateDate().getTime() : -1L;
+      write(request, response, in, getETag(fileProperty, size), lastModified);
+    }
+  }
+
+  /**
+   * Writes a file, or the requested ranges of it, unless the client's copy is up to date. The
+   * stream is not closed.
+   *
+   * @param eTag a quoted strong ETag, or <code>null</code> if the content has none
+   * @param lastModified the last modification time in milliseconds, or -1 if unknown
+   */
+  public static void write(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FileInputStream contents,
+      String eTag,
+      long lastModified)
+      throws IOException {
+    FileChannel channel = contents.getChannel();
+    long size = channel.size();
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+    if (request != null && (eTag != null || lastModified >= 0)) {
+      // sets ETag and Last-Modified, and the status to 304 if the client's copy matches
+      if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+        return;
+      }
+    }
+    List<HttpRange> ranges = getRequestedRanges(request, eTag, lastModified);
+    if (ranges.isEmpty()) {
+      response.setContentLengthLong(size);
+      try (ServletOutputStream out = response.getOutputStream()) {
+        transfer(channel, 0, size, out);
+      }
+      return;
+    }
+    for (HttpRange range : ranges) {
+      if (!isSatisfiable(range, size)) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " */" + size);
+        response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        return;
+      }
+    }
+    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    if (ranges.size() == 1) {
+      writeRange(response, channel, ranges.get(0), size);
+    } else {
+      writeRanges(response, channel, ranges, size);
+    }
+  }
+
+  /*
+   * Ranges only apply to the same version of the content that the client has part of, so a range
+   * request with an outdated If-Range gets the whole file.
+   */
+  private static List<HttpRange> getRequestedRanges(
+      HttpServletRequest request, String eTag, long lastModified) {
+    if (request == null || !"GET".equals(request.getMethod())) {
+      return List.of();
+    }
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader == null || !ifRangeMatches(request, eTag, lastModified)) {
+      return List.of();
+    }
+    try {
+      return HttpRange.parseRanges(rangeHeader);
+    } catch (IllegalArgumentException e) {
+      // malformed, or too many ranges: servers may ignore the header
+      return List.of();
+    }
+  }
+
+  private static boolean ifRangeMatches(
+      HttpServletRequest request, String eTag, long lastModified) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"")) {
+      return ifRange.equals(eTag);
+    }
+    long ifRangeDate;
+    try {
+      ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    // HTTP dates have second precision
+    return lastModified >= 0 && lastModified / 1000 == ifRangeDate / 1000;
+  }
+
+  private static boolean isSatisfiable(HttpRange range, long size) {
+    try {
+      return size > 0 && range.getRangeStart(size) < size;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static void writeRange(
+      HttpServletResponse response, FileChannel channel, HttpRange range, long size)
+      throws IOException {
+    long start = range.getRangeStart(size);
+    long end = range.getRangeEnd(size);
+    response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, size));
+    response.setContentLengthLong(end - start + 1);
+    try (ServletOutputStream out = response.getOutputStream()) {
+      transfer(channel, start, end - start + 1, out);
+    }
+  }
+
+  private static void writeRanges(
+      HttpServletResponse response, FileChannel channel, List<HttpRange> ranges, long size)
+      throws IOException {
+    String boundary = UUID.randomUUID().toString();
+    String contentType = response.getContentType();
+    response.setContentType("multipart/byteranges; boundary=" + boundary);
+    try (ServletOutputStream out = response.getOutputStream()) {
+      for (HttpRange range : ranges) {
+        long start = range.getRangeStart(size);
+        long end = range.getRangeEnd(size);
+        StringBuilder partHeaders = new StringBuilder("\r\n--").append(boundary).append("\r\n");
+        if (contentType != null) {
+          partHeaders.append(HttpHeaders.CONTENT_TYPE).append(": ").append(contentType);
+          partHeaders.append("\r\n");
+        }
+        partHeaders.append(HttpHeaders.CONTENT_RANGE).append(": ");
+        partHeaders.append(contentRange(start, end, size)).append("\r\n\r\n");
+        out.write(partHeaders.toString().getBytes(StandardCharsets.US_ASCII));
+        transfer(channel, start, end - start + 1, out);
+      }
+      out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+  }
+
+  private static String quote(String value) {
+    return "\"" + value + "\"";
+  }
+
+  private static String contentRange(long start, long end, long size) {
+    return BYTES + " " + start + "-" + end + "/" + size;
+  }
+
+  private static void transfer(
+      FileChannel channel, long position, long count, ServletOutputStream out)
+      throws IOException {
+    // not closed, as that would close the response stream; transferTo copies through a buffer
+    WritableByteChannel target = Channels.newChannel(out);
+    long written = 0;
+    while (written < count) {
+      long transferred = channel.transferTo(position + written, count - written, target);
+      if (transferred <= 0) {
+        break; // the file is shorter than when its size was read
+      }
+      written += transferred;
+    }
+  }
+}
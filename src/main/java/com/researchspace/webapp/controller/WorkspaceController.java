@@ -35,6 +35,7 @@ import com.researchspace.model.audittrail.HistoricalEvent;
 import com.researchspace.model.core.RecordType;
 import com.researchspace.model.dto.SharingResult;
 import com.researchspace.model.dto.UserPublicInfo;
+import com.researchspace.model.dtos.FolderListingCursor;
 import com.researchspace.model.dtos.NotebookCreationResult;
 import com.researchspace.model.dtos.RecordTagData;
 import com.researchspace.model.dtos.ShareConfigCommand;
@@ -143,6 +144,7 @@ public class WorkspaceController extends BaseController {
   protected static final int NESTED_NAME_MAX_FOLDERS = 10;
   private static final String BCRUMB = "bcrumb";
   private static final String SEARCH_RESULTS = "searchResults";
+  private static final String NEXT_PAGE_TOKEN = "nextPageToken";
 
   @Autowired private ResponseUtil responseUtil;
 
@@ -314,6 +316,7 @@ public class WorkspaceController extends BaseController {
                 model,
                 cfg.getFilters(),
                 cfg.getPgCrit(),
+                null,
                 cfg.getCurrentViewMode(),
                 user,
                 grandParentId));
@@ -331,6 +334,7 @@ public class WorkspaceController extends BaseController {
               model,
               workspaceSettings.createWorkspaceFilter(),
               workspaceSettings.createPaginationCriteria(),
+              workspaceSettings.getPageToken(),
               workspaceSettings.getCurrentViewMode(),
               user,
               grandParentId));
@@ -905,6 +909,7 @@ public class WorkspaceController extends BaseController {
           model,
           settings.createWorkspaceFilter(),
           settings.createPaginationCriteria(),
+          settings.getPageToken(),
           settings.getCurrentViewMode(),
           user,
           settings.getParentFolderId());
@@ -1013,6 +1018,7 @@ public class WorkspaceController extends BaseController {
       Model model,
       WorkspaceFilters filters,
       PaginationCriteria<BaseRecord> pgCrit,
+      String pageToken,
       WorkspaceSettings.WorkspaceViewMode viewMode,
       User user,
       Long previousFolderId) {
@@ -1023,7 +1029,16 @@ public class WorkspaceController extends BaseController {
     if (!filters.isSomeFilterActive()) {
       records =
           recordManager.listFolderRecords(
-              parentFolder.getId(), pgCrit, RecordTypeFilter.WORKSPACE_FILTER);
+              parentFolder.getId(),
+              pgCrit,
+              RecordTypeFilter.WORKSPACE_FILTER,
+              FolderListingCursor.fromToken(pageToken));
+      FolderListingCursor nextPage =
+          FolderListingCursor.forNextPage(
+              parentFolder.getId(), pgCrit, RecordTypeFilter.WORKSPACE_FILTER, records);
+      if (nextPage != null) {
+        model.addAttribute(NEXT_PAGE_TOKEN, nextPage.toToken());
+      }
     } else {
       records = recordManager.getFilteredRecords(filters, pgCrit, user);
     }
@@ -36,7 +36,6 @@ public class ArgosDMPProvider {
 
   public ArgosDMPProvider(URL baseUrl) {
     this.baseUrl = baseUrl;
-    this.restTemplate = new RestTemplate();
     this.argosClient = new ArgosClientImpl(baseUrl);
   }
 
@@ -3,6 +3,7 @@ package com.researchspace.webapp.integrations.clustermarket;
 import static com.researchspace.service.IntegrationsHandler.CLUSTERMARKET_APP_NAME;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.User;
 import com.researchspace.model.oauth.UserConnection;
 import com.researchspace.model.oauth.UserConnectionId;
@@ -57,10 +58,12 @@ public class ClustermarketOAuthService {
   private RestTemplate restTemplate;
 
   public ClustermarketOAuthService(
-      UserConnectionManager userConnectionManager, IPropertyHolder properties) {
+      UserConnectionManager userConnectionManager,
+      IPropertyHolder properties,
+      HttpClientFactory httpClientFactory) {
     this.userConnectionManager = userConnectionManager;
     this.properties = properties;
-    this.restTemplate = new RestTemplate();
+    this.restTemplate = httpClientFactory.createRestTemplate("clustermarket");
   }
 
   /**
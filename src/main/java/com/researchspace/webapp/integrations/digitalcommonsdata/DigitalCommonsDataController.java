@@ -5,6 +5,7 @@ import static com.researchspace.dcd.utils.DigitalCommonsDataUtils.getAuthBaseUrl
 import static com.researchspace.service.IntegrationsHandler.DIGITAL_COMMONS_DATA_APP_NAME;
 import static com.researchspace.service.IntegrationsHandler.PROVIDER_USER_ID;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.dcd.model.DcdAccessToken;
 import com.researchspace.model.oauth.UserConnection;
 import com.researchspace.model.oauth.UserConnectionId;
@@ -82,8 +83,9 @@ public class DigitalCommonsDataController extends BaseOAuth2Controller {
   private static final String CONNECTION_CHANNEL = "rspace.apps.digitalcommonsdata.connection";
   private static final String CONNECTION_TYPE = "DIGITALCOMMONSDATA_CONNECTED";
 
-  public DigitalCommonsDataController() {
-    this.restTemplate = new RestTemplate();
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("digitalcommonsdata");
   }
 
   @PostConstruct
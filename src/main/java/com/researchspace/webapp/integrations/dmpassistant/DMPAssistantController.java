@@ -4,6 +4,7 @@ import static com.researchspace.service.IntegrationsHandler.PROVIDER_USER_ID;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.EcatDocumentFile;
 import com.researchspace.model.User;
 import com.researchspace.model.dmps.DMPSource;
@@ -117,7 +118,12 @@ public class DMPAssistantController extends BaseOAuth2Controller {
   private String urlCallback;
 
   @Setter(value = AccessLevel.PROTECTED) // test purposes
-  private RestTemplate restTemplate = new RestTemplate();
+  private RestTemplate restTemplate;
+
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("dmpassistant");
+  }
 
   @PostConstruct
   public void init() throws URISyntaxException, MalformedURLException {
@@ -1,12 +1,14 @@
 package com.researchspace.webapp.integrations.dmpassistant;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.researchspace.client.HttpClientFactory;
 import jakarta.annotation.PostConstruct;
 import java.net.URI;
 import java.util.Collections;
 import lombok.AccessLevel;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -24,12 +26,17 @@ public class DMPAssistantProviderImpl implements DMPAssistantProvider {
   private String baseUrl;
 
   @Setter(value = AccessLevel.PROTECTED) // test purposes
-  private RestTemplate restTemplate = new RestTemplate();
+  private RestTemplate restTemplate;
 
   private String urlMe;
   private String urlPlans;
   private String urlTemplates;
 
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("dmpassistant");
+  }
+
   @PostConstruct
   public void init() {
     this.urlMe = this.baseUrl + "/api/v2/me";
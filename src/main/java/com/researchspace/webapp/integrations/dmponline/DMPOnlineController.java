@@ -5,6 +5,7 @@ import static com.researchspace.service.IntegrationsHandler.PROVIDER_USER_ID;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.EcatDocumentFile;
 import com.researchspace.model.User;
 import com.researchspace.model.dmps.DMPSource;
@@ -105,8 +106,8 @@ public class DMPOnlineController extends BaseOAuth2Controller {
   @Setter(value = AccessLevel.PROTECTED) // test purposes
   private RestTemplate restTemplate;
 
-  public DMPOnlineController() {
-    this.restTemplate = new RestTemplate();
+  public DMPOnlineController(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("dmponline");
   }
 
   @PostConstruct
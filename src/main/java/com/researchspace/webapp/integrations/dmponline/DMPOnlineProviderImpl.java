@@ -1,6 +1,7 @@
 package com.researchspace.webapp.integrations.dmponline;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.rda.model.extras.DMPList;
 import jakarta.annotation.PostConstruct;
 import java.net.MalformedURLException;
@@ -28,8 +29,8 @@ public class DMPOnlineProviderImpl implements DMPOnlineProvider {
 
   private static String URL_DMP_PLANS;
 
-  public DMPOnlineProviderImpl() {
-    this.restTemplate = new RestTemplate();
+  public DMPOnlineProviderImpl(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("dmponline");
   }
 
   @PostConstruct
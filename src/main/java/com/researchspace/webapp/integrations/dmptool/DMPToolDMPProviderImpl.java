@@ -49,9 +49,9 @@ public class DMPToolDMPProviderImpl extends AbstractDMPToolDMPProvider
 
   private DMPToolClient dmpToolClient;
 
-  public DMPToolDMPProviderImpl(URL baseUrl) {
+  public DMPToolDMPProviderImpl(URL baseUrl, RestTemplate restTemplate) {
     super(baseUrl);
-    this.restTemplate = new RestTemplate();
+    this.restTemplate = restTemplate;
     try {
       this.dmpToolClient = new DMPToolClientImpl(new URL(baseUrl, "/api/v2/"));
     } catch (MalformedURLException e) {
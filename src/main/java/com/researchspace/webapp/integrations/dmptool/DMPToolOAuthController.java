@@ -3,6 +3,7 @@ package com.researchspace.webapp.integrations.dmptool;
 import static com.researchspace.service.IntegrationsHandler.DMPTOOL_APP_NAME;
 import static com.researchspace.service.IntegrationsHandler.PROVIDER_USER_ID;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.dmptool.model.DMPPlanScope;
 import com.researchspace.dmptool.model.DMPToolDMP;
 import com.researchspace.dmptool.model.DMPToolList;
@@ -68,12 +69,13 @@ public class DMPToolOAuthController extends BaseOAuth2Controller {
   @Value("${dmptool.callback.base.url}")
   private String callbackBaseUrl;
 
-  private final RestTemplate restTemplate;
+  private RestTemplate restTemplate;
 
   private @Autowired DMPToolDMPProvider dmpToolDMPProvider;
 
-  public DMPToolOAuthController() {
-    this.restTemplate = new RestTemplate();
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("dmptool");
   }
 
   @PostMapping("/connect")
@@ -3,6 +3,7 @@ package com.researchspace.webapp.integrations.dryad;
 import static com.researchspace.service.IntegrationsHandler.DRYAD_APP_NAME;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.oauth.UserConnection;
 import com.researchspace.model.oauth.UserConnectionId;
 import com.researchspace.webapp.integrations.helper.BaseOAuth2Controller;
@@ -14,6 +15,7 @@ import java.security.Principal;
 import java.util.Map;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -47,10 +49,11 @@ public class DryadOAuthController extends BaseOAuth2Controller {
   @Value("${dryad.base.url}")
   private String baseUrl;
 
-  private final RestTemplate restTemplate;
+  private RestTemplate restTemplate;
 
-  public DryadOAuthController() {
-    this.restTemplate = new RestTemplate();
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("dryad");
   }
 
   /**
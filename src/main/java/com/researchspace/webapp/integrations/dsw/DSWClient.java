@@ -59,12 +59,12 @@ public class DSWClient {
 
   private ObjectMapper mapper = new ObjectMapper();
 
-  public DSWClient() {
-    this.restTemplate = new RestTemplate();
+  public DSWClient(RestTemplate restTemplate) {
+    this.restTemplate = restTemplate;
   }
 
-  @Autowired
   public DSWClient(
+      RestTemplate restTemplate,
       UserConnectionManager userConnectionManager,
       UserManager userManager,
       MediaManager mediaManager,
@@ -73,7 +73,7 @@ public class DSWClient {
     this.userManager = userManager;
     this.mediaManager = mediaManager;
     this.dmpManager = dmpManager;
-    this.restTemplate = new RestTemplate();
+    this.restTemplate = restTemplate;
   }
 
   private HttpHeaders getHttpHeaders(String serverAlias, DSWConnectionConfig connCfg) {
@@ -3,6 +3,7 @@ package com.researchspace.webapp.integrations.figshare;
 import static com.researchspace.service.IntegrationsHandler.FIGSHARE_APP_NAME;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.figshare.api.Figshare;
 import com.researchspace.figshare.connect.FigshareOAuth2Endpoints;
 import com.researchspace.figshare.impl.FigshareTemplate;
@@ -24,6 +25,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -60,8 +62,9 @@ public class FigshareOAuthController extends BaseOAuth2Controller {
 
   private RestTemplate restTemplate;
 
-  public FigshareOAuthController() {
-    this.restTemplate = new RestTemplate();
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("figshare");
   }
 
   /**
@@ -4,6 +4,7 @@ import static com.researchspace.session.SessionAttributeUtils.getSessionAttribut
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.User;
 import com.researchspace.model.dto.IntegrationInfo;
 import com.researchspace.model.field.ErrorList;
@@ -28,6 +29,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -123,8 +125,9 @@ public class GitHubController extends BaseOAuth2Controller {
     private @JsonProperty("error_uri") String errorUri;
   }
 
-  public GitHubController() {
-    this.restTemplate = new RestTemplate();
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("github");
   }
 
   public void setRestTemplate(RestTemplate restTemplate) {
@@ -17,11 +17,14 @@ public class OrcidConnector {
   private String clientId;
   private String clientSecret;
   private String tokenUrl;
+  private RestTemplate template;
 
-  public OrcidConnector(String clientId, String clientSecret, String tokenUrl) {
+  public OrcidConnector(
+      String clientId, String clientSecret, String tokenUrl, RestTemplate template) {
     this.clientId = clientId;
     this.clientSecret = clientSecret;
     this.tokenUrl = tokenUrl;
+    this.template = template;
   }
 
   public ResponseEntity<Map> getOrcidIdForAuthorizationCode(String code) {
@@ -37,7 +40,6 @@ public class OrcidConnector {
 
     log.warn("connecting to orcid uri: " + uri + " with data: " + data);
 
-    RestTemplate template = new RestTemplate();
     HttpHeaders headers = new HttpHeaders();
     headers.add("Accept", "application/json");
     headers.add("Content-Type", "application/x-www-form-urlencoded");
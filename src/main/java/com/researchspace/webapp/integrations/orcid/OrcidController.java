@@ -1,5 +1,6 @@
 package com.researchspace.webapp.integrations.orcid;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.User;
 import com.researchspace.model.dto.IntegrationInfo;
 import com.researchspace.service.IntegrationsHandler;
@@ -41,6 +42,8 @@ public class OrcidController {
 
   @Autowired protected UserManager userManager;
 
+  @Autowired private HttpClientFactory httpClientFactory;
+
   private OrcidConnector connector;
 
   @GetMapping("/redirect_uri")
@@ -107,7 +110,9 @@ public class OrcidController {
 
   private OrcidConnector getOrcidConnector() {
     if (connector == null) {
-      connector = new OrcidConnector(clientId, clientSecret, tokenUrl);
+      connector =
+          new OrcidConnector(
+              clientId, clientSecret, tokenUrl, httpClientFactory.createRestTemplate("orcid"));
     }
     return connector;
   }
@@ -3,6 +3,7 @@ package com.researchspace.webapp.integrations.protocolsio;
 import static com.researchspace.service.IntegrationsHandler.PROTOCOLS_IO_APP_NAME;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.core.util.JacksonUtil;
 import com.researchspace.core.util.StringAbbreviationUtils;
 import com.researchspace.model.User;
@@ -22,7 +23,7 @@ import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -30,7 +31,6 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -63,10 +63,9 @@ public class ProtocolsIO_OAuthController extends BaseOAuth2Controller {
 
   private RestTemplate restTemplate;
 
-  public ProtocolsIO_OAuthController() {
-    HttpComponentsClientHttpRequestFactory gzipSupportingRequestFactory =
-        new HttpComponentsClientHttpRequestFactory(HttpClientBuilder.create().build());
-    restTemplate = new RestTemplate(gzipSupportingRequestFactory);
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("protocolsio");
   }
 
   /**
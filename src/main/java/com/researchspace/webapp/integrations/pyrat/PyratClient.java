@@ -57,8 +57,8 @@ public class PyratClient extends MultiInstanceBaseClient<PyratServerConfiguratio
   private @Autowired UserConnectionManager source;
   private @Autowired UserManager userManager;
 
-  public PyratClient() {
-    this.restTemplate = new RestTemplate();
+  public PyratClient(RestTemplate restTemplate) {
+    this.restTemplate = restTemplate;
   }
 
   @Override
@@ -1,6 +1,7 @@
 package com.researchspace.webapp.integrations.slack;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.User;
 import com.researchspace.model.audittrail.AuditAction;
 import com.researchspace.model.audittrail.GenericEvent;
@@ -48,7 +49,12 @@ public class SlackServiceImpl implements SlackService {
   @Value("${slack.api.base.url}")
   private String slackApiBaseUrl;
 
-  private RestTemplate restTemplate = new RestTemplate();
+  private RestTemplate restTemplate;
+
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("slack");
+  }
 
   @Override
   public void saveConversation(
@@ -1,5 +1,6 @@
 package com.researchspace.webapp.integrations.wopi;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.properties.IPropertyHolder;
 import com.researchspace.webapp.integrations.wopi.WopiDiscoveryServiceHandler.WopiAction;
 import com.researchspace.webapp.integrations.wopi.WopiDiscoveryServiceHandler.WopiApp;
@@ -46,11 +47,18 @@ public class WopiDiscoveryProcessor {
 
   @Autowired private WopiDiscoveryServiceHandler wopiHandler;
 
+  private RestTemplate restTemplate;
+
   /* discovery.xml may contain apps we don't want to show (see RSPAC-2066) */
   private static final List<String> IGNORED_APPS_LIST = Arrays.asList("WordPdf");
 
   private Logger log = LoggerFactory.getLogger(getClass());
 
+  @Autowired
+  public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+    this.restTemplate = httpClientFactory.createRestTemplate("wopi");
+  }
+
   /** Function that updates the discovery XML from reading the version online */
   @Async
   @Scheduled(initialDelay = 1000L * 10, fixedRate = 1000L * 60 * 60 * 12)
@@ -90,7 +98,6 @@ public class WopiDiscoveryProcessor {
    */
   @Async
   public Future<StringReader> retrieveDiscoveryXml(String url) {
-    RestTemplate restTemplate = new RestTemplate();
     ResponseEntity<String> result = restTemplate.getForEntity(url, String.class);
     if (result.getStatusCode() != HttpStatus.OK) {
       throw new RuntimeException(
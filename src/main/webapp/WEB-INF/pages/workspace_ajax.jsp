@@ -33,6 +33,7 @@
     <input id="movetargetRoot" type="hidden" value="${movetargetRoot}" />
     <input id="isNotebook" type="hidden" value="${isNotebook}" />
     <input id="allowCreateNewEntryInNotebook" type="hidden" value="${allowCreateNewEntryInNotebook}" />
+    <input id="nextPageToken" type="hidden" value="${nextPageToken}" data-pagenumber="${searchResults.pageNumber + 1}" />
 </div>
 
 <div class="rs-working-area">
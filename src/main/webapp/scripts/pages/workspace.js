@@ -427,7 +427,13 @@ function orderInfoEventHandler() {
 
 var paginationEventHandler = function (source, e) {
   workspaceSettings.pageNumber = source.data("pagenumber") - 1;
-  getAndDisplayWorkspaceResults(workspaceSettings.url, workspaceSettings);
+  // lets the server list the next page from where this one ended, rather than counting through
+  // all the previous pages
+  var nextPage = $("#nextPageToken");
+  var pageToken = nextPage.length && nextPage.data("pagenumber") == workspaceSettings.pageNumber
+      ? nextPage.val() : "";
+  getAndDisplayWorkspaceResults(workspaceSettings.url,
+      $.extend({}, workspaceSettings, {pageToken: pageToken}));
 };
 
 /**
@@ -3,6 +3,8 @@ package com.axiope.search;
 import static com.researchspace.testutils.TestFactory.createAnyUser;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -16,12 +18,12 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
@@ -36,12 +38,6 @@ public class FileIndexSearchTest {
     public String getIndexFolderPath() {
       return indexPath;
     }
-
-    protected void extractFiles(File folder, List<File> fileList) {
-      super.extractFiles(folder, fileList);
-      // get a determined order of files: alphabetically ascending
-      fileList.sort(Comparator.comparing(File::getName));
-    }
   }
 
   private @Mock EcatDocumentFileDao docDao;
@@ -74,6 +70,11 @@ public class FileIndexSearchTest {
 
   @TempDir File indexFolder;
 
+  @AfterEach
+  void tearDown() throws IOException {
+    searcher.close();
+  }
+
   @Test
   void testAccept() {
     FileIndexer idxer = new FileIndexerTSS();
@@ -116,6 +117,30 @@ public class FileIndexSearchTest {
     }
   }
 
+  @Test
+  void searcherSharedWithIndexerSeesEachCommitWithoutReopening() throws Exception {
+    FileIndexer indexer = new FileIndexerTSS();
+    indexer.setIndexFolderDirectly(indexFolder);
+    searcher.setFileIndexer(indexer);
+    try {
+      indexer.init(true);
+      assertEquals(0, searcher.searchFiles(odtSearch, createAnyUser("any")).size());
+
+      copyToDataFolder(new File(odtPath));
+      indexer.indexFile(new File(dataFolder, FilenameUtils.getName(odtPath)));
+      List<FileSearchResult> results = searcher.searchFiles(odtSearch, createAnyUser("any"));
+      assertEquals(1, results.size());
+      // explanations are only calculated on demand
+      assertNull(results.get(0).getExplain());
+
+      searcher.setIncludeExplanations(true);
+      results = searcher.searchFiles(odtSearch, createAnyUser("any"));
+      assertNotNull(results.get(0).getExplain());
+    } finally {
+      indexer.close();
+    }
+  }
+
   @Test
   void failFastIndexerThrowsIAEForCorrupted() throws Exception {
     assertThrows(IOException.class, () -> setUpIndexFiles(true, pathsToIndexWithCorruptFile));
@@ -131,6 +131,11 @@ public class RSDevConfig extends BaseConfig {
     return new SyncTaskExecutor(); // sync for testing
   }
 
+  @Bean(name = "thumbnailTaskExecutor")
+  TaskExecutor thumbnailTaskExecutor() {
+    return new SyncTaskExecutor(); // sync for testing
+  }
+
   @Bean(name = "slackRequestExecutor")
   TaskExecutor slackRequestExecutor() {
     return new SyncTaskExecutor(); // sync for testing
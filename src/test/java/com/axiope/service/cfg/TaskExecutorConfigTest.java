@@ -0,0 +1,84 @@
+package com.axiope.service.cfg;
+
+import static org.junit.Assert.assertEquals;
+
+import com.researchspace.spring.taskexecutors.RejectionPolicy;
+import com.researchspace.spring.taskexecutors.ShiroThreadBindingSubjectThreadPoolExecutor;
+import java.util.Properties;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.AbstractJUnit4SpringContextTests;
+
+/**
+ * Loads deployment properties as applicationContext-resources.xml does, by placeholder configurers
+ * rather than into the Environment, to check that '&lt;pool&gt;.taskExecutor.*' overrides are used.
+ */
+@ContextConfiguration(classes = {TaskExecutorConfigTest.DeploymentPropertiesConfig.class})
+public class TaskExecutorConfigTest extends AbstractJUnit4SpringContextTests {
+
+  @Configuration
+  @Import(TaskExecutorConfig.class)
+  public static class DeploymentPropertiesConfig {
+
+    // deployment.properties of an installation
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer deploymentProperties() {
+      Properties properties = new Properties();
+      properties.setProperty("default.taskExecutor.max", "7");
+      properties.setProperty("email.taskExecutor.core", "3");
+      properties.setProperty("email.taskExecutor.rejection", "DISCARD");
+      properties.setProperty("archiveImport.taskExecutor.queue", "42");
+      PropertySourcesPlaceholderConfigurer configurer = new PropertySourcesPlaceholderConfigurer();
+      configurer.setProperties(properties);
+      configurer.setOrder(-1);
+      configurer.setIgnoreUnresolvablePlaceholders(true);
+      return configurer;
+    }
+
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer defaultDeploymentProperties() {
+      PropertySourcesPlaceholderConfigurer configurer = new PropertySourcesPlaceholderConfigurer();
+      configurer.setLocation(new ClassPathResource("deployments/defaultDeployment.properties"));
+      configurer.setOrder(0);
+      configurer.setIgnoreUnresolvablePlaceholders(true);
+      return configurer;
+    }
+  }
+
+  @Autowired TaskExecutorConfig taskExecutorConfig;
+
+  @Test
+  public void poolPropertiesOverrideDefaults() {
+    ShiroThreadBindingSubjectThreadPoolExecutor email = taskExecutorConfig.createExecutor("email");
+    assertEquals(3, email.getCorePoolSize());
+    assertEquals(7, email.getMaxPoolSize());
+    assertEquals(100, email.getConfiguredQueueCapacity());
+    assertEquals(RejectionPolicy.DISCARD, email.getRejectionPolicy());
+
+    ShiroThreadBindingSubjectThreadPoolExecutor archiveImport =
+        taskExecutorConfig.createExecutor("archiveImport", 2, 4, 10);
+    assertEquals(2, archiveImport.getCorePoolSize());
+    assertEquals(4, archiveImport.getMaxPoolSize());
+    assertEquals(42, archiveImport.getConfiguredQueueCapacity());
+    assertEquals(RejectionPolicy.ABORT, archiveImport.getRejectionPolicy());
+  }
+
+  @Test
+  public void sharedPoolRunsRejectedTasksInCaller() {
+    ShiroThreadBindingSubjectThreadPoolExecutor shared =
+        taskExecutorConfig.createExecutor("default", RejectionPolicy.CALLER_RUNS);
+    assertEquals(2, shared.getCorePoolSize());
+    assertEquals(7, shared.getMaxPoolSize());
+    assertEquals(RejectionPolicy.CALLER_RUNS, shared.getRejectionPolicy());
+
+    // other pools don't inherit the shared pool's policy
+    assertEquals(
+        RejectionPolicy.ABORT, taskExecutorConfig.createExecutor("sign").getRejectionPolicy());
+  }
+}
@@ -15,6 +15,7 @@ import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.validation.BeanPropertyBindingResult;
 
@@ -95,7 +96,7 @@ public class FilesApiControllerSpringTest extends SpringTransactionalTest {
     EcatImage galleryImage = addImageToGallery(testUser);
 
     MockHttpServletResponse resp = new MockHttpServletResponse();
-    filesApi.getFileBytes(galleryImage.getId(), testUser, resp);
+    filesApi.getFileBytes(galleryImage.getId(), testUser, new MockHttpServletRequest(), resp);
 
     byte[] content = resp.getContentAsByteArray();
     assertNotNull(content);
@@ -318,7 +318,11 @@ public class FolderApiControllerTest {
     CoreTestUtils.assertIllegalArgumentException(
         () ->
             controller.rootFolderTree(
-                TransformerUtils.toSet("unknown"), pgCriteria, errorsObject(pgCriteria), subject));
+                TransformerUtils.toSet("unknown"),
+                null,
+                pgCriteria,
+                errorsObject(pgCriteria),
+                subject));
   }
 
   @Test
@@ -334,11 +338,12 @@ public class FolderApiControllerTest {
     when(recordMgr.listFolderRecords(
             eq(subject.getRootFolder().getId()),
             any(PaginationCriteria.class),
-            any(RecordTypeFilter.class)))
+            any(RecordTypeFilter.class),
+            isNull()))
         .thenReturn(mockResults);
     when(folderMgr.getRootFolderForUser(subject)).thenReturn(root);
     ApiRecordTreeItemListing listing =
-        controller.rootFolderTree(null, pgCriteria, errorsObject(pgCriteria), subject);
+        controller.rootFolderTree(null, null, pgCriteria, errorsObject(pgCriteria), subject);
     assertEquals(3, listing.getRecords().size());
     assertEquals(subject.getRootFolder().getId(), listing.getFolderId());
     assertSelfLink(FOLDER_TREE_ENDPOINT, listing);
@@ -367,12 +372,15 @@ public class FolderApiControllerTest {
     when(folderNavigationService.findParentForUser(subject, subFolder))
         .thenReturn(Optional.of(root));
     when(recordMgr.listFolderRecords(
-            eq(subFolder.getId()), any(PaginationCriteria.class), any(RecordTypeFilter.class)))
+            eq(subFolder.getId()),
+            any(PaginationCriteria.class),
+            any(RecordTypeFilter.class),
+            isNull()))
         .thenReturn(mockResults);
     mockFolderLoad(subFolder);
     ApiRecordTreeItemListing listing =
         controller.folderTreeById(
-            subFolder.getId(), null, pgCriteria, errorsObject(pgCriteria), subject);
+            subFolder.getId(), null, null, pgCriteria, errorsObject(pgCriteria), subject);
     assertEquals(0, listing.getRecords().size());
     assertEquals(subFolder.getId(), listing.getFolderId());
   }
@@ -398,7 +406,8 @@ public class FolderApiControllerTest {
     when(recordMgr.listFolderRecords(
             eq(folderSetup.getMediaImgExamples().getId()),
             any(PaginationCriteria.class),
-            any(RecordTypeFilter.class)))
+            any(RecordTypeFilter.class),
+            isNull()))
         .thenReturn(mockResults);
     mockFolderLoad(folderSetup.getMediaImgExamples());
 
@@ -406,6 +415,7 @@ public class FolderApiControllerTest {
         controller.folderTreeById(
             folderSetup.getMediaImgExamples().getId(),
             null,
+            null,
             pgCriteria,
             errorsObject(pgCriteria),
             subject);
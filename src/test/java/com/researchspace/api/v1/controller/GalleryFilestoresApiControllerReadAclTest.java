@@ -16,6 +16,7 @@ import com.researchspace.service.NfsFileHandler;
 import com.researchspace.service.NfsManager;
 import com.researchspace.service.RecordDeletionManager;
 import com.researchspace.testutils.GalleryFilestoreTestUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import org.apache.shiro.authz.AuthorizationException;
@@ -36,6 +37,7 @@ class GalleryFilestoresApiControllerReadAclTest {
   @Mock private IPropertyHolder propertyHolder;
   @Mock private GalleryFilestoresCredentialsStore credentialsStore;
   @Mock private User user;
+  @Mock private HttpServletRequest request;
   @Mock private HttpServletResponse response;
 
   private GalleryFilestoresApiController controller;
@@ -65,7 +67,8 @@ class GalleryFilestoresApiControllerReadAclTest {
     fs.setWriteAllowlist(null);
     when(nfsManager.getFileSystem(fsId)).thenReturn(fs);
 
-    assertThrows(AuthorizationException.class, () -> controller.browseFilesystem(fsId, null, user));
+    assertThrows(
+        AuthorizationException.class, () -> controller.browseFilesystem(fsId, null, false, user));
 
     verify(nfsFactory, never()).getNfsClient(any(), any(), any());
   }
@@ -80,7 +83,8 @@ class GalleryFilestoresApiControllerReadAclTest {
     when(nfsManager.getNfsFileStore(filestoreId)).thenReturn(filestore);
 
     assertThrows(
-        AuthorizationException.class, () -> controller.browseFilestore(filestoreId, null, user));
+        AuthorizationException.class,
+        () -> controller.browseFilestore(filestoreId, null, false, user));
 
     verify(nfsFactory, never()).getNfsClient(any(), any(), any());
   }
@@ -96,7 +100,9 @@ class GalleryFilestoresApiControllerReadAclTest {
 
     assertThrows(
         AuthorizationException.class,
-        () -> controller.downloadFromFilestore(filestoreId, "some/path", null, user, response));
+        () ->
+            controller.downloadFromFilestore(
+                filestoreId, "some/path", null, user, request, response));
 
     verify(nfsFactory, never()).getNfsClient(any(), any(), any());
   }
@@ -142,7 +148,7 @@ class GalleryFilestoresApiControllerReadAclTest {
     when(nfsManager.getFileSystem(fsId)).thenReturn(fs);
 
     try {
-      controller.browseFilesystem(fsId, null, user);
+      controller.browseFilesystem(fsId, null, false, user);
     } catch (AuthorizationException e) {
       throw new AssertionError("write should imply read; got 403 from ACL check", e);
     } catch (Exception ignored) {
@@ -41,6 +41,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 
@@ -94,7 +95,8 @@ public class InventoryFilesApiControllerTest extends SpringTransactionalTest {
 
     // retrieve bytes of the attachment
     MockHttpServletResponse resp = new MockHttpServletResponse();
-    invFilesApi.getFileBytes(defaultAttachment.getId(), exampleContentUser, resp);
+    invFilesApi.getFileBytes(
+        defaultAttachment.getId(), exampleContentUser, new MockHttpServletRequest(), resp);
 
     byte[] content = resp.getContentAsByteArray();
     assertNotNull(content);
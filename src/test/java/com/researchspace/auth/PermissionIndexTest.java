@@ -0,0 +1,90 @@
+package com.researchspace.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.researchspace.model.User;
+import com.researchspace.model.permissions.AbstractEntityPermissionAdapter;
+import com.researchspace.model.permissions.ConstraintPermissionResolver;
+import com.researchspace.model.permissions.PermissionType;
+import com.researchspace.model.record.StructuredDocument;
+import com.researchspace.testutils.TestFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.shiro.authz.Permission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PermissionIndexTest {
+
+  private ConstraintPermissionResolver parser = new ConstraintPermissionResolver();
+  private List<Permission> permissions;
+  private PermissionIndex index;
+
+  @BeforeEach
+  public void setUp() {
+    permissions = new ArrayList<>();
+    for (String permission :
+        new String[] {
+          "FORM:CREATE,READ,WRITE,SHARE,DELETE:property_owner=${self}",
+          "FORM:READ:property_global=true",
+          "GROUP:CREATE,WRITE",
+          "RECORD:SHARE:property_owner=${self}",
+          "USER:WRITE:property_username=${self}",
+          "COMMUNITY:WRITE:id=3,5",
+          "RECORD:READ:id=10",
+          "RECORD:WRITE:id=11"
+        }) {
+      permissions.add(parser.resolvePermission(permission));
+    }
+    index = new PermissionIndex(permissions);
+  }
+
+  @Test
+  public void permissionStringsMatchOnlyIfImplied() {
+    assertTrue(index.isPermitted(parser.resolvePermission("COMMUNITY:WRITE:id=5")));
+    assertFalse(index.isPermitted(parser.resolvePermission("COMMUNITY:WRITE:id=4")));
+    assertFalse(index.isPermitted(parser.resolvePermission("COMMUNITY:READ:id=5")));
+    assertTrue(index.isPermitted(parser.resolvePermission("GROUP:CREATE:")));
+    assertFalse(index.isPermitted(parser.resolvePermission("USER:DELETE:")));
+    assertEquals(permissions.size(), index.size());
+  }
+
+  @Test
+  public void sameResultAsTestingEachPermission() {
+    for (String toTest :
+        new String[] {
+          "COMMUNITY:WRITE:id=3",
+          "COMMUNITY:WRITE:id=3,4",
+          "COMMUNITY:WRITE:",
+          "RECORD:READ:id=10",
+          "RECORD:READ:id=11",
+          "RECORD:WRITE:id=11",
+          "FORM:READ:",
+          "FORM:READ:property_global=true",
+          "GROUP:WRITE:",
+          "USER:CREATE:"
+        }) {
+      assertSameAsLinearScan(parser.resolvePermission(toTest));
+    }
+  }
+
+  @Test
+  public void entitiesSameResultAsTestingEachPermission() {
+    User owner = TestFactory.createAnyUser("owner");
+    StructuredDocument doc = TestFactory.createAnySDForUser(TestFactory.createAnyForm(), owner);
+    doc.setId(10L);
+    for (PermissionType action :
+        new PermissionType[] {PermissionType.READ, PermissionType.WRITE, PermissionType.SHARE}) {
+      AbstractEntityPermissionAdapter adapter = doc.getPermissionsAdapter();
+      adapter.setAction(action);
+      assertSameAsLinearScan(adapter);
+    }
+  }
+
+  private void assertSameAsLinearScan(Permission toTest) {
+    boolean expected = permissions.stream().anyMatch(p -> p.implies(toTest));
+    assertEquals(expected, index.isPermitted(toTest), toTest.toString());
+  }
+}
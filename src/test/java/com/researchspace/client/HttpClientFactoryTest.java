@@ -0,0 +1,246 @@
+package com.researchspace.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+/** Runs requests against a local HTTP server standing in for an external service. */
+public class HttpClientFactoryTest {
+
+  private HttpServer server;
+  private ExecutorService serverThreads;
+  private String baseUrl;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final List<String> cookiesReceived = new CopyOnWriteArrayList<>();
+  private final CountDownLatch slowRequestReceived = new CountDownLatch(1);
+  private final CountDownLatch releaseSlowRequest = new CountDownLatch(1);
+
+  private MockEnvironment properties;
+  private SimpleMeterRegistry meterRegistry;
+  private HttpClientFactory factory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/ok", exchange -> respond(exchange, 200, "ok"));
+    server.createContext(
+        "/login",
+        exchange -> {
+          exchange.getResponseHeaders().add("Set-Cookie", "session=user1; Path=/");
+          respond(exchange, 200, "ok");
+        });
+    server.createContext("/fail", exchange -> respond(exchange, 503, "unavailable"));
+    String large = "x".repeat(ResponseCachingInterceptor.MAX_CACHED_BODY_BYTES + 1);
+    server.createContext("/large", exchange -> respond(exchange, 200, large));
+    server.createContext(
+        "/slow",
+        exchange -> {
+          slowRequestReceived.countDown();
+          try {
+            releaseSlowRequest.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          respond(exchange, 200, "slow");
+        });
+    serverThreads = Executors.newCachedThreadPool();
+    server.setExecutor(serverThreads);
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+    properties = new MockEnvironment();
+    meterRegistry = new SimpleMeterRegistry();
+    factory = new HttpClientFactory(properties);
+    factory.setMeterRegistry(meterRegistry);
+    factory.setCacheManager(new ConcurrentMapCacheManager(HttpClientFactory.HTTP_RESPONSE_CACHE));
+  }
+
+  @AfterEach
+  void tearDown() {
+    releaseSlowRequest.countDown();
+    factory.destroy();
+    server.stop(0);
+    serverThreads.shutdownNow();
+  }
+
+  private void respond(HttpExchange exchange, int status, String body) throws IOException {
+    requests.incrementAndGet();
+    cookiesReceived.add(exchange.getRequestHeaders().getFirst("Cookie"));
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  @Test
+  void responsesAreCachedOnlyIfEnabled() {
+    properties.setProperty("cached.http.cacheResponses", "true");
+    RestTemplate cached = factory.createRestTemplate("cached");
+    assertEquals("ok", cached.getForObject(baseUrl + "/ok", String.class));
+    assertEquals("ok", cached.getForObject(baseUrl + "/ok", String.class));
+    assertEquals(1, requests.get());
+    // the cache is shared by templates of the same client
+    RestTemplate other = factory.createRestTemplate("cached");
+    assertEquals("ok", other.getForObject(baseUrl + "/ok", String.class));
+    assertEquals(1, requests.get());
+
+    // only GETs are cached
+    cached.postForObject(baseUrl + "/ok", "body", String.class);
+    cached.postForObject(baseUrl + "/ok", "body", String.class);
+    assertEquals(3, requests.get());
+
+    RestTemplate uncached = factory.createRestTemplate("uncached");
+    uncached.getForObject(baseUrl + "/ok", String.class);
+    uncached.getForObject(baseUrl + "/ok", String.class);
+    assertEquals(5, requests.get());
+  }
+
+  @Test
+  void largeResponsesAreNotCached() {
+    properties.setProperty("cached.http.cacheResponses", "true");
+    RestTemplate cached = factory.createRestTemplate("cached");
+    cached.getForObject(baseUrl + "/large", String.class);
+    cached.getForObject(baseUrl + "/large", String.class);
+    assertEquals(2, requests.get());
+  }
+
+  @Test
+  void failedResponsesAreNotCached() {
+    properties.setProperty("cached.http.cacheResponses", "true");
+    RestTemplate cached = factory.createRestTemplate("cached");
+    assertThrows(
+        HttpServerErrorException.class, () -> cached.getForObject(baseUrl + "/fail", String.class));
+    assertThrows(
+        HttpServerErrorException.class, () -> cached.getForObject(baseUrl + "/fail", String.class));
+    assertEquals(2, requests.get());
+  }
+
+  @Test
+  void requestsFailFastAfterConsecutiveFailures() {
+    properties.setProperty("flaky.http.circuitBreaker.failures", "2");
+    properties.setProperty("flaky.http.circuitBreaker.openSeconds", "60");
+    RestTemplate template = factory.createRestTemplate("flaky");
+    for (int i = 0; i < 2; i++) {
+      assertThrows(
+          HttpServerErrorException.class,
+          () -> template.getForObject(baseUrl + "/fail", String.class));
+    }
+    assertThrows(
+        ResourceAccessException.class, () -> template.getForObject(baseUrl + "/ok", String.class));
+    assertEquals(2, requests.get());
+    assertEquals(
+        1,
+        meterRegistry
+            .get(HttpClientGuard.TIMER_NAME)
+            .tags("client", "flaky", "outcome", "CIRCUIT_OPEN")
+            .timer()
+            .count());
+
+    // other clients are unaffected
+    RestTemplate other = factory.createRestTemplate("other");
+    assertEquals("ok", other.getForObject(baseUrl + "/ok", String.class));
+  }
+
+  @Test
+  void circuitIsOpenedPerHost() {
+    properties.setProperty("webhooks.http.circuitBreaker.failures", "1");
+    properties.setProperty("webhooks.http.circuitBreaker.openSeconds", "60");
+    RestTemplate template = factory.createRestTemplate("webhooks");
+    assertThrows(
+        HttpServerErrorException.class,
+        () -> template.getForObject(baseUrl + "/fail", String.class));
+    assertThrows(
+        ResourceAccessException.class, () -> template.getForObject(baseUrl + "/ok", String.class));
+
+    // the same server by another name is another host, e.g. a different user's webhook
+    String otherHost = "http://127.0.0.1:" + server.getAddress().getPort();
+    assertEquals("ok", template.getForObject(otherHost + "/ok", String.class));
+  }
+
+  @Test
+  void circuitClosesAfterSuccessfulTrialRequest() throws Exception {
+    properties.setProperty("flaky.http.circuitBreaker.failures", "1");
+    properties.setProperty("flaky.http.circuitBreaker.openSeconds", "0");
+    RestTemplate template = factory.createRestTemplate("flaky");
+    assertThrows(
+        HttpServerErrorException.class,
+        () -> template.getForObject(baseUrl + "/fail", String.class));
+    Thread.sleep(5);
+    assertEquals("ok", template.getForObject(baseUrl + "/ok", String.class));
+    assertEquals("ok", template.getForObject(baseUrl + "/ok", String.class));
+  }
+
+  @Test
+  void concurrentRequestsAreLimited() throws Exception {
+    properties.setProperty("limited.http.maxConcurrent", "1");
+    properties.setProperty("limited.http.connectTimeoutMs", "200");
+    RestTemplate template = factory.createRestTemplate("limited");
+    CompletableFuture<String> slow =
+        CompletableFuture.supplyAsync(() -> template.getForObject(baseUrl + "/slow", String.class));
+    assertTrue(slowRequestReceived.await(10, TimeUnit.SECONDS));
+
+    assertThrows(
+        ResourceAccessException.class, () -> template.getForObject(baseUrl + "/ok", String.class));
+    releaseSlowRequest.countDown();
+    assertEquals("slow", slow.get(10, TimeUnit.SECONDS));
+    assertEquals("ok", template.getForObject(baseUrl + "/ok", String.class));
+  }
+
+  @Test
+  void requestsAreTimed() {
+    RestTemplate template = factory.createRestTemplate("timed");
+    template.getForObject(baseUrl + "/ok", String.class);
+    assertEquals(
+        1,
+        meterRegistry
+            .get(HttpClientGuard.TIMER_NAME)
+            .tags("client", "timed", "method", "GET", "outcome", "SUCCESS")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void cookiesAreNotSentOnLaterRequests() {
+    // e.g. a session cookie set for one user's request, then another user's request
+    factory.createRestTemplate("shared").getForObject(baseUrl + "/login", String.class);
+    factory.createRestTemplate("shared").getForObject(baseUrl + "/ok", String.class);
+    assertEquals(2, cookiesReceived.size());
+    assertNull(cookiesReceived.get(1));
+  }
+
+  @Test
+  void clientSettingsDefaultToDefaultSettings() {
+    properties.setProperty("default.http.readTimeoutMs", "5000");
+    properties.setProperty("slow.http.readTimeoutMs", "30000");
+    assertEquals(5000, factory.getSettings("any").readTimeoutMs());
+    assertEquals(30000, factory.getSettings("slow").readTimeoutMs());
+    assertEquals(10000, factory.getSettings("slow").connectTimeoutMs());
+  }
+}
@@ -0,0 +1,176 @@
+package com.researchspace.comms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.researchspace.model.User;
+import com.researchspace.model.comms.CommunicationTarget;
+import com.researchspace.model.comms.Notification;
+import com.researchspace.service.IMessageAndNotificationTracker;
+import com.researchspace.service.NotificationOutboxManager;
+import com.researchspace.testutils.TestFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDispatcherTest {
+
+  private @Mock NotificationOutboxManager outboxManager;
+  private @Mock IMessageAndNotificationTracker notificnTracker;
+
+  private NotificationDispatcher dispatcher;
+  // tasks passed to the executor, run by the tests
+  private List<Runnable> tasks;
+  private boolean rejectTasks;
+
+  @BeforeEach
+  void setUp() {
+    dispatcher = new NotificationDispatcher();
+    ReflectionTestUtils.setField(dispatcher, "outboxManager", outboxManager);
+    ReflectionTestUtils.setField(dispatcher, "notificnTracker", notificnTracker);
+    tasks = new ArrayList<>();
+    dispatcher.setTaskExecutor(
+        task -> {
+          if (rejectTasks) {
+            throw new TaskRejectedException("full");
+          }
+          tasks.add(task);
+        });
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  private Notification createNotification(User recipient) {
+    Notification notification = new Notification();
+    CommunicationTarget target = new CommunicationTarget();
+    target.setCommunication(notification);
+    target.setRecipient(recipient);
+    notification.setRecipients(Set.of(target));
+    return notification;
+  }
+
+  private NotificationDelivery delivery(Runnable broadcast) {
+    return new NotificationDelivery(1L, "email", System.currentTimeMillis(), broadcast);
+  }
+
+  @Test
+  void notificationIsDispatchedOnlyAfterCommit() {
+    User recipient = TestFactory.createAnyUser("recipient");
+    recipient.setId(5L);
+    Notification notification = createNotification(recipient);
+    TransactionSynchronizationManager.initSynchronization();
+
+    dispatcher.notificationCreated(notification, true);
+    verify(outboxManager).addToOutbox(notification);
+    verifyNoInteractions(notificnTracker);
+    assertEquals(0, tasks.size());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    verify(notificnTracker).changeUserNotificationCounts(List.of(5L), 1);
+    assertEquals(1, tasks.size());
+  }
+
+  @Test
+  void rolledBackNotificationIsNotDispatched() {
+    TransactionSynchronizationManager.initSynchronization();
+    dispatcher.notificationCreated(createNotification(TestFactory.createAnyUser("any")), false);
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    verify(outboxManager, never()).addToOutbox(any());
+    verifyNoInteractions(notificnTracker);
+    assertEquals(0, tasks.size());
+  }
+
+  @Test
+  void dispatchesBeforeRunStartsAreCoalesced() {
+    dispatcher.dispatch();
+    dispatcher.dispatch();
+    dispatcher.dispatch();
+    assertEquals(1, tasks.size());
+
+    tasks.get(0).run();
+    verify(outboxManager, times(1)).getDueEntryIds(NotificationDispatcher.BATCH_SIZE);
+    verify(notificnTracker, times(1)).sendPendingNotificationUpdates();
+    assertEquals(1, tasks.size());
+
+    dispatcher.dispatch();
+    assertEquals(2, tasks.size());
+  }
+
+  @Test
+  void dispatchesDuringRunAreCoalescedIntoOneMorePass() {
+    // as if notifications were committed while the first pass reads the outbox
+    when(outboxManager.getDueEntryIds(NotificationDispatcher.BATCH_SIZE))
+        .then(
+            invocation -> {
+              dispatcher.dispatch();
+              dispatcher.dispatch();
+              return List.of();
+            })
+        .thenReturn(List.of());
+    dispatcher.dispatch();
+
+    tasks.get(0).run();
+    verify(outboxManager, times(2)).getDueEntryIds(NotificationDispatcher.BATCH_SIZE);
+    verify(notificnTracker, times(2)).sendPendingNotificationUpdates();
+    assertEquals(1, tasks.size());
+  }
+
+  @Test
+  void rejectedDispatchIsRetriedByNextDispatch() {
+    rejectTasks = true;
+    dispatcher.dispatch();
+    assertEquals(0, tasks.size());
+
+    rejectTasks = false;
+    dispatcher.dispatch();
+    assertEquals(1, tasks.size());
+  }
+
+  @Test
+  void claimedEntriesAreSentThenMarked() {
+    NotificationDelivery sent = delivery(() -> {});
+    NotificationDelivery failing =
+        delivery(
+            () -> {
+              throw new IllegalStateException("mail server down");
+            });
+    when(outboxManager.getDueEntryIds(NotificationDispatcher.BATCH_SIZE))
+        .thenReturn(List.of(1L, 2L, 3L));
+    when(outboxManager.claim(1L)).thenReturn(Optional.of(sent));
+    when(outboxManager.claim(2L)).thenReturn(Optional.of(failing));
+    when(outboxManager.claim(3L)).thenReturn(Optional.empty());
+
+    dispatcher.setTaskExecutor(null);
+    dispatcher.dispatch();
+    verify(outboxManager).delivered(sent);
+    verify(outboxManager, never()).deliveryFailed(eq(sent), any());
+    verify(outboxManager).deliveryFailed(eq(failing), any(IllegalStateException.class));
+    verify(outboxManager, never()).delivered(failing);
+  }
+}
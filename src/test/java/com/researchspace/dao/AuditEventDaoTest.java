@@ -0,0 +1,165 @@
+package com.researchspace.dao;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.researchspace.model.audittrail.AuditAction;
+import com.researchspace.model.audittrail.AuditDomain;
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.service.audit.search.AuditEventQuery;
+import com.researchspace.testutils.SpringTransactionalTest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class AuditEventDaoTest extends SpringTransactionalTest {
+
+  private static final long START = 1_000_000L;
+
+  @Autowired AuditEventDao auditEventDao;
+
+  private final String user = "auditEventDaoUser";
+  private final String other = "auditEventDaoOther";
+
+  @Before
+  public void saveEvents() {
+    List<IndexedAuditEvent> events = new ArrayList<>();
+    // more than the flush size, to check events are saved across session clears
+    for (int i = 0; i < 60; i++) {
+      events.add(event(START + i, user, AuditAction.CREATE, null, null));
+    }
+    events.add(event(START + 100, other, AuditAction.WRITE, 5L, "SD"));
+    events.add(event(START + 101, other, AuditAction.WRITE, 5L, "FL"));
+    events.add(event(START + 102, other, AuditAction.RESTORE, 5L, null));
+    // same time as the previous event, so ordered by id
+    events.add(event(START + 102, other, AuditAction.SIGN, 6L, "SD"));
+    auditEventDao.saveAll(events);
+    flushDatabaseState();
+  }
+
+  @Test
+  public void searchByTimeRange() {
+    AuditEventQuery query = AuditEventQuery.builder()
+            .from(START + 10)
+            .to(START + 20)
+            .usernames(Set.of(user))
+            .build();
+    assertEquals(10, auditEventDao.count(query));
+    List<IndexedAuditEvent> found = auditEventDao.search(query, 0, 100);
+    assertEquals(10, found.size());
+    assertEquals(START + 19, found.get(0).getEventTime());
+    assertEquals(START + 10, found.get(9).getEventTime());
+  }
+
+  @Test
+  public void searchByUserAndAction() {
+    AuditEventQuery byUser = AuditEventQuery.builder().from(START).usernames(Set.of(other)).build();
+    assertEquals(4, auditEventDao.count(byUser));
+
+    AuditEventQuery byAction =
+        AuditEventQuery.builder()
+            .from(START)
+            .usernames(Set.of(user, other))
+            .domains(Set.of(AuditDomain.RECORD))
+            .actions(Set.of(AuditAction.WRITE, AuditAction.SIGN))
+            .build();
+    assertEquals(
+        List.of(AuditAction.SIGN, AuditAction.WRITE, AuditAction.WRITE),
+        auditEventDao.search(byAction, 0, 10).stream()
+            .map(IndexedAuditEvent::getAction)
+            .collect(toList()));
+
+    AuditEventQuery otherDomain =
+        AuditEventQuery.builder()
+            .from(START)
+            .usernames(Set.of(user, other))
+            .domains(Set.of(AuditDomain.USER))
+            .build();
+    assertEquals(0, auditEventDao.count(otherDomain));
+  }
+
+  @Test
+  public void searchByObject() {
+    AuditEventQuery document =
+        objectQuery().objectId(5L).objectPrefix("SD").descending(false).build();
+    // events that only have the database id match any prefix
+    assertEquals(
+        List.of(AuditAction.WRITE, AuditAction.RESTORE),
+        auditEventDao.search(document, 0, 10).stream()
+            .map(IndexedAuditEvent::getAction)
+            .collect(toList()));
+
+    assertEquals(3, auditEventDao.count(objectQuery().objectId(5L).build()));
+    assertEquals(2, auditEventDao.count(objectQuery().objectId(5L).objectPrefix("FL").build()));
+    assertEquals(0, auditEventDao.count(objectQuery().objectId(7L).objectPrefix("SD").build()));
+  }
+
+  private AuditEventQuery.AuditEventQueryBuilder objectQuery() {
+    return AuditEventQuery.builder().from(START).usernames(Set.of(other));
+  }
+
+  @Test
+  public void pagesAreOrderedByTimeThenId() {
+    AuditEventQuery query =
+        AuditEventQuery.builder().from(START).usernames(Set.of(user, other)).build();
+    assertEquals(64, auditEventDao.count(query));
+    List<IndexedAuditEvent> all = auditEventDao.search(query, 0, 100);
+    assertEquals(64, all.size());
+    // events at the same time are most recently saved first
+    assertEquals(AuditAction.SIGN, all.get(0).getAction());
+    assertEquals(AuditAction.RESTORE, all.get(1).getAction());
+
+    List<IndexedAuditEvent> paged = new ArrayList<>();
+    for (int first = 0; first < 64; first += 10) {
+      paged.addAll(auditEventDao.search(query, first, 10));
+    }
+    assertEquals(
+        all.stream().map(IndexedAuditEvent::getId).collect(toList()),
+        paged.stream().map(IndexedAuditEvent::getId).collect(toList()));
+
+    AuditEventQuery ascending =
+        AuditEventQuery.builder()
+            .from(START)
+            .usernames(Set.of(user, other))
+            .descending(false)
+            .build();
+    assertEquals(START, auditEventDao.search(ascending, 0, 1).get(0).getEventTime());
+    assertEquals(START + 59, auditEventDao.search(ascending, 59, 1).get(0).getEventTime());
+  }
+
+  @Test
+  public void gapsOverlappingQueryAreFound() {
+    auditEventDao.saveGap(START + 200, START + 300);
+    assertTrue(auditEventDao.hasGap(AuditEventQuery.builder().from(START).build()));
+    assertTrue(auditEventDao.hasGap(AuditEventQuery.builder().from(START + 300).build()));
+    assertTrue(
+        auditEventDao.hasGap(AuditEventQuery.builder().from(START).to(START + 201).build()));
+    assertFalse(auditEventDao.hasGap(AuditEventQuery.builder().from(START + 301).build()));
+    assertFalse(
+        auditEventDao.hasGap(AuditEventQuery.builder().from(START).to(START + 200).build()));
+  }
+
+  @Test
+  public void earliestEventTime() {
+    assertTrue(auditEventDao.getEarliestEventTime().get() <= START);
+  }
+
+  private IndexedAuditEvent event(
+      long time, String username, AuditAction action, Long objectId, String objectPrefix) {
+    IndexedAuditEvent event = new IndexedAuditEvent();
+    event.setEventTime(time);
+    event.setUsername(username);
+    event.setFullName("Audit User");
+    event.setDomain(AuditDomain.RECORD);
+    event.setAction(action);
+    event.setData("{\"data\":{}}");
+    event.setObjectId(objectId);
+    event.setObjectPrefix(objectPrefix);
+    return event;
+  }
+}
@@ -149,6 +149,29 @@ public class FileMetadataDaoTest extends SpringTransactionalTest {
     assertEquals(currentCount, filedao.getCountOfUsersWithFilesInFileSystem().longValue());
   }
 
+  @Test
+  public void fileUsageFollowsSavesAndDeletesAndIsReconciled() {
+    User owner = createAndSaveRandomUser();
+    FileProperty fp1 = createAndSaveFileProperty("100", "usage1", owner.getUsername());
+    FileProperty fp2 = createAndSaveFileProperty("250", "usage2", owner.getUsername());
+    assertEquals(350L, filedao.getTotalFileUsageForUser(owner).longValue());
+
+    fp2.setFileSize("50");
+    filedao.save(fp2);
+    assertEquals(150L, filedao.getTotalFileUsageForUser(owner).longValue());
+    filedao.remove(fp1.getId());
+    assertEquals(50L, filedao.getTotalFileUsageForUser(owner).longValue());
+
+    // e.g. a FileProperty deleted outside the application
+    getSession()
+        .createNativeQuery("update FileUsage set usageBytes = 1 where fileOwner = :owner")
+        .setParameter("owner", owner.getUsername())
+        .executeUpdate();
+    assertEquals(1L, filedao.getTotalFileUsageForUser(owner).longValue());
+    assertTrue(filedao.reconcileFileUsage() > 0);
+    assertEquals(50L, filedao.getTotalFileUsageForUser(owner).longValue());
+  }
+
   @Test
   public void getUsageByGroup() {
     PaginationCriteria<Group> pgCrit = PaginationCriteria.createDefaultForClass(Group.class);
@@ -1,6 +1,7 @@
 package com.researchspace.dao;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -11,9 +12,11 @@ import com.researchspace.model.PaginationCriteria;
 import com.researchspace.model.User;
 import com.researchspace.model.core.RecordType;
 import com.researchspace.model.record.Folder;
+import com.researchspace.model.record.StructuredDocument;
 import com.researchspace.model.views.TreeViewItem;
 import com.researchspace.testutils.SpringTransactionalTest;
 import java.util.List;
+import java.util.Set;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -123,4 +126,32 @@ public class FolderDaoTest extends SpringTransactionalTest {
     assertTrue(folder.isImportsFolder());
     assertTrue(folder.isImportedContentFolder());
   }
+
+  @Test
+  public void folderAncestryFollowsCreateAndMove() throws Exception {
+    User any = createAndSaveRandomUser();
+    Folder root = initialiseContentWithEmptyContent(any).get(0);
+    Folder outer = folderMgr.createNewFolder(root.getId(), "outer", any);
+    Folder inner = folderMgr.createNewFolder(outer.getId(), "inner", any);
+    StructuredDocument doc = recordMgr.createBasicDocument(inner.getId(), any);
+
+    assertTrue(folderDao.isDescendantOf(doc.getId(), root.getId()));
+    assertTrue(folderDao.isDescendantOf(doc.getId(), outer.getId()));
+    assertTrue(folderDao.isDescendantOf(inner.getId(), outer.getId()));
+    assertFalse(folderDao.isDescendantOf(outer.getId(), inner.getId()));
+    assertFalse(folderDao.isDescendantOf(outer.getId(), outer.getId()));
+    assertEquals(List.of(inner.getId()), folderDao.getDescendantFolderIds(outer.getId()));
+    assertEquals(
+        Set.of(doc.getId(), outer.getId()),
+        folderDao.getRecordIdsInOrBelow(
+            Set.of(doc.getId(), outer.getId(), root.getId()), Set.of(outer.getId())));
+
+    // moving the inner folder out of the outer one moves its contents too
+    folderMgr.move(inner.getId(), root.getId(), outer.getId(), any);
+    assertFalse(folderDao.isDescendantOf(doc.getId(), outer.getId()));
+    assertFalse(folderDao.isDescendantOf(inner.getId(), outer.getId()));
+    assertTrue(folderDao.isDescendantOf(doc.getId(), inner.getId()));
+    assertTrue(folderDao.isDescendantOf(doc.getId(), root.getId()));
+    assertTrue(folderDao.getDescendantFolderIds(outer.getId()).isEmpty());
+  }
 }
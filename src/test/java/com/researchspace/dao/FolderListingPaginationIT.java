@@ -0,0 +1,187 @@
+package com.researchspace.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.researchspace.core.util.ISearchResults;
+import com.researchspace.core.util.SortOrder;
+import com.researchspace.model.PaginationCriteria;
+import com.researchspace.model.User;
+import com.researchspace.model.dtos.FolderListingCursor;
+import com.researchspace.model.record.BaseRecord;
+import com.researchspace.model.record.Folder;
+import com.researchspace.model.views.RecordTypeFilter;
+import com.researchspace.testutils.RealTransactionSpringTestBase;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Lists folders in committed transactions, as clients page through them, so that counts made by
+ * one transaction are listed by the next. FolderChildCountsTest covers the count cache itself,
+ * which the test context doesn't configure.
+ */
+public class FolderListingPaginationIT extends RealTransactionSpringTestBase {
+
+  private static final int PAGE_SIZE = 3;
+  private static final RecordTypeFilter FILTER = RecordTypeFilter.WORKSPACE_FILTER;
+
+  // several records have the same name and times, so pages are only stable if also ordered by id
+  private static final String[] NAMES = {"b", "a", "b", "c", "b", "a", "c", "b"};
+  private static final long[] TIMES = {3000, 1000, 3000, 2000, 3000, 1000, 2000, 3000};
+
+  private User user;
+  private Folder folder;
+  private List<Long> docIds;
+
+  @Before
+  public void setUp() throws Exception {
+    super.setUp();
+    user = createInitAndLoginAnyUser();
+    folder =
+        doInTransaction(
+            () -> createFolder(folderDao.getRootRecordForUser(user), user, "listing"));
+    docIds = new ArrayList<>();
+    for (int i = 0; i < NAMES.length; i++) {
+      docIds.add(doInTransaction(() -> createBasicDocumentInFolder(user, folder, "text")).getId());
+    }
+    doInTransaction(
+        () -> {
+          for (int i = 0; i < NAMES.length; i++) {
+            sessionFactory
+                .getCurrentSession()
+                .createNativeQuery(
+                    "update BaseRecord set name = :name, creationDateMillis = :time,"
+                        + " modificationDateMillis = :time where id = :id")
+                .setParameter("name", NAMES[i])
+                .setParameter("time", TIMES[i])
+                .setParameter("id", docIds.get(i))
+                .executeUpdate();
+          }
+          sessionFactory.getCache().evictAllRegions();
+        });
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+  }
+
+  @Test
+  public void keysetPagesAreTheSameAsOffsetPages() throws Exception {
+    for (String orderBy : List.of("name", "creationDateMillis", "modificationDateMillis")) {
+      for (SortOrder order : List.of(SortOrder.ASC, SortOrder.DESC)) {
+        String listing = orderBy + " " + order;
+        List<Long> expected = sortedDocIds(orderBy.equals("name") ? NAMES : null, order);
+        assertEquals(listing, expected, listByOffset(orderBy, order));
+        assertEquals(listing, expected, listByKeyset(orderBy, order));
+      }
+    }
+  }
+
+  @Test
+  public void countsFollowInsertMoveAndDelete() throws Exception {
+    assertEquals(8, countListed());
+    assertEquals(8, countListed());
+
+    doInTransaction(() -> createBasicDocumentInFolder(user, folder, "text"));
+    assertEquals(9, countListed());
+
+    Folder other =
+        doInTransaction(() -> createFolder(folderDao.getRootRecordForUser(user), user, "other"));
+    assertEquals(9, countListed());
+    assertTrue(
+        doInTransaction(() -> recordMgr.move(docIds.get(0), other.getId(), folder.getId(), user))
+            .isSucceeded());
+    assertEquals(8, countListed());
+
+    doInTransaction(() -> recordDeletionMgr.deleteRecord(folder.getId(), docIds.get(1), user));
+    assertEquals(7, countListed());
+  }
+
+  private long countListed() throws Exception {
+    return doInTransaction(
+        () ->
+            recordDao
+                .getPaginatedChildRecordsOfParentWithFilter(
+                    folder.getId(), pgCrit("name", SortOrder.ASC, 0), FILTER)
+                .getTotalHits());
+  }
+
+  private List<Long> listByOffset(String orderBy, SortOrder order) throws Exception {
+    List<Long> listed = new ArrayList<>();
+    for (long page = 0; page * PAGE_SIZE < NAMES.length; page++) {
+      PaginationCriteria<BaseRecord> pgCrit = pgCrit(orderBy, order, page);
+      ISearchResults<BaseRecord> results =
+          doInTransaction(
+              () ->
+                  recordDao.getPaginatedChildRecordsOfParentWithFilter(
+                      folder.getId(), pgCrit, FILTER));
+      assertEquals(NAMES.length, results.getTotalHits().intValue());
+      listed.addAll(ids(results));
+    }
+    return listed;
+  }
+
+  private List<Long> listByKeyset(String orderBy, SortOrder order) throws Exception {
+    List<Long> listed = new ArrayList<>();
+    FolderListingCursor cursor = null;
+    for (long page = 0; page == 0 || cursor != null; page++) {
+      PaginationCriteria<BaseRecord> pgCrit = pgCrit(orderBy, order, page);
+      if (cursor != null) {
+        assertTrue(cursor.continues(folder.getId(), pgCrit, FILTER));
+      }
+      FolderListingCursor pageCursor = cursor;
+      ISearchResults<BaseRecord> results =
+          doInTransaction(
+              () ->
+                  recordDao.getPaginatedChildRecordsOfParentWithFilter(
+                      folder.getId(), pgCrit, FILTER, pageCursor));
+      assertEquals(NAMES.length, results.getTotalHits().intValue());
+      listed.addAll(ids(results));
+      cursor = FolderListingCursor.forNextPage(folder.getId(), pgCrit, FILTER, results);
+      if (cursor != null) {
+        cursor = FolderListingCursor.fromToken(cursor.toToken());
+      }
+    }
+    assertNull(cursor);
+    return listed;
+  }
+
+  // ordered by name or time, then id
+  private List<Long> sortedDocIds(String[] names, SortOrder order) {
+    Comparator<Integer> byValue =
+        names != null
+            ? Comparator.comparing((Integer i) -> names[i])
+            : Comparator.comparingLong((Integer i) -> TIMES[i]);
+    Comparator<Integer> comparator = byValue.thenComparing(i -> docIds.get(i));
+    if (SortOrder.DESC.equals(order)) {
+      comparator = comparator.reversed();
+    }
+    return IntStream.range(0, NAMES.length)
+        .boxed()
+        .sorted(comparator)
+        .map(docIds::get)
+        .collect(Collectors.toList());
+  }
+
+  private PaginationCriteria<BaseRecord> pgCrit(String orderBy, SortOrder order, long page) {
+    PaginationCriteria<BaseRecord> pgCrit =
+        PaginationCriteria.createDefaultForClass(BaseRecord.class);
+    pgCrit.setOrderBy(orderBy);
+    pgCrit.setSortOrder(order);
+    pgCrit.setResultsPerPage(PAGE_SIZE);
+    pgCrit.setPageNumber(page);
+    return pgCrit;
+  }
+
+  private List<Long> ids(ISearchResults<BaseRecord> results) {
+    return results.getResults().stream().map(BaseRecord::getId).collect(Collectors.toList());
+  }
+}
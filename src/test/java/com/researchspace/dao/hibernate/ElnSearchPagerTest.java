@@ -0,0 +1,90 @@
+package com.researchspace.dao.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.axiope.search.FieldNames;
+import com.axiope.search.SearchUtils;
+import com.researchspace.core.util.SortOrder;
+import com.researchspace.model.PaginationCriteria;
+import com.researchspace.model.record.BaseRecord;
+import com.researchspace.model.record.StructuredDocument;
+import com.researchspace.search.impl.RecordSortFieldsBinder;
+import com.researchspace.testutils.TestFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.lucene.search.BooleanQuery;
+import org.junit.jupiter.api.Test;
+
+public class ElnSearchPagerTest {
+
+  @Test
+  public void sortFieldsEndWithRecordIdTieBreaker() {
+    PaginationCriteria<BaseRecord> pg = PaginationCriteria.createDefaultForClass(BaseRecord.class);
+    pg.setSortOrder(SortOrder.ASC);
+
+    pg.setOrderBy(SearchUtils.ORDER_BY_NAME);
+    assertEquals(
+        List.of(FieldNames.SORT_NAME, FieldNames.SORT_MODIFICATION_DATE, FieldNames.RECORD_ID),
+        ElnSearchPager.getSortFields(pg));
+    pg.setOrderBy(SearchUtils.BASE_RECORD_ORDER_BY_LAST_MODIFIED);
+    assertEquals(
+        List.of(FieldNames.SORT_MODIFICATION_DATE, FieldNames.RECORD_ID),
+        ElnSearchPager.getSortFields(pg));
+    pg.setOrderBy(SearchUtils.BASE_RECORD_ORDER_BY_CREATED);
+    assertEquals(
+        List.of(FieldNames.SORT_CREATION_DATE, FieldNames.RECORD_ID),
+        ElnSearchPager.getSortFields(pg));
+  }
+
+  @Test
+  public void unknownOrNoOrderingSortsByRelevance() {
+    PaginationCriteria<BaseRecord> pg = PaginationCriteria.createDefaultForClass(BaseRecord.class);
+    pg.setOrderBy("unknown");
+    pg.setSortOrder(SortOrder.ASC);
+    assertTrue(ElnSearchPager.getSortFields(pg).isEmpty());
+
+    pg.setOrderBy(null);
+    assertTrue(ElnSearchPager.getSortFields(pg).isEmpty());
+    assertTrue(ElnSearchPager.getSortFields(null).isEmpty());
+  }
+
+  @Test
+  public void sortValuesMatchIndexedValues() {
+    StructuredDocument doc = TestFactory.createAnySD();
+    doc.setId(7L);
+    doc.setName("A Name");
+    List<String> fields =
+        List.of(
+            FieldNames.SORT_NAME,
+            FieldNames.SORT_CREATION_DATE,
+            FieldNames.SORT_MODIFICATION_DATE,
+            FieldNames.RECORD_ID);
+
+    Object[] values = ElnSearchPager.getSortValues(doc, fields);
+
+    assertArrayEquals(
+        new Object[] {
+          "a name",
+          RecordSortFieldsBinder.getSortMillis(doc.getCreationDateMillis()),
+          RecordSortFieldsBinder.getSortMillis(doc.getModificationDateMillis()),
+          7L
+        },
+        values);
+  }
+
+  @Test
+  public void idSetUsableInLuceneUpToMaxClauseCount() {
+    int max = BooleanQuery.getMaxClauseCount();
+    assertTrue(ElnSearchPager.isIdSetUsableInLucene(ids(max)));
+    assertFalse(ElnSearchPager.isIdSetUsableInLucene(ids(max + 1)));
+  }
+
+  private Set<Long> ids(int count) {
+    return LongStream.range(0, count).boxed().collect(Collectors.toSet());
+  }
+}
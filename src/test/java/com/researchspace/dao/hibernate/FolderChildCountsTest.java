@@ -0,0 +1,116 @@
+package com.researchspace.dao.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Map;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class FolderChildCountsTest {
+
+  private CacheManager cacheManager;
+  private SessionFactoryImplementor sessionFactory;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    // a private manager, see EhcacheL2RuntimeTest
+    cacheManager =
+        Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider")
+            .getCacheManager(
+                getClass().getClassLoader().getResource("ehcache.xml").toURI(),
+                new URLClassLoader(new URL[0], getClass().getClassLoader()));
+    JCacheRegionFactory regionFactory = mock(JCacheRegionFactory.class);
+    when(regionFactory.getCacheManager()).thenReturn(cacheManager);
+    CacheImplementor cache = mock(CacheImplementor.class);
+    when(cache.getRegionFactory()).thenReturn(regionFactory);
+    sessionFactory = mock(SessionFactoryImplementor.class);
+    when(sessionFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+    when(sessionFactory.getCache()).thenReturn(cache);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.unbindResourceIfPossible(FolderChildCounts.class);
+    cacheManager.close();
+  }
+
+  private long count(long folderId, String filterKey, long counted) {
+    return FolderChildCounts.getCount(sessionFactory, folderId, filterKey, () -> counted);
+  }
+
+  private void completeTransaction(int status) {
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(status));
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  @Test
+  public void countsAreCachedPerFolderAndFilter() {
+    assertEquals(5, count(1L, "docs", 5));
+    assertEquals(5, count(1L, "docs", 6));
+    assertEquals(7, count(1L, "folders", 7));
+    assertEquals(5, count(1L, "docs", 8));
+    assertEquals(9, count(2L, "docs", 9));
+  }
+
+  @Test
+  public void changedFoldersAreCountedAgain() {
+    count(1L, "docs", 5);
+    count(1L, "folders", 5);
+    count(2L, "docs", 5);
+    FolderChildCounts.folderChanged(sessionFactory, 1L);
+    assertEquals(6, count(1L, "docs", 6));
+    assertEquals(6, count(1L, "folders", 6));
+    assertEquals(5, count(2L, "docs", 6));
+
+    FolderChildCounts.allFoldersChanged(sessionFactory);
+    assertEquals(7, count(1L, "docs", 7));
+    assertEquals(7, count(2L, "docs", 7));
+  }
+
+  @Test
+  public void foldersChangedInTransactionAreNotCachedUntilItCompletes() {
+    count(2L, "docs", 5);
+    TransactionSynchronizationManager.initSynchronization();
+    FolderChildCounts.folderChanged(sessionFactory, 1L);
+    assertEquals(6, count(1L, "docs", 6));
+    assertEquals(7, count(1L, "docs", 7));
+    assertEquals(5, count(2L, "docs", 8));
+
+    // as if another transaction counted the folder before this one committed
+    Map<String, Long> staleCounts = new HashMap<>(Map.of("docs", 6L));
+    cacheManager.getCache(FolderChildCounts.CACHE_NAME).put(1L, staleCounts);
+    completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+    assertEquals(8, count(1L, "docs", 8));
+    assertEquals(8, count(1L, "docs", 9));
+    assertEquals(5, count(2L, "docs", 9));
+  }
+
+  @Test
+  public void allFoldersChangedInTransactionAreNotCachedUntilItCompletes() {
+    TransactionSynchronizationManager.initSynchronization();
+    FolderChildCounts.allFoldersChanged(sessionFactory);
+    assertEquals(6, count(1L, "docs", 6));
+    assertEquals(7, count(1L, "docs", 7));
+    completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+    assertEquals(8, count(1L, "docs", 8));
+    assertEquals(8, count(1L, "docs", 9));
+  }
+}
@@ -26,10 +26,12 @@ import com.researchspace.model.dtos.WorkspaceListingConfig;
 import com.researchspace.model.inventory.InventoryRecord;
 import com.researchspace.model.inventory.SampleEntity;
 import com.researchspace.model.record.BaseRecord;
+import com.researchspace.model.record.StructuredDocument;
 import com.researchspace.search.impl.LuceneSearchTermListFactory;
 import com.researchspace.search.impl.LuceneSrchCfg;
 import com.researchspace.testutils.SearchTestUtils;
 import com.researchspace.testutils.TestFactory;
+import com.researchspace.testutils.TestGroup;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -124,6 +126,48 @@ public class FullTextSearcherTest extends BaseDaoTestCase {
     assertEquals(1, results.size()); // truncated by max results
   }
 
+  @Test
+  public void testListRawResultsFilteredByReadPrincipals() {
+    // u1 has two documents with the same term, one of them shared with u2
+    TestGroup testGroup = createTestGroup(2);
+    User u1 = testGroup.u1();
+    User u2 = testGroup.u2();
+    logoutAndLoginAs(u1);
+    String COMMON_TERM = "readable";
+    StructuredDocument shared = createBasicDocumentInRootFolderWithText(u1, COMMON_TERM);
+    createBasicDocumentInRootFolderWithText(u1, COMMON_TERM);
+    shareRecordWithUser(u1, shared, u2);
+    flushToSearchIndices();
+
+    // u2 searches group members' records, as set up by SearchManagerImpl
+    WorkspaceListingConfig input = SearchTestUtils.createSimpleFullTextSearchCfg(COMMON_TERM);
+    SearchConfig searchConfig = new WorkspaceSearchConfig(u2);
+    searchConfig.setOptions(input.getSrchOptions());
+    searchConfig.setTerms(input.getSrchTerms());
+    searchConfig.setUsernameFilter(TransformerUtils.toList(u2.getUsername(), u1.getUsername()));
+    searchConfig.setRoleViewableUsernameFilter(TransformerUtils.toList(u2.getUsername()));
+    searchConfig.setReadPrincipalFilter(
+        TransformerUtils.toList(u2.getUsername(), testGroup.getGroup().getUniqueName()));
+    LuceneSrchCfg cfg = new LuceneSrchCfg(searchConfig, termListFactory);
+
+    // the unshared document isn't a hit
+    List<IFieldLinkableElement> results = fts.getElnHibernateList(cfg);
+    assertEquals(1, results.size());
+    assertEquals(shared.getId(), results.get(0).getId());
+
+    // without read principals, all of u1's matching documents are hits
+    searchConfig.setReadPrincipalFilter(new ArrayList<>());
+    results = fts.getElnHibernateList(cfg);
+    assertEquals(2, results.size());
+
+    // a role able to view all of u1's records matches both
+    searchConfig.setReadPrincipalFilter(TransformerUtils.toList(u2.getUsername()));
+    searchConfig.setRoleViewableUsernameFilter(
+        TransformerUtils.toList(u2.getUsername(), u1.getUsername()));
+    results = fts.getElnHibernateList(cfg);
+    assertEquals(2, results.size());
+  }
+
   @Test
   public void testInventoryRecordQuery() throws IOException, InterruptedException {
     User u = createAndSaveRandomUser();
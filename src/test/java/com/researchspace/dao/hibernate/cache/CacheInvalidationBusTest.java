@@ -0,0 +1,230 @@
+package com.researchspace.dao.hibernate.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.researchspace.dao.hibernate.cache.InvalidatingStorageAccess.RegionType;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Two nodes on loopback, each with one entity region and the timestamps region. */
+public class CacheInvalidationBusTest {
+
+  private static final String SECRET = "0123456789abcdef";
+  private static final String ENTITY_REGION = "com.researchspace.model.User";
+  private static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+  private int portB;
+  private CacheInvalidationBus busA;
+  private CacheInvalidationBus busB;
+  private MapStorage entitiesB = new MapStorage();
+  private MapStorage timestampsB = new MapStorage();
+  private InvalidatingStorageAccess regionA;
+  private InvalidatingStorageAccess timestampsRegionA;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    int portA = freePort();
+    portB = freePort();
+    busA =
+        new CacheInvalidationBus(
+            new UdpCacheInvalidationTransport(portA, "127.0.0.1:" + portB), SECRET);
+    busB =
+        new CacheInvalidationBus(
+            new UdpCacheInvalidationTransport(portB, "127.0.0.1:" + portA), SECRET);
+    regionA =
+        new InvalidatingStorageAccess(
+            new MapStorage(), ENTITY_REGION, RegionType.DOMAIN_DATA, busA);
+    timestampsRegionA =
+        new InvalidatingStorageAccess(
+            new MapStorage(), TIMESTAMPS_REGION, RegionType.TIMESTAMPS, busA);
+    new InvalidatingStorageAccess(entitiesB, ENTITY_REGION, RegionType.DOMAIN_DATA, busB);
+    new InvalidatingStorageAccess(timestampsB, TIMESTAMPS_REGION, RegionType.TIMESTAMPS, busB);
+    busA.start();
+    busB.start();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    busA.close();
+    busB.close();
+  }
+
+  @Test
+  public void writeOnOneNodeEvictsEntryOnOther() {
+    entitiesB.putIntoCache(1L, "user1", null);
+    entitiesB.putIntoCache(2L, "user2", null);
+
+    regionA.putIntoCache(1L, new SoftLock() {}, null);
+
+    waitFor(() -> !entitiesB.contains(1L));
+    assertTrue(entitiesB.contains(2L));
+  }
+
+  @Test
+  public void loadsAreNotPublished() {
+    entitiesB.putIntoCache(1L, "user1", null);
+    regionA.putFromLoad(1L, "user1", null);
+    regionA.putIntoCache(2L, "user2", null);
+    // a later eviction is received, so the earlier puts would have been too
+    entitiesB.putIntoCache(3L, "user3", null);
+    regionA.evictData(3L);
+    waitFor(() -> !entitiesB.contains(3L));
+    assertTrue(entitiesB.contains(1L));
+  }
+
+  @Test
+  public void evictAllIsPublished() {
+    entitiesB.putIntoCache(1L, "user1", null);
+    regionA.evictData();
+    waitFor(() -> !entitiesB.contains(1L));
+  }
+
+  @Test
+  public void tableTimestampsAreCopied() {
+    timestampsRegionA.putIntoCache("User", 12345L, null);
+    waitFor(() -> timestampsB.contains("User"));
+    assertEquals(12345L, timestampsB.getFromCache("User", null));
+  }
+
+  @Test
+  public void messagesWithWrongSecretAreIgnored() throws IOException {
+    CacheInvalidationBus other =
+        new CacheInvalidationBus(
+            new UdpCacheInvalidationTransport(freePort(), ""), "another secret..");
+    entitiesB.putIntoCache(1L, "user1", null);
+    busB.receive(other.encode(CacheInvalidationBus.Kind.EVICT, ENTITY_REGION, 1L, null));
+    assertTrue(entitiesB.contains(1L));
+    other.close();
+  }
+
+  @Test
+  public void disallowedKeyTypesAreNotDeserialized() throws IOException {
+    CacheInvalidationBus other =
+        new CacheInvalidationBus(new UdpCacheInvalidationTransport(freePort(), ""), SECRET);
+    entitiesB.putIntoCache(1L, "user1", null);
+    // signed correctly, but not a type used as a cache key
+    busB.receive(
+        other.encode(CacheInvalidationBus.Kind.EVICT, ENTITY_REGION, new java.io.File("x"), null));
+    assertTrue(entitiesB.contains(1L));
+    other.close();
+  }
+
+  @Test
+  public void replayedMessagesAreIgnored() throws IOException {
+    byte[] message = busA.encode(CacheInvalidationBus.Kind.EVICT, ENTITY_REGION, 1L, null);
+    entitiesB.putIntoCache(1L, "user1", null);
+    busB.receive(message);
+    assertFalse(entitiesB.contains(1L));
+
+    entitiesB.putIntoCache(1L, "user1", null);
+    busB.receive(message);
+    assertTrue(entitiesB.contains(1L));
+  }
+
+  @Test
+  public void oldMessagesAreIgnored() throws IOException {
+    long sentAt = System.currentTimeMillis() - CacheInvalidationBus.MAX_MESSAGE_AGE_MILLIS - 1000;
+    entitiesB.putIntoCache(1L, "user1", null);
+    busB.receive(busA.encode(CacheInvalidationBus.Kind.EVICT, ENTITY_REGION, 1L, null, sentAt));
+    assertTrue(entitiesB.contains(1L));
+  }
+
+  @Test
+  public void datagramsFromOtherSendersAreIgnored() throws IOException {
+    entitiesB.putIntoCache(1L, "user1", null);
+    entitiesB.putIntoCache(2L, "user2", null);
+    byte[] message = busA.encode(CacheInvalidationBus.Kind.EVICT, ENTITY_REGION, 1L, null);
+    try (DatagramSocket other = new DatagramSocket(0)) {
+      other.send(
+          new DatagramPacket(
+              message, message.length, new InetSocketAddress("127.0.0.1", portB)));
+    }
+    // a later eviction from the peer is received, so the earlier one would have been too
+    regionA.evictData(2L);
+    waitFor(() -> !entitiesB.contains(2L));
+    assertTrue(entitiesB.contains(1L));
+  }
+
+  @Test
+  public void secretIsRequired() throws IOException {
+    UdpCacheInvalidationTransport transport = new UdpCacheInvalidationTransport(freePort(), "");
+    assertThrows(IllegalArgumentException.class, () -> new CacheInvalidationBus(transport, null));
+    transport.close();
+  }
+
+  @Test
+  public void peersMustBeHostAndPort() {
+    assertEquals(2, UdpCacheInvalidationTransport.parsePeers("node1:47500, node2:47501").size());
+    assertTrue(UdpCacheInvalidationTransport.parsePeers("").isEmpty());
+    assertThrows(
+        IllegalArgumentException.class, () -> UdpCacheInvalidationTransport.parsePeers("node1"));
+  }
+
+  private static int freePort() throws IOException {
+    try (DatagramSocket socket = new DatagramSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private static void waitFor(BooleanSupplier condition) {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("Invalidation not received");
+      }
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        throw new AssertionError(e);
+      }
+    }
+  }
+
+  static class MapStorage implements StorageAccess {
+    private final Map<Object, Object> map = new ConcurrentHashMap<>();
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+      return map.get(key);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+      map.put(key, value);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+      return map.containsKey(key);
+    }
+
+    @Override
+    public void evictData() {
+      map.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+      map.remove(key);
+    }
+
+    @Override
+    public void release() {
+      map.clear();
+    }
+  }
+}
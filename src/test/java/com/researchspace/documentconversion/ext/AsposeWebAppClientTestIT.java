@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.core.util.version.SemanticVersion;
 import com.researchspace.documentconversion.spi.ConversionResult;
 import com.researchspace.documentconversion.spi.ConvertibleFile;
@@ -38,6 +39,7 @@ public class AsposeWebAppClientTestIT extends AbstractJUnit4SpringContextTests {
   private @Autowired Environment env;
 
   AsposeWebAppClient client;
+  HttpClientFactory httpClientFactory = new HttpClientFactory();
   File wordFile = RSpaceTestUtils.getResource("PowerPasteTesting_RSpace.docx");
   final int EXPECTED_WORDFILE_TO_PDF_LENGTH = 620471;
   final int EXPECTED_WORDFILE_TO_HTML_LENGTH = 26210;
@@ -46,7 +48,12 @@ public class AsposeWebAppClientTestIT extends AbstractJUnit4SpringContextTests {
   @Before
   public void before() throws URISyntaxException {
     URI uri = new URI(env.getProperty("aspose.web.url"));
-    client = new AsposeWebAppClient(uri, null, () -> "AsposeWebAppClientTestIT");
+    client =
+        new AsposeWebAppClient(
+            uri,
+            null,
+            () -> "AsposeWebAppClientTestIT",
+            httpClientFactory.createRestTemplate("aspose"));
   }
 
   @Test
@@ -99,7 +106,9 @@ public class AsposeWebAppClientTestIT extends AbstractJUnit4SpringContextTests {
   @RunIfSystemPropertyDefined(value = "nightly")
   public void versionFailsGracefully() throws URISyntaxException {
     URI unknownUri = new URI("http://unknownURL.com");
-    client = new AsposeWebAppClient(unknownUri, null, () -> "customerID");
+    client =
+        new AsposeWebAppClient(
+            unknownUri, null, () -> "customerID", httpClientFactory.createRestTemplate("aspose"));
     SemanticVersion result = client.getVersion();
     assertNotNull(result);
     assertThat(SemanticVersion.UNKNOWN_VERSION, Matchers.equalTo(result));
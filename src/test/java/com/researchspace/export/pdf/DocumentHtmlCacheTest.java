@@ -0,0 +1,59 @@
+package com.researchspace.export.pdf;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.AbstractJUnit4SpringContextTests;
+
+@ContextConfiguration(classes = {DocumentHtmlCacheTest.CachingConfig.class})
+public class DocumentHtmlCacheTest extends AbstractJUnit4SpringContextTests {
+
+  @Configuration
+  @EnableCaching
+  public static class CachingConfig {
+
+    @Bean
+    public CacheManager cacheManager() {
+      return new ConcurrentMapCacheManager(DocumentHtmlCache.RENDERED_DOCUMENT_HTML_CACHE);
+    }
+
+    @Bean
+    public DocumentHtmlCache documentHtmlCache() {
+      return new DocumentHtmlCache();
+    }
+  }
+
+  @Autowired DocumentHtmlCache documentHtmlCache;
+  @Autowired CacheManager cacheManager;
+
+  private RenderedDocumentHtml rendered(int length) {
+    return new RenderedDocumentHtml(
+        StringUtils.repeat('a', length),
+        Collections.emptyList(),
+        Collections.emptyList(),
+        Collections.emptySet());
+  }
+
+  @Test
+  public void longHtmlIsNotCached() {
+    documentHtmlCache.getOrRender(
+        "short", () -> rendered(DocumentHtmlCache.MAX_CACHED_HTML_LENGTH));
+    documentHtmlCache.getOrRender(
+        "long", () -> rendered(DocumentHtmlCache.MAX_CACHED_HTML_LENGTH + 1));
+
+    org.springframework.cache.Cache cache =
+        cacheManager.getCache(DocumentHtmlCache.RENDERED_DOCUMENT_HTML_CACHE);
+    assertNotNull(cache.get("short"));
+    assertNull(cache.get("long"));
+  }
+}
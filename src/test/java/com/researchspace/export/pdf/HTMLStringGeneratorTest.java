@@ -38,8 +38,12 @@ import com.researchspace.service.NfsManager;
 import com.researchspace.service.UserExternalIdResolver;
 import com.researchspace.testutils.TestFactory;
 import com.researchspace.testutils.VelocityTestUtils;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.velocity.app.VelocityEngine;
 import org.jsoup.Jsoup;
@@ -372,4 +376,42 @@ public class HTMLStringGeneratorTest {
         "html incorrectly contains 'fieldChoices=' which should be stripped. html is: " + html,
         html.contains("fieldChoices="));
   }
+
+  @Test
+  public void renderedHtmlIsReusedUntilDocumentChanges() {
+    Map<String, RenderedDocumentHtml> cached = new HashMap<>();
+    htmlGenerator.setDocumentHtmlCache(
+        new DocumentHtmlCache() {
+          @Override
+          public RenderedDocumentHtml getOrRender(
+              String key, Supplier<RenderedDocumentHtml> renderer) {
+            return cached.computeIfAbsent(key, k -> renderer.get());
+          }
+        });
+    String commentStr = rtu.generateURLStringForCommentLink("1");
+    StructuredDocument anyDoc = createAnySDWithText(commentStr);
+    anyDoc.setId(1L);
+    ExportToFileConfig cfg = makeConfig();
+
+    ExportProcessorInput first = htmlGenerator.extractHtmlStr(anyDoc, cfg);
+    ExportProcessorInput second = htmlGenerator.extractHtmlStr(anyDoc, cfg);
+    assertEquals(first.getDocumentAsHtml(), second.getDocumentAsHtml());
+    assertEquals(1, cached.size());
+    verify(fieldParser, times(1))
+        .findFieldElementsInContentForCssClass(
+            Mockito.any(FieldContents.class), Mockito.anyString(), Mockito.anyString());
+    // comments are looked up for each export, as they can change without the document changing
+    verify(commentMgr, times(2)).getCommentItems(1L);
+
+    // other options are rendered separately
+    cfg.setPageSize("LETTER");
+    htmlGenerator.extractHtmlStr(anyDoc, cfg);
+    assertEquals(2, cached.size());
+
+    // as is a saved document
+    anyDoc.getFields().get(0).setFieldData("changed");
+    anyDoc.getFields().get(0).setModificationDate(new Date().getTime() + 1000);
+    assertTrue(htmlGenerator.extractHtmlStr(anyDoc, cfg).getDocumentAsHtml().contains("changed"));
+    assertEquals(3, cached.size());
+  }
 }
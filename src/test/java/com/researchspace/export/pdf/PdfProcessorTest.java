@@ -2,8 +2,18 @@ package com.researchspace.export.pdf;
 
 import static com.researchspace.testutils.RSpaceTestUtils.loadTextResourceFromPdfDir;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.lowagie.text.pdf.PdfReader;
@@ -11,10 +21,14 @@ import com.lowagie.text.pdf.parser.PdfTextExtractor;
 import com.researchspace.model.User;
 import com.researchspace.model.record.StructuredDocument;
 import com.researchspace.service.UserExternalIdResolver;
+import com.researchspace.service.archive.export.ExportFailureException;
 import com.researchspace.testutils.TestRunnerController;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +38,9 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 public class PdfProcessorTest {
@@ -61,6 +78,10 @@ public class PdfProcessorTest {
     user.setLastName("User");
     config = new ExportToFileConfig();
     config.setExporter(user);
+    // render with the renderer's own image handling
+    lenient()
+        .when(htmlImageResolver.createFactory(any(), anyInt(), any(), any(), anyBoolean()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
   }
 
   /*
@@ -97,6 +118,12 @@ public class PdfProcessorTest {
 
   private String concatTwoDocuments() throws Exception {
     // create 2 pdf docs then concatenate and verify the output doc contains the 2 inputs
+    List<File> filesToConcatenate = exportTwoDocuments();
+    pdfProcessor.concatenateExportedFilesIntoOne(outputFile, filesToConcatenate, config);
+    return readPdfContent(outputFile);
+  }
+
+  private List<File> exportTwoDocuments() throws Exception {
     String doc1Html = loadTextResourceFromPdfDir("doc1.html");
     ExportProcessorInput exportProcessorInput1 =
         new ExportProcessorInput(
@@ -122,9 +149,7 @@ public class PdfProcessorTest {
     when(pdfHtmlGenerator.prepareHtml(any(), any(), any())).thenReturn(doc2Html);
     pdfProcessor.makeExport(pdfDoc2, exportProcessorInput2, document, config);
 
-    List<File> filesToConcatenate = List.of(pdfDoc1, pdfDoc2);
-    pdfProcessor.concatenateExportedFilesIntoOne(outputFile, filesToConcatenate, config);
-    return readPdfContent(outputFile);
+    return List.of(pdfDoc1, pdfDoc2);
   }
 
   @Test
@@ -145,6 +170,113 @@ public class PdfProcessorTest {
     assertEquals(3, config.getStartPage());
   }
 
+  @Test
+  public void rendersDocumentsWithExecutor() throws Exception {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.initialize();
+    try {
+      pdfProcessor.setRenderExecutor(executor);
+      String output = concatTwoDocuments();
+      assertTrue(output.contains("This is document 1."));
+      assertTrue(output.contains("This is document 2."));
+      assertEquals(2, executor.getThreadPoolExecutor().getTaskCount());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void renderingErrorsFailConcatenation() throws Exception {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.initialize();
+    try {
+      pdfProcessor.setRenderExecutor(executor);
+      // an Error rather than an exception, in a rendering by the executor
+      when(htmlImageResolver.createFactory(any(), anyInt(), any(), any(), eq(false)))
+          .thenThrow(new StackOverflowError());
+      List<File> exported = exportTwoDocuments();
+      executor.shutdown();
+      assertTrue(executor.getThreadPoolExecutor().awaitTermination(30, TimeUnit.SECONDS));
+      assertThrows(
+          ExportFailureException.class,
+          () -> pdfProcessor.concatenateExportedFilesIntoOne(outputFile, exported, config));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void unstartedRenderingsRunInCallingThread() throws Exception {
+    // as with an executor that discards tasks
+    AsyncTaskExecutor executor = mock(AsyncTaskExecutor.class);
+    when(executor.submit(any(Runnable.class))).thenAnswer(invocation -> new CompletableFuture<>());
+    pdfProcessor.setRenderExecutor(executor);
+
+    String output = concatTwoDocuments();
+    assertTrue(output.contains("This is document 1."));
+    assertTrue(output.contains("This is document 2."));
+    verify(htmlImageResolver, times(2)).createFactory(any(), anyInt(), any(), any(), eq(true));
+  }
+
+  @Test
+  public void documentsOverQueueLimitAreRenderedWhenExported() throws Exception {
+    AsyncTaskExecutor executor = mock(AsyncTaskExecutor.class);
+    when(executor.submit(any(Runnable.class))).thenAnswer(invocation -> new CompletableFuture<>());
+    pdfProcessor.setRenderExecutor(executor);
+    ReflectionTestUtils.setField(pdfProcessor, "maxQueuedRenders", 1);
+
+    List<File> exported = exportTwoDocuments();
+    verify(executor, times(1)).submit(any(Runnable.class));
+    verify(htmlImageResolver, times(1)).createFactory(any(), anyInt(), any(), any(), eq(true));
+    assertTrue(exported.get(1).length() > 0);
+
+    pdfProcessor.concatenateExportedFilesIntoOne(outputFile, exported, config);
+    String output = readPdfContent(outputFile);
+    assertTrue(output.contains("This is document 1."));
+    assertTrue(output.contains("This is document 2."));
+  }
+
+  @Test
+  public void cancelledRenderingsAreNotRun() throws Exception {
+    List<Runnable> submitted = new ArrayList<>();
+    AsyncTaskExecutor executor = mock(AsyncTaskExecutor.class);
+    doAnswer(
+            invocation -> {
+              submitted.add(invocation.getArgument(0));
+              return new CompletableFuture<>();
+            })
+        .when(executor)
+        .submit(any(Runnable.class));
+    pdfProcessor.setRenderExecutor(executor);
+
+    File exportFolder = Files.createTempDirectory("pdfexport").toFile();
+    File exportFile = new File(exportFolder, "doc1.pdf");
+    String doc1Html = loadTextResourceFromPdfDir("doc1.html");
+    when(pdfHtmlGenerator.prepareHtml(any(), any(), any())).thenReturn(doc1Html);
+    pdfProcessor.makeExport(
+        exportFile,
+        new ExportProcessorInput(
+            doc1Html,
+            Collections.emptyList(),
+            new RevisionInfo(),
+            Collections.emptyList(),
+            Collections.emptySet()),
+        document,
+        config);
+    assertEquals(1, submitted.size());
+
+    pdfProcessor.cancelExports(exportFolder);
+    submitted.get(0).run();
+    assertFalse(exportFile.exists());
+    exportFolder.delete();
+  }
+
+  @Test
+  public void fontResolversAreReused() throws Exception {
+    concatTwoDocuments();
+    assertEquals(1, pdfProcessor.getIdleFontResolverCount());
+  }
+
   private String readPdfContent(File outFile) throws IOException {
     PdfReader reader = new PdfReader(outFile.getAbsolutePath());
     PdfTextExtractor textExtractor = new PdfTextExtractor(reader);
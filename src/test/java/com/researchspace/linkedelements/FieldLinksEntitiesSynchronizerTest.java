@@ -11,6 +11,8 @@ import com.researchspace.dao.FieldDao;
 import com.researchspace.dao.InternalLinkDao;
 import com.researchspace.model.EcatImage;
 import com.researchspace.model.EcatMediaFile;
+import com.researchspace.model.Thumbnail;
+import com.researchspace.model.Thumbnail.SourceType;
 import com.researchspace.model.User;
 import com.researchspace.model.field.Field;
 import com.researchspace.model.field.TextField;
@@ -18,9 +20,11 @@ import com.researchspace.model.field.TextFieldForm;
 import com.researchspace.model.record.RecordInformation;
 import com.researchspace.model.record.StructuredDocument;
 import com.researchspace.service.FieldManager;
+import com.researchspace.service.ThumbnailManager;
 import com.researchspace.service.impl.FieldLinksEntitySyncImpl;
 import com.researchspace.testutils.TestFactory;
 import java.io.IOException;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -38,6 +42,7 @@ public class FieldLinksEntitiesSynchronizerTest {
   @Mock FieldManager fieldMgr;
   @Mock InternalLinkDao internalLinkDao;
   @Mock EcatImageDao ecatimagedao;
+  @Mock ThumbnailManager thumbnailManager;
 
   User anyUser = TestFactory.createAnyUser("any");
   FieldContents emptyContent = new FieldContents();
@@ -211,4 +216,20 @@ public class FieldLinksEntitiesSynchronizerTest {
     sync.syncFieldWithEntitiesOnautosave(f1, (Field) f1.shallowCopy(), "", anyUser);
     assertInternalLinkDeleted();
   }
+
+  @Test
+  public void addedThumbnailsAreGeneratedInBackground() {
+    Thumbnail resized = new Thumbnail();
+    resized.setSourceType(SourceType.IMAGE);
+    resized.setSourceId(2L);
+    resized.setWidth(120);
+    resized.setHeight(80);
+    FieldContents added = new FieldContents();
+    added.addThumbnail(resized);
+    when(parser.findFieldElementChanges(f1.getFieldData(), "resized"))
+        .thenReturn(new FieldContentDelta(added, new FieldContents()));
+
+    sync.syncFieldWithEntitiesOnautosave(f1, (Field) f1.shallowCopy(), "resized", anyUser);
+    verify(thumbnailManager).generateThumbnailsInBackground(List.of(resized), anyUser);
+  }
 }
@@ -0,0 +1,92 @@
+package com.researchspace.linkedelements;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests that copied element ids of each type are updated in a single pass. */
+class RichTextUpdaterCopyTest {
+
+  private static final String CONTENT =
+      "<p>text<img id=\"11\" class=\"commentIcon\" src=\"/images/commentIcon.gif\" alt=\"image\">"
+          + "<img id=\"12\" class=\"commentIcon\" src=\"/images/commentIcon.gif\" alt=\"image\"></p>"
+          + "<div class=\"rsEquation\" data-mathid=\"2\"><object data=\"/svg/2\"></object></div>"
+          + "<img id=\"10\" class=\"chem\" src=\"/chemical/getImageChem/10/1\""
+          + " data-stoichiometry-table='{\"id\":100,\"revision\":5}' alt=\"image\">"
+          + "<div data-stoichiometry-table-only=\"true\""
+          + " data-stoichiometry-table='{\"id\":300,\"revision\":2}'>table</div>"
+          + "<img id=\"999-123\" class=\"imageDropped\""
+          + " src=\"/thumbnail/data?sourceType=IMAGE&amp;sourceId=123&amp;sourceParentId=999\">"
+          + "<img id=\"999-45\" class=\"videoDropped\" src=\"/images/video.png\">";
+
+  private RichTextUpdater updater;
+
+  @BeforeEach
+  void setUp() {
+    updater = new RichTextUpdater();
+  }
+
+  @Test
+  void commentMathAndStoichiometryIdsUpdated() {
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.getCommentIds().put(11L, 1L);
+    ids.getCommentIds().put(12L, 2L);
+    ids.getMathIds().put(2L, 3L);
+    ids.getStoichiometryIds().put(100L, 200L);
+    ids.getStoichiometryIds().put(300L, 400L);
+
+    String expected =
+        "<p>text<img id=\"1\" class=\"commentIcon\" src=\"/images/commentIcon.gif\""
+            + " alt=\"image\">"
+            + "<img id=\"2\" class=\"commentIcon\" src=\"/images/commentIcon.gif\""
+            + " alt=\"image\"></p>"
+            + "<div class=\"rsEquation\" data-mathid=\"3\"><object data=\"/svg/3\"></object></div>"
+            + "<img id=\"10\" class=\"chem\" src=\"/chemical/getImageChem/10/1\""
+            + " data-stoichiometry-table='{\"id\":200}' alt=\"image\">"
+            + "<div data-stoichiometry-table-only=\"true\""
+            + " data-stoichiometry-table='{\"id\":400}'>table</div>"
+            + "<img id=\"999-123\" class=\"imageDropped\""
+            + " src=\"/thumbnail/data?sourceType=IMAGE&amp;sourceId=123&amp;sourceParentId=999\">"
+            + "<img id=\"999-45\" class=\"videoDropped\" src=\"/images/video.png\">";
+    assertEquals(asSerialized(expected), updater.updateIdsInCopy(ids, CONTENT));
+  }
+
+  @Test
+  void mediaLinksUpdatedIfFieldIdSet() {
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.setMediaFieldId(5L);
+
+    String expected =
+        "<p>text<img id=\"11\" class=\"commentIcon\" src=\"/images/commentIcon.gif\""
+            + " alt=\"image\">"
+            + "<img id=\"12\" class=\"commentIcon\" src=\"/images/commentIcon.gif\""
+            + " alt=\"image\"></p>"
+            + "<div class=\"rsEquation\" data-mathid=\"2\"><object data=\"/svg/2\"></object></div>"
+            + "<img id=\"10\" class=\"chem\" src=\"/chemical/getImageChem/10/1\""
+            + " data-stoichiometry-table='{\"id\":100,\"revision\":5}' alt=\"image\">"
+            + "<div data-stoichiometry-table-only=\"true\""
+            + " data-stoichiometry-table='{\"id\":300,\"revision\":2}'>table</div>"
+            + "<img id=\"5-123\" class=\"imageDropped\""
+            + " src=\"/thumbnail/data?sourceType=IMAGE&amp;sourceId=123&amp;sourceParentId=5\">"
+            + "<img id=\"5-45\" class=\"videoDropped\" src=\"/images/video.png\">";
+    assertEquals(asSerialized(expected), updater.updateIdsInCopy(ids, CONTENT));
+
+    // no field id, media links unchanged
+    assertEquals(asSerialized(CONTENT), updater.updateIdsInCopy(new CopiedElementIds(), CONTENT));
+  }
+
+  // as the updater writes it out, so that only the ids are compared
+  private String asSerialized(String html) {
+    return Jsoup.parse(html).body().html();
+  }
+
+  @Test
+  void blankContentUnchanged() {
+    CopiedElementIds ids = new CopiedElementIds();
+    ids.getCommentIds().put(11L, 1L);
+    assertEquals("", updater.updateIdsInCopy(ids, ""));
+    assertEquals(null, updater.updateIdsInCopy(ids, null));
+  }
+}
@@ -0,0 +1,100 @@
+package com.researchspace.model.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.axiope.search.SearchUtils;
+import com.researchspace.core.util.SearchResultsImpl;
+import com.researchspace.core.util.SortOrder;
+import com.researchspace.model.PaginationCriteria;
+import com.researchspace.model.record.BaseRecord;
+import com.researchspace.model.record.StructuredDocument;
+import com.researchspace.model.views.RecordTypeFilter;
+import com.researchspace.testutils.TestFactory;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FolderListingCursorTest {
+
+  private static final Long FOLDER_ID = 5L;
+
+  private PaginationCriteria<BaseRecord> pgCrit(String orderBy, SortOrder order, long page) {
+    PaginationCriteria<BaseRecord> pgCrit =
+        PaginationCriteria.createDefaultForClass(BaseRecord.class);
+    pgCrit.setOrderBy(orderBy);
+    pgCrit.setSortOrder(order);
+    pgCrit.setResultsPerPage(2);
+    pgCrit.setPageNumber(page);
+    return pgCrit;
+  }
+
+  private FolderListingCursor firstPageCursor(PaginationCriteria<BaseRecord> pgCrit, long total) {
+    StructuredDocument first = TestFactory.createAnySD();
+    first.setId(10L);
+    StructuredDocument last = TestFactory.createAnySD();
+    last.setId(11L);
+    last.setName("a | name");
+    SearchResultsImpl<BaseRecord> results =
+        new SearchResultsImpl<>(List.of(first, last), pgCrit, total);
+    return FolderListingCursor.forNextPage(
+        FOLDER_ID, pgCrit, RecordTypeFilter.WORKSPACE_FILTER, results);
+  }
+
+  @Test
+  void tokenContinuesOnlyTheNextPageOfTheSameListing() {
+    PaginationCriteria<BaseRecord> firstPage = pgCrit("name", SortOrder.ASC, 0);
+    FolderListingCursor cursor =
+        FolderListingCursor.fromToken(firstPageCursor(firstPage, 5).toToken());
+
+    assertEquals(SearchUtils.ORDER_BY_NAME, cursor.getOrderBy());
+    assertEquals("a | name", cursor.getTypedLastValue());
+    assertEquals(11L, cursor.getLastId());
+    assertTrue(
+        cursor.continues(
+            FOLDER_ID, pgCrit("name", SortOrder.ASC, 1), RecordTypeFilter.WORKSPACE_FILTER));
+    assertTrue(
+        cursor.continues(
+            FOLDER_ID,
+            pgCrit("editInfo.name", SortOrder.ASC, 1),
+            RecordTypeFilter.WORKSPACE_FILTER));
+
+    assertFalse(
+        cursor.continues(
+            FOLDER_ID, pgCrit("name", SortOrder.ASC, 2), RecordTypeFilter.WORKSPACE_FILTER));
+    assertFalse(
+        cursor.continues(
+            FOLDER_ID, pgCrit("name", SortOrder.DESC, 1), RecordTypeFilter.WORKSPACE_FILTER));
+    assertFalse(
+        cursor.continues(
+            6L, pgCrit("name", SortOrder.ASC, 1), RecordTypeFilter.WORKSPACE_FILTER));
+    assertFalse(cursor.continues(FOLDER_ID, pgCrit("name", SortOrder.ASC, 1), null));
+  }
+
+  @Test
+  void defaultOrderIsByModificationTimeDescending() {
+    FolderListingCursor cursor = firstPageCursor(pgCrit(null, SortOrder.ASC, 0), 3);
+    assertEquals(SearchUtils.BASE_RECORD_ORDER_BY_LAST_MODIFIED, cursor.getOrderBy());
+    assertEquals(SortOrder.DESC, cursor.getSortOrder());
+    assertTrue(cursor.getTypedLastValue() instanceof Long);
+  }
+
+  @Test
+  void noCursorForLastPageOrUnsupportedOrder() {
+    assertNull(firstPageCursor(pgCrit("name", SortOrder.ASC, 0), 2));
+    assertNull(firstPageCursor(pgCrit("template", SortOrder.ASC, 0), 5));
+  }
+
+  @Test
+  void invalidTokensAreIgnored() {
+    assertNull(FolderListingCursor.fromToken(null));
+    assertNull(FolderListingCursor.fromToken(""));
+    assertNull(FolderListingCursor.fromToken("not a token"));
+    assertNull(FolderListingCursor.fromToken("MXwyfDM"));
+    // version 1 tokens carried the total hits
+    assertNull(
+        FolderListingCursor.fromToken(
+            "MXw1fC1SRUNPUkQsRk9MREVSfG5hbWV8QVNDfDJ8MXw1fDExfGEgfCBuYW1l"));
+  }
+}
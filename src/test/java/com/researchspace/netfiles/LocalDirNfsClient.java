@@ -0,0 +1,150 @@
+package com.researchspace.netfiles;
+
+import com.researchspace.model.netfiles.NfsFileStore;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * In-process stand-in for an SFTP or Samba server, serving a local directory, for testing code that
+ * browses or transfers files without a remote file store. Counts the listings and downloads it
+ * serves, and can be slowed down to simulate a slow share.
+ */
+public class LocalDirNfsClient extends NfsAbstractClient {
+
+  private static final long serialVersionUID = 1L;
+
+  private final File rootDir;
+  private final boolean parallelTransfers;
+  private long delayMillis;
+
+  final AtomicInteger listings = new AtomicInteger();
+  final AtomicInteger downloads = new AtomicInteger();
+
+  /**
+   * @param rootDir the directory that paths are relative to
+   * @param parallelTransfers whether to act like a client that can be used by several threads
+   */
+  public LocalDirNfsClient(String username, File rootDir, boolean parallelTransfers) {
+    super(username);
+    this.rootDir = rootDir;
+    this.parallelTransfers = parallelTransfers;
+  }
+
+  /** delay added to each listing and download */
+  public void setDelayMillis(long delayMillis) {
+    this.delayMillis = delayMillis;
+  }
+
+  private File resolve(String path) {
+    return StringUtils.isBlank(path) ? rootDir : new File(rootDir, path);
+  }
+
+  private void simulateLatency() {
+    if (delayMillis > 0) {
+      try {
+        Thread.sleep(delayMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public boolean isUserLoggedIn() {
+    return true;
+  }
+
+  @Override
+  public void tryConnectAndReadTarget(String target) throws NfsException {
+    if (!resolve(target).exists()) {
+      throw new NfsException("couldn't retrieve path: " + target, null);
+    }
+  }
+
+  @Override
+  public NfsFileTreeNode createFileTree(String target, String nfsorder, NfsFileStore filestore)
+      throws IOException {
+    listings.incrementAndGet();
+    simulateLatency();
+    File dir = resolve(target);
+    File[] children = dir.listFiles();
+    if (children == null) {
+      throw new IOException("Not a directory: " + target);
+    }
+    NfsFileTreeNode rootNode = new NfsFileTreeNode();
+    rootNode.setOrderType(NfsFileTreeOrderType.parseOrderTypeString(nfsorder));
+    rootNode.calculateFileName(dir.getName());
+    rootNode.setNodePath(StringUtils.defaultString(target));
+    rootNode.setIsFolder(true);
+    Arrays.sort(children, Comparator.comparing(File::getName));
+    for (File child : children) {
+      NfsFileTreeNode node = new NfsFileTreeNode();
+      String childPath = StringUtils.removeEnd(StringUtils.defaultString(target), "/") + "/";
+      node.calculateFileName(child.getName());
+      node.setNodePath(childPath + child.getName());
+      node.calculateLogicPath(childPath + child.getName(), filestore);
+      node.setIsFolder(child.isDirectory());
+      node.setFileSizeBytes(child.length());
+      node.setModificationDateMillis(child.lastModified());
+      rootNode.addNode(node);
+    }
+    return rootNode;
+  }
+
+  @Override
+  public NfsFileDetails queryForNfsFile(NfsTarget nfsTarget) {
+    File file = resolve(nfsTarget.getPath());
+    if (!file.isFile()) {
+      return null;
+    }
+    NfsFileDetails details = new NfsFileDetails(file.getName());
+    details.setFileSystemFullPath(nfsTarget.getPath());
+    details.setSize(file.length());
+    return details;
+  }
+
+  @Override
+  public NfsFileDetails queryNfsFileForDownload(NfsTarget target) throws IOException {
+    downloads.incrementAndGet();
+    simulateLatency();
+    NfsFileDetails details = queryForNfsFile(target);
+    if (details == null) {
+      throw new FileNotFoundException(target.getPath());
+    }
+    details.setRemoteInputStream(new FileInputStream(resolve(target.getPath())));
+    return details;
+  }
+
+  @Override
+  public NfsFolderDetails queryForNfsFolder(NfsTarget nfsTarget) throws IOException {
+    File dir = resolve(nfsTarget.getPath());
+    File[] children = dir.listFiles();
+    if (children == null) {
+      throw new NfsException("couldn't retrieve folder: " + nfsTarget, null);
+    }
+    NfsFolderDetails folder = new NfsFolderDetails(dir.getName());
+    folder.setFileSystemFullPath(nfsTarget.getPath());
+    for (File child : children) {
+      NfsResourceDetails details =
+          child.isDirectory()
+              ? new NfsFolderDetails(child.getName())
+              : new NfsFileDetails(child.getName());
+      details.setFileSystemFullPath(
+          StringUtils.removeEnd(nfsTarget.getPath(), "/") + "/" + child.getName());
+      details.setFileSystemParentPath(nfsTarget.getPath());
+      folder.getContent().add(details);
+    }
+    return folder;
+  }
+
+  @Override
+  public boolean supportsParallelTransfers() {
+    return parallelTransfers;
+  }
+}
@@ -0,0 +1,91 @@
+package com.researchspace.netfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.task.SyncTaskExecutor;
+
+public class NfsFileTreeCacheTest {
+
+  private static final Long FILE_SYSTEM_ID = 1L;
+
+  @TempDir Path rootDir;
+
+  private LocalDirNfsClient client;
+  private NfsFileTreeCache cache;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(rootDir.resolve("a/b"));
+    Files.writeString(rootDir.resolve("a/file.txt"), "content");
+    client = new LocalDirNfsClient("remoteUser", rootDir.toFile(), false);
+    cache = new NfsFileTreeCache(new ConcurrentMapCacheManager());
+  }
+
+  private NfsFileTreeNode browse(String path, boolean refresh) throws IOException {
+    return cache.getFileTree("user1", FILE_SYSTEM_ID, client, path, null, refresh);
+  }
+
+  @Test
+  void listingIsReusedUntilRefreshed() throws IOException {
+    NfsFileTreeNode listing = browse("/a", false);
+    assertEquals(2, listing.getNodes().size());
+    assertSame(listing, browse("/a/", false));
+    assertSame(listing, browse("//a", false));
+    assertEquals(1, client.listings.get());
+
+    assertNotSame(listing, browse("/a", true));
+    assertEquals(2, client.listings.get());
+  }
+
+  @Test
+  void listingsAreNotSharedBetweenUsers() throws IOException {
+    browse("/a", false);
+    cache.getFileTree("user2", FILE_SYSTEM_ID, client, "/a", null, false);
+    assertEquals(2, client.listings.get());
+  }
+
+  @Test
+  void invalidatedListingIsListedAgain() throws IOException {
+    browse("/a", false);
+    Files.writeString(rootDir.resolve("a/new.txt"), "content");
+    cache.invalidate(FILE_SYSTEM_ID);
+    assertEquals(3, browse("/a", false).getNodes().size());
+  }
+
+  @Test
+  void subfoldersArePrefetched() throws IOException {
+    client = new LocalDirNfsClient("remoteUser", rootDir.toFile(), true);
+    cache.setTaskExecutor(new SyncTaskExecutor());
+    cache.setPrefetch(true);
+    browse("/a", false);
+    assertEquals(2, client.listings.get());
+
+    assertEquals(0, browse("/a/b", false).getNodes().size());
+    assertEquals(2, client.listings.get());
+  }
+
+  @Test
+  void subfoldersAreNotPrefetchedWithSingleThreadedClient() throws IOException {
+    cache.setTaskExecutor(new SyncTaskExecutor());
+    cache.setPrefetch(true);
+    browse("/a", false);
+    assertEquals(1, client.listings.get());
+  }
+
+  @Test
+  void pathsAreNormalised() {
+    assertEquals("", NfsFileTreeCache.normalisePath(null));
+    assertEquals("/", NfsFileTreeCache.normalisePath("//"));
+    assertEquals("a/b", NfsFileTreeCache.normalisePath("a//b/"));
+    assertEquals("a", NfsFileTreeCache.normalisePath("a"));
+  }
+}
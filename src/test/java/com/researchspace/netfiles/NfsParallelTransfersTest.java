@@ -0,0 +1,102 @@
+package com.researchspace.netfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+public class NfsParallelTransfersTest {
+
+  private final ExecutorService pool = Executors.newFixedThreadPool(8);
+  private final NfsParallelTransfers transfers =
+      new NfsParallelTransfers(new TaskExecutorAdapter(pool), 3);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  private List<Runnable> createTransfers(
+      int count, AtomicInteger running, AtomicInteger maxRunning) {
+    List<Runnable> list = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      list.add(
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+              Thread.sleep(20);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+          });
+    }
+    return list;
+  }
+
+  @Test
+  void transfersRunInParallelUpToConnectionLimit() {
+    LocalDirNfsClient client = new LocalDirNfsClient("user", new File("."), true);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    // two batches sharing one connection
+    List<Runnable> otherBatch = createTransfers(6, running, maxRunning);
+    Thread other = new Thread(() -> transfers.runAll(client, otherBatch));
+    other.start();
+    transfers.runAll(client, createTransfers(6, running, maxRunning));
+    assertTrue(joins(other));
+
+    assertEquals(0, running.get());
+    assertTrue(maxRunning.get() > 1, "expected parallel transfers");
+    assertTrue(maxRunning.get() <= 3, "connection limit exceeded: " + maxRunning.get());
+  }
+
+  @Test
+  void transfersRunInCallingThreadIfClientIsNotThreadSafe() {
+    LocalDirNfsClient client = new LocalDirNfsClient("user", new File("."), false);
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    List<Runnable> list = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      list.add(() -> threads.add(Thread.currentThread()));
+    }
+    transfers.runAll(client, list);
+    assertEquals(Set.of(Thread.currentThread()), threads);
+  }
+
+  @Test
+  void failureIsRethrownAfterOtherTransfersComplete() {
+    LocalDirNfsClient client = new LocalDirNfsClient("user", new File("."), true);
+    AtomicInteger completed = new AtomicInteger();
+    List<Runnable> list = new ArrayList<>();
+    list.add(
+        () -> {
+          throw new IllegalStateException("share unavailable");
+        });
+    for (int i = 0; i < 4; i++) {
+      list.add(completed::incrementAndGet);
+    }
+    assertThrows(IllegalStateException.class, () -> transfers.runAll(client, list));
+    assertEquals(4, completed.get());
+  }
+
+  private static boolean joins(Thread thread) {
+    try {
+      thread.join(5000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return !thread.isAlive();
+  }
+}
@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.lucene.document.Document;
 import org.apache.commons.io.FileUtils;
 import org.apache.lucene.codecs.CodecUtil;
 import org.apache.lucene.store.Directory;
@@ -70,6 +72,97 @@ public class FileIndexerTest {
     reopened.close();
   }
 
+  @Test
+  void reindexingFolderOnlyParsesChangedFilesAndReplacesTheirEntries() throws IOException {
+    AtomicInteger parsed = new AtomicInteger();
+    FileIndexer countingIndexer =
+        new FileIndexer() {
+          @Override
+          Document getIndexDocument(File fx) throws IOException {
+            parsed.incrementAndGet();
+            return super.getIndexDocument(fx);
+          }
+        };
+    indexer = countingIndexer;
+    File unchanged = writeDataFile("unchanged.txt", "unchanged content");
+    File changed = writeDataFile("changed.txt", "original content");
+    indexer.setIndexFolderDirectly(indexFolder);
+    indexer.init(true);
+
+    assertEquals(2, indexer.indexFolder(dataFolder, true));
+    assertEquals(2, parsed.get());
+
+    FileUtils.writeStringToFile(changed, "updated and longer content", UTF_8);
+    changed.setLastModified(unchanged.lastModified() + 10_000);
+    assertEquals(2, indexer.indexFolder(dataFolder, true));
+    assertEquals(3, parsed.get());
+    assertFalse(new File(indexFolder, ReindexCheckpoint.CHECKPOINT_FILE_NAME).exists());
+  }
+
+  @Test
+  void reopenedIndexSkipsUnchangedFilesAndDropsDeletedOnes() throws IOException {
+    AtomicInteger parsed = new AtomicInteger();
+    File kept = writeDataFile("kept.txt", "kept content");
+    File deleted = writeDataFile("deleted.txt", "deleted content");
+    indexer.setIndexFolderDirectly(indexFolder);
+    indexer.init(true);
+    assertEquals(2, indexer.indexFolder(dataFolder, true));
+    indexer.close();
+
+    indexer =
+        new FileIndexer() {
+          @Override
+          Document getIndexDocument(File fx) throws IOException {
+            parsed.incrementAndGet();
+            return super.getIndexDocument(fx);
+          }
+        };
+    indexer.setIndexFolderDirectly(indexFolder);
+    indexer.init(false);
+    assertTrue(deleted.delete());
+    indexer.indexFolder(dataFolder, true);
+    assertEquals(0, parsed.get());
+    assertEquals(1, indexer.deleteEntriesOfMissingFiles());
+    assertEquals(1, indexer.getWriter().getDocStats().numDocs);
+    assertTrue(indexer.isUnchanged(kept));
+    assertEquals(0, indexer.deleteEntriesOfMissingFiles());
+  }
+
+  @Test
+  void interruptedFolderIndexResumesAfterLastCommittedFile() throws IOException {
+    File first = writeDataFile("a.txt", "first");
+    writeDataFile("b.txt", "second");
+    writeDataFile("c.txt", "third");
+    indexer.setIndexFolderDirectly(indexFolder);
+    indexer.setCommitBatchSize(1);
+    indexer.init(true);
+    // as left by a reindex stopped after committing the first file
+    new ReindexCheckpoint(indexFolder).save(dataFolder, first.getAbsolutePath(), 1);
+    assertTrue(indexer.hasInterruptedReindex());
+
+    assertEquals(2, indexer.indexFolder(dataFolder, true));
+    assertFalse(indexer.hasInterruptedReindex());
+  }
+
+  @Test
+  void folderIndexingIsIndependentOfParserThreadCount() throws IOException {
+    for (int i = 0; i < 20; i++) {
+      writeDataFile("file" + i + ".txt", "content " + i);
+    }
+    indexer.setIndexFolderDirectly(indexFolder);
+    indexer.setParserThreads(3);
+    indexer.setCommitBatchSize(7);
+    indexer.init(true);
+
+    assertEquals(20, indexer.indexFolder(dataFolder, true));
+  }
+
+  private File writeDataFile(String name, String content) throws IOException {
+    File file = new File(dataFolder, name);
+    FileUtils.writeStringToFile(file, content, UTF_8);
+    return file;
+  }
+
   /**
    * Writes a segments file whose header declares format version 6, the version written by the
    * Lucene 5.5.5 in use before the Hibernate Search 6 upgrade, which current Lucene refuses to open
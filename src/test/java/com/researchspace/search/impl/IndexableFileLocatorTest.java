@@ -3,6 +3,7 @@ package com.researchspace.search.impl;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -19,4 +20,16 @@ class IndexableFileLocatorTest {
     loc.doExtractFiles(topFolder, toIndex);
     assertEquals(EXPECTED_INDEXABLE_FILES, toIndex.size());
   }
+
+  @Test
+  void walkResumesAfterGivenFile() throws IOException {
+    IndexableFileLocator loc = new IndexableFileLocator(dummyFileStore);
+    List<File> all = new ArrayList<>();
+    loc.walk(dummyFileStore, null, all::add);
+    assertEquals(EXPECTED_INDEXABLE_FILES, all.size());
+
+    List<File> resumed = new ArrayList<>();
+    loc.walk(dummyFileStore, all.get(2).getAbsolutePath(), resumed::add);
+    assertEquals(all.subList(3, all.size()), resumed);
+  }
 }
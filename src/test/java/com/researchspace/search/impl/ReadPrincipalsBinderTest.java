@@ -0,0 +1,50 @@
+package com.researchspace.search.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.researchspace.model.permissions.ACLElement;
+import com.researchspace.model.permissions.ConstraintBasedPermission;
+import com.researchspace.model.permissions.PermissionDomain;
+import com.researchspace.model.permissions.PermissionType;
+import com.researchspace.model.record.StructuredDocument;
+import com.researchspace.testutils.TestFactory;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ReadPrincipalsBinderTest {
+
+  @Test
+  void readPrincipalsAreOwnerThenSharingAclPrincipals() {
+    StructuredDocument doc = TestFactory.createAnySD();
+    doc.getSharingACL()
+        .addACLElement(
+            new ACLElement(
+                "labGroup1",
+                new ConstraintBasedPermission(PermissionDomain.RECORD, PermissionType.READ)));
+    doc.getSharingACL()
+        .addACLElement(
+            new ACLElement(
+                "otherUser",
+                new ConstraintBasedPermission(PermissionDomain.RECORD, PermissionType.WRITE)));
+
+    Set<String> principals = ReadPrincipalsBinder.getReadPrincipals(doc);
+
+    assertEquals(
+        List.of(doc.getOwner().getUsername(), "labGroup1", "otherUser"),
+        List.copyOf(principals));
+  }
+
+  @Test
+  void ownerListedOnceEvenIfAlsoInAcl() {
+    StructuredDocument doc = TestFactory.createAnySD();
+    doc.getSharingACL()
+        .addACLElement(
+            new ACLElement(
+                doc.getOwner().getUsername(),
+                new ConstraintBasedPermission(PermissionDomain.RECORD, PermissionType.WRITE)));
+
+    assertEquals(
+        Set.of(doc.getOwner().getUsername()), ReadPrincipalsBinder.getReadPrincipals(doc));
+  }
+}
@@ -10,6 +10,7 @@ import com.researchspace.service.impl.DiskSpaceCheckerImpl;
 import com.researchspace.testutils.RSpaceTestUtils;
 import java.io.File;
 import java.nio.file.Files;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -68,6 +69,19 @@ public class DiskSpaceCheckerTest {
     }
   }
 
+  @Test
+  public void testProjectedArchiveSizeCheck() throws Exception {
+    diskSpaceChecker.setMaxArchiveSizeMB("20");
+
+    diskSpaceChecker.assertArchiveSizeWithinLimit(20 * FileUtils.ONE_MB);
+    try {
+      diskSpaceChecker.assertArchiveSizeWithinLimit(21 * FileUtils.ONE_MB);
+      fail("expected exception as projected archive is over the limit");
+    } catch (DiskSpaceLimitException ioe) {
+      assertEquals("Constructed archive is larger than 20 MB limit", ioe.getMessage());
+    }
+  }
+
   @Test
   public void testCurrentlyAllowedArchiveSizeMB() throws Exception {
 
@@ -168,6 +168,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
 import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.http.SdkHttpResponse;
 
@@ -1478,6 +1479,80 @@ public class ExportImportManagerTestIT extends RealTransactionSpringTestBase {
             .size());
   }
 
+  @Test
+  public void importClearingSessionAfterEachDocument() throws Exception {
+    User u1 = createInitAndLoginAnyUser();
+    // A has images, annotations and external workflow data; B links to A
+    final String A_text = "aaaaaaa";
+    StructuredDocument sdocA = createBasicDocumentInRootFolderWithText(u1, A_text);
+    final String B_text = "bbbbbbb";
+    StructuredDocument sdocB = createBasicDocumentInRootFolderWithText(u1, B_text);
+    Field textField = sdocA.getFields().get(0);
+    final long initialImageCount = getImageCount();
+    final long initialAnnotationCount = getImageAnnotationCount();
+    new ContentBuilder(u1, textField).addImage().addImageAnnotation().addImage();
+    textField = fieldMgr.getWithLoadedMediaLinks(textField.getId(), u1).get();
+    externalWorkFlowDataManager.save(
+        createExternalWorkFlowData(
+            textField.getId(),
+            textField.getLinkedMediaFiles().iterator().next().getMediaFile().getId(),
+            "ext123"));
+    addLinkToOtherRecord(sdocB.getFields().get(0), sdocA);
+
+    final ArchiveExportConfig cfg = createDefaultArchiveConfig(u1, tempExportFolder.getRoot());
+    ExportSelection exportSelection =
+        ExportSelection.createRecordsExportSelection(
+            new Long[] {sdocA.getId(), sdocB.getId()},
+            new String[] {NORMAL.toString(), NORMAL.toString()});
+    ArchiveResult result =
+        exportImportMgr
+            .asyncExportSelectionToArchive(exportSelection, cfg, u1, anyURI(), standardPostExport)
+            .get();
+
+    // documents, and the gallery items they use, are imported across session clears
+    Object strategy = AopTestUtils.getTargetObject(importStrategy);
+    Object documentsPerBatch = ReflectionTestUtils.getField(strategy, "documentsPerBatch");
+    ReflectionTestUtils.setField(strategy, "documentsPerBatch", 1);
+    ImportArchiveReport report;
+    try {
+      ArchivalImportConfig importCfg =
+          createDefaultArchiveImportConfig(u1, tempImportFolder2.getRoot());
+      report =
+          exportImportMgr.importArchive(
+              fileToMultipartfile(result.getExportFile().getName(), result.getExportFile()),
+              u1.getUsername(),
+              importCfg,
+              NULL_MONITOR,
+              importStrategy::doImport);
+    } finally {
+      ReflectionTestUtils.setField(strategy, "documentsPerBatch", documentsPerBatch);
+    }
+    assertTrue(
+        report.getErrorList().getAllErrorMessagesAsStringsSeparatedBy(","), report.isSuccessful());
+    assertEquals(initialImageCount + 6, getImageCount().intValue());
+    assertEquals(initialAnnotationCount + 2, getImageAnnotationCount().intValue());
+
+    StructuredDocument importedA = getImportedByTextContent(A_text, sdocA.getId(), u1);
+    StructuredDocument importedB = getImportedByTextContent(B_text, sdocB.getId(), u1);
+    String aContent = importedA.getFields().get(0).getFieldData();
+    FieldContents aContents =
+        doInTransaction(() -> fieldParser.findFieldElementsInContent(aContent));
+    assertEquals(1, aContents.getImageAnnotations().size());
+    assertEquals(3, aContents.getElements(EcatImage.class).size());
+    assertEquals(
+        1,
+        externalWorkFlowDataManager
+            .findWorkFlowDataByRSpaceContainerIdAndServiceType(
+                importedA.getFields().get(0).getId(), ExternalService.GALAXY)
+            .size());
+    // B's internal link is updated to the imported A
+    FieldContents bContents =
+        fieldParser.findFieldElementsInContent(importedB.getFields().get(0).getFieldData());
+    assertTrue(
+        bContents.getLinkedRecordsWithRelativeUrl().getElements().stream()
+            .anyMatch(link -> link.getId().equals(importedA.getId())));
+  }
+
   private Elements getImageTagsInDocument(String content) {
     Document d = Jsoup.parse(content);
     return d.getElementsByTag(FieldParserConstants.TAG_IMG);
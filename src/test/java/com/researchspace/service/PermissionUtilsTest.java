@@ -2,6 +2,7 @@ package com.researchspace.service;
 
 import static org.junit.Assert.*;
 
+import com.researchspace.auth.PermissionIndex;
 import com.researchspace.auth.PermissionUtils;
 import com.researchspace.core.util.ISearchResults;
 import com.researchspace.core.util.SearchResultsImpl;
@@ -115,9 +116,13 @@ public class PermissionUtilsTest {
     boolean refreshed = false;
     boolean isPermitted = false;
     String uname;
+    // simulates the permissions versions in the database, and the versions loaded into the cache
+    Map<String, Long> permissionsVersions = new HashMap<>();
+    Map<String, Long> cachedVersions = new HashMap<>();
 
     public void refreshCache() {
       refreshed = true;
+      cachedVersions.put(uname, getPermissionsVersion(uname));
     }
 
     @Override
@@ -125,6 +130,26 @@ public class PermissionUtilsTest {
       return uname;
     }
 
+    @Override
+    protected void notifyPermissionsChanged(Collection<User> users) {
+      users.forEach(u -> permissionsVersions.merge(u.getUsername(), 1L, Long::sum));
+    }
+
+    @Override
+    protected long getPermissionsVersion(String username) {
+      return permissionsVersions.getOrDefault(username, 0L);
+    }
+
+    @Override
+    protected boolean isCachedPermissionsStale(long currentVersion) {
+      return cachedVersions.getOrDefault(uname, 0L) < currentVersion;
+    }
+
+    @Override
+    protected List<PermissionIndex> getSubjectPermissionIndexes() {
+      return null;
+    }
+
     @Override
     protected boolean checkPermissions(AbstractEntityPermissionAdapter adapter, User u) {
       return isPermitted;
@@ -155,6 +180,12 @@ public class PermissionUtilsTest {
     permissionUtilsTSS.refreshed = false; // reset
     permissionUtils.refreshCacheIfNotified();
     assertFalse(permissionUtilsTSS.refreshed); // notificatin has been cancelled
+
+    // a user who wasn't notified isn't refreshed
+    User c = TestFactory.createAnyUser("C");
+    permissionUtilsTSS.uname = c.getUsername();
+    permissionUtils.refreshCacheIfNotified();
+    assertFalse(permissionUtilsTSS.refreshed);
   }
 
   @Test
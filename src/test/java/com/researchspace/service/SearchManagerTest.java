@@ -77,8 +77,10 @@ import java.io.InputStream;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.shiro.authz.AuthorizationException;
@@ -1945,6 +1947,71 @@ public class SearchManagerTest extends SearchSpringTestBase {
             < 0);
   }
 
+  @Test
+  public void testSortedNameSearchPagesThroughAllHitsInOrder() throws Exception {
+    setupRandomPIUser();
+    Folder root = user.getRootFolder();
+    final int numDocs = 5;
+    for (int i = numDocs; i > 0; i--) {
+      StructuredDocument doc = recordMgr.createBasicDocument(root.getId(), user);
+      doc.setName("Paged" + i);
+      recordMgr.save(doc, user);
+    }
+    flushToSearchIndices();
+
+    PaginationCriteria<BaseRecord> pg = PaginationCriteria.createDefaultForClass(BaseRecord.class);
+    pg.setOrderBy("name");
+    pg.setSortOrder(SortOrder.ASC);
+    pg.setResultsPerPage(2);
+    WorkspaceListingConfig input =
+        new WorkspaceListingConfig(
+            pg, new String[] {NAME_SEARCH_OPTION}, new String[] {"Paged*"}, -1L, false);
+
+    // page forwards, so that later pages are fetched after the previous page's last hit
+    List<String> names = new ArrayList<>();
+    for (long page = 0; page < 3; page++) {
+      pg.setPageNumber(page);
+      ISearchResults<BaseRecord> res = searchMgr.searchWorkspaceRecords(input, user);
+      assertEquals(numDocs, res.getTotalHits().intValue());
+      res.getResults().forEach(br -> names.add(br.getName()));
+    }
+    assertEquals(List.of("Paged1", "Paged2", "Paged3", "Paged4", "Paged5"), names);
+
+    // jumping straight to a page gives the same hits
+    pg.setSortOrder(SortOrder.DESC);
+    pg.setPageNumber(1L);
+    ISearchResults<BaseRecord> res = searchMgr.searchWorkspaceRecords(input, user);
+    assertEquals(numDocs, res.getTotalHits().intValue());
+    assertEquals(
+        List.of("Paged3", "Paged2"),
+        res.getResults().stream().map(BaseRecord::getName).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testSortedNameSearchIgnoresCase() throws Exception {
+    setupRandomPIUser();
+    Folder root = user.getRootFolder();
+    for (String name : List.of("CaseB", "CASEC", "casea")) {
+      StructuredDocument doc = recordMgr.createBasicDocument(root.getId(), user);
+      doc.setName(name);
+      recordMgr.save(doc, user);
+    }
+    flushToSearchIndices();
+
+    PaginationCriteria<BaseRecord> pg = PaginationCriteria.createDefaultForClass(BaseRecord.class);
+    pg.setOrderBy("name");
+    pg.setSortOrder(SortOrder.ASC);
+    WorkspaceListingConfig input =
+        new WorkspaceListingConfig(
+            pg, new String[] {NAME_SEARCH_OPTION}, new String[] {"case*"}, -1L, false);
+
+    ISearchResults<BaseRecord> res = searchMgr.searchWorkspaceRecords(input, user);
+    assertEquals(3, res.getTotalHits().intValue());
+    assertEquals(
+        List.of("casea", "CaseB", "CASEC"),
+        res.getResults().stream().map(BaseRecord::getName).collect(Collectors.toList()));
+  }
+
   /**
    * Test consists of: Creating 2 forms: 'Example form' (and 4 documents from it), 'Another form'
    * (with 2 documents from it) Searching by 'Example form' global id should result in 4 documents
@@ -33,7 +33,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 /**
- * Exercises the production Hibernate second-level cache stack: {@code JCacheRegionFactory} backed
+ * Exercises the production Hibernate second-level cache stack: {@code JCacheRegionFactory} (as
+ * {@code ClusteredJCacheRegionFactory}, with invalidation between nodes disabled) backed
  * by EhCache 3 configured from {@code ehcache.xml}, using the same {@code hibernate.javax.cache.*}
  * settings as {@code applicationContext-dao.xml}.
  *
@@ -65,7 +66,7 @@ public class SecondLevelCacheTestIT extends RealTransactionSpringTestBase {
             .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true")
             .applySetting(
                 AvailableSettings.CACHE_REGION_FACTORY,
-                "org.hibernate.cache.jcache.JCacheRegionFactory")
+                "com.researchspace.dao.hibernate.cache.ClusteredJCacheRegionFactory")
             .applySetting("hibernate.javax.cache.provider", EHCACHE3_PROVIDER)
             .applySetting("hibernate.javax.cache.uri", "ehcache.xml")
             .applySetting(AvailableSettings.GENERATE_STATISTICS, "true")
@@ -3,6 +3,7 @@ package com.researchspace.service;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.when;
 
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.core.testutil.CoreTestUtils;
 import com.researchspace.core.testutil.StringAppenderForTestLogging;
 import com.researchspace.properties.IPropertyHolder;
@@ -17,6 +18,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mock.web.MockHttpServletRequest;
 
@@ -27,6 +29,7 @@ public class SignupCaptchaVerifierTest extends SpringTransactionalTest {
 
   @Rule public MockitoRule rule = MockitoJUnit.rule();
   @Mock private IPropertyHolder propHolder;
+  @Autowired private HttpClientFactory httpClientFactory;
 
   @Value("${user.signup.captcha.site.key}")
   private String captchaSiteKey;
@@ -42,6 +45,7 @@ public class SignupCaptchaVerifierTest extends SpringTransactionalTest {
   public void setUp() throws Exception {
 
     captchaVerifier.setProperties(propHolder);
+    captchaVerifier.setHttpClientFactory(httpClientFactory);
     captchaVerifier.setGoogleCaptchaVerifyUrl("https://www.google.com/recaptcha/api/siteverify");
 
     stringLogger = CoreTestUtils.configureStringLogger(SignupCaptchaVerifierImpl.log);
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.when;
 
 import com.researchspace.archive.ArchivalImportConfig;
 import com.researchspace.archive.ArchiveModel;
+import com.researchspace.core.util.progress.ProgressMonitor;
 import java.io.File;
 import org.junit.After;
 import org.junit.Before;
@@ -41,7 +42,8 @@ public class ArchiveImportManagerImplTest {
     when(parser.loadArchive(
             Mockito.any(File.class),
             Mockito.any(ImportArchiveReport.class),
-            Mockito.any(ArchivalImportConfig.class)))
+            Mockito.any(ArchivalImportConfig.class),
+            Mockito.any(ProgressMonitor.class)))
         .thenReturn(model);
 
     archiveImporter.importArchive(new File("any"), cfg, NULL_MONITOR, null);
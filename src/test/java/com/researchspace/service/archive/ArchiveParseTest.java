@@ -4,6 +4,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.researchspace.archive.AllArchiveExternalWorkFlowMetaData;
 import com.researchspace.archive.ArchivalDocument;
@@ -14,8 +19,10 @@ import com.researchspace.archive.ArchiveExternalWorkFlow;
 import com.researchspace.archive.ArchiveManifest;
 import com.researchspace.archive.ArchiveModel;
 import com.researchspace.archive.IArchiveModel;
+import com.researchspace.core.util.progress.ProgressMonitor;
 import com.researchspace.core.util.version.SemanticVersion;
 import com.researchspace.model.ArchivalCheckSum;
+import com.researchspace.service.MessageSourceUtils;
 import com.researchspace.service.archive.ImportArchiveReport.ValidationResult;
 import com.researchspace.testutils.RSpaceTestUtils;
 import java.io.File;
@@ -25,6 +32,9 @@ import java.util.Optional;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
 public class ArchiveParseTest {
 
@@ -62,7 +72,8 @@ public class ArchiveParseTest {
       return zipContentsChecksumCalculated;
     }
 
-    public IArchiveModel parse(File rootFolder, ImportArchiveReport report) {
+    protected IArchiveModel parse(
+        File rootFolder, ImportArchiveReport report, ProgressMonitor monitor) {
       return model;
     }
 
@@ -355,4 +366,40 @@ public class ArchiveParseTest {
     assertEquals("RNA-seq for Paired-end fastqs (release v1.1)", aewf.getName());
     assertEquals(1, aewf.getId());
   }
+
+  @Test
+  public void testParseWithExecutor() throws IOException {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.initialize();
+    try {
+      ArchiveParserImpl realparser = new ArchiveParserImpl();
+      realparser.setTaskExecutor(executor);
+      ImportArchiveReport report = new ImportArchiveReport();
+      IArchiveModel model = realparser.parse(V217, report);
+      assertEquals(1, model.getCurrentRecordCount());
+      ArchivalDocumentParserRef ref = model.findCurrentDocArchiveByName(EXPORTED_RECORD).get(0);
+      assertEquals(7, ref.getArchivalDocument().getListFields().size());
+      assertNotNull(ref.getArchiveExternalWorkFlowMetaData());
+
+      assertTrue(report.getRecordFolderCount() > 0);
+      assertEquals(report.getRecordFolderCount(), report.getParsedRecordFolderCount());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void parsedFoldersAreDescribedOnMonitor() {
+    MessageSourceUtils messages = mock(MessageSourceUtils.class);
+    when(messages.getMessage(any(MessageSourceResolvable.class))).thenReturn("progress");
+    ProgressMonitor monitor = mock(ProgressMonitor.class);
+    ArchiveParserImpl realparser = new ArchiveParserImpl();
+    ReflectionTestUtils.setField(realparser, "messages", messages);
+    ImportArchiveReport report = new ImportArchiveReport();
+
+    realparser.parse(V217, report, monitor);
+    assertTrue(report.getRecordFolderCount() > 0);
+    assertEquals(report.getRecordFolderCount(), report.getParsedRecordFolderCount());
+    verify(monitor, times(report.getRecordFolderCount())).setDescription("progress");
+  }
 }
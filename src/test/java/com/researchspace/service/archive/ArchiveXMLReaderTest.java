@@ -0,0 +1,54 @@
+package com.researchspace.service.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.researchspace.archive.ArchivalDocument;
+import com.researchspace.testutils.RSpaceTestUtils;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchiveXMLReaderTest {
+
+  File archiveFolder = RSpaceTestUtils.getResource("archives/v2-17.Export");
+  File docXml = new File(archiveFolder, "doc_Experiment1-298/doc_Experiment1-298.xml");
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void schemaIsCompiledOncePerContent() throws Exception {
+    File schema = new File(archiveFolder, ExportImport.ZIP_SCHEMA);
+    // as if unzipped by another import
+    File copy = new File(tempFolder.newFolder(), ExportImport.ZIP_SCHEMA);
+    FileUtils.copyFile(schema, copy);
+    assertSame(ArchiveXMLReader.getSchema(schema), ArchiveXMLReader.getSchema(copy));
+
+    Files.writeString(copy.toPath(), "\n", StandardOpenOption.APPEND);
+    assertNotSame(ArchiveXMLReader.getSchema(schema), ArchiveXMLReader.getSchema(copy));
+  }
+
+  @Test
+  public void contextIsCreatedOncePerClass() throws Exception {
+    assertSame(
+        ArchiveXMLReader.getContext(ArchivalDocument.class),
+        ArchiveXMLReader.getContext(ArchivalDocument.class));
+  }
+
+  @Test
+  public void readsAndValidatesDocument() throws Exception {
+    ImportArchiveReport report = new ImportArchiveReport();
+    ArchivalDocument doc =
+        ArchiveXMLReader.fromXML(
+            docXml,
+            ArchivalDocument.class,
+            new File(archiveFolder, ExportImport.ZIP_SCHEMA),
+            new XMLImportSchemaValidator(report));
+    assertEquals(7, doc.getListFields().size());
+  }
+}
@@ -9,6 +9,7 @@ import static org.junit.Assert.assertTrue;
 
 import com.researchspace.archive.ImmutableExportRecordList;
 import com.researchspace.archive.model.ArchiveExportConfig;
+import com.researchspace.model.SearchDepth;
 import com.researchspace.model.User;
 import com.researchspace.model.record.Folder;
 import com.researchspace.model.record.Notebook;
@@ -50,6 +51,10 @@ public class ExportIdCollectorTest {
 
     Mockito.when(folderMgr.getFolder(folder.getId(), user)).thenReturn(folder);
     Mockito.when(folderMgr.getFolder(notebook.getId(), user)).thenReturn(notebook);
+    Mockito.when(folderMgr.getFolder(folder.getId(), user, SearchDepth.INFINITE))
+        .thenReturn(folder);
+    Mockito.when(folderMgr.getFolder(notebook.getId(), user, SearchDepth.INFINITE))
+        .thenReturn(notebook);
 
     Long[] ids = new Long[] {folder.getId(), notebook.getId()};
     String[] types = new String[] {folder.getType(), notebook.getType()};
@@ -1,5 +1,6 @@
 package com.researchspace.service.archive;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -64,4 +65,16 @@ public class ImportArchiveReportTest {
     report.setValidationComplete(true);
     assertFalse(report.isSuccessful());
   }
+
+  @Test
+  public void testProgressCounts() {
+    report.setRecordFolderCount(2);
+    report.recordFolderParsed();
+    assertEquals(1, report.getParsedRecordFolderCount());
+    report.setDocumentCount(3);
+    report.documentProcessed();
+    report.documentProcessed();
+    assertEquals(2, report.getProcessedDocumentCount());
+    assertEquals(3, report.getDocumentCount());
+  }
 }
@@ -0,0 +1,87 @@
+package com.researchspace.service.archive.export;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.researchspace.archive.ArchiveUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StreamingZipWriterTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  public void zipAndChecksumsMatchThoseOfAssembledFolder() throws IOException {
+    File assembly = tempDir.resolve("RSpace-export").toFile();
+    File doc1 = write(assembly, "doc1/doc1.xml", "<doc1/>").getParentFile();
+    write(assembly, "doc1/image.png", "png bytes");
+    File doc2 = write(assembly, "doc2/doc2.xml", "<doc2/>").getParentFile();
+    write(assembly, "resources/index.css", "css");
+    File copy = tempDir.resolve("copy/RSpace-export").toFile();
+    FileUtils.copyDirectory(assembly, copy);
+
+    File zipFile = tempDir.resolve("RSpace-export.zip").toFile();
+    long crc;
+    String contentsChecksum;
+    try (StreamingZipWriter writer = new StreamingZipWriter(zipFile, assembly)) {
+      writer.addRecordFolders(List.of(doc1));
+      writer.addRecordFolders(List.of(doc2));
+      write(assembly, "manifest.txt", "written last");
+      write(copy, "manifest.txt", "written last");
+      crc = writer.finish();
+      contentsChecksum = writer.getContentsChecksum();
+    }
+
+    assertFalse(doc1.exists());
+    assertFalse(doc2.exists());
+    assertEquals(FileUtils.checksumCRC32(zipFile), crc);
+    assertEquals(ArchiveUtils.calculateFolderContentsChecksum(copy), contentsChecksum);
+    List<String> entries = new ArrayList<>();
+    try (ZipFile zip = new ZipFile(zipFile)) {
+      Collections.list(zip.entries()).stream().map(ZipEntry::getName).forEach(entries::add);
+    }
+    Collections.sort(entries);
+    assertEquals(
+        List.of(
+            "RSpace-export/",
+            "RSpace-export/doc1/",
+            "RSpace-export/doc1/doc1.xml",
+            "RSpace-export/doc1/image.png",
+            "RSpace-export/doc2/",
+            "RSpace-export/doc2/doc2.xml",
+            "RSpace-export/manifest.txt",
+            "RSpace-export/resources/",
+            "RSpace-export/resources/index.css"),
+        entries);
+  }
+
+  @Test
+  public void unfinishedZipIsDeleted() throws IOException {
+    File assembly = tempDir.resolve("RSpace-export").toFile();
+    File doc1 = write(assembly, "doc1/doc1.xml", "<doc1/>").getParentFile();
+    File zipFile = tempDir.resolve("RSpace-export.zip").toFile();
+    try (StreamingZipWriter writer = new StreamingZipWriter(zipFile, assembly)) {
+      writer.addRecordFolders(List.of(doc1));
+      assertTrue(zipFile.exists());
+    }
+    assertFalse(zipFile.exists());
+  }
+
+  private File write(File folder, String relativePath, String contents) throws IOException {
+    File file = new File(folder, relativePath);
+    FileUtils.writeStringToFile(file, contents, UTF_8);
+    return file;
+  }
+}
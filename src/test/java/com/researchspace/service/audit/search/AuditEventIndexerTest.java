@@ -0,0 +1,96 @@
+package com.researchspace.service.audit.search;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.service.AuditEventManager;
+import java.util.concurrent.ArrayBlockingQueue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class AuditEventIndexerTest {
+
+  @Rule public MockitoRule mockito = MockitoJUnit.rule();
+  @Mock AuditEventManager auditEventManager;
+
+  private AuditEventIndexer indexer;
+
+  @Before
+  public void setUp() {
+    indexer = new AuditEventIndexer();
+    ReflectionTestUtils.setField(indexer, "auditEventManager", auditEventManager);
+    ReflectionTestUtils.setField(indexer, "queue", new ArrayBlockingQueue<>(2));
+    ReflectionTestUtils.setField(indexer, "retryDelayMillis", 0L);
+  }
+
+  @Test
+  public void failedBatchIsRetried() {
+    IndexedAuditEvent event = event(1000L);
+    event.setId(5L);
+    doThrow(new DataAccessResourceFailureException("connection lost"))
+        .doNothing()
+        .when(auditEventManager)
+        .saveAll(anyList());
+    indexer.add(event);
+
+    indexer.writeQueuedEvents();
+    verify(auditEventManager, times(2)).saveAll(anyList());
+    // the id from the rolled back insert isn't reused
+    assertNull(event.getId());
+    verify(auditEventManager, never()).saveGap(anyLong(), anyLong());
+    assertFalse(indexer.hasUnrecordedGap());
+  }
+
+  @Test
+  public void eventsNotStoredAreRecordedAsGap() {
+    doThrow(new DataAccessResourceFailureException("connection lost"))
+        .when(auditEventManager)
+        .saveAll(anyList());
+    indexer.add(event(2000L));
+    indexer.add(event(1000L));
+    // the queue is full
+    indexer.add(event(3000L));
+
+    indexer.writeQueuedEvents();
+    verify(auditEventManager, times(3)).saveAll(anyList());
+    verify(auditEventManager).saveGap(1000L, 3000L);
+    assertFalse(indexer.hasUnrecordedGap());
+  }
+
+  @Test
+  public void gapIsKeptUntilRecorded() {
+    doThrow(new DataAccessResourceFailureException("connection lost"))
+        .doNothing()
+        .when(auditEventManager)
+        .saveGap(anyLong(), anyLong());
+    indexer.add(event(1000L));
+    indexer.add(event(2000L));
+    indexer.add(event(3000L));
+
+    assertTrue(indexer.hasUnrecordedGap());
+
+    indexer.writeQueuedEvents();
+    verify(auditEventManager, times(2)).saveGap(3000L, 3000L);
+    assertFalse(indexer.hasUnrecordedGap());
+  }
+
+  private IndexedAuditEvent event(long time) {
+    IndexedAuditEvent event = new IndexedAuditEvent();
+    event.setEventTime(time);
+    return event;
+  }
+}
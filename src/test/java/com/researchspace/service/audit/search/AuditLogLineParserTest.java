@@ -0,0 +1,93 @@
+package com.researchspace.service.audit.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.researchspace.model.audittrail.AuditAction;
+import com.researchspace.model.audittrail.AuditDomain;
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AuditLogLineParserTest {
+
+  @Test
+  void parsesEventWithMovedObjects() {
+    String line =
+        "domain:RECORD action:DUPLICATE"
+            + " [{\"data\":{\"to\":{\"data\":{\"id\":6964,\"name\":\"a (copy)]\"}},"
+            + "\"from\":{\"data\":{\"id\":\"SD6963\",\"name\":\"a\"}}}}] user2b(Carl Smith)";
+    IndexedAuditEvent event = AuditLogLineParser.parse(line, 1234L);
+    assertNotNull(event);
+    assertEquals(1234L, event.getEventTime());
+    assertEquals(AuditDomain.RECORD, event.getDomain());
+    assertEquals(AuditAction.DUPLICATE, event.getAction());
+    assertEquals("user2b", event.getUsername());
+    assertEquals("Carl Smith", event.getFullName());
+    assertNull(event.getDescription());
+    // the copies are about other objects, and are found by their own events
+    assertNull(event.getObjectId());
+    assertEquals(
+        line.substring(line.indexOf('[') + 1, line.lastIndexOf("] ")), event.getData());
+  }
+
+  @Test
+  void parsesDescription() {
+    String line =
+        "domain:RECORD action:RESTORE [{\"data\":{\"id\":6985,\"restoreType\":\"REVISION\"}}]"
+            + " user1a(Bob Smith)description:[some description]";
+    IndexedAuditEvent event = AuditLogLineParser.parse(line, 0L);
+    assertEquals("some description", event.getDescription());
+    assertEquals("Bob Smith", event.getFullName());
+    assertEquals("{\"data\":{\"id\":6985,\"restoreType\":\"REVISION\"}}", event.getData());
+    assertEquals(6985L, event.getObjectId());
+    assertNull(event.getObjectPrefix());
+  }
+
+  @Test
+  void globalIdsAreObjectIds() {
+    String line =
+        "domain:RECORD action:SIGN [{\"data\":{\"oid\":\"SD6997\",\"name\":\"doc\"}}]"
+            + " user1a(Bob Smith)";
+    IndexedAuditEvent event = AuditLogLineParser.parse(line, 0L);
+    assertEquals(6997L, event.getObjectId());
+    assertEquals("SD", event.getObjectPrefix());
+  }
+
+  @Test
+  void ignoresOtherMessages() {
+    assertNull(AuditLogLineParser.parse("Some other message", 0L));
+    assertNull(AuditLogLineParser.parse("domain:UNKNOWN action:COPY [{}] user(User)", 0L));
+    assertNull(AuditLogLineParser.parse("domain:RECORD action:COPY [{] user(User)", 0L));
+    assertNull(AuditLogLineParser.parse(null, 0L));
+  }
+
+  @Test
+  void onlyTopLevelObjectIsIndexed() {
+    String line =
+        "domain:RECORD action:EXPORT [{\"data\":{\"exported\":[{\"id\":1},{\"id\":2}],"
+            + "\"owner\":{\"id\":-12}}}] user1a(Bob Smith)";
+    assertNull(AuditLogLineParser.parse(line, 0L).getObjectId());
+
+    line =
+        "domain:RECORD action:SHARE [{\"data\":{\"oid\":{\"idString\":\"FL15\"},"
+            + "\"sharee\":{\"id\":\"U3\"}}}] user1a(Bob Smith)";
+    IndexedAuditEvent event = AuditLogLineParser.parse(line, 0L);
+    assertEquals(15L, event.getObjectId());
+    assertEquals("FL", event.getObjectPrefix());
+  }
+
+  @Test
+  void parsesAllLinesOfLogFile() throws IOException {
+    List<String> lines =
+        Files.readAllLines(new File("src/test/resources/TestResources/RSLogs.txt").toPath());
+    for (String line : lines) {
+      String message = line.substring(line.indexOf(" - ") + 3);
+      assertNotNull(AuditLogLineParser.parse(message, 0L), message);
+    }
+  }
+}
@@ -3,14 +3,12 @@ package com.researchspace.service.audit.search;
 import static org.junit.Assert.assertEquals;
 
 import com.researchspace.api.v1.controller.ApiActivitySrchConfig;
-import com.researchspace.core.util.ISearchResults;
-import com.researchspace.core.util.TransformerUtils;
-import com.researchspace.model.PaginationCriteria;
 import com.researchspace.model.User;
 import com.researchspace.model.audittrail.AuditTrailService;
 import com.researchspace.service.UserManager;
 import com.researchspace.testutils.TestFactory;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -25,7 +23,6 @@ public class AuditTrailHandlerImplTest {
   @Rule public MockitoRule mockito = MockitoJUnit.rule();
   @Mock UserManager userManager;
   @Mock IAuditTrailSearch logSearcher;
-  @Mock ISearchResults<User> searchResults;
   private @Mock AuditTrailService auditService;
   @InjectMocks AuditTrailHandlerImpl impl;
 
@@ -39,8 +36,7 @@ public class AuditTrailHandlerImplTest {
   public void configureUserRestrictionDoesNotPermitUnauthorised() {
     User subject = TestFactory.createAnyUser("subject");
     User other = TestFactory.createAnyUser("other");
-    setUpSearchResults(subject);
-    Mockito.when(searchResults.getResults()).thenReturn(TransformerUtils.toList(subject));
+    setUpViewableUsernames(subject, subject);
     IAuditTrailSearchConfig cfg = new ApiActivitySrchConfig();
     cfg.getUsernames().add(other.getUsername());
     AuditTrailSearchElement internalSearchEl = impl.configureUserRestriction(cfg, subject);
@@ -50,9 +46,8 @@ public class AuditTrailHandlerImplTest {
   @Test
   public void configureUserRestrictionIncludesSelfIfOmittedByGetViewableUsers() {
     User subject = TestFactory.createAnyUser("subject");
-    setUpSearchResults(subject);
     // e.g  if you're a pi not in a group
-    Mockito.when(searchResults.getResults()).thenReturn(new ArrayList<>());
+    setUpViewableUsernames(subject);
     IAuditTrailSearchConfig cfg = new ApiActivitySrchConfig();
     AuditTrailSearchElement internalSearchEl = impl.configureUserRestriction(cfg, subject);
     assertEquals(1, internalSearchEl.getUsernames().size());
@@ -62,8 +57,7 @@ public class AuditTrailHandlerImplTest {
   public void configureUserRestrictionPermitsOthers() {
     User subject = TestFactory.createAnyUser("subject");
     User other = TestFactory.createAnyUser("other");
-    setUpSearchResults(subject);
-    Mockito.when(searchResults.getResults()).thenReturn(TransformerUtils.toList(subject, other));
+    setUpViewableUsernames(subject, subject, other);
     IAuditTrailSearchConfig cfg = new ApiActivitySrchConfig();
     cfg.getUsernames().add(other.getUsername());
     AuditTrailSearchElement internalSearchEl = impl.configureUserRestriction(cfg, subject);
@@ -74,15 +68,16 @@ public class AuditTrailHandlerImplTest {
     assertEquals(2, internalSearchEl.getUsernames().size());
 
     cfg.getUsernames().clear();
-    Mockito.when(searchResults.getResults()).thenReturn(TransformerUtils.toList(subject));
+    setUpViewableUsernames(subject, subject);
     internalSearchEl = impl.configureUserRestriction(cfg, subject);
     assertEquals(1, internalSearchEl.getUsernames().size());
   }
 
-  private void setUpSearchResults(User subject) {
-    Mockito.when(
-            userManager.getViewableUsers(
-                Mockito.eq(subject), Mockito.any(PaginationCriteria.class)))
-        .thenReturn(searchResults);
+  private void setUpViewableUsernames(User subject, User... viewable) {
+    // a new set each time, as the handler modifies it
+    Mockito.when(userManager.getViewableUsernames(subject))
+        .thenAnswer(
+            invocation ->
+                Arrays.stream(viewable).map(User::getUsername).collect(Collectors.toSet()));
   }
 }
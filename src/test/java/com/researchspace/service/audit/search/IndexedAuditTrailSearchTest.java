@@ -0,0 +1,178 @@
+package com.researchspace.service.audit.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.researchspace.api.v1.controller.ApiActivitySrchConfig;
+import com.researchspace.core.util.ISearchResults;
+import com.researchspace.core.util.SearchResultsImpl;
+import com.researchspace.core.util.SortOrder;
+import com.researchspace.model.PaginationCriteria;
+import com.researchspace.model.audittrail.AuditAction;
+import com.researchspace.model.audittrail.AuditDomain;
+import com.researchspace.model.audittrail.IndexedAuditEvent;
+import com.researchspace.service.AuditEventManager;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class IndexedAuditTrailSearchTest {
+
+  @Rule public MockitoRule mockito = MockitoJUnit.rule();
+  @Mock IAuditTrailSearch logSearcher;
+  @Mock AuditEventManager auditEventManager;
+  @Mock AuditEventIndexer indexer;
+
+  private IndexedAuditTrailSearch search;
+  private PaginationCriteria<AuditTrailSearchResult> pgCrit;
+
+  private final LocalDate indexedFrom = LocalDate.of(2026, 1, 1);
+
+  @Before
+  public void setUp() {
+    search = new IndexedAuditTrailSearch(logSearcher);
+    ReflectionTestUtils.setField(search, "auditEventManager", auditEventManager);
+    ReflectionTestUtils.setField(search, "indexer", indexer);
+    pgCrit = PaginationCriteria.createDefaultForClass(AuditTrailSearchResult.class);
+  }
+
+  @Test
+  public void searchesIndexedEventsPageByPage() {
+    enableIndexing();
+    ApiActivitySrchConfig cfg = new ApiActivitySrchConfig();
+    cfg.setDateFrom(toDate(indexedFrom.plusDays(1)));
+    cfg.setDateTo(toDate(indexedFrom.plusDays(3)));
+    cfg.setDomains(Set.of(AuditDomain.RECORD));
+    cfg.setActions(Set.of(AuditAction.CREATE));
+    cfg.setOid("SD12");
+    AuditTrailSearchElement searchElement = new AuditTrailSearchElement(cfg);
+    searchElement.setUsernames(Set.of("user1a"));
+    pgCrit.setResultsPerPage(10);
+    pgCrit.setPageNumber(2L);
+    pgCrit.setSortOrder(SortOrder.ASC);
+    ArgumentCaptor<AuditEventQuery> query = ArgumentCaptor.forClass(AuditEventQuery.class);
+    when(auditEventManager.count(query.capture())).thenReturn(25L);
+    when(auditEventManager.search(any(), anyInt(), anyInt())).thenReturn(List.of(anEvent()));
+
+    ISearchResults<AuditTrailSearchResult> results = search.search(pgCrit, searchElement);
+
+    assertEquals(25L, results.getTotalHits().longValue());
+    assertEquals(1, results.getResults().size());
+    AuditTrailSearchResult result = results.getResults().get(0);
+    assertEquals(1234L, Long.valueOf(result.getTimestamp()).longValue());
+    verify(auditEventManager).search(query.getValue(), 20, 10);
+    AuditEventQuery sent = query.getValue();
+    assertEquals(toDate(indexedFrom.plusDays(1)).getTime(), sent.getFrom().longValue());
+    // the end date is included
+    assertEquals(toDate(indexedFrom.plusDays(4)).getTime(), sent.getTo().longValue());
+    assertEquals(Set.of("user1a"), sent.getUsernames());
+    assertEquals(Set.of(AuditDomain.RECORD), sent.getDomains());
+    assertEquals(Set.of(AuditAction.CREATE), sent.getActions());
+    assertEquals(12L, sent.getObjectId().longValue());
+    assertEquals("SD", sent.getObjectPrefix());
+    assertFalse(sent.isDescending());
+  }
+
+  @Test
+  public void noMatchingEventsIsEmptyResult() {
+    enableIndexing();
+    when(auditEventManager.count(any())).thenReturn(0L);
+    ISearchResults<AuditTrailSearchResult> results =
+        search.search(pgCrit, searchFrom(indexedFrom));
+    assertEquals(0L, results.getTotalHits().longValue());
+    verify(auditEventManager, never()).search(any(), anyInt(), anyInt());
+  }
+
+  @Test
+  public void logFilesAreSearchedIfIndexingDisabled() {
+    when(indexer.isEnabled()).thenReturn(false);
+    assertSearchesLogFiles(searchFrom(indexedFrom.plusDays(1)));
+  }
+
+  @Test
+  public void logFilesAreSearchedWithoutStartDate() {
+    when(indexer.isEnabled()).thenReturn(true);
+    assertSearchesLogFiles(new AuditTrailSearchElement(new ApiActivitySrchConfig()));
+  }
+
+  @Test
+  public void logFilesAreSearchedBeforeEarliestIndexedEvent() {
+    enableIndexing();
+    assertSearchesLogFiles(searchFrom(indexedFrom.minusDays(1)));
+    assertSearchesLogFiles(searchFrom(indexedFrom.minusDays(2)));
+    // the earliest time is only looked up once
+    verify(auditEventManager, times(1)).getEarliestEventTime();
+  }
+
+  @Test
+  public void logFilesAreSearchedIfEventsNotStored() {
+    enableIndexing();
+    when(auditEventManager.hasGap(any())).thenReturn(true);
+    assertSearchesLogFiles(searchFrom(indexedFrom.plusDays(1)));
+
+    // not yet recorded as a gap
+    when(auditEventManager.hasGap(any())).thenReturn(false);
+    when(indexer.hasUnrecordedGap()).thenReturn(true);
+    assertSearchesLogFiles(searchFrom(indexedFrom.plusDays(1)));
+  }
+
+  @Test
+  public void logFilesAreSearchedIfNothingIndexedYet() {
+    when(indexer.isEnabled()).thenReturn(true);
+    when(auditEventManager.getEarliestEventTime()).thenReturn(Optional.empty());
+    assertSearchesLogFiles(searchFrom(indexedFrom));
+  }
+
+  private void assertSearchesLogFiles(AuditTrailSearchElement searchElement) {
+    ISearchResults<AuditTrailSearchResult> fromLogs = SearchResultsImpl.emptyResult(pgCrit);
+    when(logSearcher.search(pgCrit, searchElement)).thenReturn(fromLogs);
+    assertSame(fromLogs, search.search(pgCrit, searchElement));
+    verify(auditEventManager, never()).count(any());
+  }
+
+  private void enableIndexing() {
+    when(indexer.isEnabled()).thenReturn(true);
+    when(auditEventManager.getEarliestEventTime())
+        .thenReturn(Optional.of(toDate(indexedFrom).getTime()));
+  }
+
+  private AuditTrailSearchElement searchFrom(LocalDate from) {
+    ApiActivitySrchConfig cfg = new ApiActivitySrchConfig();
+    cfg.setDateFrom(toDate(from));
+    return new AuditTrailSearchElement(cfg);
+  }
+
+  private Date toDate(LocalDate date) {
+    return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+  }
+
+  private IndexedAuditEvent anEvent() {
+    IndexedAuditEvent event = new IndexedAuditEvent();
+    event.setId(1L);
+    event.setEventTime(1234L);
+    event.setUsername("user1a");
+    event.setFullName("Bob Smith");
+    event.setDomain(AuditDomain.RECORD);
+    event.setAction(AuditAction.CREATE);
+    event.setData("{\"data\":{\"oid\":\"SD12\",\"name\":\"doc\"}}");
+    return event;
+  }
+}
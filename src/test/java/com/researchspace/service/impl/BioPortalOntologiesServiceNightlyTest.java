@@ -6,6 +6,7 @@ import static com.researchspace.service.impl.OntologyDocManager.RSPACE_EXTONTOLO
 import static org.junit.Assert.assertEquals;
 
 import com.researchspace.client.BioPortalOntologiesClient;
+import com.researchspace.client.HttpClientFactory;
 import java.util.List;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Disabled;
@@ -21,6 +22,7 @@ public class BioPortalOntologiesServiceNightlyTest {
   @Disabled("BioPortal tags retrieval currently doesn't work, see rspace-os/rspace-web issue #319")
   @EnabledIfSystemProperty(named = "nightly", matches = "true")
   public void testListResults() {
+    bioportalClient.setHttpClientFactory(new HttpClientFactory());
     List<String> results = service.getBioOntologyDataForQuery("Tolstoy");
     String town = results.get(0);
     String man = results.get(1);
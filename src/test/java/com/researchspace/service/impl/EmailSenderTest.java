@@ -25,6 +25,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.Logger;
+import org.springframework.mail.MailSendException;
 
 @RunWith(MockitoJUnitRunner.class)
 public class EmailSenderTest {
@@ -46,6 +47,28 @@ public class EmailSenderTest {
     verify(logger, times(3)).warn(Mockito.anyString(), new Object[] {Mockito.any()});
   }
 
+  @Test
+  public void deliverEmailThrowsWhenSendFailsAfterRetries() {
+    EmailBroadcastImpl emailSender = new FailingSenderStub(new SendFailedException("test failure"));
+    emailSender.setErrorLog(logger);
+    emailSender.setRetryDelayMillis(RETRY_MILLIS);
+    emailSender.init();
+    assertThrows(
+        MailSendException.class,
+        () ->
+            emailSender.deliverEmail(
+                anyHtmlBody(), List.of("user@example.com"), new MessageOrRequest()));
+
+    verify(logger, times(3)).warn(Mockito.anyString(), new Object[] {Mockito.any()});
+  }
+
+  @Test
+  public void deliverEmailSendsAllBatches() {
+    CountingSenderStub sender = countingSender();
+    sender.deliverEmail(anyHtmlBody(), addresses(7), null);
+    assertEquals(3, sender.messageCount);
+  }
+
   @Test
   public void whenAuthFailsDontRetry() {
     EmailBroadcastImpl emailSender =
@@ -0,0 +1,102 @@
+package com.researchspace.service.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.researchspace.dao.FileMetadataDao;
+import com.researchspace.model.FileProperty;
+import com.researchspace.model.FileStoreRoot;
+import com.researchspace.service.FileDuplicateStrategy;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Files sharing stored contents are changed or deleted through the file store. */
+public class InternalFileStoreDeduplicationTest {
+
+  @TempDir Path tempDir;
+
+  private InternalFileStoreImpl fileStore;
+  private FileMetadataDao fileMetadataDao;
+  private FileProperty first;
+  private FileProperty second;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    fileMetadataDao = mock(FileMetadataDao.class);
+    fileStore = new InternalFileStoreImpl();
+    fileStore.setFileMetadataDao(fileMetadataDao);
+    fileStore.setBaseDir(Files.createDirectories(tempDir.resolve("file_store")).toFile());
+    fileStore.setDeduplicate(true);
+    FileStoreRoot root = new FileStoreRoot(tempDir.resolve("file_store").toUri().toString());
+    root.setId(1L);
+    when(fileMetadataDao.findByFileStorePath(anyString())).thenReturn(root);
+    when(fileMetadataDao.getCurrentFileStoreRoot(false)).thenReturn(root);
+
+    first = saveWithContents(1L, "first.txt", List.of());
+    second = saveWithContents(2L, "second.txt", List.of(first));
+    assertTrue(Files.isSameFile(stored(first), stored(second)));
+  }
+
+  private FileProperty saveWithContents(
+      Long id, String fileName, List<FileProperty> storedWithSameContents) throws IOException {
+    FileProperty fileProperty =
+        FileProperty.builder()
+            .fileCategory("doc")
+            .fileGroup("any")
+            .fileOwner("any")
+            .fileUser("any")
+            .fileVersion("1")
+            .build();
+    fileProperty.setId(id);
+    when(fileMetadataDao.getFilePropertiesWithContentsDigest(anyString(), any(), anyInt()))
+        .thenReturn(storedWithSameContents);
+    fileStore.save(
+        fileProperty,
+        new ByteArrayInputStream("same contents".getBytes(UTF_8)),
+        fileName,
+        FileDuplicateStrategy.AS_NEW);
+    return fileProperty;
+  }
+
+  private Path stored(FileProperty fileProperty) throws IOException {
+    return fileStore.findFile(fileProperty).toPath();
+  }
+
+  @Test
+  public void replacingFileLeavesFileWithSameContentsUnchanged() throws IOException {
+    when(fileMetadataDao.getFilePropertiesWithContentsDigest(anyString(), any(), anyInt()))
+        .thenReturn(List.of());
+    File replacement = Files.writeString(tempDir.resolve("new.txt"), "new contents").toFile();
+
+    fileStore.save(second, replacement, FileDuplicateStrategy.REPLACE);
+    assertEquals("new contents", Files.readString(stored(second), UTF_8));
+    assertEquals("same contents", Files.readString(stored(first), UTF_8));
+    assertFalse(Files.isSameFile(stored(first), stored(second)));
+  }
+
+  @Test
+  public void deletingFileLeavesFileWithSameContents() throws IOException {
+    when(fileMetadataDao.removeContentsDigest(first)).thenReturn(true);
+    when(fileMetadataDao.findProperties(Map.of("relPath", first.getRelPath())))
+        .thenReturn(List.of(first));
+
+    assertTrue(fileStore.removeFile(first));
+    assertFalse(Files.exists(stored(first)));
+    assertEquals("same contents", Files.readString(stored(second), UTF_8));
+  }
+}
@@ -1,6 +1,7 @@
 package com.researchspace.service.impl;
 
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.axiope.search.IFileIndexer;
 import com.researchspace.dao.TextSearchDao;
@@ -54,10 +55,24 @@ public class LuceneSearchIndexInitialisorTest {
   public void testOnAppStartupReinitReindex() throws IOException, InterruptedException {
     luceneInit.setIndexOnStartUp("true");
     luceneInit.onAppStartup(null);
-    verify(indexer).init(true);
+    // the existing index is updated rather than deleted
+    verify(indexer).init(false);
+    verify(indexer, Mockito.never()).init(true);
+    verify(indexer).indexFileStore(false);
+    verify(indexer).deleteEntriesOfMissingFiles();
     verify(searchDao).indexText();
   }
 
+  @Test
+  public void testOnAppStartupResumesInterruptedReindex() throws IOException {
+    when(indexer.hasInterruptedReindex()).thenReturn(true);
+    luceneInit.setIndexOnStartUp("true");
+    luceneInit.onAppStartup(null);
+    verify(indexer).init(false);
+    verify(indexer, Mockito.never()).init(true);
+    verify(indexer).indexFileStore(false);
+  }
+
   private void verifyNoInitialisation() throws IOException {
     verify(indexer, Mockito.never()).init(true);
     verify(indexer, Mockito.never()).init();
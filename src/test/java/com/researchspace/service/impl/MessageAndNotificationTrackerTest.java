@@ -6,6 +6,10 @@ import static org.junit.Assert.assertTrue;
 
 import com.researchspace.model.comms.MessageType;
 import com.researchspace.webapp.messaging.NotificationMessage;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -74,4 +78,43 @@ public class MessageAndNotificationTrackerTest {
     Mockito.verify(messagingTemplate)
         .convertAndSend("/topic/notifications/1", new NotificationMessage(1, 0, 0));
   }
+
+  @Test
+  public void batchedCountChangesArePublishedOncePerUser() {
+    tracker.changeUserNotificationCounts(List.of(1L, 2L), 1);
+    tracker.changeUserNotificationCounts(List.of(1L), 1);
+    assertEquals(2, tracker.getNotificationCountFor(1L).intValue());
+    Mockito.verifyNoInteractions(messagingTemplate);
+
+    tracker.sendPendingNotificationUpdates();
+    Mockito.verify(messagingTemplate)
+        .convertAndSend("/topic/notifications/1", new NotificationMessage(2, 0, 0));
+    Mockito.verify(messagingTemplate)
+        .convertAndSend("/topic/notifications/2", new NotificationMessage(1, 0, 0));
+
+    tracker.sendPendingNotificationUpdates();
+    Mockito.verifyNoMoreInteractions(messagingTemplate);
+  }
+
+  @Test
+  public void concurrentCountChangesAreNotLost() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int i = 0; i < 1000; i++) {
+      executor.execute(() -> tracker.changeUserNotificationCounts(List.of(1L), 1));
+      executor.execute(() -> tracker.updateMessageCount(1L, 1, MessageType.SIMPLE_MESSAGE));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(1000, tracker.getNotificationCountFor(1L).intValue());
+    assertEquals(1000, tracker.getMessageCountFor(1L).intValue());
+  }
+
+  @Test
+  public void countsNeverFallBelowZero() {
+    tracker.changeUserNotificationCount(1L, 1);
+    tracker.changeUserNotificationCount(1L, -3);
+    assertEquals(0, tracker.getNotificationCountFor(1L).intValue());
+    tracker.changeUserNotificationCount(1L, 1);
+    assertEquals(1, tracker.getNotificationCountFor(1L).intValue());
+  }
 }
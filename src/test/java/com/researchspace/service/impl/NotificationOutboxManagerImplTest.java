@@ -0,0 +1,184 @@
+package com.researchspace.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.researchspace.comms.NotificationDelivery;
+import com.researchspace.comms.NotificationOutboxEntry;
+import com.researchspace.dao.CommunicationDao;
+import com.researchspace.dao.NotificationOutboxDao;
+import com.researchspace.model.comms.Notification;
+import com.researchspace.model.comms.NotificationType;
+import com.researchspace.service.Broadcaster;
+import com.researchspace.service.CommunicationManager;
+import com.researchspace.service.NotificationOutboxManager;
+import com.researchspace.testutils.TestFactory;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxManagerImplTest {
+
+  private static final Long ENTRY_ID = 2L;
+  private static final Long NOTIFICATION_ID = 3L;
+
+  private @Mock NotificationOutboxDao outboxDao;
+  private @Mock CommunicationDao commDao;
+  private @Mock CommunicationManager commMgr;
+  private @Mock Broadcaster email;
+  private @Mock Broadcaster slack;
+
+  private NotificationOutboxManagerImpl outboxMgr;
+  private Notification notification;
+
+  @BeforeEach
+  void setUp() {
+    outboxMgr = new NotificationOutboxManagerImpl(List.of(email, slack));
+    ReflectionTestUtils.setField(outboxMgr, "outboxDao", outboxDao);
+    ReflectionTestUtils.setField(outboxMgr, "commDao", commDao);
+    ReflectionTestUtils.setField(outboxMgr, "commMgr", commMgr);
+    notification = new Notification();
+    notification.setId(NOTIFICATION_ID);
+    notification.setOriginator(TestFactory.createAnyUser("originator"));
+  }
+
+  private NotificationOutboxEntry createEntry(int attempts) {
+    NotificationOutboxEntry entry =
+        new NotificationOutboxEntry(
+            NOTIFICATION_ID, outboxMgr.getBroadcasterNames().get(0), System.currentTimeMillis());
+    entry.setId(ENTRY_ID);
+    entry.setAttempts(attempts);
+    return entry;
+  }
+
+  private NotificationOutboxEntry mockLockedEntry(int attempts) {
+    NotificationOutboxEntry entry = createEntry(attempts);
+    when(outboxDao.lockForDelivery(ENTRY_ID)).thenReturn(Optional.of(entry));
+    return entry;
+  }
+
+  private NotificationOutboxEntry mockClaimedEntry(int attempts) {
+    NotificationOutboxEntry entry = createEntry(attempts);
+    when(outboxDao.getSafeNull(ENTRY_ID)).thenReturn(Optional.of(entry));
+    return entry;
+  }
+
+  private NotificationDelivery delivery() {
+    return new NotificationDelivery(
+        ENTRY_ID, outboxMgr.getBroadcasterNames().get(0), System.currentTimeMillis(), () -> {});
+  }
+
+  @Test
+  void addsAnEntryForEachBroadcaster() {
+    outboxMgr.addToOutbox(notification);
+
+    ArgumentCaptor<NotificationOutboxEntry> saved =
+        ArgumentCaptor.forClass(NotificationOutboxEntry.class);
+    verify(outboxDao, times(2)).save(saved.capture());
+    assertEquals(
+        outboxMgr.getBroadcasterNames(),
+        saved.getAllValues().stream().map(NotificationOutboxEntry::getBroadcaster).toList());
+    assertEquals(2, outboxMgr.getBroadcasterNames().stream().distinct().count());
+  }
+
+  @Test
+  void claimedEntryIsNotDueUntilClaimExpires() {
+    NotificationOutboxEntry entry = mockLockedEntry(0);
+    when(commDao.getSafeNull(NOTIFICATION_ID)).thenReturn(Optional.of(notification));
+    Runnable broadcast = mock(Runnable.class);
+    when(email.prepareBroadcast(notification)).thenReturn(broadcast);
+    long start = System.currentTimeMillis();
+
+    NotificationDelivery delivery = outboxMgr.claim(ENTRY_ID).orElseThrow();
+    assertTrue(entry.getNextAttemptTime() >= start + NotificationOutboxManager.CLAIM_MILLIS);
+    verify(outboxDao).save(entry);
+    verify(outboxDao, never()).remove(ENTRY_ID);
+    verify(slack, never()).prepareBroadcast(any());
+    // sent by the caller, after the claim is committed
+    verify(broadcast, never()).run();
+    delivery.send();
+    verify(broadcast).run();
+  }
+
+  @Test
+  void deliveredEntryIsRemoved() {
+    outboxMgr.delivered(delivery());
+    verify(outboxDao).remove(ENTRY_ID);
+  }
+
+  @Test
+  void failedEntryIsRetriedLater() {
+    NotificationOutboxEntry entry = mockClaimedEntry(0);
+    long start = System.currentTimeMillis();
+
+    outboxMgr.deliveryFailed(delivery(), new IllegalStateException("mail server down"));
+    assertEquals(1, entry.getAttempts());
+    long firstDelay = NotificationOutboxManagerImpl.FIRST_RETRY_DELAY_MILLIS;
+    assertTrue(entry.getNextAttemptTime() >= start + firstDelay);
+    assertEquals("mail server down", entry.getLastError());
+    verify(outboxDao).save(entry);
+    verify(outboxDao, never()).remove(ENTRY_ID);
+    verify(commMgr, never())
+        .systemNotify(any(NotificationType.class), anyString(), anyString(), anyBoolean());
+  }
+
+  @Test
+  void failureToPrepareBroadcastIsRetriedLater() {
+    NotificationOutboxEntry entry = mockLockedEntry(0);
+    when(commDao.getSafeNull(NOTIFICATION_ID)).thenReturn(Optional.of(notification));
+    when(email.prepareBroadcast(notification)).thenThrow(new IllegalStateException("no template"));
+
+    assertTrue(outboxMgr.claim(ENTRY_ID).isEmpty());
+    assertEquals(1, entry.getAttempts());
+    assertEquals("no template", entry.getLastError());
+    verify(outboxDao).save(entry);
+  }
+
+  @Test
+  void entryIsDiscardedAndOriginatorNotifiedAfterLastAttempt() {
+    mockClaimedEntry(NotificationOutboxManager.MAX_ATTEMPTS - 1);
+    when(commDao.getSafeNull(NOTIFICATION_ID)).thenReturn(Optional.of(notification));
+
+    outboxMgr.deliveryFailed(delivery(), new IllegalStateException("mail server down"));
+    verify(outboxDao).remove(ENTRY_ID);
+    verify(commMgr)
+        .systemNotify(
+            eq(NotificationType.PROCESS_FAILED), anyString(), eq("originator"), eq(false));
+  }
+
+  @Test
+  void lockedOrNotDueEntriesAreSkipped() {
+    when(outboxDao.lockForDelivery(ENTRY_ID)).thenReturn(Optional.empty());
+    assertTrue(outboxMgr.claim(ENTRY_ID).isEmpty());
+
+    NotificationOutboxEntry entry = mockLockedEntry(1);
+    entry.setNextAttemptTime(System.currentTimeMillis() + 60_000);
+    assertTrue(outboxMgr.claim(ENTRY_ID).isEmpty());
+    verify(email, never()).prepareBroadcast(any());
+    verify(outboxDao, never()).save(any());
+    verify(outboxDao, never()).remove(ENTRY_ID);
+  }
+
+  @Test
+  void retryDelayDoubles() {
+    long first = NotificationOutboxManagerImpl.FIRST_RETRY_DELAY_MILLIS;
+    assertEquals(first, NotificationOutboxManagerImpl.getRetryDelay(1));
+    assertEquals(4 * first, NotificationOutboxManagerImpl.getRetryDelay(3));
+  }
+}
@@ -0,0 +1,94 @@
+package com.researchspace.service.impl;
+
+import static com.researchspace.service.DocumentTagManager.FINAL_DATA;
+import static com.researchspace.service.DocumentTagManager.MAX_ONTOLOGY_RESULTS_SIZE;
+import static com.researchspace.service.DocumentTagManager.ONTOLOGY_RESULTS_PAGE_SIZE;
+import static com.researchspace.service.DocumentTagManager.SMALL_DATASET_IN_SINGLE_BLOCK;
+import static com.researchspace.service.DocumentTagManager.TOO_MANY_ONTOLOGY_RESULTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class OntologyTermIndexTest {
+
+  private List<String> tags(String prefix, int count) {
+    TreeSet<String> tags = new TreeSet<>();
+    for (int i = 0; i < count; i++) {
+      tags.add(String.format("%s%06d", prefix, i));
+    }
+    return new ArrayList<>(tags);
+  }
+
+  @Test
+  void userOntologyKeyValuesAreSplitAndFiltered() {
+    OntologyTerms terms =
+        OntologyTerms.fromOntologyText(List.of("<p>key=Value1,value2</p><p>other</p>"));
+    assertEquals(3, terms.size());
+    assertEquals(List.of("key=Value1", "key=value2", "other"), terms.getMatchingTags(""));
+    assertEquals(List.of("key=Value1"), terms.getMatchingTags("value1"));
+  }
+
+  @Test
+  void externalOntologyTermsGetNameAndVersion() {
+    String text =
+        "__RSP_EXTONT_NAME__onto__RSP_EXTONT_TAG_DELIM____RSP_EXTONT_VERSION__2"
+            + "__RSP_EXTONT_TAG_DELIM__Beta__RSP_EXTONT_URL_DELIM__http://b"
+            + "__RSP_EXTONT_TAG_DELIM__alpha__RSP_EXTONT_URL_DELIM__http://a";
+    OntologyTerms terms = OntologyTerms.fromOntologyText(List.of(text));
+    List<String> matching = terms.getMatchingTags("a");
+    assertEquals(
+        List.of(
+            "Beta__RSP_EXTONT_URL_DELIM__http://b__RSP_EXTONT_NAME_DELIM__onto"
+                + "__RSP_EXTONT_VERSION_DELIM__2",
+            "alpha__RSP_EXTONT_URL_DELIM__http://a__RSP_EXTONT_NAME_DELIM__onto"
+                + "__RSP_EXTONT_VERSION_DELIM__2"),
+        matching);
+    // the url is not matched
+    assertTrue(terms.getMatchingTags("http").isEmpty());
+  }
+
+  @Test
+  void smallResultIsMergedWithoutDuplicates() {
+    Set<String> page =
+        OntologyTermIndex.mergePage(List.of(List.of("a", "c"), List.of("b", "c"), List.of()), 0);
+    assertEquals(Set.of("a", "b", "c", SMALL_DATASET_IN_SINGLE_BLOCK), page);
+  }
+
+  @Test
+  void pagesAreTakenFromMergedOrder() {
+    List<String> all = tags("t", ONTOLOGY_RESULTS_PAGE_SIZE * 2 + 66);
+    List<String> evens = new ArrayList<>();
+    List<String> odds = new ArrayList<>();
+    for (int i = 0; i < all.size(); i++) {
+      (i % 2 == 0 ? evens : odds).add(all.get(i));
+    }
+    List<List<String>> sources = List.of(evens, odds, all);
+
+    TreeSet<String> second = OntologyTermIndex.mergePage(sources, 1);
+    assertEquals(ONTOLOGY_RESULTS_PAGE_SIZE, second.size());
+    assertEquals(all.get(ONTOLOGY_RESULTS_PAGE_SIZE), second.first());
+
+    TreeSet<String> last = OntologyTermIndex.mergePage(sources, 2);
+    assertEquals(67, last.size());
+    assertTrue(last.contains(FINAL_DATA));
+    // pages past the end return the last page
+    assertEquals(last, OntologyTermIndex.mergePage(sources, 5));
+  }
+
+  @Test
+  void fullLastPageIsNotRepeated() {
+    List<String> all = tags("t", ONTOLOGY_RESULTS_PAGE_SIZE * 2);
+    assertEquals(Set.of(FINAL_DATA), OntologyTermIndex.mergePage(List.of(all), 2));
+  }
+
+  @Test
+  void tooManyResults() {
+    List<String> all = tags("t", MAX_ONTOLOGY_RESULTS_SIZE + 1);
+    assertEquals(Set.of(TOO_MANY_ONTOLOGY_RESULTS), OntologyTermIndex.mergePage(List.of(all), 0));
+  }
+}
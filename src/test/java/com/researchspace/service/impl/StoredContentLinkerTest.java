@@ -0,0 +1,64 @@
+package com.researchspace.service.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StoredContentLinkerTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  public void digestIsSha256OfFileContents() throws IOException {
+    File file = write("a.txt", "abc");
+    assertEquals(
+        "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+        StoredContentLinker.digest(file));
+  }
+
+  @Test
+  public void linkedFilesShareContentsUntilLastIsDeleted() throws IOException {
+    File existing = write("existing.txt", "same contents");
+    File target = write("target.txt", "same contents");
+
+    assertTrue(StoredContentLinker.replaceWithLink(target, existing));
+    assertTrue(Files.isSameFile(target.toPath(), existing.toPath()));
+    assertFalse(new File(target.getPath() + ".link").exists());
+    // linking again is a no-op
+    assertTrue(StoredContentLinker.replaceWithLink(target, existing));
+
+    Files.delete(existing.toPath());
+    assertEquals("same contents", Files.readString(target.toPath(), UTF_8));
+  }
+
+  @Test
+  public void targetUnchangedIfExistingFileMissing() throws IOException {
+    File target = write("target.txt", "contents");
+    assertFalse(StoredContentLinker.replaceWithLink(target, tempDir.resolve("gone").toFile()));
+    assertEquals("contents", Files.readString(target.toPath(), UTF_8));
+  }
+
+  @Test
+  public void replacingLinkedFileLeavesOtherLinksUnchanged() throws IOException {
+    File existing = write("existing.txt", "same contents");
+    File target = write("target.txt", "same contents");
+    assertTrue(StoredContentLinker.replaceWithLink(target, existing));
+
+    StoredContentLinker.replaceWithCopy(target, write("new.txt", "new contents"));
+    assertEquals("new contents", Files.readString(target.toPath(), UTF_8));
+    assertEquals("same contents", Files.readString(existing.toPath(), UTF_8));
+    assertFalse(new File(target.getPath() + ".replace").exists());
+  }
+
+  private File write(String name, String contents) throws IOException {
+    return Files.writeString(tempDir.resolve(name), contents, UTF_8).toFile();
+  }
+}
@@ -0,0 +1,53 @@
+package com.researchspace.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+public class SubsampledImageReaderTest {
+
+  @Test
+  public void subsamplingKeepsDecodedImageLargerThanThumbnail() {
+    assertEquals(5, SubsampledImageReader.getSubsamplingFactor(4000, 3000, 300, 200));
+    // rotated thumbnail of same image needs the same resolution
+    assertEquals(5, SubsampledImageReader.getSubsamplingFactor(4000, 3000, 200, 300));
+    // never upsamples
+    assertEquals(1, SubsampledImageReader.getSubsamplingFactor(100, 100, 300, 200));
+  }
+
+  @Test
+  public void unknownThumbnailSizeReadsFullImage() {
+    assertEquals(1, SubsampledImageReader.getSubsamplingFactor(4000, 3000, null, 200));
+    assertEquals(1, SubsampledImageReader.getSubsamplingFactor(4000, 3000, 300, 0));
+  }
+
+  @Test
+  public void readsSubsampledImage() throws IOException {
+    Optional<BufferedImage> image =
+        SubsampledImageReader.read(new ByteArrayInputStream(png(1000, 800)), 100, 50);
+    assertTrue(image.isPresent());
+    assertEquals(250, image.get().getWidth());
+    assertEquals(200, image.get().getHeight());
+  }
+
+  @Test
+  public void unreadableDataReturnsEmpty() throws IOException {
+    assertFalse(
+        SubsampledImageReader.read(new ByteArrayInputStream("not an image".getBytes()), 100, 50)
+            .isPresent());
+  }
+
+  private byte[] png(int width, int height) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", baos);
+    return baos.toByteArray();
+  }
+}
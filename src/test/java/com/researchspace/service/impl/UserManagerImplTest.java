@@ -5,9 +5,11 @@ import static com.researchspace.core.util.TransformerUtils.toSet;
 import static com.researchspace.model.Role.SYSTEM_ROLE;
 import static com.researchspace.testutils.TestFactory.createACommunity;
 import static com.researchspace.testutils.TestFactory.createAnyUser;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,8 +38,11 @@ import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.junit.MockitoRule;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @RunWith(MockitoJUnitRunner.class)
 public class UserManagerImplTest extends BaseManagerMockTestCase {
@@ -189,6 +194,39 @@ public class UserManagerImplTest extends BaseManagerMockTestCase {
     assertFalse(userManager.isUserInAdminsCommunity(admin, any.getUsername()));
   }
 
+  @Test
+  public void permissionsVersionsAreCached() {
+    ReflectionTestUtils.setField(userManager, "cacheManager", new ConcurrentMapCacheManager());
+    when(userDao.getPermissionsVersion("any")).thenReturn(1L, 2L);
+    assertEquals(1L, userManager.getPermissionsVersion("any"));
+    assertEquals(1L, userManager.getPermissionsVersion("any"));
+    verify(userDao, times(1)).getPermissionsVersion("any");
+  }
+
+  @Test
+  public void changedPermissionsVersionsAreReadUntilTransactionCompletes() {
+    ReflectionTestUtils.setField(userManager, "cacheManager", new ConcurrentMapCacheManager());
+    User any = createAnyUser("any");
+    any.setId(1L);
+    when(userDao.getPermissionsVersion("any")).thenReturn(1L, 2L, 2L, 2L, 3L);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      assertEquals(1L, userManager.getPermissionsVersion("any"));
+      userManager.notifyPermissionsChanged(List.of(any));
+      verify(userDao).incrementPermissionsVersion(List.of(1L));
+      assertEquals(2L, userManager.getPermissionsVersion("any"));
+      assertEquals(2L, userManager.getPermissionsVersion("any"));
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(2L, userManager.getPermissionsVersion("any"));
+    assertEquals(2L, userManager.getPermissionsVersion("any"));
+    verify(userDao, times(4)).getPermissionsVersion("any");
+  }
+
   private User createAdminUser() {
     User admin = createAnyUser("any");
     admin.setRoles(toSet(Role.ADMIN_ROLE));
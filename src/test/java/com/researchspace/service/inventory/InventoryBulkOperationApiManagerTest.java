@@ -12,10 +12,12 @@ import com.researchspace.api.v1.model.ApiContainerInfo;
 import com.researchspace.api.v1.model.ApiContainerLocationWithContent;
 import com.researchspace.api.v1.model.ApiInventoryBulkOperationPost.BulkApiOperationType;
 import com.researchspace.api.v1.model.ApiInventoryBulkOperationResult;
+import com.researchspace.api.v1.model.ApiInventoryBulkOperationResult.ApiInventoryBulkOperationRecordResult;
 import com.researchspace.api.v1.model.ApiInventoryRecordInfo;
 import com.researchspace.api.v1.model.ApiQuantityInfo;
 import com.researchspace.api.v1.model.ApiSampleWithFullSubSamples;
 import com.researchspace.api.v1.model.ApiSubSample;
+import com.researchspace.dao.InventoryBulkDao;
 import com.researchspace.model.User;
 import com.researchspace.model.events.InventoryAccessEvent;
 import com.researchspace.model.events.InventoryCreationEvent;
@@ -184,6 +186,53 @@ public class InventoryBulkOperationApiManagerTest extends SpringTransactionalTes
         bulkResults.getResults().get(2).getError().getErrors().get(0));
   }
 
+  @Test
+  public void bulkOperationsWithRollbackAcrossChunks() {
+    // created before the operations, so loaded before the session is first cleared
+    ApiContainer listContainer = createBasicContainerForUser(testUser);
+    int count = InventoryBulkDao.BULK_CHUNK_SIZE + 5;
+
+    List<ApiInventoryRecordInfo> newSamples = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ApiSubSample subSample = new ApiSubSample("chunkSubSample" + i);
+      subSample.setQuantity(new ApiQuantityInfo(BigDecimal.ONE, RSUnitDef.GRAM));
+      ApiSampleWithFullSubSamples newSample = new ApiSampleWithFullSubSamples("chunkSample" + i);
+      newSample.setSubSamples(List.of(subSample));
+      newSamples.add(newSample);
+    }
+    InventoryBulkOperationConfig createConfig =
+        new InventoryBulkOperationConfig(BulkApiOperationType.CREATE, newSamples, true, testUser);
+    ApiInventoryBulkOperationResult created = inventoryBulkOpApiMgr.runBulkOperation(createConfig);
+    assertEquals(count, created.getSuccessCount());
+
+    // move the subsamples, in chunks, into the container
+    List<ApiInventoryRecordInfo> moves = new ArrayList<>();
+    for (ApiInventoryBulkOperationRecordResult recordResult : created.getResults()) {
+      ApiSampleWithFullSubSamples sample = (ApiSampleWithFullSubSamples) recordResult.getRecord();
+      ApiSubSample move = new ApiSubSample();
+      move.setId(sample.getSubSamples().get(0).getId());
+      move.setParentContainer(listContainer);
+      moves.add(move);
+    }
+    InventoryBulkOperationConfig moveConfig =
+        new InventoryBulkOperationConfig(BulkApiOperationType.MOVE, moves, true, testUser);
+    ApiInventoryBulkOperationResult moved = inventoryBulkOpApiMgr.runBulkOperation(moveConfig);
+    assertEquals(count, moved.getSuccessCount());
+    assertEquals(0, moved.getErrorCount());
+
+    // the user, loaded before the session was cleared, is still usable for permission checks
+    ApiContainer reloaded = containerApiMgr.getApiContainerById(listContainer.getId(), testUser);
+    assertEquals(count, reloaded.getContentSummary().getTotalCount());
+    ApiSampleWithFullSubSamples lastSample =
+        (ApiSampleWithFullSubSamples) created.getResults().get(count - 1).getRecord();
+    assertEquals(
+        listContainer.getId(),
+        subSampleApiMgr
+            .getApiSubSampleById(lastSample.getSubSamples().get(0).getId(), testUser)
+            .getParentContainer()
+            .getId());
+  }
+
   @Test
   public void bulkItemMoveAndSwap() {
     ApiSampleWithFullSubSamples sample1 = createBasicSampleForUser(testUser);
@@ -0,0 +1,119 @@
+package com.researchspace.service.inventory.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.researchspace.api.v1.controller.InventoryBulkOperationsApiController.InventoryBulkOperationConfig;
+import com.researchspace.api.v1.model.ApiInventoryBulkOperationPost.BulkApiOperationType;
+import com.researchspace.api.v1.model.ApiInventoryBulkOperationResult;
+import com.researchspace.api.v1.model.ApiInventoryRecordInfo;
+import com.researchspace.api.v1.model.ApiInventoryRecordInfo.ApiInventoryRecordType;
+import com.researchspace.dao.InventoryBulkDao;
+import com.researchspace.model.User;
+import com.researchspace.model.inventory.Sample;
+import com.researchspace.model.inventory.SubSample;
+import com.researchspace.service.JsonMessageSource;
+import com.researchspace.service.MessageSourceUtils;
+import com.researchspace.service.inventory.impl.InventoryBulkOperationHandler.InventoryBulkOperationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class InventoryBulkOperationHandlerChunkTest {
+
+  private final InventoryBulkDao bulkDao = mock(InventoryBulkDao.class);
+  private final User user = new User("u");
+  private final BiFunction<ApiInventoryRecordInfo, User, ApiInventoryRecordInfo> echo =
+      (rec, u) -> rec;
+
+  private InventoryBulkOperationHandler handler;
+
+  @BeforeEach
+  void setUp() {
+    handler = new InventoryBulkOperationHandler();
+    ReflectionTestUtils.setField(handler, "inventoryBulkDao", bulkDao);
+    ReflectionTestUtils.setField(
+        handler, "messages", new MessageSourceUtils(new JsonMessageSource()));
+    // as when called through InventoryBulkOperationApiManager
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+  }
+
+  private List<ApiInventoryRecordInfo> records(int count, ApiInventoryRecordType type) {
+    List<ApiInventoryRecordInfo> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ApiInventoryRecordInfo record = mock(ApiInventoryRecordInfo.class);
+      when(record.getId()).thenReturn((long) i);
+      when(record.getType()).thenReturn(type);
+      records.add(record);
+    }
+    return records;
+  }
+
+  private ApiInventoryBulkOperationResult run(
+      BulkApiOperationType operationType, List<ApiInventoryRecordInfo> records) {
+    InventoryBulkOperationConfig config =
+        new InventoryBulkOperationConfig(operationType, records, true, user);
+    return ReflectionTestUtils.invokeMethod(
+        handler, "runOperationForEachRecordFromBulkList", config, echo);
+  }
+
+  @Test
+  void recordsAreLoadedAndFlushedInChunks() {
+    int count = InventoryBulkDao.BULK_CHUNK_SIZE * 2 + 10;
+    ApiInventoryBulkOperationResult result =
+        run(BulkApiOperationType.UPDATE, records(count, ApiInventoryRecordType.SAMPLE));
+
+    assertEquals(count, result.getSuccessCount());
+    verify(bulkDao).enableJdbcBatching();
+    verify(bulkDao, times(3)).loadIntoSession(eq(Sample.class), anyCollection());
+    verify(bulkDao, never()).loadIntoSession(eq(SubSample.class), anyCollection());
+    // not after the last chunk, that is written on commit
+    verify(bulkDao, times(2)).flushAndClear(user);
+  }
+
+  @Test
+  void createdRecordsAreNotLoaded() {
+    run(BulkApiOperationType.CREATE, records(5, ApiInventoryRecordType.SAMPLE));
+    verify(bulkDao, never()).loadIntoSession(any(), anyCollection());
+    verify(bulkDao, never()).flushAndClear(user);
+  }
+
+  @Test
+  void flushErrorStopsOperation() {
+    doThrow(new IllegalStateException("constraint violated")).when(bulkDao).flushAndClear(user);
+    List<ApiInventoryRecordInfo> records =
+        records(InventoryBulkDao.BULK_CHUNK_SIZE + 1, ApiInventoryRecordType.SUBSAMPLE);
+
+    InventoryBulkOperationException e =
+        assertThrows(
+            InventoryBulkOperationException.class,
+            () -> run(BulkApiOperationType.UPDATE, records));
+    // reported against each record of the chunk, not the next record
+    ApiInventoryBulkOperationResult partialResult = e.getPartialResult();
+    assertEquals(InventoryBulkDao.BULK_CHUNK_SIZE, partialResult.getResults().size());
+    assertEquals(InventoryBulkDao.BULK_CHUNK_SIZE, partialResult.getErrorCount());
+    assertEquals(0, partialResult.getSuccessCount());
+    assertEquals(
+        "Saving records 1 to 100 failed: constraint violated",
+        partialResult.getResults().get(0).getError().getErrors().get(0));
+  }
+}
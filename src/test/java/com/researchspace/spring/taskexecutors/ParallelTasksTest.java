@@ -0,0 +1,107 @@
+package com.researchspace.spring.taskexecutors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+public class ParallelTasksTest {
+
+  private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  private List<Runnable> createTasks(int count, Runnable task) {
+    List<Runnable> tasks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      tasks.add(task);
+    }
+    return tasks;
+  }
+
+  @Test
+  void tasksRunOnExecutorAndCallingThread() throws InterruptedException {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    AtomicInteger completed = new AtomicInteger();
+    List<Runnable> tasks =
+        createTasks(
+            20,
+            () -> {
+              threads.add(Thread.currentThread());
+              try {
+                Thread.sleep(10);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              completed.incrementAndGet();
+            });
+
+    assertNull(ParallelTasks.runAll(new TaskExecutorAdapter(pool), 3, tasks, true));
+    assertEquals(20, completed.get());
+    assertTrue(threads.size() > 1, "expected tasks on several threads");
+    assertTrue(threads.size() <= 3, "thread limit exceeded: " + threads.size());
+  }
+
+  @Test
+  void tasksRunInCallingThreadIfExecutorRejectsWorkers() throws InterruptedException {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    List<Runnable> tasks = createTasks(5, () -> threads.add(Thread.currentThread()));
+
+    Throwable failure =
+        ParallelTasks.runAll(
+            task -> {
+              throw new TaskRejectedException("full");
+            },
+            3,
+            tasks,
+            true);
+    assertNull(failure);
+    assertEquals(Set.of(Thread.currentThread()), threads);
+  }
+
+  @Test
+  void errorInWorkerThreadIsReturned() throws InterruptedException {
+    AtomicInteger completed = new AtomicInteger();
+    List<Runnable> tasks = createTasks(4, completed::incrementAndGet);
+    StackOverflowError error = new StackOverflowError();
+    tasks.add(
+        0,
+        () -> {
+          throw error;
+        });
+
+    Throwable failure = ParallelTasks.runAll(new TaskExecutorAdapter(pool), 3, tasks, false);
+    assertSame(error, failure);
+    assertEquals(4, completed.get());
+  }
+
+  @Test
+  void remainingTasksAreSkippedAfterFailure() throws InterruptedException {
+    AtomicInteger completed = new AtomicInteger();
+    List<Runnable> tasks = createTasks(4, completed::incrementAndGet);
+    IllegalStateException exception = new IllegalStateException("invalid");
+    tasks.add(
+        0,
+        () -> {
+          throw exception;
+        });
+
+    assertSame(exception, ParallelTasks.runAll(null, 3, tasks, true));
+    assertEquals(0, completed.get());
+  }
+}
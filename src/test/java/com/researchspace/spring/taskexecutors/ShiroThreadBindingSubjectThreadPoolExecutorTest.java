@@ -0,0 +1,85 @@
+package com.researchspace.spring.taskexecutors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+class ShiroThreadBindingSubjectThreadPoolExecutorTest {
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private ShiroThreadBindingSubjectThreadPoolExecutor executor;
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.shutdown();
+  }
+
+  private ShiroThreadBindingSubjectThreadPoolExecutor createFullExecutor(RejectionPolicy policy) {
+    executor = ShiroThreadBindingSubjectThreadPoolExecutor.createNewExecutor(1, 1, 1, policy);
+    executor.setBeanName("testPool");
+    executor.setMeterRegistry(registry);
+    executor.initialize();
+    // one running, one queued
+    executor.execute(this::awaitRelease);
+    executor.execute(this::awaitRelease);
+    return executor;
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void abortPolicyRejectsAndCounts() {
+    createFullExecutor(RejectionPolicy.ABORT);
+    assertThrows(TaskRejectedException.class, () -> executor.execute(() -> {}));
+    assertEquals(1, registry.counter("executor.rejected", "name", "testPool").count());
+    assertEquals(1, registry.get("executor.queued").tag("name", "testPool").gauge().value());
+  }
+
+  @Test
+  void callerRunsPolicyRunsInCallingThread() {
+    createFullExecutor(RejectionPolicy.CALLER_RUNS);
+    AtomicReference<Thread> ranIn = new AtomicReference<>();
+    executor.execute(() -> ranIn.set(Thread.currentThread()));
+    assertEquals(Thread.currentThread(), ranIn.get());
+    assertEquals(1, registry.counter("executor.rejected", "name", "testPool").count());
+  }
+
+  @Test
+  void discardPolicySkipsTask() {
+    createFullExecutor(RejectionPolicy.DISCARD);
+    AtomicReference<Thread> ranIn = new AtomicReference<>();
+    executor.execute(() -> ranIn.set(Thread.currentThread()));
+    assertNull(ranIn.get());
+    assertEquals(1, registry.counter("executor.rejected", "name", "testPool").count());
+  }
+
+  @Test
+  void recordsTaskTimes() throws InterruptedException {
+    createFullExecutor(RejectionPolicy.ABORT);
+    release.countDown();
+    executor.setAwaitTerminationSeconds(10);
+    executor.shutdown();
+    assertTrue(executor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(2, registry.timer("executor", "name", "testPool").count());
+    assertEquals(2, registry.timer("executor.idle", "name", "testPool").count());
+    assertTrue(executor.getThreadNamePrefix().startsWith("testPool"));
+  }
+}
@@ -62,6 +62,9 @@ public class DatabaseCleaner {
     jdbcTemplate.update("delete from NfsFileStore");
     jdbcTemplate.update("delete from NfsFileSystem");
     jdbcTemplate.update("delete from UserKeyPair");
+    jdbcTemplate.update("delete from UserPermissionsVersion");
+    jdbcTemplate.update("delete from AuditEvent");
+    jdbcTemplate.update("delete from AuditEventGap");
     jdbcTemplate.update("delete from UserConnection");
     jdbcTemplate.update("delete from IconEntity");
     jdbcTemplate.update("delete from AppConfigElement");
@@ -71,7 +74,9 @@ public class DatabaseCleaner {
     jdbcTemplate.update("delete from ShareRecordMessageOrRequest");
     jdbcTemplate.update("delete from CommunicationTarget");
     jdbcTemplate.update("delete from MessageOrRequest");
+    jdbcTemplate.update("delete from NotificationOutbox");
     jdbcTemplate.update("delete from Notification");
+    jdbcTemplate.update("delete from FolderAncestry");
     jdbcTemplate.update("delete from RecordToFolder");
     jdbcTemplate.update("delete from InternalLink");
     jdbcTemplate.update("delete from OAuthToken");
@@ -154,6 +159,8 @@ public class DatabaseCleaner {
       jdbcTemplate.update("delete from " + tablename);
     }
 
+    jdbcTemplate.update("delete from FileContentsDigest");
+    jdbcTemplate.update("delete from FileUsage");
     jdbcTemplate.update("delete from FileProperty");
     jdbcTemplate.update("delete from ImageBlob");
 
@@ -45,6 +45,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 public class FileDownloadControllerTest {
@@ -70,6 +71,7 @@ public class FileDownloadControllerTest {
   private FileStoreRoot root;
 
   @InjectMocks private FileDownloadControllerTSS ctrller = new FileDownloadControllerTSS();
+  private MockHttpServletRequest req;
   private MockHttpServletResponse resp;
 
   class FileDownloadControllerTSS extends FileDownloadController {
@@ -95,6 +97,7 @@ public class FileDownloadControllerTest {
   @Before
   public void setUp() throws Exception {
     user = TestFactory.createAnyUser("any");
+    req = new MockHttpServletRequest();
     resp = new MockHttpServletResponse();
     root = new FileStoreRoot(tempFolder.getRoot().toURI().toString());
 
@@ -113,7 +116,7 @@ public class FileDownloadControllerTest {
 
     mockInputStreamFromFileStore(toStream);
     mockGetUserFromSession();
-    ctrller.getStreamFileNoName(ANYID, null, null, resp);
+    ctrller.getStreamFileNoName(ANYID, null, null, req, resp);
     verify(fileStore).retrieve(Mockito.any(FileProperty.class));
     verifyAuditServiceCalled();
   }
@@ -150,7 +153,7 @@ public class FileDownloadControllerTest {
     final FileInputStream fis = new FileInputStream(toStream);
     when(fileStore.retrieve(Mockito.notNull(FileProperty.class))).thenReturn(Optional.of(fis));
     mockGetUserFromSession();
-    ctrller.getStreamFileNoName(ANYID, null, null, resp);
+    ctrller.getStreamFileNoName(ANYID, null, null, req, resp);
     verify(fileStore).retrieve(Mockito.notNull(FileProperty.class));
     verifyAuditServiceCalled();
   }
@@ -325,7 +328,7 @@ public class FileDownloadControllerTest {
     final long filePropertyId = 2L;
     when(recordSigner.getSignedExport(SignatureId, user, filePropertyId))
         .thenReturn(Optional.of(fp));
-    ctrller.streamFilePropertyDirect(SignatureId, filePropertyId, resp);
+    ctrller.streamFilePropertyDirect(SignatureId, filePropertyId, req, resp);
     resp.getOutputStream().flush();
     assertTrue(resp.getContentAsByteArray().length > EXPECTED_FILE_SIZE);
   }
@@ -338,7 +341,7 @@ public class FileDownloadControllerTest {
     final long filePropertyId = 2L;
     when(recordSigner.getSignedExport(SignatureId, user, filePropertyId))
         .thenReturn(nullOptional());
-    ctrller.streamFilePropertyDirect(SignatureId, filePropertyId, resp);
+    ctrller.streamFilePropertyDirect(SignatureId, filePropertyId, req, resp);
     // file store retreive not called if there is no FileProperty
     verify(fileStore, never()).retrieve(Mockito.any(FileProperty.class));
     assertEquals(0, resp.getContentAsByteArray().length);
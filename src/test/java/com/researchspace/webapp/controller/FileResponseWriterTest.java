@@ -0,0 +1,155 @@
+package com.researchspace.webapp.controller;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.researchspace.model.FileProperty;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FileResponseWriterTest {
+
+  private static final String CONTENTS = "0123456789abcdefghij";
+  private static final String ETAG = "\"abc123\"";
+
+  @TempDir Path tempDir;
+
+  private Path file;
+  private FileProperty fileProperty;
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    file = Files.writeString(tempDir.resolve("file.txt"), CONTENTS, UTF_8);
+    fileProperty = new FileProperty();
+    fileProperty.setContentsHash("abc123");
+    fileProperty.setUpdateDate(new Date(1_700_000_000_000L));
+    request = new MockHttpServletRequest("GET", "/Streamfile/1");
+    response = new MockHttpServletResponse();
+    response.setContentType("text/plain");
+  }
+
+  @Test
+  void writesWholeFileWithValidators() throws IOException {
+    write();
+    assertEquals(200, response.getStatus());
+    assertEquals(CONTENTS, response.getContentAsString());
+    assertEquals(CONTENTS.length(), response.getContentLength());
+    assertEquals(ETAG, response.getHeader("ETag"));
+    assertEquals("bytes", response.getHeader("Accept-Ranges"));
+    assertEquals(1_700_000_000_000L, response.getDateHeader("Last-Modified"));
+  }
+
+  @Test
+  void eTagWithoutContentsHashChangesWithSize() {
+    fileProperty.setContentsHash(null);
+    fileProperty.setId(5L);
+    assertEquals("\"5-20-1700000000000\"", FileResponseWriter.getETag(fileProperty, 20));
+    assertNotEquals(
+        FileResponseWriter.getETag(fileProperty, 20), FileResponseWriter.getETag(fileProperty, 21));
+  }
+
+  @Test
+  void matchingIfNoneMatchIsNotModified() throws IOException {
+    request.addHeader("If-None-Match", ETAG);
+    write();
+    assertEquals(304, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void staleIfNoneMatchGetsWholeFile() throws IOException {
+    request.addHeader("If-None-Match", "\"other\"");
+    write();
+    assertEquals(200, response.getStatus());
+    assertEquals(CONTENTS, response.getContentAsString());
+  }
+
+  @Test
+  void singleRange() throws IOException {
+    request.addHeader("Range", "bytes=5-9");
+    write();
+    assertEquals(206, response.getStatus());
+    assertEquals("56789", response.getContentAsString());
+    assertEquals("bytes 5-9/20", response.getHeader("Content-Range"));
+    assertEquals(5, response.getContentLength());
+  }
+
+  @Test
+  void suffixAndOpenEndedRanges() throws IOException {
+    request.addHeader("Range", "bytes=-3");
+    write();
+    assertEquals("hij", response.getContentAsString());
+
+    setUpRequest("bytes=18-");
+    write();
+    assertEquals("ij", response.getContentAsString());
+    assertEquals("bytes 18-19/20", response.getHeader("Content-Range"));
+  }
+
+  @Test
+  void multipleRanges() throws IOException {
+    request.addHeader("Range", "bytes=0-1,10-11");
+    write();
+    assertEquals(206, response.getStatus());
+    String contentType = response.getContentType();
+    assertTrue(contentType.startsWith("multipart/byteranges; boundary="));
+    String boundary = contentType.substring(contentType.indexOf('=') + 1);
+    String expected =
+        "\r\n--"
+            + boundary
+            + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 0-1/20\r\n\r\n01"
+            + "\r\n--"
+            + boundary
+            + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 10-11/20\r\n\r\nab"
+            + "\r\n--"
+            + boundary
+            + "--\r\n";
+    assertEquals(expected, response.getContentAsString());
+  }
+
+  @Test
+  void unsatisfiableRange() throws IOException {
+    request.addHeader("Range", "bytes=50-60");
+    write();
+    assertEquals(416, response.getStatus());
+    assertEquals("bytes */20", response.getHeader("Content-Range"));
+  }
+
+  @Test
+  void rangeIgnoredIfContentChangedSinceIfRange() throws IOException {
+    request.addHeader("Range", "bytes=0-1");
+    request.addHeader("If-Range", "\"old\"");
+    write();
+    assertEquals(200, response.getStatus());
+    assertEquals(CONTENTS, response.getContentAsString());
+
+    setUpRequest("bytes=0-1");
+    request.addHeader("If-Range", ETAG);
+    write();
+    assertEquals(206, response.getStatus());
+    assertEquals("01", response.getContentAsString());
+  }
+
+  private void setUpRequest(String range) {
+    request = new MockHttpServletRequest("GET", "/Streamfile/1");
+    request.addHeader("Range", range);
+    response = new MockHttpServletResponse();
+  }
+
+  private void write() throws IOException {
+    FileResponseWriter.writeFileProperty(
+        request, response, fileProperty, new FileInputStream(file.toFile()));
+  }
+}
@@ -7,6 +7,7 @@ import com.researchspace.model.EcatMediaFile;
 import com.researchspace.model.EditStatus;
 import com.researchspace.model.PaginationCriteria;
 import com.researchspace.model.User;
+import com.researchspace.model.dtos.FolderListingCursor;
 import com.researchspace.model.dtos.GalleryFilterCriteria;
 import com.researchspace.model.dtos.WorkspaceFilters;
 import com.researchspace.model.field.ErrorList;
@@ -155,6 +156,15 @@ public class RecordManagerStub implements RecordManager {
     return listFolderRecords(parentId, filter, null);
   }
 
+  @Override
+  public ISearchResults<BaseRecord> listFolderRecords(
+      Long parentId,
+      PaginationCriteria<? extends BaseRecord> filter,
+      RecordTypeFilter recordTypefilter,
+      FolderListingCursor cursor) {
+    return listFolderRecords(parentId, filter, recordTypefilter);
+  }
+
   @Override
   public StructuredDocument createNewStructuredDocument(Long parentId, Long templateId, User user) {
     StructuredDocument sd = new StructuredDocument(TestFactory.createAnyForm());
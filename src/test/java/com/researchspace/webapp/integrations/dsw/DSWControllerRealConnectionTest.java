@@ -14,6 +14,7 @@ import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.researchspace.client.HttpClientFactory;
 import com.researchspace.model.EcatDocumentFile;
 import com.researchspace.model.PropertyDescriptor;
 import com.researchspace.model.User;
@@ -89,7 +90,13 @@ public class DSWControllerRealConnectionTest extends SpringTransactionalTest {
     mediaManager = Mockito.mock(MediaManager.class);
     dmpManager = Mockito.mock(DMPManager.class);
 
-    dswClient = new DSWClient(source, userManager, mediaManager, dmpManager);
+    dswClient =
+        new DSWClient(
+            new HttpClientFactory().createRestTemplate("dsw"),
+            source,
+            userManager,
+            mediaManager,
+            dmpManager);
     dswController = new DSWController(dswClient, userManager, userAppConfigMgr);
 
     ReflectionTestUtils.setField(